@@ -0,0 +1,147 @@
+// =============================================================================
+// TICKETERO - K6 Broadcast Test (STOMP /ws, tablero de sucursal)
+// =============================================================================
+// Abre SUBSCRIBERS conexiones STOMP suscritas a /topic/branches/{BRANCH} y
+// crea tickets en esa sucursal. Mide la latencia de difusión: desde que el
+// servidor publica el delta (publishedAt) hasta que llega a cada suscriptor.
+//
+// Usage: k6 run -e SUBSCRIBERS=5000 -e DURATION=2m k6/board-broadcast-test.js
+// (correr k6 en la misma máquina que la API: publishedAt usa su reloj)
+// =============================================================================
+
+import http from 'k6/http';
+import ws from 'k6/ws';
+import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// Custom metrics
+const broadcastLatency = new Trend('broadcast_latency', true);
+const deltasReceived = new Counter('deltas_received');
+const subscribed = new Counter('stomp_subscribed');
+const ticketsCreated = new Counter('tickets_created');
+
+// Configuration
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const WS_URL = BASE_URL.replace(/^http/, 'ws') + '/ws';
+const BRANCH = __ENV.BRANCH || 'Sucursal Broadcast';
+const SUBSCRIBERS = parseInt(__ENV.SUBSCRIBERS || '5000');
+const RAMP = __ENV.RAMP || '60s';
+const DURATION = __ENV.DURATION || '2m';
+const RATE = parseInt(__ENV.RATE || '10');   // tickets/s → deltas/s (agrupados cada coalesce-ms)
+const QUEUES = ['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'];
+
+// Conexiones abiertas durante RAMP + DURATION; los tickets se crean solo en DURATION
+const seconds = (value) => parseInt(value) * (value.endsWith('m') ? 60 : 1);
+const HOLD_MS = (seconds(RAMP) + seconds(DURATION) + 10) * 1000;
+
+export const options = {
+    scenarios: {
+        subscribers: {
+            executor: 'ramping-vus',
+            exec: 'subscriber',
+            startVUs: 0,
+            stages: [
+                { duration: RAMP, target: SUBSCRIBERS },
+                { duration: DURATION, target: SUBSCRIBERS },
+            ],
+            gracefulRampDown: '10s',
+        },
+        producer: {
+            executor: 'constant-arrival-rate',
+            exec: 'producer',
+            startTime: RAMP,
+            duration: DURATION,
+            rate: RATE,
+            timeUnit: '1s',
+            preAllocatedVUs: 20,
+        },
+    },
+    summaryTrendStats: ['avg', 'min', 'med', 'max', 'p(95)', 'p(99)'],
+    thresholds: {
+        broadcast_latency: ['p(95)<500', 'p(99)<1000'],
+        stomp_subscribed: [`count>=${SUBSCRIBERS}`],
+    },
+};
+
+function frame(command, headers, body = '') {
+    const lines = Object.entries(headers).map(([key, value]) => `${key}:${value}`);
+    return `${command}\n${lines.join('\n')}\n\n${body}\0`;
+}
+
+// Suscriptor: una conexión STOMP por VU, abierta hasta el final de la prueba
+export function subscriber() {
+    const response = ws.connect(WS_URL, {}, function (socket) {
+        socket.on('open', () => {
+            socket.send(frame('CONNECT', { 'accept-version': '1.2', host: 'localhost', 'heart-beat': '0,0' }));
+        });
+
+        socket.on('message', (data) => {
+            const command = data.substring(0, data.indexOf('\n'));
+            if (command === 'CONNECTED') {
+                socket.send(frame('SUBSCRIBE', { id: 'board', destination: `/topic/branches/${BRANCH}` }));
+                subscribed.add(1);
+            } else if (command === 'MESSAGE') {
+                const body = data.substring(data.indexOf('\n\n') + 2, data.lastIndexOf('\0'));
+                const delta = JSON.parse(body);
+                broadcastLatency.add(Date.now() - delta.publishedAt);
+                deltasReceived.add(1);
+            } else if (command === 'ERROR') {
+                console.log(`STOMP error: ${data}`);
+            }
+        });
+
+        socket.setTimeout(() => socket.close(), HOLD_MS);
+    });
+
+    check(response, { 'ws status is 101': (r) => r && r.status === 101 });
+    sleep(HOLD_MS / 1000);
+}
+
+// Productor: crea tickets en la sucursal; cada uno cambia su profundidad de cola
+export function producer() {
+    const payload = JSON.stringify({
+        nationalId: Math.floor(10000000 + Math.random() * 90000000).toString(),
+        telefono: '+569' + Math.floor(10000000 + Math.random() * 90000000),
+        branchOffice: BRANCH,
+        queueType: QUEUES[Math.floor(Math.random() * QUEUES.length)],
+    });
+
+    const response = http.post(`${BASE_URL}/api/tickets`, payload, {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { name: 'CreateTicket' },
+    });
+
+    if (check(response, { 'status is 201': (r) => r.status === 201 })) {
+        ticketsCreated.add(1);
+    }
+}
+
+// Summary handler
+export function handleSummary(data) {
+    const latency = data.metrics.broadcast_latency;
+    const values = latency ? latency.values : {};
+    const fmt = (value) => (value === undefined ? '-' : `${value.toFixed(0)}ms`);
+
+    const summary = `
+═══════════════════════════════════════════════════════════════
+  TICKETERO - BOARD BROADCAST RESULTS
+═══════════════════════════════════════════════════════════════
+
+  Subscribers:       ${data.metrics.stomp_subscribed?.values.count || 0} / ${SUBSCRIBERS}
+  Tickets Created:   ${data.metrics.tickets_created?.values.count || 0}
+  Deltas Received:   ${data.metrics.deltas_received?.values.count || 0}
+
+  Broadcast latency (publish → subscriber):
+    p50:  ${fmt(values['med'])}
+    p95:  ${fmt(values['p(95)'])}
+    p99:  ${fmt(values['p(99)'])}
+    max:  ${fmt(values.max)}
+
+═══════════════════════════════════════════════════════════════
+`;
+
+    return {
+        'stdout': summary,
+        'results/board-broadcast-summary.json': JSON.stringify(data, null, 2),
+    };
+}
@@ -2,12 +2,35 @@
 # =============================================================================
 # TICKETERO - Outbox Concurrency Test
 # =============================================================================
-# Valida que el patrón Outbox maneja carga alta sin duplicados
-# Usage: ./scripts/concurrency/outbox-concurrency-test.sh
+# Valida el dispatcher de mensajes (OutboxDispatcher):
+#   1. Escalamiento: drena MESSAGES mensajes vencidos con 1, 2, 4 y 8 workers
+#      (reinicia la API en cada corrida) y reporta msg/s, speedup y eficiencia.
+#   2. Multi-nodo: dos instancias con 4 workers cada una drenan la misma tabla.
+# En ambos casos cada mensaje debe enviarse exactamente una vez:
+#   suma de ticketero.outbox.sent == mensajes ENVIADO == MESSAGES.
+#
+# Requiere: docker compose up -d postgres y el jar construido
+#   mvn -B package -DskipTests
+# Usage:
+#   ./scripts/concurrency/outbox-concurrency-test.sh
+#   MESSAGES=5000 WORKER_COUNTS="1 2 4 8 16" ./scripts/concurrency/outbox-concurrency-test.sh
+#   PSQL="psql -h localhost -U dev -d ticketero" ./scripts/concurrency/outbox-concurrency-test.sh
 # =============================================================================
 
 set -e
 
+MESSAGES=${MESSAGES:-2000}
+WORKER_COUNTS=${WORKER_COUNTS:-"1 2 4 8"}
+MAX_WAIT=${MAX_WAIT:-120}
+# Eficiencia mínima (speedup / workers) esperada con el mayor número de workers
+MIN_EFFICIENCY=${MIN_EFFICIENCY:-0.6}
+PSQL=${PSQL:-"docker exec ticketero-db psql -U dev -d ticketero"}
+BRANCH="Outbox Concurrency"
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/../.." && pwd)"
+RESULTS_FILE="$PROJECT_ROOT/results/outbox-scaling.csv"
+
 RED='\033[0;31m'
 GREEN='\033[0;32m'
 YELLOW='\033[1;33m'
@@ -19,119 +42,172 @@ echo -e "${CYAN}║   TICKETERO - OUTBOX CONCURRENCY TEST (CONC-03)
 echo -e "${CYAN}╚══════════════════════════════════════════════════════════════╝${NC}"
 echo ""
 
-# Setup
-echo -e "${YELLOW}1. Limpiando estado...${NC}"
-if command -v docker &> /dev/null; then
-    docker exec ticketero-db psql -U dev -d ticketero -c "
-        DELETE FROM ticket_event;
-        DELETE FROM outbox_message;
-        DELETE FROM ticket;
-    " > /dev/null 2>&1 || echo "   ⚠ No se pudo limpiar BD"
+JAR=$(ls "$PROJECT_ROOT"/target/ticketero-*.jar 2>/dev/null | grep -v original | head -1)
+if [ -z "$JAR" ]; then
+    echo -e "${RED}Jar no encontrado: ejecutar mvn -B package -DskipTests${NC}"
+    exit 1
 fi
 
-# Crear 100 tickets simultáneos
-echo -e "${YELLOW}2. Creando 100 tickets simultáneamente...${NC}"
-START_TIME=$(date +%s)
-
-for i in $(seq 1 100); do
-    (
-        curl -s -X POST "http://localhost:8080/api/tickets" \
-            -H "Content-Type: application/json" \
-            -d "{
-                \"nationalId\": \"800$(printf '%05d' $i)\",
-                \"telefono\": \"+56912345678\",
-                \"branchOffice\": \"Sucursal Test\",
-                \"queueType\": \"CAJA\"
-            }" > /dev/null 2>&1
-    ) &
-done
-
-wait
-CREATE_END=$(date +%s)
-CREATE_TIME=$((CREATE_END - START_TIME))
-echo "   ✓ 100 tickets creados en ${CREATE_TIME}s"
+mkdir -p "$PROJECT_ROOT/results"
+echo "workers,nodes,messages,seconds,messages_per_second,speedup,efficiency,duplicates" > "$RESULTS_FILE"
+
+# $1 = expresión, $2 = decimales
+calc() {
+    awk "BEGIN {printf \"%.$2f\", ($1)}"
+}
+
+sql() {
+    $PSQL -t -A -c "$1" | xargs
+}
+
+# Deja MESSAGES mensajes vencidos de la sucursal de prueba
+seed_messages() {
+    sql "DELETE FROM mensaje WHERE ticket_id IN (SELECT id FROM ticket WHERE branch_office = '$BRANCH');
+         DELETE FROM ticket WHERE branch_office = '$BRANCH';" > /dev/null
+    # Ticket ya atendido: el procesador de colas no lo toca ni programa mensajes nuevos
+    sql "INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                             status, position_in_queue, estimated_wait_minutes)
+         VALUES (gen_random_uuid(), 'O01', '80000001', '+56912345678', '$BRANCH', 'CAJA', 'COMPLETADO', 0, 0);" > /dev/null
+    sql "INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, intentos)
+         SELECT t.id, 'TOTEM_TICKET_CREADO', 'PENDIENTE', CURRENT_TIMESTAMP - INTERVAL '1 minute', 0
+         FROM ticket t, generate_series(1, $MESSAGES)
+         WHERE t.branch_office = '$BRANCH';" > /dev/null
+}
+
+count_status() {
+    sql "SELECT COUNT(*) FROM mensaje m JOIN ticket t ON t.id = m.ticket_id
+         WHERE t.branch_office = '$BRANCH' AND m.estado_envio = '$1';"
+}
+
+# $1 = puerto
+sent_metric() {
+    curl -s "http://localhost:$1/actuator/metrics/ticketero.outbox.sent" \
+        | tr '{' '\n' | grep '"statistic":"COUNT"' | sed -E 's/.*"value":([0-9.eE+-]+).*/\1/' \
+        | awk '{printf "%d", $1}'
+}
+
+# $1 = workers, $2 = puerto; deja el pid en APP_PID
+start_app() {
+    OUTBOX_WORKERS="$1" TELEGRAM_BOT_TOKEN="${TELEGRAM_BOT_TOKEN:-outbox-test}" \
+        java -jar "$JAR" --server.port="$2" > "$PROJECT_ROOT/results/app-outbox-$1w-$2.log" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 60); do
+        if curl -s "http://localhost:$2/actuator/health" | grep -q '"UP"'; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo -e "${RED}La API no levantó en el puerto $2${NC}"
+    exit 1
+}
+
+stop_app() {
+    kill "$1" 2>/dev/null || true
+    wait "$1" 2>/dev/null || true
+}
+
+# Espera a que no queden pendientes y deja la duración en ELAPSED (segundos, decimal)
+wait_drained() {
+    local started=$1
+    local deadline=$(( $(date +%s) + MAX_WAIT ))
+    while [ "$(date +%s)" -lt "$deadline" ]; do
+        if [ "$(count_status PENDIENTE)" -eq 0 ]; then
+            break
+        fi
+        sleep 0.2
+    done
+    ELAPSED=$(awk -v a="$(date +%s.%N)" -v b="$started" 'BEGIN {printf "%.2f", a - b}')
+}
 
-# Verificar mensajes en Outbox
-OUTBOX_COUNT=0
-if command -v docker &> /dev/null; then
-    OUTBOX_COUNT=$(docker exec ticketero-db psql -U dev -d ticketero -t -c \
-        "SELECT COUNT(*) FROM outbox_message;" 2>/dev/null | xargs || echo "0")
-fi
-echo "   ✓ Mensajes en Outbox: $OUTBOX_COUNT"
-
-# Esperar que todos se publiquen
-echo -e "${YELLOW}3. Esperando publicación (max 30s)...${NC}"
-MAX_WAIT=30
-WAITED=0
-
-while [ $WAITED -lt $MAX_WAIT ]; do
-    PENDING=0
-    if command -v docker &> /dev/null; then
-        PENDING=$(docker exec ticketero-db psql -U dev -d ticketero -t -c \
-            "SELECT COUNT(*) FROM outbox_message WHERE status='PENDING';" 2>/dev/null | xargs || echo "0")
-    fi
-    
-    if [ "$PENDING" -eq 0 ]; then
-        PUBLISH_END=$(date +%s)
-        PUBLISH_TIME=$((PUBLISH_END - CREATE_END))
-        echo "   ✓ Todos publicados en ${PUBLISH_TIME}s"
-        break
+PASS=true
+BASELINE_RATE=""
+LAST_EFFICIENCY=""
+
+# -----------------------------------------------------------------------------
+# 1. Escalamiento por número de workers (un nodo)
+# -----------------------------------------------------------------------------
+echo -e "${YELLOW}1. Escalamiento con $MESSAGES mensajes por corrida...${NC}"
+
+for workers in $WORKER_COUNTS; do
+    start_app "$workers" 8080
+    sent_before=$(sent_metric 8080)
+    seed_messages
+    started=$(date +%s.%N)
+    wait_drained "$started"
+
+    sent_rows=$(count_status ENVIADO)
+    sent_calls=$(( $(sent_metric 8080) - ${sent_before:-0} ))
+    stop_app "$APP_PID"
+
+    duplicates=$(( sent_calls - sent_rows ))
+    rate=$(calc "$sent_rows / $ELAPSED" 1)
+    BASELINE_RATE=${BASELINE_RATE:-$rate}
+    speedup=$(calc "$rate / $BASELINE_RATE" 2)
+    LAST_EFFICIENCY=$(calc "$speedup / $workers" 2)
+
+    echo "$workers,1,$MESSAGES,$ELAPSED,$rate,$speedup,$LAST_EFFICIENCY,$duplicates" >> "$RESULTS_FILE"
+    echo "   workers=$workers  enviados=$sent_rows/$MESSAGES  ${rate} msg/s  speedup=${speedup}x  duplicados=$duplicates"
+
+    if [ "$sent_rows" -ne "$MESSAGES" ] || [ "$duplicates" -ne 0 ]; then
+        PASS=false
     fi
-    
-    echo -ne "\r   Pendientes: $PENDING    "
-    sleep 2
-    WAITED=$((WAITED + 2))
 done
 
-echo ""
-
-# Validar resultados
-echo -e "${YELLOW}4. Validando resultados...${NC}"
-
-SENT=0
-FAILED=0
-PENDING=0
-
-if command -v docker &> /dev/null; then
-    SENT=$(docker exec ticketero-db psql -U dev -d ticketero -t -c \
-        "SELECT COUNT(*) FROM outbox_message WHERE status='SENT';" 2>/dev/null | xargs || echo "0")
-    FAILED=$(docker exec ticketero-db psql -U dev -d ticketero -t -c \
-        "SELECT COUNT(*) FROM outbox_message WHERE status='FAILED';" 2>/dev/null | xargs || echo "0")
-    PENDING=$(docker exec ticketero-db psql -U dev -d ticketero -t -c \
-        "SELECT COUNT(*) FROM outbox_message WHERE status='PENDING';" 2>/dev/null | xargs || echo "0")
+# -----------------------------------------------------------------------------
+# 2. Dos nodos compartiendo la tabla mensaje
+# -----------------------------------------------------------------------------
+echo -e "${YELLOW}2. Dos nodos x 4 workers...${NC}"
+
+start_app 4 8080
+NODE_A=$APP_PID
+start_app 4 8081
+NODE_B=$APP_PID
+before_a=$(sent_metric 8080)
+before_b=$(sent_metric 8081)
+seed_messages
+started=$(date +%s.%N)
+wait_drained "$started"
+
+sent_rows=$(count_status ENVIADO)
+sent_a=$(( $(sent_metric 8080) - ${before_a:-0} ))
+sent_b=$(( $(sent_metric 8081) - ${before_b:-0} ))
+stop_app "$NODE_A"
+stop_app "$NODE_B"
+
+duplicates=$(( sent_a + sent_b - sent_rows ))
+rate=$(calc "$sent_rows / $ELAPSED" 1)
+echo "8,2,$MESSAGES,$ELAPSED,$rate,,,$duplicates" >> "$RESULTS_FILE"
+echo "   nodo A=$sent_a  nodo B=$sent_b  enviados=$sent_rows/$MESSAGES  ${rate} msg/s  duplicados=$duplicates"
+
+if [ "$sent_rows" -ne "$MESSAGES" ] || [ "$duplicates" -ne 0 ]; then
+    PASS=false
 fi
 
+# -----------------------------------------------------------------------------
+# Resultados
+# -----------------------------------------------------------------------------
 echo ""
-echo "   Outbox status:"
-echo "   - SENT:    $SENT"
-echo "   - FAILED:  $FAILED"
-echo "   - PENDING: $PENDING"
+echo -e "${CYAN}Resultados:${NC}"
+column -s, -t < "$RESULTS_FILE"
 echo ""
 
-# Validaciones
-PASS=true
-
-if [ "$SENT" -ge 90 ]; then
-    echo -e "   - ≥90% enviados: ${GREEN}PASS${NC} ($SENT/100)"
-else
-    echo -e "   - ≥90% enviados: ${RED}FAIL${NC} ($SENT/100)"
-    PASS=false
-fi
-
-if [ "$FAILED" -le 5 ]; then
-    echo -e "   - ≤5 fallidos: ${GREEN}PASS${NC} ($FAILED)"
+echo -e "${YELLOW}Validaciones:${NC}"
+if [ "$PASS" = true ]; then
+    echo -e "   - Cada mensaje enviado una sola vez: ${GREEN}PASS${NC}"
 else
-    echo -e "   - ≤5 fallidos: ${RED}FAIL${NC} ($FAILED)"
-    PASS=false
+    echo -e "   - Cada mensaje enviado una sola vez: ${RED}FAIL${NC}"
 fi
 
-if [ "${PUBLISH_TIME:-999}" -lt 15 ]; then
-    echo -e "   - Tiempo < 15s: ${GREEN}PASS${NC} (${PUBLISH_TIME}s)"
+# El escalamiento depende de la latencia del envío y de los núcleos disponibles
+if [ "$(calc "$LAST_EFFICIENCY >= $MIN_EFFICIENCY" 0)" -eq 1 ]; then
+    echo -e "   - Escalamiento casi lineal: ${GREEN}PASS${NC} (eficiencia ${LAST_EFFICIENCY})"
 else
-    echo -e "   - Tiempo < 15s: ${YELLOW}WARN${NC} (${PUBLISH_TIME:-timeout}s)"
+    echo -e "   - Escalamiento casi lineal: ${YELLOW}WARN${NC} (eficiencia ${LAST_EFFICIENCY} < ${MIN_EFFICIENCY})"
 fi
 
 echo ""
+echo "CSV: $RESULTS_FILE"
 echo -e "${CYAN}═══════════════════════════════════════════════════════════════${NC}"
 
 if [ "$PASS" = true ]; then
@@ -140,4 +216,4 @@ if [ "$PASS" = true ]; then
 else
     echo -e "  ${RED}❌ OUTBOX CONCURRENCY TEST FAILED${NC}"
     exit 1
-fi
\ No newline at end of file
+fi
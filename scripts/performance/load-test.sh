@@ -4,6 +4,7 @@
 # =============================================================================
 # Ejecuta test de carga sostenida: 100 tickets en 2 minutos
 # Usage: ./scripts/performance/load-test.sh
+#        VUS=500 DURATION=3m ./scripts/performance/load-test.sh   # alta concurrencia (K6)
 # =============================================================================
 
 set -e
@@ -78,7 +79,7 @@ START_TIME=$(date +%s)
 # Check if K6 is available
 if command -v k6 &> /dev/null; then
     echo "   Usando K6..."
-    k6 run --vus 10 --duration 2m "$PROJECT_ROOT/k6/load-test.js" \
+    k6 run --vus "${VUS:-10}" --duration "${DURATION:-2m}" "$PROJECT_ROOT/k6/load-test.js" \
         --out json="$PROJECT_ROOT/results/load-test-k6.json" 2>&1 | tee "$PROJECT_ROOT/results/load-test-output.txt"
 else
     echo "   K6 no disponible, usando script bash..."
@@ -0,0 +1,110 @@
+#!/bin/bash
+# =============================================================================
+# TICKETERO - A/B de motores de cola (jpa vs order-book vs sql)
+# =============================================================================
+# Carga 50k tickets activos y mide la duración del ciclo de colas
+# (timer ticketero.queue.cycle) del motor con que se levantó la API.
+#
+# Usage:
+#   QUEUE_ENGINE=jpa mvn spring-boot:run     # en otra terminal
+#   ./scripts/performance/queue-engine-ab-test.sh [tickets] [seconds]
+#   QUEUE_ENGINE=sql mvn spring-boot:run     # reiniciar y repetir
+# =============================================================================
+
+set -e
+
+TICKETS=${1:-50000}
+DURATION=${2:-60}
+API_URL=${API_URL:-http://localhost:8080}
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/../.." && pwd)"
+
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m'
+
+psql_exec() {
+    docker exec ticketero-db psql -U dev -d ticketero -t -c "$1" 2>/dev/null | xargs
+}
+
+metric() {
+    # $1 = statistic (COUNT, TOTAL_TIME, MAX)
+    curl -s "$API_URL/actuator/metrics/ticketero.queue.cycle" \
+        | tr '{' '\n' | grep "\"statistic\":\"$1\"" | sed -E 's/.*"value":([0-9.eE+-]+).*/\1/'
+}
+
+echo -e "${CYAN}╔══════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║        TICKETERO - A/B MOTORES DE COLA                       ║${NC}"
+echo -e "${CYAN}╚══════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+
+if ! command -v docker &> /dev/null; then
+    echo -e "${RED}Docker no disponible: se requiere el contenedor ticketero-db${NC}"
+    exit 1
+fi
+
+# =============================================================================
+# 1. DATASET
+# =============================================================================
+echo -e "${YELLOW}1. Cargando ${TICKETS} tickets activos...${NC}"
+
+psql_exec "
+    DELETE FROM mensaje;
+    DELETE FROM ticket;
+    INSERT INTO ticket (codigo_referencia, numero, national_id, branch_office, queue_type,
+                        status, position_in_queue, estimated_wait_minutes, created_at)
+    SELECT gen_random_uuid(),
+           'AB' || g,
+           lpad(g::text, 8, '0'),
+           'Sucursal ' || (g % 20),
+           (ARRAY['CAJA','PERSONAL_BANKER','EMPRESAS','GERENCIA'])[1 + g % 4],
+           'EN_ESPERA', 0, 0,
+           now() - interval '1 hour' + g * interval '10 milliseconds'
+    FROM generate_series(1, ${TICKETS}) g;
+    ANALYZE ticket;
+" > /dev/null
+
+echo "   ✓ Tickets activos: $(psql_exec "SELECT COUNT(*) FROM ticket;")"
+
+# =============================================================================
+# 2. MEDICIÓN
+# =============================================================================
+ENGINE=$(curl -s "$API_URL/actuator/metrics/ticketero.queue.cycle" | grep -o '"engine"[^]]*' | grep -o '"values":\["[^"]*' | sed 's/.*\["//')
+echo -e "${YELLOW}2. Midiendo ciclos durante ${DURATION}s (motor: ${ENGINE:-desconocido})...${NC}"
+
+COUNT_BEFORE=$(metric COUNT); COUNT_BEFORE=${COUNT_BEFORE:-0}
+TOTAL_BEFORE=$(metric TOTAL_TIME); TOTAL_BEFORE=${TOTAL_BEFORE:-0}
+
+sleep "$DURATION"
+
+COUNT_AFTER=$(metric COUNT)
+TOTAL_AFTER=$(metric TOTAL_TIME)
+MAX_CYCLE=$(metric MAX)
+
+CYCLES=$(echo "$COUNT_AFTER - $COUNT_BEFORE" | bc)
+AVG_MS=0
+if [ "$(echo "$CYCLES > 0" | bc)" -eq 1 ]; then
+    AVG_MS=$(echo "scale=1; ($TOTAL_AFTER - $TOTAL_BEFORE) * 1000 / $CYCLES" | bc)
+fi
+
+# =============================================================================
+# 3. RESULTADOS
+# =============================================================================
+RESULTS_FILE="$PROJECT_ROOT/results/queue-engine-ab.csv"
+mkdir -p "$PROJECT_ROOT/results"
+[ -f "$RESULTS_FILE" ] || echo "timestamp,engine,tickets,cycles,avg_cycle_ms,max_cycle_s" > "$RESULTS_FILE"
+echo "$(date +%Y-%m-%dT%H:%M:%S),${ENGINE},${TICKETS},${CYCLES},${AVG_MS},${MAX_CYCLE}" >> "$RESULTS_FILE"
+
+echo ""
+echo -e "${CYAN}═══════════════════════════════════════════════════════════════${NC}"
+echo "  Motor:              ${ENGINE}"
+echo "  Tickets activos:    ${TICKETS}"
+echo "  Ciclos medidos:     ${CYCLES}"
+echo -e "  Ciclo promedio:     ${GREEN}${AVG_MS} ms${NC}"
+echo "  Ciclo máximo:       ${MAX_CYCLE} s"
+echo ""
+echo "  📁 $RESULTS_FILE"
+echo -e "${CYAN}═══════════════════════════════════════════════════════════════${NC}"
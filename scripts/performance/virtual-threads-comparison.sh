@@ -0,0 +1,105 @@
+#!/bin/bash
+# =============================================================================
+# TICKETERO - Comparación hilos de plataforma vs hilos virtuales
+# =============================================================================
+# Levanta la API dos veces (perfil por defecto y perfil virtual-threads),
+# ejecuta load-test.sh con alta concurrencia contra cada una y resume
+# throughput, p95 y fijaciones de carrier (ticketero.virtual-threads.pinned).
+#
+# Requiere: docker compose up -d postgres, k6 y el jar construido
+#   mvn -B package -DskipTests
+# Usage:
+#   ./scripts/performance/virtual-threads-comparison.sh [vus] [duration]
+# =============================================================================
+
+set -e
+
+VUS=${1:-500}
+DURATION=${2:-3m}
+API_URL=${API_URL:-http://localhost:8080}
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/../.." && pwd)"
+RESULTS_FILE="$PROJECT_ROOT/results/virtual-threads-comparison.csv"
+
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m'
+
+echo -e "${CYAN}╔══════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║        TICKETERO - PLATFORM vs VIRTUAL THREADS               ║${NC}"
+echo -e "${CYAN}╚══════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+
+if ! command -v k6 &> /dev/null; then
+    echo -e "${RED}K6 no disponible: la comparación requiere carga concurrente${NC}"
+    exit 1
+fi
+
+JAR=$(ls "$PROJECT_ROOT"/target/ticketero-*.jar 2>/dev/null | grep -v original | head -1)
+if [ -z "$JAR" ]; then
+    echo -e "${RED}Jar no encontrado: ejecutar mvn -B package -DskipTests${NC}"
+    exit 1
+fi
+
+mkdir -p "$PROJECT_ROOT/results"
+echo "mode,vus,duration,requests_per_second,p95_ms,pinned_events" > "$RESULTS_FILE"
+
+# $1 = nombre de la métrica k6, $2 = campo (p(95), avg, ...)
+k6_stat() {
+    grep -E "^\s*$1\.*:" "$PROJECT_ROOT/results/load-test-output.txt" | head -1 \
+        | grep -oE "$2=[0-9.]+(ms|s|µs)" | head -1 \
+        | awk -F= '{v=$2; if (v ~ /µs$/) {sub(/µs/,"",v); v=v/1000} else if (v ~ /ms$/) {sub(/ms/,"",v)} else {sub(/s/,"",v); v=v*1000}; print v}'
+}
+
+k6_rate() {
+    grep -E "^\s*http_reqs\.*:" "$PROJECT_ROOT/results/load-test-output.txt" | head -1 \
+        | grep -oE "[0-9.]+/s" | sed 's#/s##'
+}
+
+pinned_events() {
+    curl -s "$API_URL/actuator/metrics/ticketero.virtual-threads.pinned" \
+        | tr '{' '\n' | grep '"statistic":"COUNT"' | sed -E 's/.*"value":([0-9.eE+-]+).*/\1/'
+}
+
+run_mode() {
+    local mode=$1
+    local profile=$2
+
+    echo -e "${YELLOW}▶ Modo $mode (perfil: ${profile:-default})${NC}"
+
+    SPRING_PROFILES_ACTIVE="$profile" java -jar "$JAR" > "$PROJECT_ROOT/results/app-$mode.log" 2>&1 &
+    local app_pid=$!
+
+    for _ in $(seq 1 60); do
+        if curl -s "$API_URL/actuator/health" | grep -q '"UP"'; then
+            break
+        fi
+        sleep 2
+    done
+
+    VUS="$VUS" DURATION="$DURATION" bash "$SCRIPT_DIR/load-test.sh" > /dev/null || true
+
+    local rps p95 pinned
+    rps=$(k6_rate)
+    p95=$(k6_stat http_req_duration "p\\(95\\)")
+    pinned=$(pinned_events)
+
+    echo "$mode,$VUS,$DURATION,${rps:-0},${p95:-0},${pinned:-n/a}" >> "$RESULTS_FILE"
+    echo -e "   ${GREEN}✓${NC} req/s: ${rps:-0}  p95: ${p95:-0} ms  pinned: ${pinned:-n/a}"
+
+    kill "$app_pid" 2>/dev/null || true
+    wait "$app_pid" 2>/dev/null || true
+    sleep 3
+}
+
+run_mode platform ""
+run_mode virtual virtual-threads
+
+echo ""
+echo -e "${CYAN}Resultados:${NC}"
+column -s, -t < "$RESULTS_FILE"
+echo ""
+echo "CSV: $RESULTS_FILE"
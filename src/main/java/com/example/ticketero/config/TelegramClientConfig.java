@@ -0,0 +1,24 @@
+package com.example.ticketero.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class TelegramClientConfig {
+
+    /**
+     * HttpClient compartido para la Bot API. Reutiliza conexiones HTTP/1.1 keep-alive
+     * (pool interno por host); el timeout de lectura se fija por request.
+     */
+    @Bean
+    public HttpClient telegramHttpClient(@Value("${telegram.http.connect-timeout-ms:2000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ticketero.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Publica como métrica los eventos JFR jdk.VirtualThreadPinned: un hilo virtual
+ * que bloqueó dentro de synchronized o de código nativo y retuvo su carrier.
+ *
+ * ticketero.virtual-threads.pinned cuenta las fijaciones y acumula su duración.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.virtual-threads.pinning-threshold-ms:20}")
+    private long pinningThresholdMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        Timer pinned = Timer.builder("ticketero.virtual-threads.pinned")
+            .description("Tiempo en que un hilo virtual retuvo su carrier (JFR jdk.VirtualThreadPinned)")
+            .register(meterRegistry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+            .withThreshold(Duration.ofMillis(pinningThresholdMs))
+            .withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.record(event.getDuration());
+            log.debug("Virtual thread pinned its carrier for {} ms at {}",
+                    event.getDuration().toMillis(), topFrame(event));
+        });
+        stream.startAsync();
+
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", pinningThresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = event.getStackTrace().getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ticketero.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * STOMP sobre WebSocket para tableros de sucursal y dashboard en vivo.
+ *
+ * Broker simple en memoria: /topic/branches/{sucursal}, /topic/advisors y /topic/dashboard.
+ * Con prefijo /app se suscribe a la foto completa inicial (ver BranchBoardController).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${ticketero.board.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    @Value("${ticketero.board.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${ticketero.board.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Una pantalla lenta no debe retener memoria sin límite: se cierra su sesión
+        registration.setSendTimeLimit(sendTimeLimitMs)
+            .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ticketero.controller;
+
+import com.example.ticketero.model.dto.BranchBoardUpdate;
+import com.example.ticketero.model.dto.DashboardResponse;
+import com.example.ticketero.service.BranchBoardService;
+import com.example.ticketero.service.DashboardMetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Fotos iniciales por STOMP: el cliente se suscribe una vez a /app/... para recibir
+ * el estado completo y luego al /topic/... correspondiente para los deltas.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class BranchBoardController {
+
+    private final BranchBoardService branchBoardService;
+    private final DashboardMetricsService dashboardMetricsService;
+
+    @SubscribeMapping("/branches/{branchOffice}")
+    public BranchBoardUpdate branchSnapshot(@DestinationVariable String branchOffice) {
+        log.debug("Sending board snapshot for branch: {}", branchOffice);
+
+        return branchBoardService.snapshot(branchOffice);
+    }
+
+    @SubscribeMapping("/dashboard")
+    public DashboardResponse dashboardSnapshot() {
+        return dashboardMetricsService.snapshot();
+    }
+}
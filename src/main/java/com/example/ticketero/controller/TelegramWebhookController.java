@@ -0,0 +1,51 @@
+package com.example.ticketero.controller;
+
+import com.example.ticketero.model.dto.TelegramUpdate;
+import com.example.ticketero.service.TelegramChatBindingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Webhook del bot (setWebhook). Telegram reintenta los updates no confirmados con 2xx,
+ * por eso un update que no registra nada también responde 200.
+ *
+ * Sin telegram.webhook-secret configurado se rechazan todos los updates: sin el header
+ * de Telegram no hay forma de distinguir un update real de un POST de cualquiera.
+ */
+@RestController
+@RequestMapping("/api/telegram")
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramWebhookController {
+
+    private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final TelegramChatBindingService telegramChatBindingService;
+
+    @Value("${telegram.webhook-secret:}")
+    private String webhookSecret;
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> onUpdate(
+            @RequestHeader(value = SECRET_HEADER, required = false) String secret,
+            @RequestBody TelegramUpdate update) {
+
+        if (webhookSecret.isBlank()) {
+            log.warn("Rejected Telegram update {}: telegram.webhook-secret is not configured", update.updateId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!webhookSecret.equals(secret)) {
+            log.warn("Rejected Telegram update {} with invalid secret token", update.updateId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (telegramChatBindingService.bindFromUpdate(update)) {
+            log.debug("Telegram update {} bound a chat", update.updateId());
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -3,13 +3,23 @@ package com.example.ticketero.controller;
 import com.example.ticketero.model.dto.QueuePositionResponse;
 import com.example.ticketero.model.dto.TicketCreateRequest;
 import com.example.ticketero.model.dto.TicketResponse;
+import com.example.ticketero.model.dto.VersionedResponse;
+import com.example.ticketero.service.TicketIngestionPipeline;
+import com.example.ticketero.service.TicketPositionStreamService;
 import com.example.ticketero.service.TicketService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +29,8 @@ import java.util.UUID;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final TicketIngestionPipeline ticketIngestionPipeline;
+    private final TicketPositionStreamService ticketPositionStreamService;
 
     @PostMapping
     public ResponseEntity<TicketResponse> createTicket(
@@ -27,26 +39,77 @@ public class TicketController {
         log.info("Creating ticket for nationalId: {}, queueType: {}", 
                 request.nationalId(), request.queueType());
         
-        TicketResponse response = ticketService.create(request);
+        TicketResponse response = ticketIngestionPipeline.create(request);
         
         return ResponseEntity.status(201).body(response);
     }
 
+    // El número solo es único en su sucursal y día de atención (por omisión, hoy)
     @GetMapping("/{numero}/position")
-    public ResponseEntity<QueuePositionResponse> getPosition(@PathVariable String numero) {
-        log.info("Getting position for ticket: {}", numero);
-        
-        return ticketService.getPosition(numero)
+    public ResponseEntity<QueuePositionResponse> getPosition(
+            @PathVariable String numero,
+            @RequestParam String branchOffice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate serviceDay,
+            WebRequest request) {
+        log.debug("Getting position for ticket: {} at {}", numero, branchOffice);
+
+        // Desde la caché de lectura: sin cambios desde la última lectura → 304 sin cuerpo
+        return ticketService.getVersionedPosition(branchOffice, orToday(serviceDay), numero)
+                .map(versioned -> withETag(versioned, request))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{numero}/position/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPosition(
+            @PathVariable String numero,
+            @RequestParam String branchOffice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate serviceDay) {
+        log.debug("Opening position stream for ticket: {} at {}", numero, branchOffice);
+
+        return ticketPositionStreamService.subscribe(branchOffice, orToday(serviceDay), numero)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/reference/{uuid}")
-    public ResponseEntity<TicketResponse> getByReference(@PathVariable UUID uuid) {
-        log.info("Getting ticket by reference: {}", uuid);
-        
-        return ticketService.findByReference(uuid)
+    @GetMapping("/reference/{uuid}/position")
+    public ResponseEntity<QueuePositionResponse> getPositionByReference(@PathVariable UUID uuid, WebRequest request) {
+        log.debug("Getting position for ticket reference: {}", uuid);
+
+        return ticketService.getVersionedPositionByReference(uuid)
+                .map(versioned -> withETag(versioned, request))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/reference/{uuid}/position/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPositionByReference(@PathVariable UUID uuid) {
+        log.debug("Opening position stream for ticket reference: {}", uuid);
+
+        return ticketPositionStreamService.subscribeByReference(uuid)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/reference/{uuid}")
+    public ResponseEntity<TicketResponse> getByReference(@PathVariable UUID uuid, WebRequest request) {
+        log.debug("Getting ticket by reference: {}", uuid);
+
+        return ticketService.findVersionedByReference(uuid)
+                .map(versioned -> withETag(versioned, request))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static LocalDate orToday(LocalDate serviceDay) {
+        return serviceDay != null ? serviceDay : LocalDate.now();
+    }
+
+    // no-cache: el cliente revalida siempre; con el ETag vigente recibe 304 sin cuerpo
+    private static <T> ResponseEntity<T> withETag(VersionedResponse<T> versioned, WebRequest request) {
+        if (request.checkNotModified(versioned.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versioned.eTag()).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(versioned.eTag())
+                .body(versioned.body());
+    }
+}
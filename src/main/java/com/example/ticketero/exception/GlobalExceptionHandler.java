@@ -4,8 +4,10 @@ import com.example.ticketero.model.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.List;
 
@@ -36,6 +38,24 @@ public class GlobalExceptionHandler {
             .body(new ErrorResponse(ex.getMessage(), 400));
     }
 
+    // Parámetro de consulta faltante o con formato inválido (ej: sucursal en /{numero}/position)
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleBadParameter(Exception ex) {
+        log.error("Bad request parameter: {}", ex.getMessage());
+        return ResponseEntity
+            .badRequest()
+            .body(new ErrorResponse(ex.getMessage(), 400));
+    }
+
+    @ExceptionHandler(IngestionOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(IngestionOverloadedException ex) {
+        log.warn("Service overloaded: {}", ex.getMessage());
+        return ResponseEntity
+            .status(503)
+            .header("Retry-After", "1")
+            .body(new ErrorResponse(ex.getMessage(), 503));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneral(Exception ex) {
         log.error("Unexpected error", ex);
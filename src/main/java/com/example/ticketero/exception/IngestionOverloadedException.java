@@ -0,0 +1,11 @@
+package com.example.ticketero.exception;
+
+/**
+ * El buffer de ingesta de tickets está lleno; el cliente debe reintentar
+ */
+public class IngestionOverloadedException extends RuntimeException {
+
+    public IngestionOverloadedException(String message) {
+        super(message);
+    }
+}
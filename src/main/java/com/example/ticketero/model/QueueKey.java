@@ -0,0 +1,11 @@
+package com.example.ticketero.model;
+
+import com.example.ticketero.model.enums.QueueType;
+
+/**
+ * Identifica una cola física: una sucursal y un tipo de cola
+ */
+public record QueueKey(
+    String branchOffice,
+    QueueType queueType
+) {}
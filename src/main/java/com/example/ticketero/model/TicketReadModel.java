@@ -0,0 +1,46 @@
+package com.example.ticketero.model;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Vista de solo lectura de un ticket para las consultas por número y código de referencia.
+ * Se carga con una proyección (sin entidad ni asesor perezoso) y es la que se guarda en caché.
+ */
+public record TicketReadModel(
+    Long id,
+    UUID codigoReferencia,
+    String numero,
+    String nationalId,
+    String telefono,
+    String branchOffice,
+    QueueType queueType,
+    TicketStatus status,
+    Integer positionInQueue,
+    Integer estimatedWaitMinutes,
+    String assignedAdvisorName,
+    Integer assignedModuleNumber,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    public QueueKey queueKey() {
+        return new QueueKey(branchOffice, queueType);
+    }
+
+    /**
+     * ETag débil: versión del ticket (updated_at) más la posición efectiva informada,
+     * que con el motor order-book vive en memoria y no en la fila
+     */
+    public String eTag(int position) {
+        long version = updatedAt == null
+            ? 0
+            : ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt.toInstant(ZoneOffset.UTC));
+        return "W/\"" + id + "-" + version + "-" + position + "\"";
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ticketero.model.dto;
+
+import com.example.ticketero.model.enums.QueueType;
+
+import java.util.Map;
+
+/**
+ * Actualización del tablero de una sucursal, publicada en /topic/branches/{sucursal}.
+ *
+ * En un delta solo vienen las colas y tickets que cambiaron desde el anterior:
+ * un ticket con módulo null dejó de ser atendido. Con snapshot=true viene el tablero
+ * completo; el cliente aplica los deltas con sequence mayor al de la foto.
+ */
+public record BranchBoardUpdate(
+    String branchOffice,
+    long sequence,
+    boolean snapshot,
+    // Tickets esperando turno (EN_ESPERA + PROXIMO) por cola
+    Map<QueueType, Integer> queueDepths,
+    // Número de ticket → módulo que lo atiende
+    Map<String, Integer> nowServing,
+    // Epoch millis al publicar, para medir la latencia de difusión
+    long publishedAt
+) {
+}
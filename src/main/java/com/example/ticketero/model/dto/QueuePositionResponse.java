@@ -2,6 +2,7 @@ package com.example.ticketero.model.dto;
 
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
 
 /**
  * Response DTO para consulta de posición en cola
@@ -57,4 +58,35 @@ public record QueuePositionResponse(
             "Está siendo atendido en el módulo " + moduleNumber
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Factory method para ticket que ya salió de la cola (completado, cancelado, no atendido)
+     */
+    public static QueuePositionResponse closed(String numero, QueueType queueType, TicketStatus status) {
+        return new QueuePositionResponse(
+            numero,
+            queueType,
+            status,
+            0,
+            0,
+            "Su ticket ya no está en cola. Estado: " + status
+        );
+    }
+
+    /**
+     * Factory method desde el evento de cambio de estado, sin volver a leer el ticket
+     */
+    public static QueuePositionResponse from(TicketStateChangedEvent event) {
+        return switch (event.status()) {
+            case EN_ESPERA -> waiting(
+                event.numero(),
+                event.queueType(),
+                event.positionInQueue(),
+                event.estimatedWaitMinutes()
+            );
+            case PROXIMO -> next(event.numero(), event.queueType());
+            case ATENDIENDO -> attending(event.numero(), event.queueType(), event.assignedModuleNumber());
+            default -> closed(event.numero(), event.queueType(), event.status());
+        };
+    }
+}
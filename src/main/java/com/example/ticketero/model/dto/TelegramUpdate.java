@@ -0,0 +1,35 @@
+package com.example.ticketero.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Update recibido por el webhook del bot. Solo se mapean los campos que usa el
+ * registro de chats: el texto (/start) y el contacto compartido.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TelegramUpdate(
+    @JsonProperty("update_id") Long updateId,
+    Message message
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Message(
+        Chat chat,
+        User from,
+        String text,
+        Contact contact
+    ) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Chat(Long id) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record User(Long id) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Contact(
+        @JsonProperty("phone_number") String phoneNumber,
+        @JsonProperty("user_id") Long userId
+    ) {}
+}
@@ -1,5 +1,6 @@
 package com.example.ticketero.model.dto;
 
+import com.example.ticketero.model.TicketReadModel;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
@@ -45,4 +46,25 @@ public record TicketResponse(
             ticket.getCreatedAt()
         );
     }
+
+    /**
+     * Constructor desde el modelo de lectura
+     */
+    public TicketResponse(TicketReadModel ticket) {
+        this(
+            ticket.id(),
+            ticket.codigoReferencia(),
+            ticket.numero(),
+            ticket.nationalId(),
+            ticket.telefono(),
+            ticket.branchOffice(),
+            ticket.queueType(),
+            ticket.status(),
+            ticket.positionInQueue(),
+            ticket.estimatedWaitMinutes(),
+            ticket.assignedAdvisorName(),
+            ticket.assignedModuleNumber(),
+            ticket.createdAt()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.ticketero.model.dto;
+
+/**
+ * Respuesta con su ETag, para GET condicionales
+ */
+public record VersionedResponse<T>(
+    T body,
+    String eTag
+) {
+}
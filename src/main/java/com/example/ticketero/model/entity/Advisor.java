@@ -18,7 +18,8 @@ import java.util.List;
 public class Advisor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "advisor_seq")
+    @SequenceGenerator(name = "advisor_seq", sequenceName = "advisor_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
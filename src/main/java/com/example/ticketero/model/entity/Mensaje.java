@@ -3,7 +3,9 @@ package com.example.ticketero.model.entity;
 import com.example.ticketero.model.enums.MessageTemplate;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -16,7 +18,8 @@ import java.time.LocalDateTime;
 public class Mensaje {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mensaje_seq")
+    @SequenceGenerator(name = "mensaje_seq", sequenceName = "mensaje_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,12 +47,28 @@ public class Mensaje {
     @Column(nullable = false)
     private Integer intentos;
 
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Día de atención del ticket: el mensaje vive en la misma partición diaria que su ticket
+    @PartitionKey
+    @Column(name = "service_day", nullable = false, updatable = false)
+    private LocalDate serviceDay;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        if (this.serviceDay == null) {
+            this.serviceDay = this.ticket != null && this.ticket.getServiceDay() != null
+                ? this.ticket.getServiceDay()
+                : this.createdAt.toLocalDate();
+        }
         if (this.estadoEnvio == null) {
             this.estadoEnvio = EstadoEnvio.PENDIENTE;
         }
@@ -61,6 +80,8 @@ public class Mensaje {
     public enum EstadoEnvio {
         PENDIENTE,
         ENVIADO,
-        FALLIDO
+        FALLIDO,
+        // Terminal: existe un mensaje más relevante para el mismo ticket
+        REEMPLAZADO
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.MessageTemplate;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "plantilla_mensaje")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlantillaMensaje {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String cuerpo;
+
+    @Column(nullable = false)
+    private Boolean activa;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.activa == null) {
+            this.activa = true;
+        }
+    }
+
+    /**
+     * Una fila por versión de cada plantilla
+     */
+    @Embeddable
+    public record Key(
+        @Enumerated(EnumType.STRING)
+        @Column(name = "plantilla", nullable = false, length = 50)
+        MessageTemplate plantilla,
+
+        @Column(name = "version", nullable = false)
+        Integer version
+    ) implements Serializable {}
+}
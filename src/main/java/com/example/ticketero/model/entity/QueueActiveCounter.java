@@ -0,0 +1,40 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "queue_active_counter")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueueActiveCounter {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "active_count", nullable = false)
+    private Integer activeCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Un contador por sucursal y cola
+     */
+    @Embeddable
+    public record Key(
+        @Column(name = "branch_office", nullable = false, length = 100)
+        String branchOffice,
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "queue_type", nullable = false, length = 20)
+        QueueType queueType
+    ) implements Serializable {}
+}
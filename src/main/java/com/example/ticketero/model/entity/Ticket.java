@@ -4,12 +4,20 @@ import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ticket")
+@Table(
+    name = "ticket",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_ticket_numero_por_dia",
+        columnNames = {"branch_office", "queue_type", "service_day", "numero"}
+    )
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,13 +26,14 @@ import java.util.UUID;
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "codigo_referencia", nullable = false, unique = true)
     private UUID codigoReferencia;
 
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, length = 10)
     private String numero;
 
     @Column(name = "national_id", nullable = false, length = 20)
@@ -40,6 +49,11 @@ public class Ticket {
     @Column(name = "queue_type", nullable = false, length = 20)
     private QueueType queueType;
 
+    // Llave de partición (V11): Hibernate la agrega al WHERE de cada UPDATE y DELETE
+    @PartitionKey
+    @Column(name = "service_day", nullable = false, updatable = false)
+    private LocalDate serviceDay;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private TicketStatus status;
@@ -74,6 +88,9 @@ public class Ticket {
         if (this.status == null) {
             this.status = TicketStatus.EN_ESPERA;
         }
+        if (this.serviceDay == null) {
+            this.serviceDay = this.createdAt.toLocalDate();
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,76 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ticket cerrado archivado en ticket_history (V13). Solo lectura: lo escribe el archivador
+ * con SQL nativo, nunca Hibernate.
+ */
+@Entity
+@Table(name = "ticket_history")
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "codigo_referencia", nullable = false)
+    private UUID codigoReferencia;
+
+    @Column(nullable = false, length = 10)
+    private String numero;
+
+    @Column(name = "national_id", nullable = false, length = 20)
+    private String nationalId;
+
+    @Column(length = 20)
+    private String telefono;
+
+    @Column(name = "branch_office", nullable = false, length = 100)
+    private String branchOffice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false, length = 20)
+    private QueueType queueType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TicketStatus status;
+
+    @Column(name = "position_in_queue", nullable = false)
+    private Integer positionInQueue;
+
+    @Column(name = "estimated_wait_minutes", nullable = false)
+    private Integer estimatedWaitMinutes;
+
+    // Sin relación: el asesor puede haberse eliminado después de archivar
+    @Column(name = "assigned_advisor_id")
+    private Long assignedAdvisorId;
+
+    @Column(name = "assigned_module_number")
+    private Integer assignedModuleNumber;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "service_day", nullable = false)
+    private LocalDate serviceDay;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,44 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ticket_number_block")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketNumberBlock {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Secuencia de numeración: una por sucursal, cola y día
+     */
+    @Embeddable
+    public record Key(
+        @Column(name = "branch_office", nullable = false, length = 100)
+        String branchOffice,
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "queue_type", nullable = false, length = 20)
+        QueueType queueType,
+
+        @Column(name = "service_day", nullable = false)
+        LocalDate serviceDay
+    ) implements Serializable {}
+}
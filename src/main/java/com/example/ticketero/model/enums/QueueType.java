@@ -1,5 +1,7 @@
 package com.example.ticketero.model.enums;
 
+import java.util.Optional;
+
 /**
  * Tipos de cola disponibles en el sistema
  * Cada cola tiene tiempo promedio y prioridad diferente
@@ -44,4 +46,20 @@ public enum QueueType {
             case GERENCIA -> 'G';
         };
     }
+
+    /**
+     * Obtiene el tipo de cola de un número de ticket a partir de su prefijo
+     * @return vacío si el número no empieza con un prefijo conocido
+     */
+    public static Optional<QueueType> fromNumero(String numero) {
+        if (numero == null || numero.isEmpty()) {
+            return Optional.empty();
+        }
+        for (QueueType queueType : values()) {
+            if (queueType.getPrefix() == numero.charAt(0)) {
+                return Optional.of(queueType);
+            }
+        }
+        return Optional.empty();
+    }
 }
\ No newline at end of file
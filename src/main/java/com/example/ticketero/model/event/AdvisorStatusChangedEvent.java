@@ -0,0 +1,27 @@
+package com.example.ticketero.model.event;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+
+/**
+ * Evento de dominio publicado cuando un asesor cambia de estado
+ * (por ejemplo, BUSY → AVAILABLE al completar una atención).
+ */
+public record AdvisorStatusChangedEvent(
+    Long advisorId,
+    Integer moduleNumber,
+    AdvisorStatus previousStatus,
+    AdvisorStatus status
+) {
+    /**
+     * Factory method desde Entity
+     */
+    public static AdvisorStatusChangedEvent of(Advisor advisor, AdvisorStatus previousStatus) {
+        return new AdvisorStatusChangedEvent(
+            advisor.getId(),
+            advisor.getModuleNumber(),
+            previousStatus,
+            advisor.getStatus()
+        );
+    }
+}
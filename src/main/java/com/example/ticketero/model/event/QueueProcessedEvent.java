@@ -0,0 +1,21 @@
+package com.example.ticketero.model.event;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.enums.QueueType;
+
+/**
+ * Evento publicado al terminar el ciclo de una cola (sucursal, tipo). Las posiciones
+ * y tiempos estimados de los tickets de esa cola pueden haber cambiado.
+ */
+public record QueueProcessedEvent(
+    String branchOffice,
+    QueueType queueType
+) {
+    public static QueueProcessedEvent of(QueueKey queueKey) {
+        return new QueueProcessedEvent(queueKey.branchOffice(), queueKey.queueType());
+    }
+
+    public QueueKey queueKey() {
+        return new QueueKey(branchOffice, queueType);
+    }
+}
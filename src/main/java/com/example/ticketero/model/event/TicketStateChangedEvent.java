@@ -0,0 +1,48 @@
+package com.example.ticketero.model.event;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+
+import java.util.UUID;
+
+/**
+ * Evento de dominio publicado cuando un ticket se crea o cambia de estado.
+ * Es una foto inmutable del ticket: los listeners no deben volver a leer la entidad.
+ */
+public record TicketStateChangedEvent(
+    Long ticketId,
+    String numero,
+    UUID codigoReferencia,
+    String branchOffice,
+    QueueType queueType,
+    TicketStatus previousStatus,
+    TicketStatus status,
+    Integer positionInQueue,
+    Integer estimatedWaitMinutes,
+    Integer assignedModuleNumber
+) {
+    /**
+     * Factory method desde Entity
+     * @param previousStatus estado anterior, null si el ticket recién se creó
+     */
+    public static TicketStateChangedEvent of(Ticket ticket, TicketStatus previousStatus) {
+        return new TicketStateChangedEvent(
+            ticket.getId(),
+            ticket.getNumero(),
+            ticket.getCodigoReferencia(),
+            ticket.getBranchOffice(),
+            ticket.getQueueType(),
+            previousStatus,
+            ticket.getStatus(),
+            ticket.getPositionInQueue(),
+            ticket.getEstimatedWaitMinutes(),
+            ticket.getAssignedModuleNumber()
+        );
+    }
+
+    public QueueKey queueKey() {
+        return new QueueKey(branchOffice, queueType);
+    }
+}
@@ -3,8 +3,11 @@ package com.example.ticketero.repository;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,9 +27,68 @@ public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
         SELECT a FROM Advisor a 
         WHERE a.status = 'AVAILABLE' 
         ORDER BY a.assignedTicketsCount ASC, a.id ASC
+        LIMIT 1
         """)
     Optional<Advisor> findAvailableAdvisorWithLeastLoad();
 
+    // Asignación atómica: toma un cupo del asesor disponible con menos carga en un solo
+    // UPDATE. SKIP LOCKED salta los asesores que otra transacción (u otra instancia) está
+    // asignando, y la condición del UPDATE impide pasar de la capacidad. Vacío si no hay cupo.
+    @Transactional
+    @Query(value = """
+        WITH candidate AS (
+            SELECT id
+            FROM advisor
+            WHERE status = 'AVAILABLE'
+            AND assigned_tickets_count < :capacity
+            ORDER BY assigned_tickets_count, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        ),
+        claimed AS (
+            UPDATE advisor a
+            SET assigned_tickets_count = a.assigned_tickets_count + 1,
+                status = CASE WHEN a.assigned_tickets_count + 1 >= :capacity THEN 'BUSY' ELSE a.status END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM candidate c
+            WHERE a.id = c.id
+            AND a.assigned_tickets_count < :capacity
+            RETURNING a.id, a.module_number, a.name, a.assigned_tickets_count, a.status,
+                      CAST('AVAILABLE' AS VARCHAR(20)) AS previous_status
+        )
+        SELECT id, module_number AS moduleNumber, name, assigned_tickets_count AS assignedTicketsCount,
+               status, previous_status AS previousStatus
+        FROM claimed
+        """, nativeQuery = true)
+    Optional<AdvisorAssignment> claimLeastLoaded(@Param("capacity") int capacity);
+
+    // Devuelve un cupo en el mismo UPDATE que recalcula el estado (BUSY → AVAILABLE)
+    @Transactional
+    @Query(value = """
+        WITH current AS (
+            SELECT id, status
+            FROM advisor
+            WHERE id = :id
+            AND assigned_tickets_count > 0
+            FOR UPDATE
+        ),
+        released AS (
+            UPDATE advisor a
+            SET assigned_tickets_count = a.assigned_tickets_count - 1,
+                status = CASE WHEN a.status = 'BUSY' AND a.assigned_tickets_count - 1 < :capacity
+                              THEN 'AVAILABLE' ELSE a.status END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM current c
+            WHERE a.id = c.id
+            RETURNING a.id, a.module_number, a.name, a.assigned_tickets_count, a.status,
+                      c.status AS previous_status
+        )
+        SELECT id, module_number AS moduleNumber, name, assigned_tickets_count AS assignedTicketsCount,
+               status, previous_status AS previousStatus
+        FROM released
+        """, nativeQuery = true)
+    Optional<AdvisorAssignment> release(@Param("id") Long id, @Param("capacity") int capacity);
+
     // Query para asesores disponibles ordenados por carga
     @Query("""
         SELECT a FROM Advisor a 
@@ -34,4 +96,54 @@ public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
         ORDER BY a.assignedTicketsCount ASC
         """)
     List<Advisor> findAvailableAdvisorsOrderByLoad();
-}
\ No newline at end of file
+
+    // Dashboard: asesores por estado en una sola consulta
+    @Query("""
+        SELECT a.status AS status, COUNT(a) AS total
+        FROM Advisor a
+        GROUP BY a.status
+        """)
+    List<StatusCount> countGroupedByStatus();
+
+    // Write-behind del pool de asesores: carga y estado calculados en memoria
+    @Modifying
+    @Query("""
+        UPDATE Advisor a
+        SET a.assignedTicketsCount = :count,
+            a.status = :status,
+            a.updatedAt = CURRENT_TIMESTAMP
+        WHERE a.id = :id
+        AND a.status <> com.example.ticketero.model.enums.AdvisorStatus.OFFLINE
+        """)
+    int updateLoad(
+        @Param("id") Long id,
+        @Param("count") int count,
+        @Param("status") AdvisorStatus status
+    );
+
+    /**
+     * Asesor después de {@link #claimLeastLoaded} o {@link #release}
+     */
+    interface AdvisorAssignment {
+        Long getId();
+
+        Integer getModuleNumber();
+
+        String getName();
+
+        int getAssignedTicketsCount();
+
+        AdvisorStatus getStatus();
+
+        AdvisorStatus getPreviousStatus();
+    }
+
+    /**
+     * Fila de {@link #countGroupedByStatus}
+     */
+    interface StatusCount {
+        AdvisorStatus getStatus();
+
+        long getTotal();
+    }
+}
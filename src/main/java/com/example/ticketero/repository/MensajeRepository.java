@@ -3,10 +3,12 @@ package com.example.ticketero.repository;
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.entity.Mensaje.EstadoEnvio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,23 +20,207 @@ public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
     
     List<Mensaje> findByTicketId(Long ticketId);
 
+    // Un mensaje vive en la partición de su ticket: el día poda la búsqueda a una partición
+    List<Mensaje> findByTicketIdAndServiceDay(Long ticketId, LocalDate serviceDay);
+
     // Query para scheduler - mensajes pendientes listos para enviar
+    // (con su ticket, que se lee fuera del hilo de la sesión al enviar en paralelo).
+    // El rango de service_day (ServiceDayWindow) poda ambas tablas a los días calientes
     @Query("""
         SELECT m FROM Mensaje m 
+        JOIN FETCH m.ticket t
         WHERE m.estadoEnvio = 'PENDIENTE' 
         AND m.fechaProgramada <= :now 
         AND m.intentos < 3
+        AND m.serviceDay BETWEEN :from AND :to
+        AND t.serviceDay BETWEEN :from AND :to
         ORDER BY m.fechaProgramada ASC
         """)
-    List<Mensaje> findPendingMessagesReadyToSend(@Param("now") LocalDateTime now);
+    List<Mensaje> findPendingMessagesReadyToSend(
+        @Param("now") LocalDateTime now,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
 
     // Query para mensajes fallidos que pueden reintentarse
     @Query("""
         SELECT m FROM Mensaje m 
+        JOIN FETCH m.ticket t
         WHERE m.estadoEnvio = 'FALLIDO' 
         AND m.intentos < 3 
         AND m.fechaProgramada <= :now
+        AND m.serviceDay BETWEEN :from AND :to
+        AND t.serviceDay BETWEEN :from AND :to
+        ORDER BY m.fechaProgramada ASC
+        """)
+    List<Mensaje> findFailedMessagesForRetry(
+        @Param("now") LocalDateTime now,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    // Dispatcher: reclama un batch de mensajes vencidos para un worker. SKIP LOCKED
+    // hace que workers concurrentes (de cualquier nodo) obtengan batches disjuntos;
+    // el lease permite recuperar mensajes de un worker caído.
+    // En la misma sentencia marca REEMPLAZADO a los mensajes del batch que ya tienen
+    // uno más relevante para su ticket (ES_TU_TURNO > PROXIMO_TURNO > TICKET_CREADO,
+    // y entre iguales el más nuevo) pendiente, ya enviado o fallido con reintentos: esos
+    // no se envían. Uno que agotó sus intentos no se enviará nunca y no reemplaza a nadie.
+    @Query(value = """
+        WITH claimable AS (
+            SELECT id, ticket_id, plantilla, service_day
+            FROM mensaje
+            WHERE estado_envio IN ('PENDIENTE', 'FALLIDO')
+            AND fecha_programada <= :now
+            AND intentos < 3
+            AND (claimed_until IS NULL OR claimed_until < :now)
+            AND service_day BETWEEN :from AND :to
+            ORDER BY fecha_programada
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        ),
+        superseded AS (
+            UPDATE mensaje m
+            SET estado_envio = 'REEMPLAZADO',
+                claimed_by = NULL,
+                claimed_until = NULL
+            FROM claimable c
+            WHERE m.id = c.id
+            AND m.service_day = c.service_day
+            AND m.service_day BETWEEN :from AND :to
+            AND EXISTS (
+                SELECT 1
+                FROM mensaje s
+                WHERE s.ticket_id = c.ticket_id
+                AND s.service_day = c.service_day
+                AND s.service_day BETWEEN :from AND :to
+                AND s.id <> c.id
+                AND (s.estado_envio IN ('PENDIENTE', 'ENVIADO')
+                     OR (s.estado_envio = 'FALLIDO' AND s.intentos < 3))
+                AND (CASE s.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, s.id)
+                  > (CASE c.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, c.id)
+            )
+            RETURNING m.id
+        ),
+        claimed AS (
+            UPDATE mensaje m
+            SET claimed_by = :owner,
+                claimed_until = :leaseUntil
+            FROM claimable c
+            WHERE m.id = c.id
+            AND m.service_day = c.service_day
+            AND m.service_day BETWEEN :from AND :to
+            AND c.id NOT IN (SELECT id FROM superseded)
+            RETURNING m.id
+        )
+        SELECT id, false AS superseded FROM claimed
+        UNION ALL
+        SELECT id, true AS superseded FROM superseded
+        """, nativeQuery = true)
+    List<ClaimedRow> claimBatch(
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil,
+        @Param("batchSize") int batchSize,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    @Query("""
+        SELECT m FROM Mensaje m
+        JOIN FETCH m.ticket t
+        WHERE m.id IN :ids
+        AND m.serviceDay BETWEEN :from AND :to
+        AND t.serviceDay BETWEEN :from AND :to
         ORDER BY m.fechaProgramada ASC
         """)
-    List<Mensaje> findFailedMessagesForRetry(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
+    List<Mensaje> findWithTicketByIdIn(
+        @Param("ids") List<Long> ids,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    // Dispatcher: registra el resultado del envío solo si el worker aún es dueño del reclamo
+    @Modifying
+    @Query(value = """
+        UPDATE mensaje
+        SET estado_envio = :estadoEnvio,
+            fecha_envio = :fechaEnvio,
+            telegram_message_id = :telegramMessageId,
+            intentos = :intentos,
+            claimed_by = NULL,
+            claimed_until = :retryAfter
+        WHERE id = :id
+        AND service_day = :serviceDay
+        AND claimed_by = :owner
+        """, nativeQuery = true)
+    int acknowledge(
+        @Param("id") Long id,
+        @Param("serviceDay") LocalDate serviceDay,
+        @Param("owner") String owner,
+        @Param("estadoEnvio") String estadoEnvio,
+        @Param("fechaEnvio") LocalDateTime fechaEnvio,
+        @Param("telegramMessageId") String telegramMessageId,
+        @Param("intentos") int intentos,
+        @Param("retryAfter") LocalDateTime retryAfter
+    );
+
+    // Archivador: mueve a mensaje_history un batch de mensajes terminados (enviados,
+    // reemplazados o sin reintentos) creados antes de :cutoff, de tickets que siguen en ticket.
+    // Paginación por llave sobre id; los de tickets cerrados se mueven con su ticket
+    @Query(value = """
+        WITH batch AS (
+            SELECT id, service_day
+            FROM mensaje
+            WHERE id > :afterId
+            AND (estado_envio IN ('ENVIADO', 'REEMPLAZADO') OR (estado_envio = 'FALLIDO' AND intentos >= 3))
+            AND created_at < :cutoff
+            AND service_day <= CAST(:cutoff AS DATE)
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        ),
+        moved AS (
+            DELETE FROM mensaje m
+            USING batch b
+            WHERE m.id = b.id
+            AND m.service_day = b.service_day
+            RETURNING m.id, m.ticket_id, m.plantilla, m.estado_envio, m.fecha_programada, m.fecha_envio,
+                      m.telegram_message_id, m.intentos, m.created_at, m.service_day
+        ),
+        archived AS (
+            INSERT INTO mensaje_history (id, ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio,
+                                         telegram_message_id, intentos, created_at, service_day)
+            SELECT id, ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio,
+                   telegram_message_id, intentos, created_at, service_day
+            FROM moved
+            RETURNING id
+        )
+        SELECT (SELECT MAX(id) FROM batch) AS cursor,
+               (SELECT COUNT(*) FROM archived) AS mensajes
+        """, nativeQuery = true)
+    ArchivedMensajes archiveFinishedMessages(
+        @Param("afterId") long afterId,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("batchSize") int batchSize
+    );
+
+    /**
+     * Fila de {@link #claimBatch}: mensaje reclamado o reemplazado
+     */
+    interface ClaimedRow {
+        Long getId();
+
+        boolean isSuperseded();
+    }
+
+    /**
+     * Resultado de {@link #archiveFinishedMessages}: último id del batch (null si no quedaba
+     * ninguno) y mensajes movidos
+     */
+    interface ArchivedMensajes {
+        Long getCursor();
+
+        long getMensajes();
+    }
+}
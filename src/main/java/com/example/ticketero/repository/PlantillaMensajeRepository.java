@@ -0,0 +1,13 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.PlantillaMensaje;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlantillaMensajeRepository extends JpaRepository<PlantillaMensaje, PlantillaMensaje.Key> {
+
+    List<PlantillaMensaje> findByActivaTrue();
+}
@@ -0,0 +1,94 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.QueueActiveCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface QueueActiveCounterRepository extends JpaRepository<QueueActiveCounter, QueueActiveCounter.Key> {
+
+    // Suma un ticket activo a la cola (sucursal, tipo) y retorna su posición en ella
+    // (activos de la cola, incluido el nuevo). Corre en la transacción del llamador:
+    // si la creación falla, el incremento se revierte.
+    @Transactional
+    @Query(value = """
+        WITH incremented AS (
+            INSERT INTO queue_active_counter (branch_office, queue_type, active_count)
+            VALUES (:branchOffice, :queueType, 1)
+            ON CONFLICT (branch_office, queue_type)
+            DO UPDATE SET active_count = queue_active_counter.active_count + 1,
+                          updated_at = CURRENT_TIMESTAMP
+            RETURNING active_count
+        )
+        SELECT active_count FROM incremented
+        """, nativeQuery = true)
+    int incrementAndGetPosition(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE queue_active_counter
+        SET active_count = GREATEST(active_count - 1, 0),
+            updated_at = CURRENT_TIMESTAMP
+        WHERE branch_office = :branchOffice
+        AND queue_type = :queueType
+        """, nativeQuery = true)
+    int decrement(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType
+    );
+
+    // Bloquea todos los contadores hasta el fin de la transacción del llamador. Espera a que
+    // confirmen las creaciones y cierres en curso, y frena los nuevos mientras se reconcilia
+    @Query(value = """
+        SELECT CAST(COUNT(*) AS INTEGER) FROM (
+            SELECT 1 FROM queue_active_counter
+            ORDER BY branch_office, queue_type
+            FOR UPDATE
+        ) locked
+        """, nativeQuery = true)
+    int lockAll();
+
+    // Reconciliación: iguala cada contador al COUNT real y retorna cuántos estaban desviados.
+    // Cuenta solo los días calientes, los mismos que recorren las colas. Debe correr después
+    // de lockAll() en la misma transacción: el COUNT de la sentencia ve todo lo confirmado
+    // hasta el bloqueo y ningún incremento concurrente queda pisado por el valor absoluto
+    @Transactional
+    @Query(value = """
+        WITH actual AS (
+            SELECT branch_office, queue_type, COUNT(*) AS active_count
+            FROM ticket
+            WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+            AND service_day BETWEEN :from AND :to
+            GROUP BY branch_office, queue_type
+        ),
+        corrected AS (
+            INSERT INTO queue_active_counter (branch_office, queue_type, active_count)
+            SELECT k.branch_office, k.queue_type, COALESCE(a.active_count, 0)
+            FROM (
+                SELECT branch_office, queue_type FROM queue_active_counter
+                UNION
+                SELECT branch_office, queue_type FROM actual
+            ) k
+            LEFT JOIN actual a
+                ON a.branch_office = k.branch_office
+                AND a.queue_type = k.queue_type
+            ON CONFLICT (branch_office, queue_type)
+            DO UPDATE SET active_count = EXCLUDED.active_count,
+                          updated_at = CURRENT_TIMESTAMP
+            WHERE queue_active_counter.active_count <> EXCLUDED.active_count
+            RETURNING 1
+        )
+        SELECT CAST(COUNT(*) AS INTEGER) FROM corrected
+        """, nativeQuery = true)
+    int reconcile(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
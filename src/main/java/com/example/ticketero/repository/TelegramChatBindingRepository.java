@@ -0,0 +1,16 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.TelegramChatBinding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TelegramChatBindingRepository extends JpaRepository<TelegramChatBinding, String> {
+
+    @Query("SELECT b.chatId FROM TelegramChatBinding b WHERE b.telefono = :telefono")
+    Optional<String> findChatIdByTelefono(@Param("telefono") String telefono);
+}
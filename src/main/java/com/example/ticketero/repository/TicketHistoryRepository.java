@@ -0,0 +1,56 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.TicketReadModel;
+import com.example.ticketero.model.entity.TicketHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TicketHistoryRepository extends JpaRepository<TicketHistory, Long> {
+
+    // Las mismas proyecciones que TicketRepository, para las lecturas que no encuentran el
+    // ticket en la tabla caliente
+    @Query("""
+        SELECT new com.example.ticketero.model.TicketReadModel(
+            h.id, h.codigoReferencia, h.numero, h.nationalId, h.telefono, h.branchOffice,
+            h.queueType, h.status, h.positionInQueue, h.estimatedWaitMinutes,
+            a.name, h.assignedModuleNumber, h.createdAt, h.updatedAt)
+        FROM TicketHistory h LEFT JOIN Advisor a ON a.id = h.assignedAdvisorId
+        WHERE h.branchOffice = :branchOffice
+        AND h.serviceDay = :serviceDay
+        AND h.numero = :numero
+        """)
+    Optional<TicketReadModel> findReadModelByNumero(
+        @Param("branchOffice") String branchOffice,
+        @Param("serviceDay") LocalDate serviceDay,
+        @Param("numero") String numero
+    );
+
+    @Query("""
+        SELECT new com.example.ticketero.model.TicketReadModel(
+            h.id, h.codigoReferencia, h.numero, h.nationalId, h.telefono, h.branchOffice,
+            h.queueType, h.status, h.positionInQueue, h.estimatedWaitMinutes,
+            a.name, h.assignedModuleNumber, h.createdAt, h.updatedAt)
+        FROM TicketHistory h LEFT JOIN Advisor a ON a.id = h.assignedAdvisorId
+        WHERE h.codigoReferencia = :codigoReferencia
+        """)
+    Optional<TicketReadModel> findReadModelByCodigoReferencia(@Param("codigoReferencia") UUID codigoReferencia);
+
+    // Dashboard: los tickets archivados siguen contando en los totales históricos (COMPLETADO)
+    @Query("""
+        SELECT h.branchOffice AS branchOffice, h.queueType AS queueType,
+               h.status AS status, COUNT(h) AS total
+        FROM TicketHistory h
+        GROUP BY h.branchOffice, h.queueType, h.status
+        """)
+    List<TicketRepository.StatusCount> countGroupedByQueueAndStatus();
+
+    long countByServiceDay(LocalDate serviceDay);
+}
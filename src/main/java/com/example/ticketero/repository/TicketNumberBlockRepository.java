@@ -0,0 +1,34 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.TicketNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface TicketNumberBlockRepository extends JpaRepository<TicketNumberBlock, TicketNumberBlock.Key> {
+
+    // Reserva atómicamente el siguiente bloque y retorna su límite superior (exclusivo).
+    // Transacción propia: el lock de la fila se libera de inmediato y un rollback
+    // del llamador solo deja huecos, nunca números repetidos.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+        INSERT INTO ticket_number_block (branch_office, queue_type, service_day, next_value)
+        VALUES (:branchOffice, :queueType, :serviceDay, 1 + :blockSize)
+        ON CONFLICT (branch_office, queue_type, service_day)
+        DO UPDATE SET next_value = ticket_number_block.next_value + :blockSize,
+                      updated_at = CURRENT_TIMESTAMP
+        RETURNING next_value
+        """, nativeQuery = true)
+    int reserveBlock(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType,
+        @Param("serviceDay") LocalDate serviceDay,
+        @Param("blockSize") int blockSize
+    );
+}
@@ -1,14 +1,19 @@
 package com.example.ticketero.repository;
 
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.TicketReadModel;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,44 +22,268 @@ import java.util.UUID;
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     // Query derivadas
-    Optional<Ticket> findByNumero(String numero);
-    
     Optional<Ticket> findByCodigoReferencia(UUID codigoReferencia);
     
     List<Ticket> findByStatusIn(List<TicketStatus> statuses);
+
+    // Caminos calientes: el rango de service_day (ServiceDayWindow) descarta las particiones
+    // históricas en el plan
+    List<Ticket> findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+        List<TicketStatus> statuses,
+        LocalDate from,
+        LocalDate to
+    );
+
+    List<Ticket> findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+        String branchOffice,
+        QueueType queueType,
+        List<TicketStatus> statuses,
+        LocalDate from,
+        LocalDate to
+    );
+
+    List<Ticket> findByIdInAndServiceDayBetween(Collection<Long> ids, LocalDate from, LocalDate to);
+
+    Optional<Ticket> findByIdAndServiceDayBetween(Long id, LocalDate from, LocalDate to);
+
+    // Colas (sucursal, tipo) con tickets en los estados dados: las particiones del ciclo completo
+    @Query("""
+        SELECT DISTINCT new com.example.ticketero.model.QueueKey(t.branchOffice, t.queueType)
+        FROM Ticket t
+        WHERE t.status IN :statuses
+        AND t.serviceDay BETWEEN :from AND :to
+        """)
+    List<QueueKey> findQueueKeysByStatusIn(
+        @Param("statuses") List<TicketStatus> statuses,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
     
-    List<Ticket> findByQueueTypeAndStatusInOrderByCreatedAtAsc(
+    List<Ticket> findByQueueTypeAndStatusOrderByCreatedAtAsc(
         QueueType queueType, 
-        List<TicketStatus> statuses
+        TicketStatus status
     );
     
     long countByStatusIn(List<TicketStatus> statuses);
     
-    long countByCreatedAtAfter(LocalDateTime date);
+    // Creados en el día: service_day poda a su partición (created_at ya no tiene índice, V12)
+    long countByServiceDay(LocalDate serviceDay);
     
     long countByStatus(TicketStatus status);
 
-    // Queries custom
+    // Lecturas por número / referencia: proyección al modelo de lectura, sin hidratar la entidad.
+    // El número es único solo por (sucursal, tipo de cola, día) y su prefijo identifica el
+    // tipo: sin sucursal y día se mezclarían los tickets de otras sucursales o días. Con el
+    // tipo la búsqueda es exacta en uk_ticket_numero_por_dia
     @Query("""
-        SELECT t FROM Ticket t 
-        WHERE t.queueType = :queueType 
-        AND t.status IN :statuses 
-        ORDER BY t.createdAt ASC
+        SELECT new com.example.ticketero.model.TicketReadModel(
+            t.id, t.codigoReferencia, t.numero, t.nationalId, t.telefono, t.branchOffice,
+            t.queueType, t.status, t.positionInQueue, t.estimatedWaitMinutes,
+            a.name, t.assignedModuleNumber, t.createdAt, t.updatedAt)
+        FROM Ticket t LEFT JOIN t.assignedAdvisor a
+        WHERE t.branchOffice = :branchOffice
+        AND t.queueType = :queueType
+        AND t.serviceDay = :serviceDay
+        AND t.numero = :numero
         """)
-    List<Ticket> findActiveTicketsByQueue(
+    Optional<TicketReadModel> findReadModelByNumero(
+        @Param("branchOffice") String branchOffice,
+        @Param("serviceDay") LocalDate serviceDay,
         @Param("queueType") QueueType queueType,
-        @Param("statuses") List<TicketStatus> statuses
+        @Param("numero") String numero
     );
 
     @Query("""
-        SELECT COUNT(t) FROM Ticket t 
-        WHERE t.queueType = :queueType 
-        AND t.status IN :statuses 
-        AND t.createdAt < :createdBefore
+        SELECT new com.example.ticketero.model.TicketReadModel(
+            t.id, t.codigoReferencia, t.numero, t.nationalId, t.telefono, t.branchOffice,
+            t.queueType, t.status, t.positionInQueue, t.estimatedWaitMinutes,
+            a.name, t.assignedModuleNumber, t.createdAt, t.updatedAt)
+        FROM Ticket t LEFT JOIN t.assignedAdvisor a
+        WHERE t.codigoReferencia = :codigoReferencia
         """)
-    long countTicketsAheadInQueue(
-        @Param("queueType") QueueType queueType,
-        @Param("statuses") List<TicketStatus> statuses,
-        @Param("createdBefore") LocalDateTime createdBefore
+    Optional<TicketReadModel> findReadModelByCodigoReferencia(@Param("codigoReferencia") UUID codigoReferencia);
+
+    @Query("""
+        SELECT new com.example.ticketero.model.TicketReadModel(
+            t.id, t.codigoReferencia, t.numero, t.nationalId, t.telefono, t.branchOffice,
+            t.queueType, t.status, t.positionInQueue, t.estimatedWaitMinutes,
+            a.name, t.assignedModuleNumber, t.createdAt, t.updatedAt)
+        FROM Ticket t LEFT JOIN t.assignedAdvisor a
+        WHERE t.id IN :ids
+        """)
+    List<TicketReadModel> findReadModelsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dashboard: conteo por (sucursal, cola, estado) para reconciliar los contadores en memoria
+    @Query("""
+        SELECT t.branchOffice AS branchOffice, t.queueType AS queueType,
+               t.status AS status, COUNT(t) AS total
+        FROM Ticket t
+        GROUP BY t.branchOffice, t.queueType, t.status
+        """)
+    List<StatusCount> countGroupedByQueueAndStatus();
+
+    // Pool de asesores: carga real de cada asesor según sus tickets
+    @Query("""
+        SELECT t.assignedAdvisor.id AS advisorId, COUNT(t) AS total
+        FROM Ticket t
+        WHERE t.status = :status
+        AND t.assignedAdvisor IS NOT NULL
+        AND t.serviceDay BETWEEN :from AND :to
+        GROUP BY t.assignedAdvisor.id
+        """)
+    List<AdvisorLoad> countByAdvisorAndStatus(
+        @Param("status") TicketStatus status,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    // Motor SQL: recalcula posición y tiempo estimado de una cola (sucursal, tipo) en una sentencia
+    @Modifying
+    @Query(value = """
+        WITH ranked AS (
+            SELECT id, service_day, ROW_NUMBER() OVER (ORDER BY created_at, id) AS position
+            FROM ticket
+            WHERE branch_office = :branchOffice
+            AND queue_type = :queueType
+            AND status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+            AND service_day BETWEEN :from AND :to
+        )
+        UPDATE ticket t
+        SET position_in_queue = r.position,
+            estimated_wait_minutes = r.position * :avgTimeMinutes,
+            updated_at = CURRENT_TIMESTAMP
+        FROM ranked r
+        WHERE t.id = r.id
+        AND t.service_day = r.service_day
+        AND t.service_day BETWEEN :from AND :to
+        AND t.position_in_queue <> r.position
+        """, nativeQuery = true)
+    int recalculateQueuePositions(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType,
+        @Param("avgTimeMinutes") int avgTimeMinutes,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    // Motor SQL: promueve a PROXIMO los tickets en espera dentro de la ventana
+    @Query(value = """
+        WITH promoted AS (
+            UPDATE ticket
+            SET status = 'PROXIMO',
+                updated_at = CURRENT_TIMESTAMP
+            WHERE branch_office = :branchOffice
+            AND queue_type = :queueType
+            AND status = 'EN_ESPERA'
+            AND position_in_queue <= :window
+            AND service_day BETWEEN :from AND :to
+            RETURNING id
+        )
+        SELECT id FROM promoted
+        """, nativeQuery = true)
+    List<Long> promoteToProximo(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType,
+        @Param("window") int window,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    // Archivador: mueve a ticket_history un batch de tickets cerrados antes de :cutoff con
+    // id mayor a :afterId (paginación por llave), junto con todos sus mensajes, que la FK no
+    // deja sin ticket. Cada DELETE ... RETURNING alimenta su INSERT en la misma sentencia.
+    // service_day <= :cutoff descarta las particiones de días posteriores al corte
+    @Query(value = """
+        WITH batch AS (
+            SELECT id, service_day
+            FROM ticket
+            WHERE id > :afterId
+            AND status IN ('COMPLETADO', 'CANCELADO', 'NO_ATENDIDO')
+            AND updated_at < :cutoff
+            AND service_day <= CAST(:cutoff AS DATE)
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        ),
+        moved_mensajes AS (
+            DELETE FROM mensaje m
+            USING batch b
+            WHERE m.ticket_id = b.id
+            AND m.service_day = b.service_day
+            RETURNING m.id, m.ticket_id, m.plantilla, m.estado_envio, m.fecha_programada, m.fecha_envio,
+                      m.telegram_message_id, m.intentos, m.created_at, m.service_day
+        ),
+        archived_mensajes AS (
+            INSERT INTO mensaje_history (id, ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio,
+                                         telegram_message_id, intentos, created_at, service_day)
+            SELECT id, ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio,
+                   telegram_message_id, intentos, created_at, service_day
+            FROM moved_mensajes
+            RETURNING id
+        ),
+        moved AS (
+            DELETE FROM ticket t
+            USING batch b
+            WHERE t.id = b.id
+            AND t.service_day = b.service_day
+            RETURNING t.id, t.codigo_referencia, t.numero, t.national_id, t.telefono, t.branch_office,
+                      t.queue_type, t.status, t.position_in_queue, t.estimated_wait_minutes,
+                      t.assigned_advisor_id, t.assigned_module_number, t.created_at, t.updated_at,
+                      t.service_day
+        ),
+        archived AS (
+            INSERT INTO ticket_history (id, codigo_referencia, numero, national_id, telefono, branch_office,
+                                        queue_type, status, position_in_queue, estimated_wait_minutes,
+                                        assigned_advisor_id, assigned_module_number, created_at, updated_at,
+                                        service_day)
+            SELECT id, codigo_referencia, numero, national_id, telefono, branch_office,
+                   queue_type, status, position_in_queue, estimated_wait_minutes,
+                   assigned_advisor_id, assigned_module_number, created_at, updated_at,
+                   service_day
+            FROM moved
+            RETURNING id
+        )
+        SELECT (SELECT MAX(id) FROM batch) AS cursor,
+               (SELECT COUNT(*) FROM archived) AS tickets,
+               (SELECT COUNT(*) FROM archived_mensajes) AS mensajes
+        """, nativeQuery = true)
+    ArchivedTickets archiveClosedTickets(
+        @Param("afterId") long afterId,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("batchSize") int batchSize
     );
-}
\ No newline at end of file
+
+    /**
+     * Fila de {@link #countGroupedByQueueAndStatus}
+     */
+    interface StatusCount {
+        String getBranchOffice();
+
+        QueueType getQueueType();
+
+        TicketStatus getStatus();
+
+        long getTotal();
+    }
+
+    /**
+     * Fila de {@link #countByAdvisorAndStatus}
+     */
+    interface AdvisorLoad {
+        Long getAdvisorId();
+
+        long getTotal();
+    }
+
+    /**
+     * Resultado de {@link #archiveClosedTickets}: último id del batch (null si no quedaba
+     * ninguno) y filas movidas
+     */
+    interface ArchivedTickets {
+        Long getCursor();
+
+        long getTickets();
+
+        long getMensajes();
+    }
+}
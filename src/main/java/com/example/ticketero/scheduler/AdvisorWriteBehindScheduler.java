@@ -0,0 +1,38 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.AdvisorPool;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persiste en advisor la carga y el estado que el {@link AdvisorPool} mantiene en memoria
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.advisor.assignment", havingValue = "pool")
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisorWriteBehindScheduler {
+
+    private final AdvisorPool advisorPool;
+
+    @Scheduled(fixedDelayString = "${ticketero.advisor.flush-ms:500}")
+    public void flushAdvisors() {
+        try {
+            advisorPool.flush();
+        } catch (Exception e) {
+            log.error("Error flushing advisor pool: {}", e.getMessage(), e);
+            // El lote pudo perderse en el rollback: el próximo flush reescribe todos
+            advisorPool.markAllDirty();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        log.info("Flushing advisor pool before shutdown");
+        flushAdvisors();
+    }
+}
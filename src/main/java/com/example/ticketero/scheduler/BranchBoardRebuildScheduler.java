@@ -0,0 +1,31 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.BranchBoardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruye los tableros de sucursal al cambiar el día: la ventana de días de atención
+ * avanza y los tickets que quedan fuera salen de las colas
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BranchBoardRebuildScheduler {
+
+    private final BranchBoardService branchBoardService;
+
+    @Scheduled(cron = "${ticketero.board.rebuild-cron:0 0 0 * * *}")
+    public void rebuildBoards() {
+        try {
+            log.debug("Starting branch board rebuild");
+
+            branchBoardService.rebuild();
+
+        } catch (Exception e) {
+            log.error("Error during branch board rebuild: {}", e.getMessage(), e);
+        }
+    }
+}
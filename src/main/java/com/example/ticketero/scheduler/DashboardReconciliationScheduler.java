@@ -0,0 +1,27 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.DashboardMetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardReconciliationScheduler {
+
+    private final DashboardMetricsService dashboardMetricsService;
+
+    @Scheduled(fixedRateString = "${ticketero.dashboard.reconcile-ms:60000}")
+    public void reconcileDashboard() {
+        try {
+            log.debug("Starting dashboard metrics reconciliation");
+
+            dashboardMetricsService.reconcile();
+
+        } catch (Exception e) {
+            log.error("Error during dashboard metrics reconciliation: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.service.QueueManagementService;
+import com.example.ticketero.service.QueuePartitionExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Procesa las colas cuando cambian, en lugar de recorrerlas todas cada 5 segundos.
+ *
+ * Un ticket que entra o sale de la cola (creado, completado, cancelado) marca su cola
+ * (sucursal, tipo) como sucia después del commit. Un único hilo espera marcas, deja pasar
+ * debounce-ms para agrupar ráfagas y entrega las colas sucias a {@link QueuePartitionExecutor},
+ * que las procesa en paralelo, cada una en su transacción. Para entregar colas el hilo no
+ * espera a que terminen: una cola lenta solo retiene sus propias marcas, que quedan
+ * pendientes hasta que termina y entonces se vuelven a entregar. Sin cambios el hilo queda bloqueado: no hay consultas.
+ *
+ * Los asesores se reparten entre todas las colas desde este mismo hilo, cuando termina
+ * alguna cola o cuando un asesor vuelve a AVAILABLE (eso no cambia posiciones, así que no
+ * se reprocesa ninguna cola). Antes de repartir se espera que terminen las colas en curso:
+ * un motor que guarda tickets leídos antes del reparto deshace la asignación. Cada safety-poll-ms sin actividad se ejecuta un ciclo
+ * completo como red de seguridad (eventos perdidos, cambios hechos por otra instancia).
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.trigger", havingValue = "events", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DirtyQueueWorker {
+
+    private final QueueManagementService queueManagementService;
+    private final QueuePartitionExecutor queuePartitionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.queue.debounce-ms:20}")
+    private long debounceMs;
+
+    @Value("${ticketero.queue.safety-poll-ms:30000}")
+    private long safetyPollMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Cola sucia → instante (nanoTime) de su primera marca pendiente
+    private final Map<QueueKey, Long> dirtyQueues = new ConcurrentHashMap<>();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final Semaphore signal = new Semaphore(0);
+
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon())
+            .name("queue-worker")
+            .start(this::run);
+
+        log.info("Event-driven queue processing started: debounce {} ms, safety poll {} ms",
+                debounceMs, safetyPollMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        // Los pasos dentro de la cola (PROXIMO, ATENDIENDO) los produce el propio ciclo
+        boolean wasActive = event.previousStatus() != null && event.previousStatus().isActive();
+        if (wasActive != event.status().isActive()) {
+            markDirty(event.queueKey());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.status() == AdvisorStatus.AVAILABLE) {
+            requestDispatch();
+        }
+    }
+
+    void markDirty(QueueKey queueKey) {
+        if (dirtyQueues.putIfAbsent(queueKey, System.nanoTime()) == null) {
+            signal.release();
+        }
+    }
+
+    void requestDispatch() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            signal.release();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (signal.tryAcquire(safetyPollMs, TimeUnit.MILLISECONDS)) {
+                    // Agrupar la ráfaga: las marcas que llegan mientras tanto van en este ciclo
+                    Thread.sleep(debounceMs);
+                    signal.drainPermits();
+                    processDirtyQueues();
+                } else {
+                    log.debug("No queue changes in {} ms, running safety cycle", safetyPollMs);
+                    queuePartitionExecutor.processQueues();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error during queue processing: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Entrega al pool cada cola con marcas pendientes que no esté en curso y, si hay un
+     * reparto pendiente, reparte los asesores
+     * @return cantidad de colas entregadas
+     */
+    int processDirtyQueues() {
+        int submitted = 0;
+        for (QueueKey queueKey : dirtyQueues.keySet()) {
+            Long since = dirtyQueues.remove(queueKey);
+            if (since == null) {
+                continue;
+            }
+            Optional<CompletableFuture<List<Long>>> processing = queuePartitionExecutor.submit(queueKey);
+            if (processing.isEmpty()) {
+                // En curso: la marca queda pendiente y se entrega cuando termine
+                dirtyQueues.merge(queueKey, since, (current, previous) -> previous);
+                continue;
+            }
+            processing.get().whenComplete((promoted, error) -> onQueueProcessed(queueKey, since, error));
+            submitted++;
+        }
+
+        // Los cupos se reparten entre todas las colas, no solo las procesadas, y solo
+        // después de que las colas entregadas confirman: este hilo es el único que entrega
+        if (dispatchPending.get()) {
+            try {
+                queuePartitionExecutor.awaitInFlight();
+                // Lo que terminó durante la espera ya queda cubierto por este reparto
+                dispatchPending.set(false);
+                queueManagementService.dispatchAdvisors();
+            } catch (Exception e) {
+                log.error("Error dispatching advisors: {}", e.getMessage(), e);
+            }
+        }
+
+        if (submitted > 0) {
+            log.debug("Submitted {} dirty queues", submitted);
+        }
+        return submitted;
+    }
+
+    private void onQueueProcessed(QueueKey queueKey, long since, Throwable error) {
+        if (error != null) {
+            // La red de seguridad lo reintenta; no se vuelve a marcar para no ciclar
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            log.error("Error processing {} queue: {}", queueKey, cause.getMessage(), cause);
+        }
+
+        // Latencia desde el cambio (commit) hasta que su cola quedó procesada
+        meterRegistry.timer("ticketero.queue.dirty.latency").record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("ticketero.queue.dirty.processed").increment();
+
+        // Reparto tras la cola, y nueva entrega si se volvió a marcar mientras corría
+        dispatchPending.set(true);
+        signal.release();
+    }
+}
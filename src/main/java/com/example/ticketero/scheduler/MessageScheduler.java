@@ -2,23 +2,37 @@ package com.example.ticketero.scheduler;
 
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.service.ServiceDayWindow;
 import com.example.ticketero.service.TelegramService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Envío legado: un solo hilo y una transacción sobre todos los mensajes vencidos.
+ * Solo es seguro con una instancia; por defecto se usa {@link OutboxDispatcher}.
+ */
 @Component
+@ConditionalOnProperty(name = "ticketero.outbox.mode", havingValue = "scheduler")
 @RequiredArgsConstructor
 @Slf4j
 public class MessageScheduler {
 
     private final MensajeRepository mensajeRepository;
     private final TelegramService telegramService;
+    private final ServiceDayWindow serviceDayWindow;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
 
     @Scheduled(fixedRate = 60000) // Cada 60 segundos
     @Transactional
@@ -26,7 +40,8 @@ public class MessageScheduler {
         LocalDateTime now = LocalDateTime.now();
         
         // Obtener mensajes pendientes listos para enviar
-        List<Mensaje> pendingMessages = mensajeRepository.findPendingMessagesReadyToSend(now);
+        List<Mensaje> pendingMessages = mensajeRepository.findPendingMessagesReadyToSend(
+            now, serviceDayWindow.from(), serviceDayWindow.to());
         
         if (pendingMessages.isEmpty()) {
             log.debug("No pending messages to process");
@@ -35,15 +50,30 @@ public class MessageScheduler {
 
         log.info("Processing {} pending messages", pendingMessages.size());
 
-        for (Mensaje mensaje : pendingMessages) {
-            processSingleMessage(mensaje);
-        }
+        sendAll(pendingMessages);
 
         // Procesar mensajes fallidos para reintento
         processFailedMessages(now);
     }
 
-    private void processSingleMessage(Mensaje mensaje) {
+    /**
+     * Con hilos virtuales los envíos se hacen en paralelo, un hilo virtual por mensaje.
+     * El guardado queda en el hilo del scheduler, que es el dueño de la transacción.
+     */
+    private void sendAll(List<Mensaje> mensajes) {
+        if (virtualThreads && mensajes.size() > 1) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                mensajes.forEach(mensaje -> executor.submit(() -> sendSingleMessage(mensaje)));
+            }
+        } else {
+            mensajes.forEach(this::sendSingleMessage);
+        }
+
+        // El TelegramService ya actualiza el estado del mensaje
+        mensajes.forEach(mensajeRepository::save);
+    }
+
+    private void sendSingleMessage(Mensaje mensaje) {
         try {
             log.debug("Processing message {} for ticket {}", 
                      mensaje.getId(), mensaje.getTicket().getNumero());
@@ -58,21 +88,18 @@ public class MessageScheduler {
                         mensaje.getTicket().getNumero());
             }
 
-            // El TelegramService ya actualiza el estado del mensaje
-            mensajeRepository.save(mensaje);
-
         } catch (Exception e) {
             log.error("Error processing message {} for ticket {}: {}", 
                      mensaje.getId(), mensaje.getTicket().getNumero(), e.getMessage());
             
             mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.FALLIDO);
             mensaje.setIntentos(mensaje.getIntentos() + 1);
-            mensajeRepository.save(mensaje);
         }
     }
 
     private void processFailedMessages(LocalDateTime now) {
-        List<Mensaje> failedMessages = mensajeRepository.findFailedMessagesForRetry(now);
+        List<Mensaje> failedMessages = mensajeRepository.findFailedMessagesForRetry(
+            now, serviceDayWindow.from(), serviceDayWindow.to());
         
         if (failedMessages.isEmpty()) {
             return;
@@ -84,9 +111,9 @@ public class MessageScheduler {
             // Cambiar estado a pendiente para reintento
             mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.PENDIENTE);
             mensajeRepository.save(mensaje);
-            
-            // Procesar inmediatamente
-            processSingleMessage(mensaje);
         }
+
+        // Procesar inmediatamente
+        sendAll(failedMessages);
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.service.OutboxClaimService;
+import com.example.ticketero.service.TelegramService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envía los mensajes pendientes con N workers por nodo.
+ *
+ * Cada worker reclama un batch con FOR UPDATE SKIP LOCKED (dueño + lease), lo envía
+ * y confirma el resultado. Workers de cualquier cantidad de nodos reciben batches
+ * disjuntos, por lo que el throughput escala con la cantidad de workers. Si un worker
+ * cae, sus mensajes vuelven a estar disponibles al vencer el lease.
+ *
+ * Al reclamar se descartan los mensajes obsoletos de cada ticket (estado REEMPLAZADO),
+ * así bajo backlog se envía solo el aviso más relevante; el ahorro se reporta en
+ * ticketero.outbox.superseded.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.outbox.mode", havingValue = "parallel", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxClaimService outboxClaimService;
+    private final TelegramService telegramService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.outbox.workers:4}")
+    private int workers;
+
+    @Value("${ticketero.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${ticketero.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${ticketero.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${ticketero.outbox.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        String node = ManagementFactory.getRuntimeMXBean().getName();
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("outbox-worker-", 1).factory()
+            : Thread.ofPlatform().name("outbox-worker-", 1).daemon().factory();
+
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, threadFactory);
+        for (int i = 1; i <= workers; i++) {
+            String owner = node + "-w" + i;
+            executor.submit(() -> runWorker(owner));
+        }
+
+        log.info("Outbox dispatcher started: {} workers, batch size {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void runWorker(String owner) {
+        while (running) {
+            try {
+                if (dispatchBatch(owner) == 0) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox worker {} failed: {}", owner, e.getMessage(), e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reclama, envía y confirma un batch
+     * @return cantidad de mensajes procesados, enviados o reemplazados (0 si no había pendientes)
+     */
+    int dispatchBatch(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxClaimService.Claim claim = outboxClaimService.claimBatch(owner, batchSize, now.plusSeconds(leaseSeconds));
+        if (claim.isEmpty()) {
+            return 0;
+        }
+
+        if (claim.superseded() > 0) {
+            supersededCounter().increment(claim.superseded());
+            log.debug("Worker {} superseded {} stale messages", owner, claim.superseded());
+        }
+
+        List<Mensaje> batch = claim.mensajes();
+        if (batch.isEmpty()) {
+            return claim.superseded();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Los envíos del batch van en paralelo; el TelegramClient aplica los rate limits
+        CompletableFuture.allOf(batch.stream()
+            .map(this::send)
+            .toArray(CompletableFuture[]::new))
+            .join();
+        outboxClaimService.acknowledge(owner, batch, LocalDateTime.now().plusSeconds(retryBackoffSeconds));
+        sample.stop(meterRegistry.timer("ticketero.outbox.batch"));
+
+        long sent = batch.stream()
+            .filter(mensaje -> mensaje.getEstadoEnvio() == Mensaje.EstadoEnvio.ENVIADO)
+            .count();
+        sentCounter().increment(sent);
+        failedCounter().increment(batch.size() - sent);
+
+        log.debug("Worker {} dispatched {} messages ({} sent)", owner, batch.size(), sent);
+        return batch.size() + claim.superseded();
+    }
+
+    private CompletableFuture<Void> send(Mensaje mensaje) {
+        CompletableFuture<Boolean> sent;
+        try {
+            // El TelegramService actualiza el estado del mensaje
+            sent = telegramService.sendMessageAsync(mensaje);
+        } catch (Exception e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+
+        return sent.handle((result, error) -> {
+            if (error != null) {
+                log.error("Error sending message {} for ticket {}: {}",
+                         mensaje.getId(), mensaje.getTicket().getNumero(), error.getMessage());
+
+                mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.FALLIDO);
+                mensaje.setIntentos(mensaje.getIntentos() + 1);
+            }
+            return null;
+        });
+    }
+
+    private Counter sentCounter() {
+        return meterRegistry.counter("ticketero.outbox.sent");
+    }
+
+    private Counter failedCounter() {
+        return meterRegistry.counter("ticketero.outbox.failed");
+    }
+
+    // Envíos evitados: mensajes reemplazados por uno más relevante del mismo ticket
+    private Counter supersededCounter() {
+        return meterRegistry.counter("ticketero.outbox.superseded");
+    }
+}
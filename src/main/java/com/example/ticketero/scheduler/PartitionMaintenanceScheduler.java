@@ -0,0 +1,29 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.ServiceDayPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceScheduler {
+
+    private final ServiceDayPartitionService serviceDayPartitionService;
+
+    // También corre al iniciar: un nodo que estuvo detenido días repone sus particiones
+    @Scheduled(fixedRateString = "${ticketero.partitioning.maintenance-ms:3600000}")
+    public void maintainPartitions() {
+        try {
+            log.debug("Starting service day partition maintenance");
+
+            serviceDayPartitionService.createUpcomingPartitions();
+            serviceDayPartitionService.detachExpiredPartitions();
+
+        } catch (Exception e) {
+            log.error("Error during service day partition maintenance: {}", e.getMessage(), e);
+        }
+    }
+}
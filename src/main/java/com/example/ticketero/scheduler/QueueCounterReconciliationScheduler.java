@@ -0,0 +1,27 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.QueueCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueCounterReconciliationScheduler {
+
+    private final QueueCounterService queueCounterService;
+
+    @Scheduled(fixedRate = 60000) // Cada 60 segundos
+    public void reconcileCounters() {
+        try {
+            log.debug("Starting queue counter reconciliation");
+
+            queueCounterService.reconcile();
+
+        } catch (Exception e) {
+            log.error("Error during queue counter reconciliation: {}", e.getMessage(), e);
+        }
+    }
+}
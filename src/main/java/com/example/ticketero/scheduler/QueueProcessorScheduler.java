@@ -1,24 +1,31 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.QueueManagementService;
+import com.example.ticketero.service.QueuePartitionExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Procesamiento legado por polling: recorre todas las colas cada 5 segundos.
+ * Activo solo con ticketero.queue.trigger=poll; por defecto las colas se procesan
+ * al cambiar (ver {@link DirtyQueueWorker}).
+ */
 @Component
+@ConditionalOnProperty(name = "ticketero.queue.trigger", havingValue = "poll")
 @RequiredArgsConstructor
 @Slf4j
 public class QueueProcessorScheduler {
 
-    private final QueueManagementService queueManagementService;
+    private final QueuePartitionExecutor queuePartitionExecutor;
 
     @Scheduled(fixedRate = 5000) // Cada 5 segundos
     public void processQueues() {
         try {
             log.debug("Starting automatic queue processing");
             
-            queueManagementService.processQueues();
+            queuePartitionExecutor.processQueues();
             
             log.debug("Queue processing completed successfully");
             
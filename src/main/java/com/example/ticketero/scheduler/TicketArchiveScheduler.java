@@ -0,0 +1,185 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.TicketArchiveService;
+import com.example.ticketero.service.TicketArchiveService.Batch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+
+/**
+ * Archiva tickets cerrados y mensajes terminados con más de after-hours de antigüedad.
+ *
+ * Recorre cada tabla por id en batches de batch-size (paginación por llave, sin OFFSET),
+ * primero los tickets, que se llevan sus mensajes, y después los mensajes sueltos. Para no
+ * competir con la atención: solo corre dentro de la ventana horaria configurada, hace a lo
+ * más max-batches por ejecución y entre batch y batch espera pause-ms o lo que tardó el
+ * último, lo que sea mayor, así una base cargada recibe batches más espaciados.
+ *
+ * Corre en su propio hilo ticket-archiver: las pausas entre batches no pueden ocupar el
+ * hilo compartido de @Scheduled, del que dependen el resto de los schedulers. Si una
+ * ejecución sigue en curso cuando vence el intervalo, esa vuelta se omite.
+ *
+ * El avance se reporta en ticketero.archive.tickets, ticketero.archive.mensajes y
+ * ticketero.archive.batch (duración por tabla).
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.archive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TicketArchiveScheduler {
+
+    private final TicketArchiveService ticketArchiveService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.archive.after-hours:24}")
+    private long afterHours;
+
+    @Value("${ticketero.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ticketero.archive.window-start-hour:20}")
+    private int windowStartHour;
+
+    @Value("${ticketero.archive.window-end-hour:7}")
+    private int windowEndHour;
+
+    @Value("${ticketero.archive.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${ticketero.archive.max-batches:500}")
+    private int maxBatches;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("ticket-archiver").factory()
+            : Thread.ofPlatform().name("ticket-archiver").daemon().factory();
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Entrega una ejecución al hilo ticket-archiver y vuelve de inmediato. No encola una
+     * segunda mientras la anterior siga corriendo
+     */
+    @Scheduled(fixedDelayString = "${ticketero.archive.interval-ms:600000}")
+    public void trigger() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Archive run still in progress, skipping");
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    archive();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            log.warn("Could not start archive run: {}", e.getMessage());
+        }
+    }
+
+    void archive() {
+        if (!insideWindow(LocalTime.now())) {
+            log.debug("Outside archive window {}-{}h, skipping", windowStartHour, windowEndHour);
+            return;
+        }
+
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(afterHours);
+            Run tickets = drain("ticket", maxBatches,
+                cursor -> ticketArchiveService.archiveClosedTickets(cursor, cutoff, batchSize));
+            Run mensajes = drain("mensaje", maxBatches - tickets.batches(),
+                cursor -> ticketArchiveService.archiveFinishedMessages(cursor, cutoff, batchSize));
+
+            if (tickets.tickets() > 0 || mensajes.mensajes() > 0) {
+                log.info("Archived {} tickets and {} messages closed before {} in {} batches",
+                    tickets.tickets(), tickets.mensajes() + mensajes.mensajes(), cutoff,
+                    tickets.batches() + mensajes.batches());
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error archiving closed tickets: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ventana [window-start-hour, window-end-hour); puede cruzar la medianoche. Con ambas
+     * horas iguales no hay restricción
+     */
+    boolean insideWindow(LocalTime now) {
+        int hour = now.getHour();
+        if (windowStartHour == windowEndHour) {
+            return true;
+        }
+        if (windowStartHour < windowEndHour) {
+            return hour >= windowStartHour && hour < windowEndHour;
+        }
+        return hour >= windowStartHour || hour < windowEndHour;
+    }
+
+    private Run drain(String table, int budget, LongFunction<Batch> next) throws InterruptedException {
+        Timer timer = meterRegistry.timer("ticketero.archive.batch", "table", table);
+        long cursor = 0;
+        int batches = 0;
+        long tickets = 0;
+        long mensajes = 0;
+
+        while (batches < budget && insideWindow(LocalTime.now())) {
+            long start = System.nanoTime();
+            Batch batch = next.apply(cursor);
+            long elapsedNanos = System.nanoTime() - start;
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            batches++;
+            tickets += batch.tickets();
+            mensajes += batch.mensajes();
+            meterRegistry.counter("ticketero.archive.tickets").increment(batch.tickets());
+            meterRegistry.counter("ticketero.archive.mensajes").increment(batch.mensajes());
+            cursor = batch.cursor();
+
+            Thread.sleep(Math.max(pauseMs, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+        }
+        return new Run(batches, tickets, mensajes);
+    }
+
+    private record Run(int batches, long tickets, long mensajes) {
+    }
+}
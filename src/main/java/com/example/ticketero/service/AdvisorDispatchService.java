@@ -0,0 +1,210 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Asigna asesores a los tickets PROXIMO de todas las colas a la vez, en lugar de que
+ * cada cola tome los cupos libres en el orden en que se procesa.
+ *
+ * Los tickets PROXIMO se cargan una vez por reparto y se agrupan por tipo de cola,
+ * en orden de llegada. Por cada cupo libre el {@link QueueDispatcher} configurado elige
+ * el tipo de cola y se asigna el primer ticket de ese tipo; sin cupos el reparto termina.
+ *
+ * El costo de cada asignación es el tiempo de atención observado del tipo de cola
+ * (promedio móvil desde ATENDIENDO hasta el cierre), que parte en
+ * {@link QueueType#getAvgTimeMinutes()}. Métricas de equidad por tipo de cola:
+ * ticketero.queue.wait (espera desde la creación hasta el asesor),
+ * ticketero.queue.head.wait (espera del primer PROXIMO sin asesor tras el último reparto)
+ * y ticketero.queue.wait.fairness (índice de Jain de las esperas multiplicadas por el
+ * peso: 1 = esperas inversamente proporcionales a la prioridad).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisorDispatchService {
+
+    // Peso de la última observación en los promedios móviles
+    private static final double ALPHA = 0.2;
+
+    private final TicketRepository ticketRepository;
+    private final AdvisorService advisorService;
+    private final NotificationService notificationService;
+    private final QueueDispatcher queueDispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ServiceDayWindow serviceDayWindow;
+
+    // Ticket atendido → instante (nanoTime) de la asignación
+    private final Map<Long, Long> assignedAt = new ConcurrentHashMap<>();
+    // Promedios móviles por tipo de cola, en minutos (bits de double)
+    private final AtomicLongArray serviceMinutes = new AtomicLongArray(QueueType.values().length);
+    private final AtomicLongArray waitMinutes = new AtomicLongArray(QueueType.values().length);
+    private final AtomicLongArray headWaitSeconds = new AtomicLongArray(QueueType.values().length);
+
+    @PostConstruct
+    void init() {
+        for (QueueType queueType : QueueType.values()) {
+            int i = queueType.ordinal();
+            serviceMinutes.set(i, Double.doubleToLongBits(queueType.getAvgTimeMinutes()));
+            waitMinutes.set(i, Double.doubleToLongBits(Double.NaN));
+            meterRegistry.gauge("ticketero.queue.head.wait", Tags.of("queueType", queueType.name()),
+                headWaitSeconds, values -> values.get(i));
+        }
+        meterRegistry.gauge("ticketero.queue.wait.fairness", this, AdvisorDispatchService::fairness);
+        log.info("Advisor dispatch across queue types with {} dispatcher", queueDispatcher.name());
+    }
+
+    /**
+     * Reparte los cupos libres entre los tickets PROXIMO de todas las colas
+     * @return cantidad de tickets asignados
+     */
+    @Transactional
+    public int dispatch() {
+        // Con todos los asesores ocupados ni siquiera se cargan los PROXIMO
+        if (!advisorService.hasCapacity()) {
+            return 0;
+        }
+
+        Map<QueueType, Deque<Ticket>> backlog = new EnumMap<>(QueueType.class);
+        List<Ticket> proximos = ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+            List.of(TicketStatus.PROXIMO), serviceDayWindow.from(), serviceDayWindow.to());
+        for (Ticket ticket : proximos) {
+            backlog.computeIfAbsent(ticket.getQueueType(), queueType -> new ArrayDeque<>()).addLast(ticket);
+        }
+        Set<QueueType> backlogged = backlog.isEmpty() ? EnumSet.noneOf(QueueType.class) : EnumSet.copyOf(backlog.keySet());
+
+        int assigned = 0;
+        while (!backlogged.isEmpty()) {
+            QueueType queueType = queueDispatcher.select(backlogged);
+            Deque<Ticket> tickets = backlog.get(queueType);
+            Ticket ticket = tickets.peekFirst();
+            if (!advisorService.assignTicketToAdvisor(ticket)) {
+                break;
+            }
+
+            tickets.removeFirst();
+            if (tickets.isEmpty()) {
+                backlogged.remove(queueType);
+            }
+            queueDispatcher.charge(queueType, serviceMinutes(queueType));
+            onAssigned(ticket);
+            assigned++;
+        }
+
+        updateHeadWaits(backlog);
+        if (assigned > 0) {
+            log.debug("Dispatched {} tickets with {} dispatcher", assigned, queueDispatcher.name());
+        }
+        return assigned;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        if (event.previousStatus() != TicketStatus.ATENDIENDO || event.status() == TicketStatus.ATENDIENDO) {
+            return;
+        }
+        Long since = assignedAt.remove(event.ticketId());
+        if (since == null) {
+            // Asignado antes de reiniciar: no hay inicio de atención
+            return;
+        }
+
+        long nanos = System.nanoTime() - since;
+        meterRegistry.timer("ticketero.queue.service.time", "queueType", event.queueType().name())
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (event.status() == TicketStatus.COMPLETADO) {
+            accumulate(serviceMinutes, event.queueType(), nanos / 60e9);
+        }
+    }
+
+    /**
+     * Tiempo de atención esperado de un ticket del tipo de cola, en minutos
+     */
+    public double serviceMinutes(QueueType queueType) {
+        return Double.longBitsToDouble(serviceMinutes.get(queueType.ordinal()));
+    }
+
+    /**
+     * Índice de Jain de las esperas recientes multiplicadas por el peso de cada tipo de cola
+     * @return entre 1/n y 1; NaN sin asignaciones
+     */
+    double fairness() {
+        double sum = 0;
+        double sumOfSquares = 0;
+        int n = 0;
+        for (QueueType queueType : QueueType.values()) {
+            double wait = Double.longBitsToDouble(waitMinutes.get(queueType.ordinal()));
+            if (!Double.isNaN(wait)) {
+                double normalized = wait * WeightedFairQueueDispatcher.weight(queueType);
+                sum += normalized;
+                sumOfSquares += normalized * normalized;
+                n++;
+            }
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        return sumOfSquares == 0 ? 1.0 : (sum * sum) / (n * sumOfSquares);
+    }
+
+    private void onAssigned(Ticket ticket) {
+        ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketStateChangedEvent.of(ticket, TicketStatus.PROXIMO));
+        notificationService.scheduleEsTuTurnoNotification(ticket);
+
+        assignedAt.put(ticket.getId(), System.nanoTime());
+        Duration waited = waitedSince(ticket);
+        meterRegistry.timer("ticketero.queue.wait", "queueType", ticket.getQueueType().name()).record(waited);
+        accumulate(waitMinutes, ticket.getQueueType(), waited.toMillis() / 60_000.0);
+
+        log.info("Ticket {} assigned and moved to ATENDIENDO", ticket.getNumero());
+    }
+
+    private void updateHeadWaits(Map<QueueType, Deque<Ticket>> backlog) {
+        for (QueueType queueType : QueueType.values()) {
+            Deque<Ticket> tickets = backlog.get(queueType);
+            long seconds = tickets == null || tickets.isEmpty() ? 0 : waitedSince(tickets.peekFirst()).toSeconds();
+            headWaitSeconds.set(queueType.ordinal(), seconds);
+        }
+    }
+
+    private static Duration waitedSince(Ticket ticket) {
+        return ticket.getCreatedAt() == null
+            ? Duration.ZERO
+            : Duration.between(ticket.getCreatedAt(), LocalDateTime.now());
+    }
+
+    private static void accumulate(AtomicLongArray averages, QueueType queueType, double value) {
+        averages.getAndUpdate(queueType.ordinal(), bits -> {
+            double current = Double.longBitsToDouble(bits);
+            double updated = Double.isNaN(current) ? value : current + ALPHA * (value - current);
+            return Double.doubleToLongBits(updated);
+        });
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool en memoria de cupos de atención de los asesores, en lugar de consultar el asesor
+ * con menos carga y guardarlo por cada ticket PROXIMO.
+ *
+ * Cada asesor tiene CAPACITY cupos y un contador de carga que se toma con compare-and-set;
+ * se elige el de menor carga (empate: menor id, como la consulta legada). Un contador
+ * global de cupos libres se reserva antes de buscar: con todos los asesores ocupados la
+ * asignación se descarta sin recorrer ni consultar nada.
+ *
+ * La carga y el estado (BUSY en CAPACITY) se persisten en advisor por write-behind: los
+ * asesores modificados se marcan y {@link #flush()} los escribe cada flush-ms y al apagar.
+ * Al iniciar, la carga se calcula desde los tickets ATENDIENDO, que son la fuente de verdad.
+ * Válido con una sola instancia: cada réplica tendría sus propios cupos y el write-behind
+ * pisaría la carga escrita por las demás. Por eso se activa solo con assignment=pool;
+ * el modo por defecto, sql, toma cada cupo con un UPDATE atómico en advisor.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisorPool {
+
+    /** Tickets que un asesor atiende a la vez */
+    public static final int CAPACITY = 3;
+
+    private final AdvisorRepository advisorRepository;
+    private final TicketRepository ticketRepository;
+    private final MeterRegistry meterRegistry;
+    private final ServiceDayWindow serviceDayWindow;
+
+    @Value("${ticketero.advisor.assignment:sql}")
+    private String assignment;
+
+    private volatile List<Slot> slots = List.of();
+    private volatile Map<Long, Slot> slotsById = Map.of();
+    // Suma de cupos libres de los asesores en línea, menos las reservas en curso
+    private final AtomicInteger freeSlots = new AtomicInteger();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private Counter acquiredCounter;
+    private Counter saturatedCounter;
+
+    @PostConstruct
+    void init() {
+        acquiredCounter = meterRegistry.counter("ticketero.advisor.pool.acquired");
+        saturatedCounter = meterRegistry.counter("ticketero.advisor.pool.saturated");
+        meterRegistry.gauge("ticketero.advisor.pool.free", freeSlots);
+        meterRegistry.gauge("ticketero.advisor.pool.dirty", dirty, Set::size);
+    }
+
+    /**
+     * El pool solo se usa cuando la asignación configurada es pool
+     */
+    public boolean isEnabled() {
+        return "pool".equals(assignment);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Map<Long, Long> loads = new HashMap<>();
+        List<TicketRepository.AdvisorLoad> rows = ticketRepository.countByAdvisorAndStatus(
+            TicketStatus.ATENDIENDO, serviceDayWindow.from(), serviceDayWindow.to());
+        for (TicketRepository.AdvisorLoad row : rows) {
+            loads.put(row.getAdvisorId(), row.getTotal());
+        }
+
+        List<Slot> online = advisorRepository.findAll().stream()
+            .filter(advisor -> advisor.getStatus() != AdvisorStatus.OFFLINE)
+            .sorted(Comparator.comparing(Advisor::getId))
+            .map(advisor -> {
+                Slot slot = new Slot(advisor.getId(), advisor.getModuleNumber(), advisor.getName(),
+                    loads.getOrDefault(advisor.getId(), 0L).intValue());
+                if (slot.load.get() != advisor.getAssignedTicketsCount()
+                        || statusFor(slot.load.get()) != advisor.getStatus()) {
+                    // La fila quedó atrás (p. ej. write-behind perdido): se corrige en el próximo flush
+                    dirty.add(slot.advisorId);
+                }
+                return slot;
+            })
+            .toList();
+
+        Map<Long, Slot> byId = new HashMap<>();
+        online.forEach(slot -> byId.put(slot.advisorId, slot));
+        slots = online;
+        slotsById = Map.copyOf(byId);
+        freeSlots.set(online.stream().mapToInt(slot -> CAPACITY - slot.load.get()).sum());
+
+        log.info("Advisor pool built: {} advisors online, {} free slots", online.size(), freeSlots.get());
+    }
+
+    /**
+     * Chequeo rápido, sin recorrer asesores: ¿queda algún cupo libre?
+     */
+    public boolean hasCapacity() {
+        return freeSlots.get() > 0;
+    }
+
+    /**
+     * Toma un cupo del asesor con menos carga
+     * @return vacío si todos los asesores están ocupados
+     */
+    public Optional<AdvisorSlot> acquire() {
+        if (!reserve()) {
+            saturatedCounter.increment();
+            return Optional.empty();
+        }
+
+        // Hay un cupo reservado: algún asesor tiene carga < CAPACITY
+        while (true) {
+            Slot best = null;
+            int bestLoad = CAPACITY;
+            for (Slot slot : slots) {
+                int load = slot.load.get();
+                if (load < bestLoad) {
+                    best = slot;
+                    bestLoad = load;
+                }
+            }
+            if (best == null) {
+                // Solo si el pool se reconstruyó entre medio
+                freeSlots.incrementAndGet();
+                return Optional.empty();
+            }
+            if (best.load.compareAndSet(bestLoad, bestLoad + 1)) {
+                dirty.add(best.advisorId);
+                acquiredCounter.increment();
+                return Optional.of(best.state(bestLoad + 1));
+            }
+        }
+    }
+
+    /**
+     * Devuelve un cupo del asesor
+     * @return vacío si el asesor no está en el pool o no tenía cupos tomados
+     */
+    public Optional<AdvisorSlot> release(Long advisorId) {
+        Slot slot = slotsById.get(advisorId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        int load;
+        do {
+            load = slot.load.get();
+            if (load == 0) {
+                return Optional.empty();
+            }
+        } while (!slot.load.compareAndSet(load, load - 1));
+
+        freeSlots.incrementAndGet();
+        dirty.add(advisorId);
+        return Optional.of(slot.state(load - 1));
+    }
+
+    /**
+     * Vuelve a tomar un cupo ya liberado (rollback de una liberación). No respeta
+     * CAPACITY: el ticket sigue atendido aunque el cupo se haya reasignado entre medio.
+     */
+    public void restore(Long advisorId) {
+        Slot slot = slotsById.get(advisorId);
+        if (slot != null) {
+            slot.load.incrementAndGet();
+            freeSlots.decrementAndGet();
+            dirty.add(advisorId);
+        }
+    }
+
+    /**
+     * Escribe en advisor la carga y el estado de los asesores modificados
+     * @return cantidad de asesores escritos
+     */
+    @Transactional
+    public int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        int written = 0;
+        for (Long advisorId : List.copyOf(dirty)) {
+            // Se desmarca antes de leer: un cambio posterior lo vuelve a marcar
+            dirty.remove(advisorId);
+            Slot slot = slotsById.get(advisorId);
+            if (slot != null) {
+                int load = slot.load.get();
+                written += advisorRepository.updateLoad(advisorId, load, statusFor(load));
+            }
+        }
+
+        log.debug("Advisor pool flushed: {} advisors", written);
+        return written;
+    }
+
+    /**
+     * Marca todos los asesores para reescribirlos en el próximo flush
+     */
+    public void markAllDirty() {
+        slots.forEach(slot -> dirty.add(slot.advisorId));
+    }
+
+    public static AdvisorStatus statusFor(int load) {
+        return load >= CAPACITY ? AdvisorStatus.BUSY : AdvisorStatus.AVAILABLE;
+    }
+
+    private boolean reserve() {
+        int free;
+        do {
+            free = freeSlots.get();
+            if (free <= 0) {
+                return false;
+            }
+        } while (!freeSlots.compareAndSet(free, free - 1));
+        return true;
+    }
+
+    /**
+     * Asesor y su carga después de tomar o devolver un cupo
+     */
+    public record AdvisorSlot(Long advisorId, Integer moduleNumber, String advisorName, int load) {
+    }
+
+    private static final class Slot {
+
+        private final Long advisorId;
+        private final Integer moduleNumber;
+        private final String name;
+        private final AtomicInteger load;
+
+        Slot(Long advisorId, Integer moduleNumber, String name, int load) {
+            this.advisorId = advisorId;
+            this.moduleNumber = moduleNumber;
+            this.name = name;
+            this.load = new AtomicInteger(load);
+        }
+
+        AdvisorSlot state(int load) {
+            return new AdvisorSlot(advisorId, moduleNumber, name, load);
+        }
+    }
+}
@@ -4,11 +4,15 @@ import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +24,8 @@ import java.util.Optional;
 public class AdvisorService {
 
     private final AdvisorRepository advisorRepository;
+    private final AdvisorPool advisorPool;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Advisor> findAvailableAdvisors() {
         return advisorRepository.findByStatus(AdvisorStatus.AVAILABLE);
@@ -29,35 +35,35 @@ public class AdvisorService {
         return advisorRepository.findAvailableAdvisorWithLeastLoad();
     }
 
+    /**
+     * Chequeo rápido de capacidad antes de cargar tickets PROXIMO; sin pool no se sabe sin consultar
+     */
+    public boolean hasCapacity() {
+        return !advisorPool.isEnabled() || advisorPool.hasCapacity();
+    }
+
     @Transactional
     public boolean assignTicketToAdvisor(Ticket ticket) {
-        Optional<Advisor> advisorOpt = findAvailableAdvisorWithLeastLoad();
-        
-        if (advisorOpt.isEmpty()) {
+        if (advisorPool.isEnabled()) {
+            return assignFromPool(ticket);
+        }
+
+        // Un solo UPDATE toma el cupo: sin leer el asesor ni guardarlo desde Java
+        Optional<AdvisorRepository.AdvisorAssignment> claimed = advisorRepository.claimLeastLoaded(AdvisorPool.CAPACITY);
+        if (claimed.isEmpty()) {
             log.warn("No available advisors to assign ticket: {}", ticket.getNumero());
             return false;
         }
 
-        Advisor advisor = advisorOpt.get();
-        
-        // Asignar ticket al asesor
-        ticket.setAssignedAdvisor(advisor);
+        AdvisorRepository.AdvisorAssignment advisor = claimed.get();
+        ticket.setAssignedAdvisor(advisorRepository.getReferenceById(advisor.getId()));
         ticket.setAssignedModuleNumber(advisor.getModuleNumber());
         ticket.setStatus(TicketStatus.ATENDIENDO);
-        
-        // Actualizar contador del asesor
-        advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
-        
-        // Cambiar estado del asesor si alcanza el límite
-        if (advisor.getAssignedTicketsCount() >= 3) {
-            advisor.setStatus(AdvisorStatus.BUSY);
-        }
-        
-        advisorRepository.save(advisor);
-        
-        log.info("Ticket {} assigned to advisor {} at module {}", 
+        publishStatusChange(advisor);
+
+        log.info("Ticket {} assigned to advisor {} at module {}",
                 ticket.getNumero(), advisor.getName(), advisor.getModuleNumber());
-        
+
         return true;
     }
 
@@ -67,23 +73,85 @@ public class AdvisorService {
             return;
         }
 
-        Advisor advisor = ticket.getAssignedAdvisor();
-        
-        // Decrementar contador
-        advisor.setAssignedTicketsCount(Math.max(0, advisor.getAssignedTicketsCount() - 1));
-        
-        // Cambiar estado a disponible si tiene capacidad
-        if (advisor.getAssignedTicketsCount() < 3 && advisor.getStatus() == AdvisorStatus.BUSY) {
-            advisor.setStatus(AdvisorStatus.AVAILABLE);
+        if (advisorPool.isEnabled()) {
+            releaseToPool(ticket.getAssignedAdvisor().getId());
+            return;
         }
-        
-        advisorRepository.save(advisor);
-        
-        log.info("Completed assignment for advisor {} (current load: {})", 
-                advisor.getName(), advisor.getAssignedTicketsCount());
+
+        // Decremento y cambio a AVAILABLE en el mismo UPDATE; vacío si el contador ya estaba en 0
+        advisorRepository.release(ticket.getAssignedAdvisor().getId(), AdvisorPool.CAPACITY)
+            .ifPresent(advisor -> {
+                publishStatusChange(advisor);
+                log.info("Completed assignment for advisor {} (current load: {})",
+                        advisor.getName(), advisor.getAssignedTicketsCount());
+            });
+    }
+
+    /**
+     * Asignación desde el pool en memoria: sin leer ni escribir advisor en esta transacción
+     */
+    private boolean assignFromPool(Ticket ticket) {
+        Optional<AdvisorPool.AdvisorSlot> acquired = advisorPool.acquire();
+        if (acquired.isEmpty()) {
+            log.debug("No advisor capacity for ticket: {}", ticket.getNumero());
+            return false;
+        }
+
+        AdvisorPool.AdvisorSlot assignment = acquired.get();
+        // Si la transacción se revierte, el cupo vuelve al pool
+        onRollback(() -> advisorPool.release(assignment.advisorId()));
+
+        // Referencia sin SELECT: solo se necesita la FK
+        ticket.setAssignedAdvisor(advisorRepository.getReferenceById(assignment.advisorId()));
+        ticket.setAssignedModuleNumber(assignment.moduleNumber());
+        ticket.setStatus(TicketStatus.ATENDIENDO);
+
+        if (assignment.load() == AdvisorPool.CAPACITY) {
+            eventPublisher.publishEvent(new AdvisorStatusChangedEvent(
+                assignment.advisorId(), assignment.moduleNumber(), AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
+        }
+
+        log.info("Ticket {} assigned to advisor {} at module {}",
+                ticket.getNumero(), assignment.advisorName(), assignment.moduleNumber());
+        return true;
+    }
+
+    private void releaseToPool(Long advisorId) {
+        advisorPool.release(advisorId).ifPresent(released -> {
+            onRollback(() -> advisorPool.restore(advisorId));
+
+            if (released.load() == AdvisorPool.CAPACITY - 1) {
+                eventPublisher.publishEvent(new AdvisorStatusChangedEvent(
+                    advisorId, released.moduleNumber(), AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+            }
+
+            log.info("Completed assignment for advisor {} (current load: {})",
+                    released.advisorName(), released.load());
+        });
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
     }
 
     public long countByStatus(AdvisorStatus status) {
         return advisorRepository.countByStatus(status);
     }
+
+    private void publishStatusChange(AdvisorRepository.AdvisorAssignment advisor) {
+        if (advisor.getPreviousStatus() != advisor.getStatus()) {
+            eventPublisher.publishEvent(new AdvisorStatusChangedEvent(
+                advisor.getId(), advisor.getModuleNumber(), advisor.getPreviousStatus(), advisor.getStatus()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,416 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.BranchBoardUpdate;
+import com.example.ticketero.model.dto.DashboardResponse;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Difunde por STOMP los cambios de los tableros de sucursal, de los asesores y del dashboard,
+ * en lugar de que cada pantalla consulte el dashboard con un timer.
+ *
+ * Los cambios confirmados (después del commit) ajustan el estado en memoria de la sucursal
+ * y la marcan. Un único hilo espera coalesce-ms para agrupar ráfagas y publica un delta por
+ * sucursal con solo lo que cambió: profundidad de colas y tickets atendidos por módulo.
+ *
+ * Cada actualización se serializa a JSON una sola vez; el broker reparte los mismos bytes a
+ * todos los suscriptores del tópico.
+ *
+ * rebuild() recarga los tableros desde la BD al arrancar y en cada cambio de día (los tickets
+ * que salen de la ventana de días dejan las colas). Los cambios que confirman mientras se
+ * consulta se anotan y se vuelven a aplicar sobre el tablero nuevo antes del reemplazo. Tras
+ * un rebuild posterior al arranque cada sucursal recibe su tablero completo (snapshot=true)
+ * con la secuencia siguiente, en lugar de un delta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BranchBoardService {
+
+    public static final String BRANCH_TOPIC = "/topic/branches/";
+    public static final String ADVISORS_TOPIC = "/topic/advisors";
+    public static final String DASHBOARD_TOPIC = "/topic/dashboard";
+
+    private final TicketRepository ticketRepository;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ServiceDayWindow serviceDayWindow;
+
+    @Value("${ticketero.board.coalesce-ms:50}")
+    private long coalesceMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Protegidos por lock
+    private final Map<String, BranchBoard> boards = new HashMap<>();
+    private final List<AdvisorStatusChangedEvent> pendingAdvisorChanges = new ArrayList<>();
+    // Cambios de tickets aplicados durante un rebuild en curso; null fuera de él
+    private List<TicketStateChangedEvent> journal;
+    private boolean loaded;
+
+    private final Semaphore signal = new Semaphore(0);
+    private DashboardResponse lastDashboard;
+
+    private Thread publisher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        publisher = (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon())
+            .name("board-publisher")
+            .start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (publisher != null) {
+            publisher.interrupt();
+            publisher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            startJournal();
+            rebuildJournaled();
+        } finally {
+            lock.lock();
+            journal = null;
+            lock.unlock();
+            rebuildLock.unlock();
+        }
+    }
+
+    private void startJournal() {
+        lock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Corre en la transacción REPEATABLE_READ de rebuild(): la consulta ve una foto tomada
+    // ya con el registro abierto; lo anotado confirmó después
+    private void rebuildJournaled() {
+        List<Ticket> activeTickets = ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+            TicketStatus.getActiveStatuses(), serviceDayWindow.from(), serviceDayWindow.to()
+        );
+
+        Map<String, BranchBoard> rebuilt = new HashMap<>();
+        for (Ticket ticket : activeTickets) {
+            rebuilt.computeIfAbsent(ticket.getBranchOffice(), BranchBoard::new).apply(
+                ticket.getId(), ticket.getNumero(), ticket.getQueueType(),
+                null, ticket.getStatus(), ticket.getAssignedModuleNumber());
+        }
+
+        boolean resync;
+        lock.lock();
+        try {
+            for (TicketStateChangedEvent event : journal) {
+                apply(rebuilt, event);
+            }
+
+            resync = loaded;
+            if (resync) {
+                // Las pantallas ya siguen estos tableros: todas reciben el completo, también
+                // las sucursales que quedaron sin tickets activos
+                boards.keySet().forEach(branchOffice -> rebuilt.computeIfAbsent(branchOffice, BranchBoard::new));
+                rebuilt.forEach((branchOffice, board) -> board.resync(boards.get(branchOffice)));
+            } else {
+                // La carga inicial no es un cambio: no se difunde
+                rebuilt.values().forEach(BranchBoard::clearChanges);
+            }
+            boards.clear();
+            boards.putAll(rebuilt);
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+        if (resync) {
+            signal.release();
+        }
+
+        log.info("Branch boards built: {} branches, {} active tickets", rebuilt.size(), activeTickets.size());
+    }
+
+    /**
+     * Tablero completo de la sucursal, con la secuencia del último delta publicado
+     */
+    public BranchBoardUpdate snapshot(String branchOffice) {
+        lock.lock();
+        try {
+            BranchBoard board = boards.get(branchOffice);
+            return board == null
+                ? new BranchBoardUpdate(branchOffice, 0, true, emptyDepths(), Map.of(), System.currentTimeMillis())
+                : board.snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        lock.lock();
+        try {
+            apply(boards, event);
+            if (journal != null) {
+                journal.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+        signal.release();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        lock.lock();
+        try {
+            pendingAdvisorChanges.add(event);
+        } finally {
+            lock.unlock();
+        }
+        signal.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                signal.acquire();
+                // Agrupar la ráfaga: los cambios que llegan mientras tanto van en este delta
+                Thread.sleep(coalesceMs);
+                signal.drainPermits();
+                publishChanges();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error publishing board updates: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Publica un delta por sucursal con cambios, los cambios de asesores y el dashboard si cambió
+     * @return cantidad de mensajes publicados
+     */
+    int publishChanges() {
+        List<BranchBoardUpdate> deltas = new ArrayList<>();
+        List<AdvisorStatusChangedEvent> advisorChanges;
+
+        lock.lock();
+        try {
+            for (BranchBoard board : boards.values()) {
+                if (board.hasChanges()) {
+                    deltas.add(board.delta());
+                }
+            }
+            advisorChanges = List.copyOf(pendingAdvisorChanges);
+            pendingAdvisorChanges.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        // Solo este hilo publica: los deltas de una sucursal salen en orden de secuencia
+        int published = 0;
+        for (BranchBoardUpdate delta : deltas) {
+            published += broadcast(BRANCH_TOPIC + delta.branchOffice(), delta);
+        }
+        if (!advisorChanges.isEmpty()) {
+            published += broadcast(ADVISORS_TOPIC, advisorChanges);
+        }
+        DashboardResponse dashboard = dashboardMetricsService.snapshot();
+        if (dashboard != lastDashboard) {
+            lastDashboard = dashboard;
+            published += broadcast(DASHBOARD_TOPIC, dashboard);
+        }
+        return published;
+    }
+
+    private int broadcast(String destination, Object payload) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Una serialización por actualización; el broker comparte el payload entre sesiones
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setLeaveMutable(true);
+            messagingTemplate.send(destination, MessageBuilder.createMessage(json, headers.getMessageHeaders()));
+            return 1;
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing board update for {}: {}", destination, e.getMessage(), e);
+            return 0;
+        } finally {
+            sample.stop(meterRegistry.timer("ticketero.board.broadcast"));
+        }
+    }
+
+    private static void apply(Map<String, BranchBoard> target, TicketStateChangedEvent event) {
+        target.computeIfAbsent(event.branchOffice(), BranchBoard::new).apply(
+            event.ticketId(), event.numero(), event.queueType(),
+            event.previousStatus(), event.status(), event.assignedModuleNumber());
+    }
+
+    private static Map<QueueType, Integer> emptyDepths() {
+        Map<QueueType, Integer> depths = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            depths.put(queueType, 0);
+        }
+        return Collections.unmodifiableMap(depths);
+    }
+
+    private static boolean isWaiting(TicketStatus status) {
+        return status == TicketStatus.EN_ESPERA || status == TicketStatus.PROXIMO;
+    }
+
+    /**
+     * Estado en memoria del tablero de una sucursal, con los cambios pendientes de publicar
+     */
+    private static final class BranchBoard {
+
+        private final String branchOffice;
+        private final int[] depths = new int[QueueType.values().length];
+        // Ticket atendido → (número, módulo); un asesor atiende hasta 3 tickets a la vez
+        private final Map<Long, Serving> serving = new LinkedHashMap<>();
+        private long sequence;
+
+        private final Set<QueueType> changedQueues = EnumSet.noneOf(QueueType.class);
+        // Número → módulo, null si dejó de ser atendido
+        private final Map<String, Integer> changedServing = new LinkedHashMap<>();
+        // Reconstruido desde la BD: la próxima publicación lleva el tablero completo
+        private boolean resync;
+
+        BranchBoard(String branchOffice) {
+            this.branchOffice = branchOffice;
+        }
+
+        void apply(Long ticketId, String numero, QueueType queueType,
+                   TicketStatus previousStatus, TicketStatus status, Integer moduleNumber) {
+            boolean wasWaiting = previousStatus != null && isWaiting(previousStatus);
+            if (wasWaiting != isWaiting(status)) {
+                depths[queueType.ordinal()] += isWaiting(status) ? 1 : -1;
+                changedQueues.add(queueType);
+            }
+
+            if (status == TicketStatus.ATENDIENDO && moduleNumber != null) {
+                serving.put(ticketId, new Serving(numero, moduleNumber));
+                changedServing.put(numero, moduleNumber);
+            } else if (serving.remove(ticketId) != null) {
+                changedServing.put(numero, null);
+            }
+        }
+
+        /**
+         * Continúa la secuencia del tablero que reemplaza y publica el completo en el próximo ciclo
+         */
+        void resync(BranchBoard previous) {
+            sequence = previous == null ? 0 : previous.sequence;
+            resync = true;
+        }
+
+        boolean hasChanges() {
+            return resync || !changedQueues.isEmpty() || !changedServing.isEmpty();
+        }
+
+        BranchBoardUpdate delta() {
+            if (resync) {
+                BranchBoardUpdate full = full(++sequence);
+                clearChanges();
+                return full;
+            }
+            Map<QueueType, Integer> queueDepths = new EnumMap<>(QueueType.class);
+            for (QueueType queueType : changedQueues) {
+                queueDepths.put(queueType, depths[queueType.ordinal()]);
+            }
+            BranchBoardUpdate delta = new BranchBoardUpdate(
+                branchOffice,
+                ++sequence,
+                false,
+                Collections.unmodifiableMap(queueDepths),
+                Collections.unmodifiableMap(new LinkedHashMap<>(changedServing)),
+                System.currentTimeMillis()
+            );
+            clearChanges();
+            return delta;
+        }
+
+        BranchBoardUpdate snapshot() {
+            return full(sequence);
+        }
+
+        private BranchBoardUpdate full(long sequence) {
+            Map<QueueType, Integer> queueDepths = new EnumMap<>(QueueType.class);
+            for (QueueType queueType : QueueType.values()) {
+                queueDepths.put(queueType, depths[queueType.ordinal()]);
+            }
+            Map<String, Integer> nowServing = new LinkedHashMap<>();
+            serving.values().forEach(s -> nowServing.put(s.numero(), s.moduleNumber()));
+            return new BranchBoardUpdate(
+                branchOffice,
+                sequence,
+                true,
+                Collections.unmodifiableMap(queueDepths),
+                Collections.unmodifiableMap(nowServing),
+                System.currentTimeMillis()
+            );
+        }
+
+        void clearChanges() {
+            changedQueues.clear();
+            changedServing.clear();
+            resync = false;
+        }
+    }
+
+    private record Serving(String numero, Integer moduleNumber) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.dto.DashboardResponse;
+import com.example.ticketero.model.dto.QueueStatusResponse;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.TicketHistoryRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Métricas del dashboard mantenidas en memoria.
+ *
+ * Cada cambio de estado confirmado (ticket o asesor) ajusta contadores por
+ * (sucursal, cola, estado) y publica un {@link DashboardResponse} nuevo e inmutable.
+ * El endpoint solo lee esa referencia: O(1) y sin base de datos.
+ *
+ * Un job periódico recalcula los contadores con GROUP BY sobre ticket, ticket_history y
+ * advisor, y reemplaza los de memoria; corrige eventos perdidos y cambios de otras
+ * instancias (desvío reportado en ticketero.dashboard.drift). Archivar un ticket lo mueve
+ * de tabla sin cambiar su estado: se cuenta en ambas para que no parezca un desvío.
+ * Los eventos que llegan mientras se consulta la base se anotan y se vuelven a aplicar
+ * sobre el conteo nuevo antes del reemplazo: confirmaron después de la foto de la
+ * transacción y de otro modo se perderían hasta la siguiente reconciliación.
+ *
+ * Solo reconcile() es transaccional: los listeners corren después del commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardMetricsService {
+
+    private static final int STATUSES = TicketStatus.values().length;
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+    private final AdvisorRepository advisorRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    // Protegidos por lock
+    private Map<QueueKey, int[]> ticketsByQueue = new HashMap<>();
+    private int[][] ticketsByType = new int[QueueType.values().length][STATUSES];
+    private int[] advisorsByStatus = new int[AdvisorStatus.values().length];
+    private LocalDate serviceDay = LocalDate.now();
+    private int createdToday;
+    private boolean loaded;
+    // Eventos aplicados durante una reconciliación en curso; null fuera de ella
+    private List<Object> journal;
+
+    private volatile DashboardResponse snapshot = DashboardResponse.empty();
+
+    /**
+     * Última foto del dashboard
+     */
+    public DashboardResponse snapshot() {
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        lock.lock();
+        try {
+            rollServiceDay();
+            if (apply(event, ticketsByQueue, ticketsByType)) {
+                createdToday++;
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        lock.lock();
+        try {
+            apply(event, advisorsByStatus);
+            if (journal != null) {
+                journal.add(event);
+            }
+
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reemplaza los contadores en memoria por el conteo de la base de datos
+     * @return cantidad de contadores que diferían
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public int reconcile() {
+        reconcileLock.lock();
+        try {
+            startJournal();
+            return reconcileJournaled();
+        } finally {
+            lock.lock();
+            journal = null;
+            lock.unlock();
+            reconcileLock.unlock();
+        }
+    }
+
+    private void startJournal() {
+        lock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Corre en la transacción REPEATABLE_READ de reconcile(): todas las consultas ven la misma
+    // foto, tomada en la primera, ya con el registro abierto; lo anotado confirmó después
+    private int reconcileJournaled() {
+        LocalDate today = LocalDate.now();
+
+        Map<QueueKey, int[]> queues = new HashMap<>();
+        int[][] types = new int[QueueType.values().length][STATUSES];
+        List<TicketRepository.StatusCount> rows = new ArrayList<>(ticketRepository.countGroupedByQueueAndStatus());
+        rows.addAll(ticketHistoryRepository.countGroupedByQueueAndStatus());
+        for (TicketRepository.StatusCount row : rows) {
+            int total = Math.toIntExact(row.getTotal());
+            queues.computeIfAbsent(new QueueKey(row.getBranchOffice(), row.getQueueType()), key -> new int[STATUSES])
+                [row.getStatus().ordinal()] += total;
+            types[row.getQueueType().ordinal()][row.getStatus().ordinal()] += total;
+        }
+
+        int[] advisors = new int[AdvisorStatus.values().length];
+        for (AdvisorRepository.StatusCount row : advisorRepository.countGroupedByStatus()) {
+            advisors[row.getStatus().ordinal()] = Math.toIntExact(row.getTotal());
+        }
+
+        int created = Math.toIntExact(ticketRepository.countByServiceDay(today)
+            + ticketHistoryRepository.countByServiceDay(today));
+
+        lock.lock();
+        try {
+            for (Object event : journal) {
+                if (event instanceof TicketStateChangedEvent ticketEvent) {
+                    if (apply(ticketEvent, queues, types)) {
+                        created++;
+                    }
+                } else if (event instanceof AdvisorStatusChangedEvent advisorEvent) {
+                    apply(advisorEvent, advisors);
+                }
+            }
+
+            // La primera carga (al arrancar) no es desvío
+            int drifted = loaded ? countDrift(queues, advisors, today, created) : 0;
+
+            ticketsByQueue = queues;
+            ticketsByType = types;
+            advisorsByStatus = advisors;
+            serviceDay = today;
+            createdToday = created;
+            loaded = true;
+            publish();
+
+            if (drifted > 0) {
+                meterRegistry.counter("ticketero.dashboard.drift").increment(drifted);
+                log.warn("Dashboard metrics reconciled: {} counters had drifted", drifted);
+            }
+            return drifted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aplica la transición a los contadores dados
+     * @return true si el evento es la creación del ticket
+     */
+    private static boolean apply(TicketStateChangedEvent event, Map<QueueKey, int[]> queues, int[][] types) {
+        int[] queueCounts = queues.computeIfAbsent(event.queueKey(), key -> new int[STATUSES]);
+        int[] typeCounts = types[event.queueType().ordinal()];
+
+        if (event.previousStatus() != null) {
+            queueCounts[event.previousStatus().ordinal()]--;
+            typeCounts[event.previousStatus().ordinal()]--;
+        }
+        queueCounts[event.status().ordinal()]++;
+        typeCounts[event.status().ordinal()]++;
+        return event.previousStatus() == null;
+    }
+
+    private static void apply(AdvisorStatusChangedEvent event, int[] advisors) {
+        if (event.previousStatus() != null) {
+            advisors[event.previousStatus().ordinal()]--;
+        }
+        advisors[event.status().ordinal()]++;
+    }
+
+    private int countDrift(Map<QueueKey, int[]> queues, int[] advisors, LocalDate today, int created) {
+        int drifted = 0;
+        for (Map.Entry<QueueKey, int[]> entry : ticketsByQueue.entrySet()) {
+            int[] expected = queues.getOrDefault(entry.getKey(), new int[STATUSES]);
+            for (int i = 0; i < STATUSES; i++) {
+                if (entry.getValue()[i] != expected[i]) {
+                    drifted++;
+                }
+            }
+        }
+        for (Map.Entry<QueueKey, int[]> entry : queues.entrySet()) {
+            if (!ticketsByQueue.containsKey(entry.getKey())) {
+                drifted += (int) Arrays.stream(entry.getValue()).filter(count -> count != 0).count();
+            }
+        }
+        for (int i = 0; i < advisors.length; i++) {
+            if (advisorsByStatus[i] != advisors[i]) {
+                drifted++;
+            }
+        }
+        if (serviceDay.equals(today) && createdToday != created) {
+            drifted++;
+        }
+        return drifted;
+    }
+
+    private void rollServiceDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(serviceDay)) {
+            serviceDay = today;
+            createdToday = 0;
+        }
+    }
+
+    // Llamado con lock tomado: O(tipos de cola × estados), independiente de las sucursales
+    private void publish() {
+        int active = 0;
+        int completed = 0;
+        double weightedWait = 0;
+        List<QueueStatusResponse> queueStatus = new ArrayList<>(QueueType.values().length);
+
+        for (QueueType queueType : QueueType.values()) {
+            int[] counts = ticketsByType[queueType.ordinal()];
+            int queueActive = 0;
+            for (TicketStatus status : TicketStatus.getActiveStatuses()) {
+                queueActive += counts[status.ordinal()];
+            }
+            active += queueActive;
+            completed += counts[TicketStatus.COMPLETADO.ordinal()];
+            weightedWait += (double) queueActive * queueType.getAvgTimeMinutes();
+            queueStatus.add(QueueStatusResponse.fromQueueType(queueType, queueActive, queueActive + 1));
+        }
+
+        snapshot = new DashboardResponse(
+            createdToday,
+            active,
+            completed,
+            advisorsByStatus[AdvisorStatus.AVAILABLE.ordinal()],
+            advisorsByStatus[AdvisorStatus.BUSY.ordinal()],
+            active == 0 ? 0.0 : weightedWait / active,
+            List.copyOf(queueStatus),
+            LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Reparto legado: los tipos de cola en orden de declaración. Con los asesores
+ * saturados CAJA se lleva todos los cupos y GERENCIA puede no recibir ninguno.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.dispatcher", havingValue = "fifo")
+public class FifoQueueDispatcher implements QueueDispatcher {
+
+    @Override
+    public QueueType select(Set<QueueType> backlogged) {
+        for (QueueType queueType : QueueType.values()) {
+            if (backlogged.contains(queueType)) {
+                return queueType;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void charge(QueueType queueType, double serviceMinutes) {
+        // Sin estado: el orden no depende de lo ya atendido
+    }
+
+    @Override
+    public String name() {
+        return "fifo";
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor por defecto: carga todos los tickets activos de la cola (sucursal, tipo)
+ * y los recorre, guardando cada ticket que cambia.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class JpaQueueEngine implements QueueEngine {
+
+    // Tickets en posiciones 1..N pasan a PROXIMO
+    protected static final int PROXIMO_WINDOW = 3;
+
+    protected final TicketRepository ticketRepository;
+    protected final NotificationService notificationService;
+    protected final ApplicationEventPublisher eventPublisher;
+    protected final ServiceDayWindow serviceDayWindow;
+
+    @Override
+    public List<Long> processQueue(QueueKey queueKey) {
+        List<Ticket> activeTickets =
+            ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                queueKey.branchOffice(),
+                queueKey.queueType(),
+                TicketStatus.getActiveStatuses(),
+                serviceDayWindow.from(),
+                serviceDayWindow.to()
+            );
+
+        if (activeTickets.isEmpty()) {
+            return List.of();
+        }
+
+        log.debug("Processing {} tickets in {} queue", activeTickets.size(), queueKey);
+
+        // Actualizar posiciones
+        updateQueuePositions(activeTickets);
+
+        // Procesar tickets según estado
+        return processTickets(activeTickets);
+    }
+
+    @Override
+    public String name() {
+        return "jpa";
+    }
+
+    protected void updateQueuePositions(List<Ticket> tickets) {
+        for (int i = 0; i < tickets.size(); i++) {
+            Ticket ticket = tickets.get(i);
+            int newPosition = i + 1;
+            int newEstimatedWait = ticket.getQueueType().getAvgTimeMinutes() * newPosition;
+
+            if (ticket.getPositionInQueue() != newPosition) {
+                ticket.setPositionInQueue(newPosition);
+                ticket.setEstimatedWaitMinutes(newEstimatedWait);
+                ticketRepository.save(ticket);
+            }
+        }
+    }
+
+    protected List<Long> processTickets(List<Ticket> tickets) {
+        List<Long> promoted = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            switch (ticket.getStatus()) {
+                case EN_ESPERA -> {
+                    if (processWaitingTicket(ticket)) {
+                        promoted.add(ticket.getId());
+                    }
+                }
+                default -> {
+                    // PROXIMO lo asigna AdvisorDispatchService; ATENDIENDO ya está siendo atendido
+                }
+            }
+        }
+        return promoted;
+    }
+
+    private boolean processWaitingTicket(Ticket ticket) {
+        // Si está en posición 1-3, cambiar a PROXIMO
+        if (ticket.getPositionInQueue() > PROXIMO_WINDOW) {
+            return false;
+        }
+
+        ticket.setStatus(TicketStatus.PROXIMO);
+        ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketStateChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+
+        notificationService.scheduleProximoTurnoNotification(ticket);
+        log.info("Ticket {} moved to PROXIMO status", ticket.getNumero());
+        return true;
+    }
+}
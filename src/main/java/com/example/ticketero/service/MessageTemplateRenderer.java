@@ -0,0 +1,280 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.PlantillaMensaje;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.repository.PlantillaMensajeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renderiza los mensajes de Telegram a partir de plantillas precompiladas.
+ *
+ * Cada plantilla se parsea una sola vez en segmentos literales y marcadores
+ * ({@code {numero}}, {@code {fecha}}, ...). Renderizar es recorrer los segmentos
+ * sobre un StringBuilder reutilizado por hilo: sin parseo de formato, sin boxing
+ * de enteros y con el formateador de fecha cacheado.
+ *
+ * Las plantillas incluidas en la aplicación son la versión 1; cualquier versión activa
+ * en plantilla_mensaje, incluida una 1 propia, la reemplaza en el siguiente refresco,
+ * sin redeploy.
+ */
+@Service
+@Slf4j
+public class MessageTemplateRenderer {
+
+    private static final DateTimeFormatter FECHA_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int BUILTIN_VERSION = 1;
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+
+    private static final Map<MessageTemplate, String> BUILTIN_TEMPLATES = new EnumMap<>(Map.of(
+        MessageTemplate.TOTEM_TICKET_CREADO, """
+            🎫 *Ticket Creado*
+
+            Número: *{numero}*
+            Cola: {cola}
+            Posición: {posicion}
+            Tiempo estimado: {tiempoEstimado} minutos
+            Sucursal: {sucursal}
+
+            Fecha: {fecha}
+            """,
+        MessageTemplate.TOTEM_PROXIMO_TURNO, """
+            ⏰ *¡Su turno está próximo!*
+
+            Ticket: *{numero}*
+            Cola: {cola}
+
+            Por favor prepárese para ser atendido.
+            Faltan aproximadamente {tiempoEstimado} minutos.
+            """,
+        MessageTemplate.TOTEM_ES_TU_TURNO, """
+            🔔 *¡Es su turno!*
+
+            Ticket: *{numero}*
+            Módulo: *{modulo}*
+
+            Diríjase al módulo {modulo} para ser atendido.
+            """
+    ));
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final PlantillaMensajeRepository plantillaMensajeRepository;
+
+    private volatile Map<MessageTemplate, CompiledTemplate> templates;
+
+    public MessageTemplateRenderer(PlantillaMensajeRepository plantillaMensajeRepository) {
+        this.plantillaMensajeRepository = plantillaMensajeRepository;
+
+        Map<MessageTemplate, CompiledTemplate> builtin = new EnumMap<>(MessageTemplate.class);
+        BUILTIN_TEMPLATES.forEach((template, body) ->
+            builtin.put(template, CompiledTemplate.builtin(body)));
+        this.templates = builtin;
+    }
+
+    /**
+     * Texto del mensaje para el ticket
+     */
+    public String render(MessageTemplate template, Ticket ticket) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        templates.get(template).renderTo(buffer, ticket);
+        String text = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return text;
+    }
+
+    /**
+     * Versión en uso de la plantilla
+     */
+    public int version(MessageTemplate template) {
+        return templates.get(template).version();
+    }
+
+    /**
+     * Carga la versión activa más alta de cada plantilla cuando supera a la que está en
+     * uso, reemplaza a la incluida o la en uso fue desactivada. Una versión que no
+     * compila se ignora y se mantiene la anterior.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ticketero.templates.refresh-ms:60000}")
+    public void refresh() {
+        List<PlantillaMensaje> active = plantillaMensajeRepository.findByActivaTrue();
+        Map<MessageTemplate, PlantillaMensaje> latest = active.stream()
+            .collect(Collectors.toMap(
+                plantilla -> plantilla.getId().plantilla(),
+                Function.identity(),
+                (a, b) -> a.getId().version() >= b.getId().version() ? a : b));
+        Set<PlantillaMensaje.Key> activeKeys = active.stream()
+            .map(PlantillaMensaje::getId)
+            .collect(Collectors.toSet());
+
+        Map<MessageTemplate, CompiledTemplate> current = templates;
+        Map<MessageTemplate, CompiledTemplate> updated = new EnumMap<>(MessageTemplate.class);
+
+        for (MessageTemplate template : MessageTemplate.values()) {
+            PlantillaMensaje plantilla = latest.get(template);
+            CompiledTemplate inUse = current.get(template);
+
+            if (plantilla == null) {
+                updated.put(template, inUse.builtin()
+                    ? inUse
+                    : CompiledTemplate.builtin(BUILTIN_TEMPLATES.get(template)));
+                continue;
+            }
+
+            int version = plantilla.getId().version();
+            // Se mantiene la versión propia en uso mientras siga activa y no haya una más alta
+            boolean inUseActive = !inUse.builtin()
+                && activeKeys.contains(new PlantillaMensaje.Key(template, inUse.version()));
+            if (inUseActive && version <= inUse.version()) {
+                updated.put(template, inUse);
+                continue;
+            }
+
+            try {
+                updated.put(template, CompiledTemplate.compile(version, plantilla.getCuerpo()));
+                log.info("Loaded message template {} version {}", template, version);
+            } catch (IllegalArgumentException e) {
+                log.error("Ignoring message template {} version {}: {}", template, version, e.getMessage());
+                updated.put(template, inUse);
+            }
+        }
+
+        templates = updated;
+    }
+
+    /**
+     * Plantilla parseada: literals[0] field[0] literals[1] ... field[n-1] literals[n].
+     * builtin distingue la incluida en la aplicación de una fila de la BD con su misma versión
+     */
+    record CompiledTemplate(int version, boolean builtin, String[] literals, Field[] fields) {
+
+        static CompiledTemplate builtin(String body) {
+            return compile(BUILTIN_VERSION, true, body);
+        }
+
+        static CompiledTemplate compile(int version, String body) {
+            return compile(version, false, body);
+        }
+
+        private static CompiledTemplate compile(int version, boolean builtin, String body) {
+            List<String> literals = new ArrayList<>();
+            List<Field> fields = new ArrayList<>();
+
+            int literalStart = 0;
+            int open = body.indexOf('{');
+            while (open >= 0) {
+                int close = body.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder at " + open);
+                }
+                literals.add(body.substring(literalStart, open));
+                fields.add(Field.of(body.substring(open + 1, close)));
+                literalStart = close + 1;
+                open = body.indexOf('{', literalStart);
+            }
+            literals.add(body.substring(literalStart));
+
+            return new CompiledTemplate(version, builtin, literals.toArray(String[]::new), fields.toArray(Field[]::new));
+        }
+
+        void renderTo(StringBuilder buffer, Ticket ticket) {
+            buffer.append(literals[0]);
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].appendTo(buffer, ticket);
+                buffer.append(literals[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Marcadores disponibles en las plantillas
+     */
+    enum Field {
+        NUMERO("numero") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                buffer.append(ticket.getNumero());
+            }
+        },
+        COLA("cola") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                buffer.append(ticket.getQueueType().getDisplayName());
+            }
+        },
+        POSICION("posicion") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                appendInt(buffer, ticket.getPositionInQueue());
+            }
+        },
+        TIEMPO_ESTIMADO("tiempoEstimado") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                appendInt(buffer, ticket.getEstimatedWaitMinutes());
+            }
+        },
+        SUCURSAL("sucursal") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                buffer.append(ticket.getBranchOffice());
+            }
+        },
+        FECHA("fecha") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                FECHA_FORMATTER.formatTo(ticket.getCreatedAt(), buffer);
+            }
+        },
+        MODULO("modulo") {
+            @Override
+            void appendTo(StringBuilder buffer, Ticket ticket) {
+                appendInt(buffer, ticket.getAssignedModuleNumber());
+            }
+        };
+
+        private static final Map<String, Field> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(field -> field.placeholder, Function.identity()));
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        abstract void appendTo(StringBuilder buffer, Ticket ticket);
+
+        static Field of(String placeholder) {
+            Field field = BY_NAME.get(placeholder);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown placeholder {" + placeholder + "}");
+            }
+            return field;
+        }
+
+        // Igual que %d: sin boxing para valores presentes, "null" si falta
+        private static void appendInt(StringBuilder buffer, Integer value) {
+            if (value == null) {
+                buffer.append("null");
+            } else {
+                buffer.append(value.intValue());
+            }
+        }
+    }
+}
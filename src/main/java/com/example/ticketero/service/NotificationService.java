@@ -74,7 +74,7 @@ public class NotificationService {
 
     @Transactional
     public void cancelPendingNotifications(Ticket ticket) {
-        mensajeRepository.findByTicketId(ticket.getId())
+        mensajeRepository.findByTicketIdAndServiceDay(ticket.getId(), ticket.getServiceDay())
             .stream()
             .filter(mensaje -> mensaje.getEstadoEnvio() == Mensaje.EstadoEnvio.PENDIENTE)
             .forEach(mensaje -> {
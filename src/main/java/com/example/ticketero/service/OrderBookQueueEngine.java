@@ -0,0 +1,60 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.repository.TicketRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Motor sobre {@link QueueOrderBookRegistry}: procesa solo la cabeza del libro
+ * de la cola, sin recargar todos sus tickets activos.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.engine", havingValue = "order-book")
+public class OrderBookQueueEngine extends JpaQueueEngine {
+
+    private final QueueOrderBookRegistry queueOrderBookRegistry;
+
+    public OrderBookQueueEngine(TicketRepository ticketRepository,
+                                NotificationService notificationService,
+                                ApplicationEventPublisher eventPublisher,
+                                ServiceDayWindow serviceDayWindow,
+                                QueueOrderBookRegistry queueOrderBookRegistry) {
+        super(ticketRepository, notificationService, eventPublisher, serviceDayWindow);
+        this.queueOrderBookRegistry = queueOrderBookRegistry;
+    }
+
+    @Override
+    public List<Long> processQueue(QueueKey queueKey) {
+        List<Long> headIds = queueOrderBookRegistry.bookOf(queueKey)
+            .map(book -> book.head(PROXIMO_WINDOW))
+            .orElse(List.of());
+        if (headIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Ticket> ticketsById = ticketRepository.findByIdInAndServiceDayBetween(
+                headIds, serviceDayWindow.from(), serviceDayWindow.to()).stream()
+            .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        List<Ticket> head = headIds.stream()
+            .map(ticketsById::get)
+            .filter(Objects::nonNull)
+            .toList();
+
+        updateQueuePositions(head);
+        return processTickets(head);
+    }
+
+    @Override
+    public String name() {
+        return "order-book";
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.repository.MensajeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transacciones cortas del dispatcher de mensajes: reclamar un batch y confirmar
+ * su resultado. El envío ocurre entre ambas, sin transacción ni locks abiertos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class OutboxClaimService {
+
+    private final MensajeRepository mensajeRepository;
+    private final ServiceDayWindow serviceDayWindow;
+
+    /**
+     * Reclama hasta {@code batchSize} mensajes vencidos para el worker {@code owner}.
+     * Los que ya tienen un mensaje más relevante para su ticket quedan REEMPLAZADO.
+     * @return mensajes reclamados, con su ticket cargado, y cantidad de reemplazados
+     */
+    @Transactional
+    public Claim claimBatch(String owner, int batchSize, LocalDateTime leaseUntil) {
+        LocalDate from = serviceDayWindow.from();
+        LocalDate to = serviceDayWindow.to();
+        List<MensajeRepository.ClaimedRow> rows =
+            mensajeRepository.claimBatch(owner, LocalDateTime.now(), leaseUntil, batchSize, from, to);
+
+        List<Long> claimedIds = rows.stream()
+            .filter(row -> !row.isSuperseded())
+            .map(MensajeRepository.ClaimedRow::getId)
+            .toList();
+        int superseded = rows.size() - claimedIds.size();
+
+        if (claimedIds.isEmpty()) {
+            return new Claim(Collections.emptyList(), superseded);
+        }
+        return new Claim(mensajeRepository.findWithTicketByIdIn(claimedIds, from, to), superseded);
+    }
+
+    /**
+     * Registra el resultado de cada envío y libera el reclamo. Los no enviados quedan
+     * postergados hasta {@code retryAfter}.
+     * @return mensajes confirmados (los que el worker ya no poseía se omiten)
+     */
+    @Transactional
+    public int acknowledge(String owner, List<Mensaje> mensajes, LocalDateTime retryAfter) {
+        int acknowledged = 0;
+        for (Mensaje mensaje : mensajes) {
+            // Lo no enviado (fallido u omitido) se posterga para no reclamarlo de inmediato
+            boolean sent = mensaje.getEstadoEnvio() == Mensaje.EstadoEnvio.ENVIADO;
+            acknowledged += mensajeRepository.acknowledge(
+                mensaje.getId(),
+                mensaje.getServiceDay(),
+                owner,
+                mensaje.getEstadoEnvio().name(),
+                mensaje.getFechaEnvio(),
+                mensaje.getTelegramMessageId(),
+                mensaje.getIntentos(),
+                sent ? null : retryAfter
+            );
+        }
+
+        if (acknowledged < mensajes.size()) {
+            log.warn("Worker {} lost {} claims before acknowledging (lease expired)",
+                    owner, mensajes.size() - acknowledged);
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Batch reclamado: mensajes a enviar y cuántos envíos se evitaron por reemplazo
+     */
+    public record Claim(List<Mensaje> mensajes, int superseded) {
+
+        public boolean isEmpty() {
+            return mensajes.isEmpty() && superseded == 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.QueueActiveCounterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Contadores de tickets activos por (sucursal, cola).
+ *
+ * Reemplazan el COUNT sobre la tabla ticket al crear un ticket: la posición inicial
+ * sale de una fila indexada. Se actualizan en la misma transacción que el cambio
+ * de estado y un job periódico corrige cualquier desvío contra la tabla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class QueueCounterService {
+
+    private final QueueActiveCounterRepository queueActiveCounterRepository;
+    private final MeterRegistry meterRegistry;
+    private final ServiceDayWindow serviceDayWindow;
+
+    /**
+     * Registra un ticket nuevo y retorna su posición en la cola (1-based)
+     */
+    @Transactional
+    public int nextPosition(String branchOffice, QueueType queueType) {
+        return queueActiveCounterRepository.incrementAndGetPosition(branchOffice, queueType.name());
+    }
+
+    /**
+     * Descuenta el ticket cuando deja de estar activo (completado, cancelado, no atendido).
+     * Escucha dentro de la transacción del cambio de estado para que ambos se confirmen juntos.
+     */
+    @EventListener
+    @Transactional
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        if (event.previousStatus() == null || !event.previousStatus().isActive() || event.status().isActive()) {
+            return;
+        }
+        queueActiveCounterRepository.decrement(event.branchOffice(), event.queueType().name());
+    }
+
+    /**
+     * Iguala los contadores al conteo real de la tabla ticket en los días calientes.
+     * Bloquea los contadores antes de contar: de lo contrario un ticket creado entre el
+     * COUNT y la escritura perdería su incremento
+     * @return cantidad de contadores corregidos
+     */
+    @Transactional
+    public int reconcile() {
+        queueActiveCounterRepository.lockAll();
+        int corrected = queueActiveCounterRepository.reconcile(serviceDayWindow.from(), serviceDayWindow.to());
+        if (corrected > 0) {
+            meterRegistry.counter("ticketero.queue.counter.drift").increment(corrected);
+            log.warn("Queue active counters reconciled: {} counters had drifted", corrected);
+        }
+        return corrected;
+    }
+}
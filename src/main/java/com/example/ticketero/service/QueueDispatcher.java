@@ -0,0 +1,32 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+
+import java.util.Set;
+
+/**
+ * Estrategia para repartir los cupos libres de asesores entre los tipos de cola que
+ * tienen tickets PROXIMO esperando. {@link AdvisorDispatchService} la consulta una vez
+ * por cupo: cada decisión recorre solo los tipos de cola, nunca los tickets.
+ *
+ * Se selecciona con la propiedad {@code ticketero.queue.dispatcher} (wfq, fifo).
+ */
+public interface QueueDispatcher {
+
+    /**
+     * Tipo de cola que recibe el próximo cupo libre
+     * @param backlogged tipos de cola con tickets PROXIMO sin asesor (no vacío)
+     */
+    QueueType select(Set<QueueType> backlogged);
+
+    /**
+     * Registra que el tipo de cola recibió un cupo
+     * @param serviceMinutes tiempo de atención esperado del ticket asignado
+     */
+    void charge(QueueType queueType, double serviceMinutes);
+
+    /**
+     * Nombre de la estrategia, usado en logs
+     */
+    String name();
+}
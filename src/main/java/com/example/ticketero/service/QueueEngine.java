@@ -0,0 +1,31 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+
+import java.util.List;
+
+/**
+ * Estrategia para ejecutar un ciclo de cola: recalcular posiciones y promover la
+ * cabeza a PROXIMO. Los asesores se asignan después, entre todas las colas a la vez,
+ * en {@link AdvisorDispatchService}.
+ *
+ * Cada cola (sucursal, tipo) es independiente: las posiciones se cuentan dentro de la
+ * sucursal, y {@link QueuePartitionExecutor} procesa varias colas a la vez, cada una en
+ * su transacción. Los motores no deben guardar estado compartido entre colas.
+ *
+ * Se selecciona con la propiedad {@code ticketero.queue.engine} (jpa, order-book, sql)
+ * y se ejecuta dentro de la transacción del llamador.
+ */
+public interface QueueEngine {
+
+    /**
+     * Ejecuta un ciclo completo de la cola de una sucursal
+     * @return ids de los tickets promovidos a PROXIMO en este ciclo
+     */
+    List<Long> processQueue(QueueKey queueKey);
+
+    /**
+     * Nombre del motor, usado como tag de métricas
+     */
+    String name();
+}
@@ -1,11 +1,13 @@
 package com.example.ticketero.service;
 
-import com.example.ticketero.model.entity.Ticket;
-import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.QueueKey;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
 import com.example.ticketero.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,105 +21,64 @@ public class QueueManagementService {
 
     private final TicketRepository ticketRepository;
     private final AdvisorService advisorService;
+    private final AdvisorDispatchService advisorDispatchService;
     private final NotificationService notificationService;
-
+    private final QueueEngine queueEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ServiceDayWindow serviceDayWindow;
+
+    /**
+     * Ejecuta el ciclo de una cola (sucursal, tipo) en su propia transacción
+     * @return ids de los tickets promovidos a PROXIMO
+     */
     @Transactional
-    public void processQueues() {
-        log.debug("Starting queue processing");
-        
-        for (QueueType queueType : QueueType.values()) {
-            processQueueByType(queueType);
-        }
-        
-        log.debug("Queue processing completed");
+    public List<Long> processPartition(QueueKey queueKey) {
+        List<Long> promoted = queueEngine.processQueue(queueKey);
+        eventPublisher.publishEvent(QueueProcessedEvent.of(queueKey));
+        return promoted;
     }
 
-    @Transactional
-    public void processQueueByType(QueueType queueType) {
-        List<Ticket> activeTickets = ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(
-            queueType, 
-            TicketStatus.getActiveStatuses()
-        );
-
-        if (activeTickets.isEmpty()) {
-            return;
-        }
-
-        log.debug("Processing {} tickets in {} queue", activeTickets.size(), queueType);
-
-        // Actualizar posiciones
-        updateQueuePositions(activeTickets);
-
-        // Procesar tickets según estado
-        for (Ticket ticket : activeTickets) {
-            processTicketByStatus(ticket);
-        }
+    /**
+     * Colas (sucursal, tipo) con tickets activos
+     */
+    public List<QueueKey> findActivePartitions() {
+        return ticketRepository.findQueueKeysByStatusIn(
+            TicketStatus.getActiveStatuses(), serviceDayWindow.from(), serviceDayWindow.to());
     }
 
+    /**
+     * Reparte los cupos libres de asesores entre los tickets PROXIMO de todas las colas
+     * @return cantidad de tickets asignados
+     */
     @Transactional
-    public void completeTicket(Long ticketId) {
-        ticketRepository.findById(ticketId).ifPresent(ticket -> {
-            // Liberar asesor si está asignado
-            if (ticket.getAssignedAdvisor() != null) {
-                advisorService.completeTicketAssignment(ticket);
-            }
-
-            // Cambiar estado a completado
-            ticket.setStatus(TicketStatus.COMPLETADO);
-            ticket.setPositionInQueue(0);
-            ticket.setEstimatedWaitMinutes(0);
-
-            ticketRepository.save(ticket);
-
-            // Cancelar notificaciones pendientes
-            notificationService.cancelPendingNotifications(ticket);
-
-            log.info("Ticket {} completed", ticket.getNumero());
-        });
+    public int dispatchAdvisors() {
+        return advisorDispatchService.dispatch();
     }
 
-    private void updateQueuePositions(List<Ticket> tickets) {
-        for (int i = 0; i < tickets.size(); i++) {
-            Ticket ticket = tickets.get(i);
-            int newPosition = i + 1;
-            int newEstimatedWait = ticket.getQueueType().getAvgTimeMinutes() * newPosition;
+    @Transactional
+    public void completeTicket(Long ticketId) {
+        // Casi siempre es un ticket del día: se busca primero en las particiones calientes
+        ticketRepository.findByIdAndServiceDayBetween(ticketId, serviceDayWindow.from(), serviceDayWindow.to())
+            .or(() -> ticketRepository.findById(ticketId))
+            .ifPresent(ticket -> {
+                // Liberar asesor si está asignado
+                if (ticket.getAssignedAdvisor() != null) {
+                    advisorService.completeTicketAssignment(ticket);
+                }
+
+                // Cambiar estado a completado
+                TicketStatus previousStatus = ticket.getStatus();
+                ticket.setStatus(TicketStatus.COMPLETADO);
+                ticket.setPositionInQueue(0);
+                ticket.setEstimatedWaitMinutes(0);
 
-            if (ticket.getPositionInQueue() != newPosition) {
-                ticket.setPositionInQueue(newPosition);
-                ticket.setEstimatedWaitMinutes(newEstimatedWait);
                 ticketRepository.save(ticket);
-            }
-        }
-    }
-
-    private void processTicketByStatus(Ticket ticket) {
-        switch (ticket.getStatus()) {
-            case EN_ESPERA -> processWaitingTicket(ticket);
-            case PROXIMO -> processNextTicket(ticket);
-            case ATENDIENDO -> {
-                // Ticket ya está siendo atendido, no hacer nada
-            }
-        }
-    }
+                eventPublisher.publishEvent(TicketStateChangedEvent.of(ticket, previousStatus));
 
-    private void processWaitingTicket(Ticket ticket) {
-        // Si está en posición 1-3, cambiar a PROXIMO
-        if (ticket.getPositionInQueue() <= 3) {
-            ticket.setStatus(TicketStatus.PROXIMO);
-            ticketRepository.save(ticket);
-            
-            notificationService.scheduleProximoTurnoNotification(ticket);
-            log.info("Ticket {} moved to PROXIMO status", ticket.getNumero());
-        }
-    }
+                // Cancelar notificaciones pendientes
+                notificationService.cancelPendingNotifications(ticket);
 
-    private void processNextTicket(Ticket ticket) {
-        // Intentar asignar a un asesor disponible
-        if (advisorService.assignTicketToAdvisor(ticket)) {
-            ticketRepository.save(ticket);
-            
-            notificationService.scheduleEsTuTurnoNotification(ticket);
-            log.info("Ticket {} assigned and moved to ATENDIENDO", ticket.getNumero());
-        }
+                log.info("Ticket {} completed", ticket.getNumero());
+            });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.example.ticketero.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Libro de orden en memoria para una cola (sucursal + tipo de cola).
+ *
+ * Cada ticket ocupa un slot según su orden de llegada y un Fenwick tree
+ * cuenta los slots ocupados, de modo que posición, k-ésimo ticket, alta y
+ * baja cuestan O(log n). Los slots liberados se compactan cuando se agota
+ * la capacidad (costo amortizado O(1) por alta).
+ *
+ * Usa ReentrantLock en lugar de synchronized para no fijar (pin) el carrier
+ * cuando un hilo virtual espera el lock.
+ */
+public class QueueOrderBook {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Integer> slotByTicket = new HashMap<>();
+    private long[] ticketBySlot;
+    private int[] tree;
+    private int nextSlot = 1;
+
+    public QueueOrderBook() {
+        this(MIN_CAPACITY);
+    }
+
+    public QueueOrderBook(int initialCapacity) {
+        int capacity = Math.max(MIN_CAPACITY, initialCapacity);
+        this.ticketBySlot = new long[capacity + 1];
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Agrega un ticket al final de la cola. Ignora tickets ya presentes.
+     */
+    public void add(Long ticketId) {
+        lock.lock();
+        try {
+            if (slotByTicket.containsKey(ticketId)) {
+                return;
+            }
+            if (nextSlot >= ticketBySlot.length) {
+                compact();
+            }
+            int slot = nextSlot++;
+            ticketBySlot[slot] = ticketId;
+            slotByTicket.put(ticketId, slot);
+            update(slot, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita un ticket de la cola (completado, cancelado, etc.)
+     * @return true si el ticket estaba en la cola
+     */
+    public boolean remove(Long ticketId) {
+        lock.lock();
+        try {
+            Integer slot = slotByTicket.remove(ticketId);
+            if (slot == null) {
+                return false;
+            }
+            ticketBySlot[slot] = 0L;
+            update(slot, -1);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Posición 1-based del ticket en la cola
+     */
+    public OptionalInt positionOf(Long ticketId) {
+        lock.lock();
+        try {
+            Integer slot = slotByTicket.get(ticketId);
+            return slot == null ? OptionalInt.empty() : OptionalInt.of(prefixSum(slot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Primeros {@code limit} tickets de la cola, en orden
+     */
+    public List<Long> head(int limit) {
+        lock.lock();
+        try {
+            int count = Math.min(limit, slotByTicket.size());
+            List<Long> head = new ArrayList<>(count);
+            for (int position = 1; position <= count; position++) {
+                head.add(ticketBySlot[findSlot(position)]);
+            }
+            return head;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return slotByTicket.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return slotByTicket.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefixSum(int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Menor slot cuya suma prefija es igual a {@code position} (búsqueda binaria sobre el árbol)
+     */
+    private int findSlot(int position) {
+        int slot = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next < tree.length && tree[next] < remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot + 1;
+    }
+
+    /**
+     * Reubica los tickets vivos en slots contiguos y reconstruye el árbol en O(n).
+     * Duplica la capacidad si la cola está más de medio llena.
+     */
+    private void compact() {
+        int live = slotByTicket.size();
+        int capacity = Math.max(MIN_CAPACITY, live * 2);
+        long[] compacted = new long[capacity + 1];
+        int[] rebuilt = new int[capacity + 1];
+
+        int slot = 1;
+        for (int i = 1; i < nextSlot; i++) {
+            long ticketId = ticketBySlot[i];
+            if (ticketId != 0L) {
+                compacted[slot] = ticketId;
+                slotByTicket.put(ticketId, slot);
+                slot++;
+            }
+        }
+
+        for (int i = 1; i <= capacity; i++) {
+            if (i < slot) {
+                rebuilt[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                rebuilt[parent] += rebuilt[i];
+            }
+        }
+
+        this.ticketBySlot = compacted;
+        this.tree = rebuilt;
+        this.nextSlot = slot;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene un {@link QueueOrderBook} por (sucursal, tipo de cola).
+ * Se construye una vez al iniciar y luego se actualiza con los eventos
+ * de creación y cierre de tickets, después del commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueOrderBookRegistry {
+
+    private final TicketRepository ticketRepository;
+    private final ServiceDayWindow serviceDayWindow;
+
+    private final Map<QueueKey, QueueOrderBook> books = new ConcurrentHashMap<>();
+
+    @Value("${ticketero.queue.engine:jpa}")
+    private String queueEngine;
+
+    /**
+     * Los libros solo se mantienen cuando el motor de colas activo es order-book
+     */
+    public boolean isEnabled() {
+        return "order-book".equals(queueEngine);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        List<Ticket> activeTickets = ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+            TicketStatus.getActiveStatuses(), serviceDayWindow.from(), serviceDayWindow.to()
+        );
+
+        books.clear();
+        for (Ticket ticket : activeTickets) {
+            bookFor(new QueueKey(ticket.getBranchOffice(), ticket.getQueueType()))
+                .add(ticket.getId());
+        }
+
+        log.info("Queue order books built: {} queues, {} active tickets",
+                books.size(), activeTickets.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (event.status().isActive()) {
+            bookFor(event.queueKey()).add(event.ticketId());
+        } else {
+            QueueOrderBook book = books.get(event.queueKey());
+            if (book != null) {
+                book.remove(event.ticketId());
+            }
+        }
+    }
+
+    /**
+     * Posición actual del ticket dentro de su sucursal y cola
+     */
+    public OptionalInt positionOf(QueueKey queueKey, Long ticketId) {
+        if (!isEnabled()) {
+            return OptionalInt.empty();
+        }
+        QueueOrderBook book = books.get(queueKey);
+        return book == null ? OptionalInt.empty() : book.positionOf(ticketId);
+    }
+
+    /**
+     * Libro de una cola (sucursal, tipo), si tiene tickets
+     */
+    public Optional<QueueOrderBook> bookOf(QueueKey queueKey) {
+        return Optional.ofNullable(books.get(queueKey))
+            .filter(book -> !book.isEmpty());
+    }
+
+    private QueueOrderBook bookFor(QueueKey key) {
+        return books.computeIfAbsent(key, k -> new QueueOrderBook());
+    }
+}
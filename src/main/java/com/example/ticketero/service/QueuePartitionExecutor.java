@@ -0,0 +1,160 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Procesa las colas (sucursal, tipo) en paralelo sobre un pool acotado.
+ *
+ * Cada cola es una partición independiente que corre en su propia transacción
+ * ({@link QueueManagementService#processPartition}): una sucursal grande o lenta ocupa
+ * un solo hilo y no retiene a las demás, y ninguna transacción abarca todas las colas.
+ * El pool tiene partition-parallelism hilos (virtuales con spring.threads.virtual.enabled);
+ * el límite acota también las conexiones que toma el procesamiento de colas.
+ *
+ * Una partición no se procesa dos veces a la vez: mientras está en curso, submit la
+ * rechaza y el llamador decide si reintentarla al terminar.
+ *
+ * El reparto de asesores nunca corre junto a una partición: los motores guardan tickets
+ * leídos antes del reparto y pisarían la asignación (ATENDIENDO) con el estado anterior.
+ * Quien reparte espera antes que terminen las particiones en curso ({@link #awaitInFlight}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueuePartitionExecutor {
+
+    private final QueueManagementService queueManagementService;
+    private final QueueEngine queueEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.queue.partition-parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Partición en curso → su resultado; se quita al confirmar su transacción
+    private final Map<QueueKey, CompletableFuture<List<Long>>> inFlight = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("queue-partition-", 1).factory()
+            : Thread.ofPlatform().name("queue-partition-", 1).daemon().factory();
+        executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+        meterRegistry.gauge("ticketero.queue.partition.in.flight", inFlight, Map::size);
+
+        log.info("Queue partition executor started: parallelism {}", parallelism);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Encola el ciclo de una partición
+     * @return ids promovidos al terminar; vacío si la partición ya está en curso
+     */
+    public Optional<CompletableFuture<List<Long>>> submit(QueueKey queueKey) {
+        CompletableFuture<List<Long>> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(queueKey, future) != null) {
+            return Optional.empty();
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(process(queueKey));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            return Optional.of(future);
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(queueKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Espera que terminen las particiones en curso (con o sin error). Las que se entreguen
+     * mientras tanto no se esperan: quien llama debe ser el único que entrega particiones.
+     */
+    public void awaitInFlight() {
+        for (CompletableFuture<List<Long>> future : List.copyOf(inFlight.values())) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                // Ya lo registra quien entregó la partición
+            }
+        }
+    }
+
+    /**
+     * Ciclo completo: procesa en paralelo todas las colas con tickets activos, espera
+     * que terminen y reparte los asesores. Un error en una cola no detiene a las demás.
+     * @return cantidad de colas procesadas sin error
+     */
+    public int processQueues() {
+        log.debug("Starting queue processing with {} engine", queueEngine.name());
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Map<QueueKey, CompletableFuture<List<Long>>> running = new LinkedHashMap<>();
+        for (QueueKey queueKey : queueManagementService.findActivePartitions()) {
+            // Una cola en curso ya refleja el estado actual: no se encola de nuevo
+            submit(queueKey).ifPresent(future -> running.put(queueKey, future));
+        }
+
+        int processed = 0;
+        for (Map.Entry<QueueKey, CompletableFuture<List<Long>>> entry : running.entrySet()) {
+            try {
+                entry.getValue().join();
+                processed++;
+            } catch (CompletionException e) {
+                log.error("Error processing {} queue: {}", entry.getKey(), e.getCause().getMessage(), e.getCause());
+            }
+        }
+        // También las que estaban en curso antes de este ciclo
+        awaitInFlight();
+        queueManagementService.dispatchAdvisors();
+
+        sample.stop(meterRegistry.timer("ticketero.queue.cycle", "engine", queueEngine.name()));
+        log.debug("Queue processing completed: {} queues", processed);
+        return processed;
+    }
+
+    private List<Long> process(QueueKey queueKey) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return queueManagementService.processPartition(queueKey);
+        } finally {
+            inFlight.remove(queueKey);
+            sample.stop(meterRegistry.timer("ticketero.queue.partition", "engine", queueEngine.name()));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ticketero.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mantenimiento de las particiones diarias de ticket y mensaje (V11).
+ *
+ * Crea por adelantado las particiones de los próximos premake-days días, para que un
+ * INSERT nunca encuentre su día sin partición, y desacopla las de días anteriores a
+ * retention-days. Una partición desacoplada queda como tabla suelta (ticket_pYYYYMMDD):
+ * sale de los planes y del vacuum de la tabla padre, y se puede archivar o eliminar aparte.
+ *
+ * Sin transacción: DETACH PARTITION ... CONCURRENTLY no puede correr dentro de una, y
+ * así no bloquea las escrituras del día.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceDayPartitionService {
+
+    // La FK de mensaje apunta a ticket: se crea primero ticket y se desacopla primero mensaje
+    private static final List<String> TABLES = List.of("ticket", "mensaje");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.partitioning.premake-days:7}")
+    private int premakeDays;
+
+    @Value("${ticketero.partitioning.retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * Crea las particiones que falten desde hoy hasta hoy + premake-days
+     * @return cantidad de particiones creadas
+     */
+    public int createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        for (String table : TABLES) {
+            Integer count = jdbcTemplate.queryForObject(
+                "SELECT create_service_day_partitions(?, ?, ?)",
+                Integer.class, table, today, today.plusDays(premakeDays));
+            created += count == null ? 0 : count;
+        }
+
+        if (created > 0) {
+            meterRegistry.counter("ticketero.partition.created").increment(created);
+            log.info("Created {} service day partitions up to {}", created, today.plusDays(premakeDays));
+        }
+        return created;
+    }
+
+    /**
+     * Desacopla las particiones de días anteriores a hoy - retention-days
+     * @return cantidad de particiones desacopladas
+     */
+    public int detachExpiredPartitions() {
+        LocalDate before = LocalDate.now().minusDays(retentionDays);
+        int detached = 0;
+        for (String table : TABLES.reversed()) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT service_day_partitions_before(?, ?)", String.class, table, before);
+            for (String partition : partitions) {
+                detach(table, partition);
+                detached++;
+            }
+        }
+
+        if (detached > 0) {
+            meterRegistry.counter("ticketero.partition.detached").increment(detached);
+            log.info("Detached {} service day partitions older than {}", detached, before);
+        }
+        return detached;
+    }
+
+    private void detach(String table, String partition) {
+        // Un DETACH CONCURRENTLY interrumpido deja la partición pendiente: se termina con FINALIZE
+        Boolean pending = jdbcTemplate.queryForObject(
+            "SELECT inhdetachpending FROM pg_inherits WHERE inhrelid = to_regclass(?)",
+            Boolean.class, partition);
+        String mode = Boolean.TRUE.equals(pending) ? "FINALIZE" : "CONCURRENTLY";
+
+        // Nombres validados por service_day_partitions_before (<tabla>_pYYYYMMDD)
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition + " " + mode);
+        if ("mensaje".equals(table)) {
+            // La tabla suelta conserva la FK hacia ticket, que ya no la vigila: se quita
+            jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT IF EXISTS fk_mensaje_ticket");
+        }
+        log.debug("Partition {} detached from {}", partition, table);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ticketero.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Días de atención que consultan los caminos calientes (colas, reparto, envío de mensajes).
+ *
+ * ticket y mensaje están particionadas por service_day (V11): filtrar por este rango
+ * deja en el plan solo las particiones de los últimos hot-days días, sin importar
+ * cuántos días históricos acumule la tabla. Por defecto son 2 (hoy y ayer): un ticket
+ * emitido antes de medianoche y aún activo después sigue en su cola y recibe sus
+ * mensajes. Con hot-days = 1 solo se consulta la partición del día y esos tickets
+ * quedan fuera de las colas; usarlo solo en sucursales que no atienden de noche.
+ */
+@Component
+public class ServiceDayWindow {
+
+    private final int hotDays;
+
+    public ServiceDayWindow(@Value("${ticketero.partitioning.hot-days:2}") int hotDays) {
+        this.hotDays = Math.max(hotDays, 1);
+    }
+
+    /**
+     * Primer día de la ventana (inclusive)
+     */
+    public LocalDate from() {
+        return to().minusDays(hotDays - 1L);
+    }
+
+    /**
+     * Último día de la ventana (inclusive): hoy
+     */
+    public LocalDate to() {
+        return LocalDate.now();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Motor basado en sentencias SQL por conjuntos: recalcula posiciones con
+ * ROW_NUMBER() y promueve la cabeza con un único UPDATE ... RETURNING, en
+ * lugar de un UPDATE por ticket.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.engine", havingValue = "sql")
+@RequiredArgsConstructor
+@Slf4j
+public class SqlQueueEngine implements QueueEngine {
+
+    private static final int PROXIMO_WINDOW = 3;
+
+    private final TicketRepository ticketRepository;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ServiceDayWindow serviceDayWindow;
+
+    @Override
+    public List<Long> processQueue(QueueKey queueKey) {
+        String branchOffice = queueKey.branchOffice();
+        QueueType queueType = queueKey.queueType();
+        LocalDate from = serviceDayWindow.from();
+        LocalDate to = serviceDayWindow.to();
+
+        // 1. Posiciones y tiempos estimados en una sola sentencia
+        int moved = ticketRepository.recalculateQueuePositions(
+            branchOffice, queueType.name(), queueType.getAvgTimeMinutes(), from, to);
+
+        // 2. Promover la cabeza a PROXIMO (los asesores los asigna AdvisorDispatchService)
+        List<Long> promoted = ticketRepository.promoteToProximo(
+            branchOffice, queueType.name(), PROXIMO_WINDOW, from, to);
+        if (!promoted.isEmpty()) {
+            for (Ticket ticket : ticketRepository.findByIdInAndServiceDayBetween(promoted, from, to)) {
+                eventPublisher.publishEvent(TicketStateChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+                notificationService.scheduleProximoTurnoNotification(ticket);
+            }
+            log.info("Tickets {} moved to PROXIMO status", promoted);
+        }
+
+        log.debug("Queue {} processed: {} positions updated, {} promoted",
+                queueKey, moved, promoted.size());
+        return promoted;
+    }
+
+    @Override
+    public String name() {
+        return "sql";
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.TelegramUpdate;
+import com.example.ticketero.model.entity.TelegramChatBinding;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.repository.TelegramChatBindingRepository;
+import com.example.ticketero.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resuelve el chat de Telegram de cada teléfono.
+ *
+ * Los registros se guardan en telegram_chat_binding al recibir /start en el bot.
+ * Nunca se acepta un teléfono escrito por quien envía el update: cualquiera podría
+ * registrar el teléfono de otro cliente y recibir sus avisos. El teléfono sale del
+ * ticket del código de referencia del deep link o de un contacto propio compartido.
+ * Delante hay una caché acotada por tamaño y por tiempo: un envío normal no consulta
+ * la base de datos. Los teléfonos sin registro también se cachean (caché negativa)
+ * con un TTL corto, para no consultar en cada reintento de un mensaje que no se puede
+ * entregar. El /start actualiza la caché de la instancia que lo recibe; las demás lo
+ * ven cuando vence la entrada negativa.
+ *
+ * Métricas (actuator): cache.gets{result=hit|miss}, cache.evictions, cache.size
+ * con tag cache=telegram-chat-binding.
+ *
+ * Sin @Transactional a nivel de clase: un acierto de caché no debe abrir transacción
+ * ni tomar conexión; la carga usa la transacción del repositorio.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramChatBindingService {
+
+    static final String CACHE_NAME = "telegram-chat-binding";
+    private static final String START_COMMAND = "/start";
+
+    private final TelegramChatBindingRepository telegramChatBindingRepository;
+    private final TicketRepository ticketRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${telegram.chat-binding.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${telegram.chat-binding.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${telegram.chat-binding.cache.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    private LoadingCache<String, Optional<String>> cache;
+
+    @PostConstruct
+    void init() {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Optional<String>>() {
+                @Override
+                public long expireAfterCreate(String telefono, Optional<String> chatId, long currentTime) {
+                    return chatId.isPresent() ? ttlNanos : negativeTtlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String telefono, Optional<String> chatId,
+                                              long currentTime, long currentDuration) {
+                    return chatId.isPresent() ? ttlNanos : negativeTtlNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String telefono, Optional<String> chatId,
+                                            long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build(telegramChatBindingRepository::findChatIdByTelefono);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Chat de Telegram del teléfono
+     * @return vacío si el teléfono no registró el bot
+     */
+    public Optional<String> resolveChatId(String telefono) {
+        String normalized = normalize(telefono);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        return cache.get(normalized);
+    }
+
+    /**
+     * Asocia el teléfono al chat, reemplazando el registro anterior
+     */
+    @Transactional
+    public void bind(String telefono, String chatId) {
+        String normalized = normalize(telefono);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Invalid phone number: " + telefono);
+        }
+
+        TelegramChatBinding binding = telegramChatBindingRepository.findById(normalized)
+            .orElseGet(() -> TelegramChatBinding.builder().telefono(normalized).build());
+        binding.setChatId(chatId);
+        telegramChatBindingRepository.save(binding);
+
+        // La caché se actualiza solo si el registro quedó confirmado
+        Runnable updateCache = () -> cache.put(normalized, Optional.of(chatId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updateCache.run();
+                }
+            });
+        } else {
+            updateCache.run();
+        }
+
+        log.info("Bound Telegram chat {} to phone ending in {}", chatId,
+                normalized.substring(Math.max(0, normalized.length() - 4)));
+    }
+
+    /**
+     * Registra el chat a partir de un update del bot. Se acepta:
+     * - "/start <codigoReferencia>": deep link impreso en el ticket (t.me/bot?start=uuid);
+     *   se registra el teléfono de ese ticket
+     * - contacto compartido por el propio usuario (contact.user_id == from.id)
+     * @return true si el update registró un teléfono
+     */
+    @Transactional
+    public boolean bindFromUpdate(TelegramUpdate update) {
+        TelegramUpdate.Message message = update.message();
+        if (message == null || message.chat() == null || message.chat().id() == null) {
+            return false;
+        }
+
+        String telefono = phoneFrom(message);
+        if (telefono == null) {
+            return false;
+        }
+
+        bind(telefono, String.valueOf(message.chat().id()));
+        return true;
+    }
+
+    private String phoneFrom(TelegramUpdate.Message message) {
+        TelegramUpdate.Contact contact = message.contact();
+        if (contact != null && contact.phoneNumber() != null && message.from() != null
+                && Objects.equals(message.from().id(), contact.userId())) {
+            return normalize(contact.phoneNumber());
+        }
+
+        String text = message.text();
+        if (text != null && text.startsWith(START_COMMAND + " ")) {
+            return referenceFrom(text.substring(START_COMMAND.length() + 1).trim())
+                .flatMap(ticketRepository::findByCodigoReferencia)
+                .map(Ticket::getTelefono)
+                .map(TelegramChatBindingService::normalize)
+                .orElse(null);
+        }
+        return null;
+    }
+
+    private static Optional<UUID> referenceFrom(String parameter) {
+        try {
+            return Optional.of(UUID.fromString(parameter));
+        } catch (IllegalArgumentException e) {
+            // Un teléfono u otro texto: no prueba que el chat sea del dueño del ticket
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Teléfono como solo dígitos (mismo formato que la clave de telegram_chat_binding)
+     * @return null si no quedan dígitos o no caben en la columna
+     */
+    static String normalize(String telefono) {
+        if (telefono == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            char c = telefono.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() || digits.length() > 20 ? null : digits.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.ticketero.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP no bloqueante para el método sendMessage de la Bot API.
+ *
+ * Cada envío reserva turno en el {@link TelegramRateLimiter}, primero del chat y al
+ * llegar este el global, y se programa para ese instante sin ocupar un hilo. Los envíos pendientes se acotan con
+ * max-in-flight: al llegar al límite el llamador espera (backpressure). Un 429 pausa
+ * el chat por retry_after y se reintenta hasta max-retries veces.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramClient {
+
+    private final HttpClient telegramHttpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${telegram.bot-token:}")
+    private String botToken;
+
+    @Value("${telegram.api-url:https://api.telegram.org/bot}")
+    private String apiUrl;
+
+    @Value("${telegram.http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${telegram.http.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Value("${telegram.http.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${telegram.rate-limit.global-per-second:30}")
+    private double globalPerSecond;
+
+    @Value("${telegram.rate-limit.global-burst:30}")
+    private int globalBurst;
+
+    @Value("${telegram.rate-limit.per-chat-per-second:1}")
+    private double perChatPerSecond;
+
+    private URI sendMessageUri;
+    private Semaphore inFlight;
+    private TelegramRateLimiter rateLimiter;
+    private Timer sendTimer;
+
+    @PostConstruct
+    void init() {
+        sendMessageUri = URI.create(apiUrl + botToken + "/sendMessage");
+        inFlight = new Semaphore(maxInFlight);
+        rateLimiter = new TelegramRateLimiter(globalPerSecond, globalBurst, perChatPerSecond);
+        sendTimer = Timer.builder("ticketero.telegram.send")
+            .description("Envío a Telegram, incluida la espera del rate limiter y los reintentos")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Envía un mensaje Markdown al chat. El future nunca termina con excepción:
+     * los errores se informan en el resultado.
+     */
+    public CompletableFuture<SendResult> sendMessage(String chatId, String text) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(
+                Map.of("chat_id", chatId, "text", text, "parse_mode", "Markdown"));
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(SendResult.failed(e.getMessage()));
+        }
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(SendResult.failed("interrupted"));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        HttpRequest request = HttpRequest.newBuilder(sendMessageUri)
+            .timeout(Duration.ofMillis(readTimeoutMs))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        return attempt(chatId, request, 0)
+            .whenComplete((result, error) -> {
+                inFlight.release();
+                sample.stop(sendTimer);
+            });
+    }
+
+    private CompletableFuture<SendResult> attempt(String chatId, HttpRequest request, int retry) {
+        return CompletableFuture.supplyAsync(() -> request, after(rateLimiter.reserveChat(chatId)))
+            .thenCompose(ready -> CompletableFuture.supplyAsync(() -> ready, after(rateLimiter.reserveGlobal())))
+            .thenCompose(ready -> telegramHttpClient.sendAsync(ready, HttpResponse.BodyHandlers.ofString()))
+            .thenCompose(response -> handleResponse(chatId, request, retry, response))
+            .exceptionally(error -> {
+                log.warn("Telegram send to chat {} failed: {}", chatId, error.getMessage());
+                return SendResult.failed(error.getMessage());
+            });
+    }
+
+    private static Executor after(long delayNanos) {
+        return delayNanos > 0
+            ? CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+            : Runnable::run;
+    }
+
+    private CompletableFuture<SendResult> handleResponse(String chatId, HttpRequest request, int retry,
+                                                         HttpResponse<String> response) {
+        JsonNode json = readJson(response.body());
+
+        if (response.statusCode() == 429) {
+            long retryAfter = json.path("parameters").path("retry_after").asLong(1);
+            meterRegistry.counter("ticketero.telegram.rate-limited").increment();
+            rateLimiter.penalize(chatId, retryAfter);
+
+            if (retry < maxRetries) {
+                log.warn("Telegram rate limited chat {}, retrying after {}s", chatId, retryAfter);
+                return attempt(chatId, request, retry + 1);
+            }
+            return CompletableFuture.completedFuture(SendResult.failed("429 after " + retry + " retries"));
+        }
+
+        if (response.statusCode() != 200 || !json.path("ok").asBoolean(false)) {
+            String description = json.path("description").asText("HTTP " + response.statusCode());
+            return CompletableFuture.completedFuture(SendResult.failed(description));
+        }
+
+        String messageId = json.path("result").path("message_id").asText(null);
+        return CompletableFuture.completedFuture(SendResult.sent(messageId));
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body == null || body.isBlank() ? "{}" : body);
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    /**
+     * Resultado de un envío: id del mensaje en Telegram o descripción del error
+     */
+    public record SendResult(boolean sent, String messageId, String error) {
+
+        static SendResult sent(String messageId) {
+            return new SendResult(true, messageId, null);
+        }
+
+        static SendResult failed(String error) {
+            return new SendResult(false, null, error);
+        }
+    }
+}
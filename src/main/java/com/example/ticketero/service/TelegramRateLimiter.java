@@ -0,0 +1,115 @@
+package com.example.ticketero.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets de envío a Telegram: uno global para el bot y uno por chat.
+ *
+ * Funciona por reservas (GCRA) en dos pasos que no bloquean: {@link #reserveChat(String)}
+ * devuelve cuánto esperar por el turno del chat y {@link #reserveGlobal()}, llamado
+ * cuando ese turno llega, cuánto esperar por el token del bot. Así el llamador programa
+ * el envío en vez de dormir un hilo, y el token global se descuenta en el instante en
+ * que el mensaje sale: un chat con mensajes en cola no adelanta ni frena al resto.
+ *
+ * Un 429 se atribuye al chat si este recibió otro envío dentro de la ventana de límites
+ * por chat de Telegram (un minuto, por los grupos); si no, el excedido es el límite del
+ * bot y retry_after frena todos los envíos.
+ */
+public final class TelegramRateLimiter {
+
+    private static final int MAX_IDLE_CHATS = 10_000;
+    private static final long CHAT_LIMIT_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final long globalIntervalNanos;
+    private final long globalToleranceNanos;
+    private final long chatIntervalNanos;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Por chat: {próximo turno libre, turno anterior al último, último turno}
+    private final Map<String, long[]> chatBuckets = new ConcurrentHashMap<>();
+    private long globalNextNanos;
+
+    public TelegramRateLimiter(double globalPerSecond, int globalBurst, double perChatPerSecond) {
+        this(globalPerSecond, globalBurst, perChatPerSecond, System::nanoTime);
+    }
+
+    TelegramRateLimiter(double globalPerSecond, int globalBurst, double perChatPerSecond, LongSupplier clock) {
+        this.globalIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / globalPerSecond);
+        this.globalToleranceNanos = globalIntervalNanos * Math.max(0, globalBurst - 1);
+        this.chatIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perChatPerSecond);
+        this.clock = clock;
+        this.globalNextNanos = clock.getAsLong();
+    }
+
+    /**
+     * Reserva el turno del chat: solo admite un mensaje por intervalo
+     * @return nanosegundos a esperar antes de pedir el token global (0 si es ya)
+     */
+    public long reserveChat(String chatId) {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            long[] chat = chatBuckets.computeIfAbsent(chatId, id -> newBucket(now));
+
+            long turn = Math.max(now, chat[0]);
+            chat[0] = turn + chatIntervalNanos;
+            chat[1] = chat[2];
+            chat[2] = turn;
+
+            if (chatBuckets.size() > MAX_IDLE_CHATS) {
+                chatBuckets.values().removeIf(bucket -> bucket[0] < now);
+            }
+            return turn - now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Toma el token global para un envío que sale ahora; admite ráfagas de global-burst
+     * @return nanosegundos a esperar antes de enviar (0 si puede salir ya)
+     */
+    public long reserveGlobal() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            long sendAt = Math.max(now, globalNextNanos - globalToleranceNanos);
+            globalNextNanos = Math.max(globalNextNanos, sendAt) + globalIntervalNanos;
+            return sendAt - now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aplica el retry_after de un 429: el chat no recibe envíos hasta que venza, y si el
+     * chat no venía enviando seguido, tampoco el resto del bot
+     */
+    public void penalize(String chatId, long retryAfterSeconds) {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            long until = now + TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+            long[] chat = chatBuckets.computeIfAbsent(chatId, id -> newBucket(now));
+            chat[0] = Math.max(chat[0], until);
+
+            boolean chatScoped = chat[1] != NONE && chat[2] - chat[1] < CHAT_LIMIT_WINDOW_NANOS;
+            if (!chatScoped) {
+                // Tras la pausa el bot retoma a la tasa base, sin ráfaga
+                globalNextNanos = Math.max(globalNextNanos, until + globalToleranceNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long[] newBucket(long now) {
+        return new long[] {now, NONE, NONE};
+    }
+}
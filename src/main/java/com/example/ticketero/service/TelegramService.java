@@ -1,126 +1,83 @@
 package com.example.ticketero.service;
 
 import com.example.ticketero.model.entity.Mensaje;
-import com.example.ticketero.model.entity.Ticket;
-import com.example.ticketero.model.enums.MessageTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TelegramService {
 
-    private final RestTemplate restTemplate;
+    private final TelegramClient telegramClient;
+    private final MessageTemplateRenderer messageTemplateRenderer;
+    private final TelegramChatBindingService telegramChatBindingService;
 
     @Value("${telegram.bot-token:}")
     private String botToken;
 
-    @Value("${telegram.api-url:https://api.telegram.org/bot}")
-    private String apiUrl;
-
+    /**
+     * Envía el mensaje y espera el resultado. El estado del mensaje queda actualizado.
+     */
     public boolean sendMessage(Mensaje mensaje) {
+        return sendMessageAsync(mensaje).join();
+    }
+
+    /**
+     * Envía el mensaje sin bloquear; al completar, el estado del mensaje queda actualizado
+     * (ENVIADO, o FALLIDO con un intento más)
+     */
+    public CompletableFuture<Boolean> sendMessageAsync(Mensaje mensaje) {
         if (botToken.isBlank()) {
             log.warn("Telegram bot token not configured, skipping message send");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
+        String messageText;
+        String chatId;
         try {
-            String messageText = buildMessageText(mensaje);
-            String chatId = extractChatIdFromPhone(mensaje.getTicket().getTelefono());
-            
-            if (chatId == null) {
-                log.warn("Could not extract chat ID from phone: {}", mensaje.getTicket().getTelefono());
-                return false;
-            }
-
-            // Simular envío (en implementación real haría HTTP call)
-            log.info("Sending Telegram message to {}: {}", chatId, messageText);
-            
-            // Simular respuesta exitosa
-            mensaje.setFechaEnvio(LocalDateTime.now());
-            mensaje.setTelegramMessageId("msg_" + System.currentTimeMillis());
-            mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.ENVIADO);
-            
-            return true;
-            
+            messageText = messageTemplateRenderer.render(mensaje.getPlantilla(), mensaje.getTicket());
+            chatId = telegramChatBindingService.resolveChatId(mensaje.getTicket().getTelefono()).orElse(null);
         } catch (Exception e) {
-            log.error("Error sending Telegram message for ticket {}: {}", 
+            log.error("Error building Telegram message for ticket {}: {}",
                      mensaje.getTicket().getNumero(), e.getMessage());
-            
-            mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.FALLIDO);
-            mensaje.setIntentos(mensaje.getIntentos() + 1);
-            
-            return false;
+            markFailed(mensaje);
+            return CompletableFuture.completedFuture(false);
         }
-    }
 
-    private String buildMessageText(Mensaje mensaje) {
-        Ticket ticket = mensaje.getTicket();
-        
-        return switch (mensaje.getPlantilla()) {
-            case TOTEM_TICKET_CREADO -> String.format("""
-                🎫 *Ticket Creado*
-                
-                Número: *%s*
-                Cola: %s
-                Posición: %d
-                Tiempo estimado: %d minutos
-                Sucursal: %s
-                
-                Fecha: %s
-                """,
-                ticket.getNumero(),
-                ticket.getQueueType().getDisplayName(),
-                ticket.getPositionInQueue(),
-                ticket.getEstimatedWaitMinutes(),
-                ticket.getBranchOffice(),
-                ticket.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
-            );
-            
-            case TOTEM_PROXIMO_TURNO -> String.format("""
-                ⏰ *¡Su turno está próximo!*
-                
-                Ticket: *%s*
-                Cola: %s
-                
-                Por favor prepárese para ser atendido.
-                Faltan aproximadamente %d minutos.
-                """,
-                ticket.getNumero(),
-                ticket.getQueueType().getDisplayName(),
-                ticket.getEstimatedWaitMinutes()
-            );
-            
-            case TOTEM_ES_TU_TURNO -> String.format("""
-                🔔 *¡Es su turno!*
-                
-                Ticket: *%s*
-                Módulo: *%d*
-                
-                Diríjase al módulo %d para ser atendido.
-                """,
-                ticket.getNumero(),
-                ticket.getAssignedModuleNumber(),
-                ticket.getAssignedModuleNumber()
-            );
-        };
+        if (chatId == null) {
+            // Sin /start en el bot: cuenta como intento. Se reintenta tras el backoff por si se
+            // registra entretanto, y al agotar los intentos deja de reclamarse
+            log.warn("No Telegram chat bound for ticket {}", mensaje.getTicket().getNumero());
+            markFailed(mensaje);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        log.debug("Sending Telegram message to {}: {}", chatId, messageText);
+
+        return telegramClient.sendMessage(chatId, messageText)
+            .thenApply(result -> {
+                if (!result.sent()) {
+                    log.error("Error sending Telegram message for ticket {}: {}",
+                             mensaje.getTicket().getNumero(), result.error());
+                    markFailed(mensaje);
+                    return false;
+                }
+
+                mensaje.setFechaEnvio(LocalDateTime.now());
+                mensaje.setTelegramMessageId(result.messageId());
+                mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.ENVIADO);
+                return true;
+            });
     }
 
-    private String extractChatIdFromPhone(String telefono) {
-        if (telefono == null || telefono.isBlank()) {
-            return null;
-        }
-        
-        // En implementación real, aquí se haría lookup en base de datos
-        // para obtener el chat_id de Telegram asociado al teléfono
-        // Por ahora simulamos con el teléfono mismo
-        return telefono.replaceAll("[^0-9]", "");
+    private void markFailed(Mensaje mensaje) {
+        mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.FALLIDO);
+        mensaje.setIntentos(mensaje.getIntentos() + 1);
     }
-}
\ No newline at end of file
+}
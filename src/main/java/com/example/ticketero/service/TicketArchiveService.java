@@ -0,0 +1,55 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transacciones del archivador: cada batch mueve sus filas a ticket_history o
+ * mensaje_history y las borra de la tabla caliente en una sola sentencia, así nunca
+ * quedan a medio copiar. Batches cortos con SKIP LOCKED: no esperan a las filas que la
+ * API o el outbox tienen tomadas ni las bloquean más que un instante.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TicketArchiveService {
+
+    private final TicketRepository ticketRepository;
+    private final MensajeRepository mensajeRepository;
+
+    /**
+     * Archiva hasta {@code batchSize} tickets cerrados antes de {@code cutoff} con id mayor a
+     * {@code afterId}, con todos sus mensajes
+     */
+    @Transactional
+    public Batch archiveClosedTickets(long afterId, LocalDateTime cutoff, int batchSize) {
+        TicketRepository.ArchivedTickets archived = ticketRepository.archiveClosedTickets(afterId, cutoff, batchSize);
+        return new Batch(archived.getCursor(), archived.getTickets(), archived.getMensajes());
+    }
+
+    /**
+     * Archiva hasta {@code batchSize} mensajes terminados creados antes de {@code cutoff} con
+     * id mayor a {@code afterId}, de tickets todavía abiertos o recientes
+     */
+    @Transactional
+    public Batch archiveFinishedMessages(long afterId, LocalDateTime cutoff, int batchSize) {
+        MensajeRepository.ArchivedMensajes archived = mensajeRepository.archiveFinishedMessages(afterId, cutoff, batchSize);
+        return new Batch(archived.getCursor(), 0, archived.getMensajes());
+    }
+
+    /**
+     * Resultado de un batch
+     * @param cursor último id revisado, desde donde sigue el próximo batch; null si no quedaba ninguno
+     */
+    public record Batch(Long cursor, long tickets, long mensajes) {
+
+        public boolean isEmpty() {
+            return cursor == null;
+        }
+    }
+}
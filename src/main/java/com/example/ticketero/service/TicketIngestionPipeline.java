@@ -0,0 +1,274 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.exception.IngestionOverloadedException;
+import com.example.ticketero.model.dto.TicketCreateRequest;
+import com.example.ticketero.model.dto.TicketResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Punto de entrada para crear tickets.
+ *
+ * En modo direct cada creación es su propia transacción. En modo group-commit las
+ * solicitudes se encolan en un buffer acotado y un único escritor las persiste en
+ * micro-batches (hasta batch-size solicitudes o max-delay-ms desde la primera),
+ * con un solo commit por batch. Cada llamador recibe su respuesta recién cuando
+ * el batch quedó confirmado, con una espera acotada por request-timeout-ms: vencida,
+ * la solicitud se abandona solo si el escritor aún no la reclamó para un batch; si ya
+ * la reclamó, el llamador espera su resultado para no responder error por un ticket
+ * que se crea.
+ *
+ * Si el escritor termina, por stop() o por un error, deja de aceptar solicitudes y
+ * falla las que quedaban en el buffer: ningún llamador queda esperando un commit
+ * que no va a ocurrir.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketIngestionPipeline {
+
+    private final TicketService ticketService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.ingestion.mode:direct}")
+    private String mode;
+
+    @Value("${ticketero.ingestion.batch-size:64}")
+    private int batchSize;
+
+    @Value("${ticketero.ingestion.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    @Value("${ticketero.ingestion.buffer-capacity:4096}")
+    private int bufferCapacity;
+
+    @Value("${ticketero.ingestion.request-timeout-ms:2000}")
+    private long requestTimeoutMs;
+
+    private BlockingQueue<PendingTicket> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private DistributionSummary batchSizeSummary;
+    private Timer queueDelayTimer;
+
+    public boolean isGroupCommit() {
+        return "group-commit".equals(mode);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isGroupCommit()) {
+            return;
+        }
+
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        batchSizeSummary = DistributionSummary.builder("ticketero.ingestion.batch.size")
+            .description("Tickets confirmados por commit")
+            .register(meterRegistry);
+        queueDelayTimer = Timer.builder("ticketero.ingestion.queue.delay")
+            .description("Espera de una solicitud en el buffer hasta entrar a un batch")
+            .register(meterRegistry);
+        meterRegistry.gauge("ticketero.ingestion.buffer.size", buffer, BlockingQueue::size);
+
+        running = true;
+        writer = Thread.ofPlatform()
+            .name("ticket-ingestion-writer")
+            .daemon()
+            .start(this::drainLoop);
+
+        log.info("Ticket ingestion in group-commit mode: batch-size={}, max-delay-ms={}, buffer-capacity={}",
+                batchSize, maxDelayMs, bufferCapacity);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // El escritor termina de vaciar el buffer antes de salir
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Ticket ingestion writer did not drain in time, interrupting it");
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        failPending(new IngestionOverloadedException("Ticket ingestion is shutting down"));
+    }
+
+    public TicketResponse create(TicketCreateRequest request) {
+        if (!isGroupCommit()) {
+            return ticketService.create(request);
+        }
+
+        PendingTicket pending = enqueue(request);
+        try {
+            return pending.future().get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return abandonOrAwait(pending, "Ticket ingestion timed out");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abandonOrAwait(pending, "Ticket ingestion interrupted");
+        }
+    }
+
+    /**
+     * Abandona la solicitud si el escritor aún no la reclamó. Si ya es suya puede estar
+     * confirmándose: se espera su resultado en vez de responder un error por un ticket
+     * que sí se crea
+     */
+    private TicketResponse abandonOrAwait(PendingTicket pending, String reason) {
+        if (pending.claim()) {
+            IngestionOverloadedException abandoned = new IngestionOverloadedException(reason);
+            pending.future().completeExceptionally(abandoned);
+            throw abandoned;
+        }
+        try {
+            return pending.future().join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * Encola la solicitud; el futuro se completa cuando su batch está confirmado
+     */
+    public CompletableFuture<TicketResponse> submit(TicketCreateRequest request) {
+        return enqueue(request).future();
+    }
+
+    private PendingTicket enqueue(TicketCreateRequest request) {
+        PendingTicket pending = new PendingTicket(request, System.nanoTime(), new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !buffer.offer(pending)) {
+            throw new IngestionOverloadedException("Ticket ingestion buffer is full");
+        }
+        // stop() pudo ocurrir entre el chequeo y el offer; si nadie la tomó, no se procesará
+        if (!running && buffer.remove(pending)) {
+            throw new IngestionOverloadedException("Ticket ingestion is shutting down");
+        }
+        return pending;
+    }
+
+    private void drainLoop() {
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        List<PendingTicket> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (running || !buffer.isEmpty()) {
+                batch.clear();
+                PendingTicket first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                addClaimed(batch, first);
+
+                long deadline = first.enqueuedAt() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingTicket next = remaining > 0
+                        ? buffer.poll(remaining, TimeUnit.NANOSECONDS)
+                        : buffer.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    addClaimed(batch, next);
+                }
+
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            log.error("Ticket ingestion writer stopped unexpectedly: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            running = false;
+            IngestionOverloadedException stopped = new IngestionOverloadedException("Ticket ingestion writer stopped");
+            batch.forEach(pending -> pending.future().completeExceptionally(stopped));
+            failPending(stopped);
+        }
+    }
+
+    // Solo entra al batch lo que el escritor reclama: lo que el llamador abandonó no se persiste
+    private static void addClaimed(List<PendingTicket> batch, PendingTicket pending) {
+        if (pending.claim()) {
+            batch.add(pending);
+        }
+    }
+
+    private void failPending(RuntimeException cause) {
+        List<PendingTicket> orphaned = new ArrayList<>();
+        buffer.drainTo(orphaned);
+        orphaned.forEach(pending -> pending.future().completeExceptionally(cause));
+        if (!orphaned.isEmpty()) {
+            log.warn("Failed {} pending ticket requests: {}", orphaned.size(), cause.getMessage());
+        }
+    }
+
+    void writeBatch(List<PendingTicket> batch) {
+        long startedAt = System.nanoTime();
+        batch.forEach(pending -> queueDelayTimer.record(startedAt - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSizeSummary.record(batch.size());
+
+        try {
+            List<TicketResponse> responses = ticketService.createBatch(
+                batch.stream().map(PendingTicket::request).toList()
+            );
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(responses.get(i));
+            }
+        } catch (Exception e) {
+            // Una solicitud inválida no debe hacer fallar al resto del batch
+            log.warn("Group commit of {} tickets failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingTicket pending : batch) {
+                try {
+                    pending.future().complete(ticketService.create(pending.request()));
+                } catch (Exception individual) {
+                    pending.future().completeExceptionally(individual);
+                }
+            }
+        }
+    }
+
+    /**
+     * claimed lo gana una sola vez el escritor (la persiste) o el llamador (la abandona)
+     */
+    record PendingTicket(
+        TicketCreateRequest request,
+        long enqueuedAt,
+        CompletableFuture<TicketResponse> future,
+        AtomicBoolean claimed
+    ) {
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.TicketNumberBlock;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketNumberBlockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asigna números de ticket por (sucursal, cola, día) sin colisiones entre instancias.
+ *
+ * Cada instancia reserva en PostgreSQL un bloque de números (hi/lo) y los entrega
+ * con un incremento atómico en memoria; solo se vuelve a la base de datos cuando
+ * el bloque se agota. Los números de un bloque no usado se pierden (huecos), nunca se repiten.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketNumberAllocator {
+
+    private final TicketNumberBlockRepository ticketNumberBlockRepository;
+
+    private final Map<TicketNumberBlock.Key, NumberBlock> blocks = new ConcurrentHashMap<>();
+    private final Map<TicketNumberBlock.Key, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    @Value("${ticketero.ticket-number.block-size:50}")
+    private int blockSize;
+
+    /**
+     * Siguiente número para la sucursal, cola y día indicados
+     */
+    public int nextNumber(String branchOffice, QueueType queueType, LocalDate serviceDay) {
+        TicketNumberBlock.Key key = new TicketNumberBlock.Key(branchOffice, queueType, serviceDay);
+
+        while (true) {
+            NumberBlock block = blocks.get(key);
+            if (block != null) {
+                int value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return value;
+                }
+            }
+            refill(key, block);
+        }
+    }
+
+    private void refill(TicketNumberBlock.Key key, NumberBlock exhausted) {
+        ReentrantLock lock = refillLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Otro hilo pudo haber reservado un bloque nuevo mientras esperábamos
+            if (blocks.get(key) != exhausted) {
+                return;
+            }
+
+            int limit = ticketNumberBlockRepository.reserveBlock(
+                key.branchOffice(), key.queueType().name(), key.serviceDay(), blockSize);
+            blocks.put(key, new NumberBlock(limit - blockSize, limit));
+
+            if (exhausted == null) {
+                evictPreviousDays(key.serviceDay());
+            }
+
+            log.debug("Reserved ticket numbers [{}, {}) for {}", limit - blockSize, limit, key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictPreviousDays(LocalDate serviceDay) {
+        blocks.keySet().removeIf(key -> key.serviceDay().isBefore(serviceDay));
+        refillLocks.keySet().removeIf(key -> key.serviceDay().isBefore(serviceDay));
+    }
+
+    /**
+     * Rango [next, limit) reservado por esta instancia
+     */
+    private static final class NumberBlock {
+        private final AtomicInteger next;
+        private final int limit;
+
+        private NumberBlock(int first, int limit) {
+            this.next = new AtomicInteger(first);
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.TicketReadModel;
+import com.example.ticketero.model.dto.QueuePositionResponse;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream SSE de la posición de un ticket, en lugar de consultar la posición en un loop.
+ *
+ * Cada conexión es un {@link SseEmitter} asíncrono: ociosa no ocupa hilo, solo su socket,
+ * y se mantiene viva con un comentario cada heartbeat-ms.
+ *
+ * Los cambios llegan de un único feed en proceso, después del commit:
+ * un cambio de estado del ticket se envía directo desde el evento, sin consultas;
+ * un ciclo de cola (posiciones recalculadas) dispara una sola consulta con todos los
+ * tickets suscritos de esa cola (sucursal, tipo), sin importar cuántos suscriptores haya;
+ * las otras sucursales con el mismo tipo de cola no se consultan.
+ *
+ * Solo se envía si cambió el estado, o si la posición o el tiempo estimado se movieron
+ * al menos min-position-delta / min-wait-delta-minutes respecto de lo último enviado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketPositionStreamService {
+
+    private final TicketReadCache ticketReadCache;
+    private final TicketService ticketService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.position-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${ticketero.position-stream.min-position-delta:1}")
+    private int minPositionDelta;
+
+    @Value("${ticketero.position-stream.min-wait-delta-minutes:5}")
+    private int minWaitDeltaMinutes;
+
+    @Value("${ticketero.position-stream.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Cola → ticket → suscripciones (varias pantallas pueden seguir el mismo ticket).
+    // Una cola sin suscriptores se quita del índice.
+    private final ConcurrentHashMap<QueueKey, Map<Long, Set<Subscription>>> subscriptions = new ConcurrentHashMap<>();
+    // Colas con un refresco encolado: ciclos seguidos se resuelven con una sola consulta
+    private final Set<QueueKey> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = virtualThreads
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("position-stream-", 1).factory())
+            : Executors.newFixedThreadPool(sendThreads,
+                Thread.ofPlatform().name("position-stream-", 1).daemon().factory());
+        meterRegistry.gauge("ticketero.position.stream.subscribers", subscriberCount);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+        subscriptions.values().forEach(byTicket -> byTicket.values()
+            .forEach(ticketSubscriptions -> ticketSubscriptions.forEach(s -> s.emitter().complete())));
+    }
+
+    /**
+     * Abre el stream del ticket y envía su posición actual
+     * @return vacío si el ticket no existe
+     */
+    public Optional<SseEmitter> subscribe(String branchOffice, LocalDate serviceDay, String numero) {
+        return ticketReadCache.findByNumero(branchOffice, serviceDay, numero)
+            .map(this::open);
+    }
+
+    /**
+     * Abre el stream del ticket con ese código de referencia
+     * @return vacío si el ticket no existe
+     */
+    public Optional<SseEmitter> subscribeByReference(UUID codigoReferencia) {
+        return ticketReadCache.findByReference(codigoReferencia)
+            .map(this::open);
+    }
+
+    private SseEmitter open(TicketReadModel ticket) {
+        return open(ticket.id(), ticket.queueKey(), ticketService.buildPositionResponse(ticket));
+    }
+
+    SseEmitter open(Long ticketId, QueueKey queueKey, QueuePositionResponse current) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(ticketId, queueKey, emitter);
+
+        if (!current.status().isActive()) {
+            // Ticket fuera de cola: se informa el estado final y se cierra
+            subscription.offer(current);
+            emitter.complete();
+            return emitter;
+        }
+
+        register(subscription);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+        subscription.offer(current);
+
+        log.debug("Position stream opened for ticket {}", current.numero());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        Map<Long, Set<Subscription>> byTicket = subscriptions.get(event.queueKey());
+        Set<Subscription> ticketSubscriptions = byTicket == null ? null : byTicket.get(event.ticketId());
+        if (ticketSubscriptions == null) {
+            return;
+        }
+        QueuePositionResponse next = QueuePositionResponse.from(event);
+        sender.execute(() -> deliver(ticketSubscriptions, next));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueProcessed(QueueProcessedEvent event) {
+        QueueKey queueKey = event.queueKey();
+        if (!subscriptions.containsKey(queueKey)) {
+            return;
+        }
+        if (pendingRefresh.add(queueKey)) {
+            sender.execute(() -> refresh(queueKey));
+        }
+    }
+
+    /**
+     * Relee con una sola consulta los tickets suscritos de la cola y envía los cambios
+     */
+    void refresh(QueueKey queueKey) {
+        // Antes de consultar: un ciclo que termine durante la consulta encola otro refresco
+        pendingRefresh.remove(queueKey);
+
+        Map<Long, Set<Subscription>> byTicket = subscriptions.get(queueKey);
+        if (byTicket == null || byTicket.isEmpty()) {
+            return;
+        }
+
+        try {
+            ticketService.getPositions(List.copyOf(byTicket.keySet())).forEach((ticketId, next) -> {
+                Set<Subscription> ticketSubscriptions = byTicket.get(ticketId);
+                if (ticketSubscriptions != null) {
+                    deliver(ticketSubscriptions, next);
+                }
+            });
+        } catch (Exception e) {
+            // El próximo ciclo de la cola vuelve a intentarlo
+            log.error("Error refreshing position streams for {} queue at {}: {}",
+                queueKey.queueType(), queueKey.branchOffice(), e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${ticketero.position-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(byTicket -> byTicket.values()
+            .forEach(ticketSubscriptions -> ticketSubscriptions.forEach(Subscription::ping)));
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Un cambio de estado siempre se envía; posición y tiempo estimado solo sobre el umbral
+     */
+    boolean isSignificantChange(QueuePositionResponse last, QueuePositionResponse next) {
+        return last.status() != next.status()
+            || Math.abs(next.positionInQueue() - last.positionInQueue()) >= minPositionDelta
+            || Math.abs(next.estimatedWaitMinutes() - last.estimatedWaitMinutes()) >= minWaitDeltaMinutes;
+    }
+
+    private void deliver(Set<Subscription> ticketSubscriptions, QueuePositionResponse next) {
+        for (Subscription subscription : ticketSubscriptions) {
+            subscription.offer(next);
+            if (!next.status().isActive()) {
+                unregister(subscription);
+                subscription.emitter().complete();
+            }
+        }
+    }
+
+    private void register(Subscription subscription) {
+        // compute sobre la cola: no se cruza con un unregister que la está quitando del índice
+        subscriptions.compute(subscription.queueKey(), (key, byTicket) -> {
+            Map<Long, Set<Subscription>> queue = byTicket == null ? new ConcurrentHashMap<>() : byTicket;
+            queue.computeIfAbsent(subscription.ticketId(), id -> ConcurrentHashMap.newKeySet())
+                .add(subscription);
+            return queue;
+        });
+        subscriberCount.incrementAndGet();
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.queueKey(), (key, byTicket) -> {
+            byTicket.computeIfPresent(subscription.ticketId(), (id, ticketSubscriptions) -> {
+                if (ticketSubscriptions.remove(subscription)) {
+                    subscriberCount.decrementAndGet();
+                }
+                return ticketSubscriptions.isEmpty() ? null : ticketSubscriptions;
+            });
+            return byTicket.isEmpty() ? null : byTicket;
+        });
+    }
+
+    private final class Subscription {
+
+        private final Long ticketId;
+        private final QueueKey queueKey;
+        private final SseEmitter emitter;
+
+        // Último valor enviado: los umbrales se miden contra lo que el cliente ya ve
+        private QueuePositionResponse lastSent;
+
+        Subscription(Long ticketId, QueueKey queueKey, SseEmitter emitter) {
+            this.ticketId = ticketId;
+            this.queueKey = queueKey;
+            this.emitter = emitter;
+        }
+
+        Long ticketId() {
+            return ticketId;
+        }
+
+        QueueKey queueKey() {
+            return queueKey;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        synchronized void offer(QueuePositionResponse next) {
+            if (lastSent != null && !isSignificantChange(lastSent, next)) {
+                meterRegistry.counter("ticketero.position.stream.suppressed").increment();
+                return;
+            }
+            if (send(SseEmitter.event().name("position").data(next))) {
+                lastSent = next;
+                meterRegistry.counter("ticketero.position.stream.pushed").increment();
+            }
+        }
+
+        void ping() {
+            send(SseEmitter.event().comment("ping"));
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o stream ya cerrado: el contenedor notifica onError/onCompletion
+                unregister(this);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.TicketReadModel;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketHistoryRepository;
+import com.example.ticketero.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché read-through de tickets por número (en su sucursal y día) y por código de
+ * referencia, para las lecturas de kioscos y pantallas (unas 50 por cada escritura).
+ *
+ * Guarda modelos de lectura compactos ({@link TicketReadModel}), nunca entidades JPA.
+ * Cada entrada recuerda el punto de lectura en que se cargó; cualquier cambio confirmado
+ * en una cola (sucursal, tipo) deja vencidas de una vez todas las entradas de esa cola,
+ * porque las posiciones de los demás tickets pueden haberse movido. Las otras sucursales
+ * con el mismo tipo de cola no se tocan. Los cambios de estado, posición
+ * y asignación de QueueManagementService y AdvisorService llegan como
+ * TicketStateChangedEvent (por ticket) o QueueProcessedEvent (por ciclo de cola), en el
+ * mismo hilo que hizo el commit y antes de que este retorne: una lectura que empieza después
+ * del commit nunca recibe la versión anterior.
+ *
+ * La invalidación es local: el TTL acota cuánto puede tardar en verse un cambio hecho
+ * por otra instancia.
+ *
+ * Un ticket que no está en ticket se busca en ticket_history: el archivador ya lo movió.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketReadCache {
+
+    static final String BY_NUMERO = "ticket-by-numero";
+    static final String BY_REFERENCE = "ticket-by-reference";
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketero.ticket-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${ticketero.ticket-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    // Secuencia de cambios y último cambio por cola (sucursal, tipo)
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<QueueKey, Long> changedAt = new ConcurrentHashMap<>();
+
+    private Cache<NumeroKey, Entry> byNumero;
+    private Cache<UUID, Entry> byReference;
+    private Counter staleCounter;
+
+    @PostConstruct
+    void init() {
+        byNumero = newCache();
+        byReference = newCache();
+        CaffeineCacheMetrics.monitor(meterRegistry, byNumero, BY_NUMERO);
+        CaffeineCacheMetrics.monitor(meterRegistry, byReference, BY_REFERENCE);
+        staleCounter = meterRegistry.counter("ticketero.ticket.cache.stale");
+    }
+
+    /**
+     * Ticket con ese número en la sucursal y día de atención (el número solo es único ahí).
+     * El prefijo del número da el tipo de cola: sin prefijo conocido no hay ticket.
+     */
+    public Optional<TicketReadModel> findByNumero(String branchOffice, LocalDate serviceDay, String numero) {
+        return read(byNumero, new NumeroKey(branchOffice, serviceDay, numero), key -> QueueType
+            .fromNumero(key.numero())
+            .flatMap(queueType -> ticketRepository
+                .findReadModelByNumero(key.branchOffice(), key.serviceDay(), queueType, key.numero())
+                .or(() -> ticketHistoryRepository.findReadModelByNumero(key.branchOffice(), key.serviceDay(), key.numero()))));
+    }
+
+    public Optional<TicketReadModel> findByReference(UUID codigoReferencia) {
+        return read(byReference, codigoReferencia, key -> ticketRepository.findReadModelByCodigoReferencia(key)
+            .or(() -> ticketHistoryRepository.findReadModelByCodigoReferencia(key)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStateChanged(TicketStateChangedEvent event) {
+        markChanged(event.queueKey());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueProcessed(QueueProcessedEvent event) {
+        markChanged(event.queueKey());
+    }
+
+    private <K> Optional<TicketReadModel> read(Cache<K, Entry> cache, K key,
+                                               Function<K, Optional<TicketReadModel>> query) {
+        // Sin afectar las estadísticas: una entrada vencida cuenta como miss, no como hit
+        Entry cached = cache.policy().getIfPresentQuietly(key);
+        if (cached != null && !isCurrent(cached)) {
+            cache.asMap().remove(key, cached);
+            staleCounter.increment();
+        }
+
+        // Una sola carga por clave aunque lleguen muchas lecturas a la vez
+        Entry entry = cache.get(key, k -> load(k, query));
+        if (entry != null && !isCurrent(entry)) {
+            // Cambio confirmado mientras se cargaba: se relee y se reemplaza
+            Entry reloaded = load(key, query);
+            if (reloaded != null) {
+                cache.asMap().replace(key, entry, reloaded);
+            }
+            entry = reloaded;
+        }
+        return entry == null ? Optional.empty() : Optional.of(entry.model());
+    }
+
+    private <K> Entry load(K key, Function<K, Optional<TicketReadModel>> query) {
+        // Antes de consultar: un cambio confirmado durante la consulta deja la entrada vencida
+        long readPoint = sequence.get();
+        return query.apply(key)
+            .map(model -> new Entry(model, readPoint))
+            .orElse(null);
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return changedAt.getOrDefault(entry.model().queueKey(), 0L) <= entry.readPoint();
+    }
+
+    private void markChanged(QueueKey queueKey) {
+        changedAt.merge(queueKey, sequence.incrementAndGet(), Math::max);
+    }
+
+    private <K> Cache<K, Entry> newCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+
+    private record Entry(TicketReadModel model, long readPoint) {
+    }
+
+    private record NumeroKey(String branchOffice, LocalDate serviceDay, String numero) {
+    }
+}
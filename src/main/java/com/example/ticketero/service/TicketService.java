@@ -1,21 +1,29 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.model.TicketReadModel;
 import com.example.ticketero.model.dto.QueuePositionResponse;
 import com.example.ticketero.model.dto.TicketCreateRequest;
 import com.example.ticketero.model.dto.TicketResponse;
+import com.example.ticketero.model.dto.VersionedResponse;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
 import com.example.ticketero.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,96 +33,173 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final NotificationService notificationService;
-    
-    // Contadores por tipo de cola
-    private final AtomicInteger cajaCounter = new AtomicInteger(1);
-    private final AtomicInteger personalBankerCounter = new AtomicInteger(1);
-    private final AtomicInteger empresasCounter = new AtomicInteger(1);
-    private final AtomicInteger gerenciaCounter = new AtomicInteger(1);
+    private final QueueOrderBookRegistry queueOrderBookRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketNumberAllocator ticketNumberAllocator;
+    private final QueueCounterService queueCounterService;
+    private final TicketReadCache ticketReadCache;
 
     @Transactional
     public TicketResponse create(TicketCreateRequest request) {
         log.info("Creating ticket for nationalId: {}, queueType: {}", 
                 request.nationalId(), request.queueType());
 
-        // Generar número de ticket
-        String numero = generateTicketNumber(request.queueType());
-        
-        // Calcular posición en cola
-        long ticketsAhead = ticketRepository.countTicketsAheadInQueue(
-            request.queueType(), 
-            TicketStatus.getActiveStatuses(),
-            LocalDateTime.now()
-        );
+        Ticket saved = ticketRepository.save(buildTicket(request));
+        onTicketCreated(saved);
+        return new TicketResponse(saved);
+    }
+
+    /**
+     * Crea varios tickets en una sola transacción (ingesta por group commit).
+     * Números y posiciones se reservan antes de persistir, así los INSERT de
+     * ticket y mensaje se envían en batch al hacer flush.
+     */
+    @Transactional
+    public List<TicketResponse> createBatch(List<TicketCreateRequest> requests) {
+        log.debug("Creating batch of {} tickets", requests.size());
+
+        List<Ticket> tickets = requests.stream()
+            .map(this::buildTicket)
+            .toList();
+
+        List<Ticket> saved = ticketRepository.saveAll(tickets);
+        saved.forEach(this::onTicketCreated);
+
+        return saved.stream()
+            .map(TicketResponse::new)
+            .toList();
+    }
+
+    private Ticket buildTicket(TicketCreateRequest request) {
+        // Generar número de ticket (único por sucursal, cola y día)
+        LocalDate serviceDay = LocalDate.now();
+        String numero = generateTicketNumber(request.branchOffice(), request.queueType(), serviceDay);
         
-        int position = (int) ticketsAhead + 1;
+        // Posición en cola desde el contador de activos (sin COUNT sobre ticket)
+        int position = queueCounterService.nextPosition(request.branchOffice(), request.queueType());
         int estimatedWait = request.queueType().getAvgTimeMinutes() * position;
 
-        // Crear ticket
-        Ticket ticket = Ticket.builder()
+        return Ticket.builder()
             .numero(numero)
             .nationalId(request.nationalId())
             .telefono(request.telefono())
             .branchOffice(request.branchOffice())
             .queueType(request.queueType())
+            .serviceDay(serviceDay)
             .status(TicketStatus.EN_ESPERA)
             .positionInQueue(position)
             .estimatedWaitMinutes(estimatedWait)
             .build();
+    }
 
-        Ticket saved = ticketRepository.save(ticket);
+    private void onTicketCreated(Ticket saved) {
+        eventPublisher.publishEvent(TicketStateChangedEvent.of(saved, null));
         
         // Programar notificación
         notificationService.scheduleTicketCreatedNotification(saved);
         
-        log.info("Ticket created: {} at position {}", numero, position);
-        return new TicketResponse(saved);
+        log.info("Ticket created: {} at position {}", saved.getNumero(), saved.getPositionInQueue());
     }
 
-    public Optional<QueuePositionResponse> getPosition(String numero) {
-        return ticketRepository.findByNumero(numero)
+    /**
+     * Posición desde la caché de lectura; un acierto no abre transacción ni toma conexión
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<QueuePositionResponse> getPosition(String branchOffice, LocalDate serviceDay, String numero) {
+        return ticketReadCache.findByNumero(branchOffice, serviceDay, numero)
             .map(this::buildPositionResponse);
     }
 
+    /**
+     * Posición con su ETag, derivado de la versión del ticket y la posición informada
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedResponse<QueuePositionResponse>> getVersionedPosition(
+            String branchOffice, LocalDate serviceDay, String numero) {
+        return ticketReadCache.findByNumero(branchOffice, serviceDay, numero)
+            .map(this::versionedPosition);
+    }
+
+    /**
+     * Posición por código de referencia, único entre sucursales y días
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedResponse<QueuePositionResponse>> getVersionedPositionByReference(UUID codigoReferencia) {
+        return ticketReadCache.findByReference(codigoReferencia)
+            .map(this::versionedPosition);
+    }
+
+    private VersionedResponse<QueuePositionResponse> versionedPosition(TicketReadModel ticket) {
+        QueuePositionResponse response = buildPositionResponse(ticket);
+        return new VersionedResponse<>(response, ticket.eTag(response.positionInQueue()));
+    }
+
+    /**
+     * Posición vigente de varios tickets con una sola consulta, por id de ticket
+     */
+    public Map<Long, QueuePositionResponse> getPositions(Collection<Long> ticketIds) {
+        return ticketRepository.findReadModelsByIdIn(ticketIds).stream()
+            .collect(Collectors.toMap(TicketReadModel::id, this::buildPositionResponse));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<TicketResponse> findByReference(UUID codigoReferencia) {
-        return ticketRepository.findByCodigoReferencia(codigoReferencia)
+        return ticketReadCache.findByReference(codigoReferencia)
             .map(TicketResponse::new);
     }
 
-    private String generateTicketNumber(QueueType queueType) {
+    /**
+     * Ticket con su ETag, derivado de la versión del ticket y su posición
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<VersionedResponse<TicketResponse>> findVersionedByReference(UUID codigoReferencia) {
+        return ticketReadCache.findByReference(codigoReferencia)
+            .map(ticket -> new VersionedResponse<>(
+                new TicketResponse(ticket), ticket.eTag(ticket.positionInQueue())));
+    }
+
+    private String generateTicketNumber(String branchOffice, QueueType queueType, LocalDate serviceDay) {
         char prefix = queueType.getPrefix();
-        int number = switch (queueType) {
-            case CAJA -> cajaCounter.getAndIncrement();
-            case PERSONAL_BANKER -> personalBankerCounter.getAndIncrement();
-            case EMPRESAS -> empresasCounter.getAndIncrement();
-            case GERENCIA -> gerenciaCounter.getAndIncrement();
-        };
+        int number = ticketNumberAllocator.nextNumber(branchOffice, queueType, serviceDay);
         return String.format("%c%02d", prefix, number);
     }
 
-    private QueuePositionResponse buildPositionResponse(Ticket ticket) {
-        return switch (ticket.getStatus()) {
-            case EN_ESPERA -> QueuePositionResponse.waiting(
-                ticket.getNumero(),
-                ticket.getQueueType(),
-                ticket.getPositionInQueue(),
-                ticket.getEstimatedWaitMinutes()
-            );
+    /**
+     * Posición del ticket ya cargado; no consulta la base de datos
+     */
+    public QueuePositionResponse buildPositionResponse(TicketReadModel ticket) {
+        return switch (ticket.status()) {
+            case EN_ESPERA -> buildWaitingResponse(ticket);
             case PROXIMO -> QueuePositionResponse.next(
-                ticket.getNumero(),
-                ticket.getQueueType()
+                ticket.numero(),
+                ticket.queueType()
             );
             case ATENDIENDO -> QueuePositionResponse.attending(
-                ticket.getNumero(),
-                ticket.getQueueType(),
-                ticket.getAssignedModuleNumber()
+                ticket.numero(),
+                ticket.queueType(),
+                ticket.assignedModuleNumber()
             );
-            default -> QueuePositionResponse.waiting(
-                ticket.getNumero(),
-                ticket.getQueueType(),
-                0,
-                0
+            default -> QueuePositionResponse.closed(
+                ticket.numero(),
+                ticket.queueType(),
+                ticket.status()
             );
         };
     }
-}
\ No newline at end of file
+
+    private QueuePositionResponse buildWaitingResponse(TicketReadModel ticket) {
+        // El libro de orden tiene la posición vigente; la columna solo se refresca en la cabeza
+        int position = queueOrderBookRegistry.positionOf(ticket.queueKey(), ticket.id())
+            .orElse(ticket.positionInQueue());
+        int estimatedWait = position == ticket.positionInQueue()
+            ? ticket.estimatedWaitMinutes()
+            : ticket.queueType().getAvgTimeMinutes() * position;
+
+        return QueuePositionResponse.waiting(
+            ticket.numero(),
+            ticket.queueType(),
+            position,
+            estimatedWait
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Weighted fair queuing entre tipos de cola (start-time fair queuing).
+ *
+ * Cada tipo de cola tiene una etiqueta de término virtual. Al recibir un cupo avanza
+ * en tiempo de atención / peso, con peso = {@link QueueType#getPriority()} (GERENCIA pesa
+ * 4 veces CAJA). El cupo va al tipo con tickets esperando cuyo inicio virtual,
+ * max(término, tiempo virtual), es menor; en empate gana la prioridad más alta.
+ *
+ * Con asesores saturados, cada tipo recibe tiempo de asesor en proporción a su peso:
+ * un tipo de atención larga recibe menos cupos, pero ninguno queda sin atender. Un tipo
+ * que estuvo vacío vuelve en el tiempo virtual actual, sin crédito acumulado.
+ * Cada decisión es O(tipos de cola).
+ */
+@Component
+@ConditionalOnProperty(name = "ticketero.queue.dispatcher", havingValue = "wfq", matchIfMissing = true)
+public class WeightedFairQueueDispatcher implements QueueDispatcher {
+
+    private final double[] finishTags = new double[QueueType.values().length];
+    private double virtualTime;
+
+    @Override
+    public synchronized QueueType select(Set<QueueType> backlogged) {
+        QueueType selected = null;
+        double selectedStart = Double.MAX_VALUE;
+        for (QueueType queueType : backlogged) {
+            double start = startTag(queueType);
+            if (start < selectedStart
+                    || (start == selectedStart && queueType.getPriority() > selected.getPriority())) {
+                selected = queueType;
+                selectedStart = start;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public synchronized void charge(QueueType queueType, double serviceMinutes) {
+        double start = startTag(queueType);
+        virtualTime = start;
+        finishTags[queueType.ordinal()] = start + serviceMinutes / weight(queueType);
+    }
+
+    @Override
+    public String name() {
+        return "wfq";
+    }
+
+    static int weight(QueueType queueType) {
+        return Math.max(1, queueType.getPriority());
+    }
+
+    private double startTag(QueueType queueType) {
+        return Math.max(finishTags[queueType.ordinal()], virtualTime);
+    }
+}
@@ -0,0 +1,16 @@
+-- V10__create_telegram_chat_binding_table.sql
+-- Chat de Telegram asociado a cada teléfono, registrado con /start en el bot
+
+CREATE TABLE telegram_chat_binding (
+    telefono VARCHAR(20) NOT NULL,
+    chat_id VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_telegram_chat_binding PRIMARY KEY (telefono)
+);
+
+-- Comentarios
+COMMENT ON TABLE telegram_chat_binding IS 'Destino Telegram de las notificaciones de cada teléfono';
+COMMENT ON COLUMN telegram_chat_binding.telefono IS 'Solo dígitos, con código de país (ej: 56912345678)';
+COMMENT ON COLUMN telegram_chat_binding.chat_id IS 'chat.id del update /start; el último registro reemplaza al anterior';
@@ -0,0 +1,155 @@
+-- V11__partition_ticket_and_mensaje_by_service_day.sql
+-- ticket y mensaje particionadas por rango de día de atención: una partición por día.
+-- Las consultas calientes filtran por service_day y PostgreSQL descarta en el plan las
+-- particiones históricas; sus índices y su vacuum ya no pesan sobre el día en curso.
+-- La llave primaria incluye service_day (requisito de PostgreSQL para índices únicos
+-- sobre tablas particionadas). Un mensaje vive en el día de su ticket.
+-- PartitionMaintenanceScheduler crea las particiones futuras y desacopla las antiguas.
+
+-- Crea las particiones diarias de p_parent entre p_from y p_to (inclusive) que falten
+CREATE FUNCTION create_service_day_partitions(p_parent TEXT, p_from DATE, p_to DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_day DATE := p_from;
+    v_partition TEXT;
+    v_created INTEGER := 0;
+BEGIN
+    WHILE v_day <= p_to LOOP
+        v_partition := p_parent || '_p' || to_char(v_day, 'YYYYMMDD');
+        IF to_regclass(v_partition) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                v_partition, p_parent, v_day, v_day + 1);
+            v_created := v_created + 1;
+        END IF;
+        v_day := v_day + 1;
+    END LOOP;
+    RETURN v_created;
+END;
+$$;
+
+-- Particiones diarias de p_parent anteriores a p_before, de la más antigua a la más nueva
+CREATE FUNCTION service_day_partitions_before(p_parent TEXT, p_before DATE)
+RETURNS SETOF TEXT
+LANGUAGE sql STABLE AS $$
+    SELECT c.relname::TEXT
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = to_regclass(p_parent)
+    AND c.relname ~ ('^' || p_parent || '_p[0-9]{8}$')
+    AND to_date(right(c.relname, 8), 'YYYYMMDD') < p_before
+    ORDER BY c.relname
+$$;
+
+-- Las tablas actuales se copian a las particionadas y se eliminan
+ALTER SEQUENCE ticket_seq OWNED BY NONE;
+ALTER SEQUENCE mensaje_seq OWNED BY NONE;
+ALTER TABLE mensaje RENAME TO mensaje_legacy;
+ALTER TABLE ticket RENAME TO ticket_legacy;
+
+CREATE TABLE ticket (
+    id BIGINT NOT NULL DEFAULT nextval('ticket_seq'),
+    codigo_referencia UUID NOT NULL,
+    numero VARCHAR(10) NOT NULL,
+    national_id VARCHAR(20) NOT NULL,
+    telefono VARCHAR(20),
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    position_in_queue INTEGER NOT NULL,
+    estimated_wait_minutes INTEGER NOT NULL,
+    assigned_advisor_id BIGINT,
+    assigned_module_number INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    service_day DATE NOT NULL DEFAULT CURRENT_DATE
+) PARTITION BY RANGE (service_day);
+
+CREATE TABLE mensaje (
+    id BIGINT NOT NULL DEFAULT nextval('mensaje_seq'),
+    ticket_id BIGINT NOT NULL,
+    plantilla VARCHAR(50) NOT NULL,
+    estado_envio VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    fecha_programada TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP,
+    telegram_message_id VARCHAR(50),
+    intentos INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_by VARCHAR(100),
+    claimed_until TIMESTAMP,
+    service_day DATE NOT NULL DEFAULT CURRENT_DATE
+) PARTITION BY RANGE (service_day);
+
+-- Particiones para los días ya emitidos y la próxima semana
+SELECT create_service_day_partitions('ticket',
+    COALESCE((SELECT MIN(service_day) FROM ticket_legacy), CURRENT_DATE), CURRENT_DATE + 7);
+SELECT create_service_day_partitions('mensaje',
+    COALESCE((SELECT MIN(service_day) FROM ticket_legacy), CURRENT_DATE), CURRENT_DATE + 7);
+
+INSERT INTO ticket (id, codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                    status, position_in_queue, estimated_wait_minutes, assigned_advisor_id,
+                    assigned_module_number, created_at, updated_at, service_day)
+SELECT id, codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+       status, position_in_queue, estimated_wait_minutes, assigned_advisor_id,
+       assigned_module_number, created_at, updated_at, service_day
+FROM ticket_legacy;
+
+INSERT INTO mensaje (id, ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio,
+                     telegram_message_id, intentos, created_at, claimed_by, claimed_until, service_day)
+SELECT m.id, m.ticket_id, m.plantilla, m.estado_envio, m.fecha_programada, m.fecha_envio,
+       m.telegram_message_id, m.intentos, m.created_at, m.claimed_by, m.claimed_until, t.service_day
+FROM mensaje_legacy m
+JOIN ticket_legacy t ON t.id = m.ticket_id;
+
+DROP TABLE mensaje_legacy;
+DROP TABLE ticket_legacy;
+
+ALTER SEQUENCE ticket_seq OWNED BY ticket.id;
+ALTER SEQUENCE mensaje_seq OWNED BY mensaje.id;
+
+-- Restricciones e índices (se propagan a cada partición)
+ALTER TABLE ticket ADD CONSTRAINT ticket_pkey PRIMARY KEY (id, service_day);
+ALTER TABLE ticket
+    ADD CONSTRAINT uk_ticket_codigo_referencia
+    UNIQUE (codigo_referencia, service_day);
+ALTER TABLE ticket
+    ADD CONSTRAINT uk_ticket_numero_por_dia
+    UNIQUE (branch_office, queue_type, service_day, numero);
+ALTER TABLE ticket
+    ADD CONSTRAINT fk_ticket_advisor
+    FOREIGN KEY (assigned_advisor_id)
+    REFERENCES advisor(id)
+    ON DELETE SET NULL;
+
+CREATE INDEX idx_ticket_status ON ticket(status);
+CREATE INDEX idx_ticket_national_id ON ticket(national_id);
+CREATE INDEX idx_ticket_queue_type ON ticket(queue_type);
+CREATE INDEX idx_ticket_created_at ON ticket(created_at DESC);
+CREATE INDEX idx_ticket_numero ON ticket(numero);
+
+ALTER TABLE mensaje ADD CONSTRAINT mensaje_pkey PRIMARY KEY (id, service_day);
+ALTER TABLE mensaje
+    ADD CONSTRAINT fk_mensaje_ticket
+    FOREIGN KEY (ticket_id, service_day)
+    REFERENCES ticket(id, service_day)
+    ON DELETE CASCADE;
+
+CREATE INDEX idx_mensaje_estado_fecha ON mensaje(estado_envio, fecha_programada);
+CREATE INDEX idx_mensaje_ticket_id ON mensaje(ticket_id);
+CREATE INDEX idx_mensaje_reclamables ON mensaje(fecha_programada)
+    WHERE estado_envio IN ('PENDIENTE', 'FALLIDO');
+
+-- Comentarios
+COMMENT ON TABLE ticket IS 'Tickets de atención en sucursales; una partición por día de atención';
+COMMENT ON COLUMN ticket.codigo_referencia IS 'UUID único para referencias externas';
+COMMENT ON COLUMN ticket.numero IS 'Número visible del ticket (C01, P15, etc.)';
+COMMENT ON COLUMN ticket.position_in_queue IS 'Posición actual en cola (calculada en tiempo real)';
+COMMENT ON COLUMN ticket.estimated_wait_minutes IS 'Tiempo estimado de espera en minutos';
+COMMENT ON COLUMN ticket.service_day IS 'Día de atención: llave de partición; la numeración se reinicia cada día';
+COMMENT ON TABLE mensaje IS 'Mensajes programados para envío vía Telegram; particionada como su ticket';
+COMMENT ON COLUMN mensaje.plantilla IS 'Tipo de mensaje: totem_ticket_creado, totem_proximo_turno, totem_es_tu_turno';
+COMMENT ON COLUMN mensaje.estado_envio IS 'Estado: PENDIENTE, ENVIADO, FALLIDO, REEMPLAZADO (descartado por un mensaje más relevante del mismo ticket)';
+COMMENT ON COLUMN mensaje.intentos IS 'Cantidad de reintentos de envío';
+COMMENT ON COLUMN mensaje.claimed_by IS 'Worker (nodo + número) que reclamó el mensaje para enviarlo';
+COMMENT ON COLUMN mensaje.claimed_until IS 'Fin del lease del reclamo; también posterga el reintento de un envío fallido';
+COMMENT ON COLUMN mensaje.service_day IS 'Día de atención del ticket: llave de partición';
@@ -0,0 +1,41 @@
+-- V12__hot_path_partial_indexes.sql
+-- Índices a la medida de los predicados calientes en lugar de índices de una columna.
+-- Los parciales solo contienen las filas que las consultas buscan (tickets activos,
+-- mensajes por enviar): se mantienen chicos aunque el día acumule tickets cerrados y
+-- mensajes enviados. Creados sobre la tabla padre, se propagan a cada partición diaria.
+-- QueryPlanIT verifica con EXPLAIN (ANALYZE, BUFFERS) que los planes los usen.
+
+-- Cola (sucursal, tipo) ordenada por llegada: JpaQueueEngine, recalculateQueuePositions
+-- (ROW_NUMBER ORDER BY created_at, id), promoteToProximo y findQueueKeysByStatusIn
+CREATE INDEX idx_ticket_cola_activa ON ticket(branch_office, queue_type, created_at, id)
+    INCLUDE (service_day)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+
+-- Tickets activos de un tipo de cola por llegada: countTicketsAheadInQueue (solo índice)
+-- y findActiveTicketsByQueue
+CREATE INDEX idx_ticket_tipo_activo ON ticket(queue_type, created_at)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+
+-- Búsqueda por número: el más reciente sin ordenar todas las coincidencias
+CREATE INDEX idx_ticket_numero_fecha ON ticket(numero, created_at DESC);
+
+-- Mensajes por enviar en orden de programación: claimBatch, findPendingMessagesReadyToSend
+-- y findFailedMessagesForRetry. Reemplaza a idx_mensaje_reclamables: excluye además los
+-- mensajes que agotaron sus intentos, que ninguna consulta vuelve a leer
+CREATE INDEX idx_mensaje_por_enviar ON mensaje(fecha_programada)
+    INCLUDE (estado_envio)
+    WHERE estado_envio IN ('PENDIENTE', 'FALLIDO') AND intentos < 3;
+
+-- Índices que no se pagan:
+-- status y queue_type: pocos valores distintos; los activos los cubren los parciales
+-- created_at: el conteo de creados hoy filtra por service_day (poda a la partición del día)
+-- national_id: ninguna consulta filtra por RUT
+-- numero: reemplazado por idx_ticket_numero_fecha
+-- estado_envio + fecha_programada: indexaba sobre todo mensajes ENVIADO
+DROP INDEX idx_ticket_status;
+DROP INDEX idx_ticket_queue_type;
+DROP INDEX idx_ticket_created_at;
+DROP INDEX idx_ticket_national_id;
+DROP INDEX idx_ticket_numero;
+DROP INDEX idx_mensaje_estado_fecha;
+DROP INDEX idx_mensaje_reclamables;
@@ -0,0 +1,49 @@
+-- V13__create_ticket_and_mensaje_history.sql
+-- Histórico de tickets cerrados y mensajes terminados. TicketArchiveScheduler los mueve
+-- desde ticket y mensaje en batches (DELETE ... RETURNING hacia INSERT ... SELECT, en una
+-- sentencia), así las particiones del día guardan solo lo que colas y envíos todavía leen.
+-- Sin particiones ni FK: se escribe una vez y solo se lee por número, referencia o ticket.
+
+CREATE TABLE ticket_history (
+    id BIGINT PRIMARY KEY,
+    codigo_referencia UUID NOT NULL,
+    numero VARCHAR(10) NOT NULL,
+    national_id VARCHAR(20) NOT NULL,
+    telefono VARCHAR(20),
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    position_in_queue INTEGER NOT NULL,
+    estimated_wait_minutes INTEGER NOT NULL,
+    assigned_advisor_id BIGINT,
+    assigned_module_number INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    service_day DATE NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE mensaje_history (
+    id BIGINT PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    plantilla VARCHAR(50) NOT NULL,
+    estado_envio VARCHAR(20) NOT NULL,
+    fecha_programada TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP,
+    telegram_message_id VARCHAR(50),
+    intentos INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    service_day DATE NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Las mismas lecturas que sobre ticket: el más reciente por número y por referencia
+CREATE INDEX idx_ticket_history_numero_fecha ON ticket_history(numero, created_at DESC);
+CREATE UNIQUE INDEX uk_ticket_history_codigo_referencia ON ticket_history(codigo_referencia);
+CREATE INDEX idx_mensaje_history_ticket_id ON mensaje_history(ticket_id);
+
+-- Comentarios
+COMMENT ON TABLE ticket_history IS 'Tickets cerrados (COMPLETADO, CANCELADO, NO_ATENDIDO) archivados desde ticket';
+COMMENT ON TABLE mensaje_history IS 'Mensajes terminados (ENVIADO, REEMPLAZADO, FALLIDO sin reintentos) archivados desde mensaje';
+COMMENT ON COLUMN ticket_history.archived_at IS 'Momento en que el archivador movió la fila';
+COMMENT ON COLUMN mensaje_history.archived_at IS 'Momento en que el archivador movió la fila';
@@ -0,0 +1,6 @@
+-- V14__index_ticket_history_for_dashboard.sql
+-- La reconciliación del dashboard suma ticket_history a los conteos de ticket:
+-- (branch_office, queue_type, status) permite agrupar con un index-only scan y
+-- service_day cuenta los emitidos del día sin recorrer todo el historial.
+CREATE INDEX idx_ticket_history_queue_status ON ticket_history(branch_office, queue_type, status);
+CREATE INDEX idx_ticket_history_service_day ON ticket_history(service_day);
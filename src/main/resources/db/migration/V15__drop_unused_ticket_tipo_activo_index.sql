@@ -0,0 +1,6 @@
+-- V15__drop_unused_ticket_tipo_activo_index.sql
+-- idx_ticket_tipo_activo (V12) servía a countTicketsAheadInQueue y findActiveTicketsByQueue,
+-- que no tenían llamadores y se eliminaron. Las lecturas de activos filtran por sucursal o
+-- por service_day y las cubre idx_ticket_cola_activa; el índice solo encarecía cada cambio
+-- de estado.
+DROP INDEX idx_ticket_tipo_activo;
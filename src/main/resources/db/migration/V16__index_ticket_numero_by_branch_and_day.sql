@@ -0,0 +1,11 @@
+-- V16__index_ticket_numero_by_branch_and_day.sql
+-- El número solo es único por (sucursal, tipo de cola, día) y las lecturas por número
+-- filtran por sucursal, día y número.
+-- ticket: uk_ticket_numero_por_dia (branch_office, queue_type, service_day, numero) ya
+-- resuelve la búsqueda; idx_ticket_numero_fecha (V12) ordenaba todas las coincidencias
+-- del número entre sucursales y días y solo encarecía cada inserción.
+-- ticket_history: el índice por (numero, created_at) recorría las coincidencias de todas
+-- las sucursales y días del historial; se reemplaza por uno con el predicado completo.
+DROP INDEX idx_ticket_numero_fecha;
+DROP INDEX idx_ticket_history_numero_fecha;
+CREATE INDEX idx_ticket_history_numero ON ticket_history(branch_office, service_day, numero);
@@ -0,0 +1,35 @@
+-- V4__create_ticket_number_block_table.sql
+-- Numeración de tickets por (sucursal, cola, día) reservada en bloques (hi/lo)
+
+-- Día de atención del ticket
+ALTER TABLE ticket ADD COLUMN service_day DATE NOT NULL DEFAULT CURRENT_DATE;
+UPDATE ticket SET service_day = CAST(created_at AS DATE);
+
+-- El número visible se repite entre sucursales, colas y días
+ALTER TABLE ticket DROP CONSTRAINT ticket_numero_key;
+ALTER TABLE ticket
+    ADD CONSTRAINT uk_ticket_numero_por_dia
+    UNIQUE (branch_office, queue_type, service_day, numero);
+CREATE INDEX idx_ticket_numero ON ticket(numero);
+
+CREATE TABLE ticket_number_block (
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    service_day DATE NOT NULL,
+    next_value INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_ticket_number_block PRIMARY KEY (branch_office, queue_type, service_day)
+);
+
+-- Continuar la numeración de los tickets ya emitidos
+INSERT INTO ticket_number_block (branch_office, queue_type, service_day, next_value)
+SELECT branch_office, queue_type, service_day, MAX(CAST(SUBSTRING(numero FROM 2) AS INTEGER)) + 1
+FROM ticket
+WHERE numero ~ '^[A-Z][0-9]+$'
+GROUP BY branch_office, queue_type, service_day;
+
+-- Comentarios
+COMMENT ON COLUMN ticket.service_day IS 'Día de atención; la numeración se reinicia cada día';
+COMMENT ON TABLE ticket_number_block IS 'Próximo número libre por sucursal, cola y día; cada instancia reserva bloques';
+COMMENT ON COLUMN ticket_number_block.next_value IS 'Primer número aún no reservado por ninguna instancia';
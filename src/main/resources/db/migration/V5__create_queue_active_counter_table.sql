@@ -0,0 +1,26 @@
+-- V5__create_queue_active_counter_table.sql
+-- Tickets activos por (sucursal, cola), mantenido en cada transición de estado
+
+CREATE TABLE queue_active_counter (
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    active_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_queue_active_counter PRIMARY KEY (branch_office, queue_type),
+    CONSTRAINT chk_active_count CHECK (active_count >= 0)
+);
+
+-- Índice para sumar los contadores de un tipo de cola
+CREATE INDEX idx_queue_active_counter_queue_type ON queue_active_counter(queue_type);
+
+-- Estado inicial a partir de los tickets activos existentes
+INSERT INTO queue_active_counter (branch_office, queue_type, active_count)
+SELECT branch_office, queue_type, COUNT(*)
+FROM ticket
+WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+GROUP BY branch_office, queue_type;
+
+-- Comentarios
+COMMENT ON TABLE queue_active_counter IS 'Tickets activos por sucursal y cola; reconciliado periódicamente contra ticket';
+COMMENT ON COLUMN queue_active_counter.active_count IS 'Tickets en EN_ESPERA, PROXIMO o ATENDIENDO';
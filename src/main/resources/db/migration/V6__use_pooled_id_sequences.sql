@@ -0,0 +1,23 @@
+-- V6__use_pooled_id_sequences.sql
+-- Ids desde secuencias con incremento 50 (optimizador pooled de Hibernate).
+-- Con IDENTITY Hibernate no puede agrupar INSERTs en batch; con secuencias
+-- reserva 50 ids por nextval y envía los INSERTs en un solo round trip.
+-- El valor de la secuencia es el límite superior del rango: [valor - 49, valor].
+
+CREATE SEQUENCE ticket_seq INCREMENT BY 50;
+SELECT setval('ticket_seq', COALESCE((SELECT MAX(id) FROM ticket), 0) + 50, false);
+ALTER TABLE ticket ALTER COLUMN id SET DEFAULT nextval('ticket_seq');
+ALTER SEQUENCE ticket_seq OWNED BY ticket.id;
+DROP SEQUENCE ticket_id_seq;
+
+CREATE SEQUENCE mensaje_seq INCREMENT BY 50;
+SELECT setval('mensaje_seq', COALESCE((SELECT MAX(id) FROM mensaje), 0) + 50, false);
+ALTER TABLE mensaje ALTER COLUMN id SET DEFAULT nextval('mensaje_seq');
+ALTER SEQUENCE mensaje_seq OWNED BY mensaje.id;
+DROP SEQUENCE mensaje_id_seq;
+
+CREATE SEQUENCE advisor_seq INCREMENT BY 50;
+SELECT setval('advisor_seq', COALESCE((SELECT MAX(id) FROM advisor), 0) + 50, false);
+ALTER TABLE advisor ALTER COLUMN id SET DEFAULT nextval('advisor_seq');
+ALTER SEQUENCE advisor_seq OWNED BY advisor.id;
+DROP SEQUENCE advisor_id_seq;
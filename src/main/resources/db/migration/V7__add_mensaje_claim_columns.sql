@@ -0,0 +1,13 @@
+-- V7__add_mensaje_claim_columns.sql
+-- Reclamo de mensajes por workers del dispatcher (FOR UPDATE SKIP LOCKED + dueño + lease)
+
+ALTER TABLE mensaje ADD COLUMN claimed_by VARCHAR(100);
+ALTER TABLE mensaje ADD COLUMN claimed_until TIMESTAMP;
+
+-- Índice para reclamar mensajes vencidos sin recorrer los ya enviados
+CREATE INDEX idx_mensaje_reclamables ON mensaje(fecha_programada)
+    WHERE estado_envio IN ('PENDIENTE', 'FALLIDO');
+
+-- Comentarios
+COMMENT ON COLUMN mensaje.claimed_by IS 'Worker (nodo + número) que reclamó el mensaje para enviarlo';
+COMMENT ON COLUMN mensaje.claimed_until IS 'Fin del lease del reclamo; también posterga el reintento de un envío fallido';
@@ -0,0 +1,4 @@
+-- V8__add_mensaje_reemplazado_state.sql
+-- Estado terminal para mensajes descartados por uno más relevante del mismo ticket
+
+COMMENT ON COLUMN mensaje.estado_envio IS 'Estado: PENDIENTE, ENVIADO, FALLIDO, REEMPLAZADO (descartado por un mensaje más relevante del mismo ticket)';
@@ -0,0 +1,17 @@
+-- V9__create_plantilla_mensaje_table.sql
+-- Versiones de plantillas de mensajes editables sin redeploy
+
+CREATE TABLE plantilla_mensaje (
+    plantilla VARCHAR(50) NOT NULL,
+    version INTEGER NOT NULL,
+    cuerpo TEXT NOT NULL,
+    activa BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_plantilla_mensaje PRIMARY KEY (plantilla, version)
+);
+
+-- Comentarios
+COMMENT ON TABLE plantilla_mensaje IS 'Versiones de plantillas Telegram; se usa la versión activa más alta, si no hay, la incluida en la aplicación';
+COMMENT ON COLUMN plantilla_mensaje.cuerpo IS 'Texto Markdown con marcadores {numero}, {cola}, {posicion}, {tiempoEstimado}, {sucursal}, {fecha}, {modulo}';
+COMMENT ON COLUMN plantilla_mensaje.activa IS 'Permite volver a una versión anterior desactivando la nueva';
@@ -0,0 +1,265 @@
+package com.example.ticketero.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de estrés de la asignación de asesores con varias instancias contra PostgreSQL:
+ * cada hilo es un nodo con su propia conexión, y lo único compartido es la tabla advisor.
+ *
+ * - readModifyWrite: la asignación anterior (SELECT del asesor con menos carga, contador
+ *   calculado en Java y UPDATE). Dos nodos pueden leer la misma carga y pisarse.
+ * - atomicClaim: el UPDATE ... RETURNING de AdvisorRepository.claimLeastLoaded/release.
+ *
+ * Cada nodo retiene hasta HELD_PER_NODE tickets y libera el más antiguo antes de tomar otro,
+ * así la tabla trabaja saturada (8 nodos x 2 > 5 asesores x 3). Los tickets retenidos se
+ * cuentan por asesor en memoria: se suma después del commit de la asignación y se resta
+ * antes de la liberación, de modo que la cuenta nunca supera la real. Si supera la
+ * capacidad, hubo una asignación de más; con atomicClaim eso hace fallar la ejecución.
+ *
+ * El throughput de JMH son intentos por segundo; al final se imprimen asignaciones por
+ * segundo y excesos de capacidad. Requiere la base migrada, como JdbcBatchingBenchmark;
+ * deja los asesores en AVAILABLE con carga 0.
+ *
+ * Ejecutar: DATABASE_URL=jdbc:postgresql://localhost:5432/ticketero \
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="AdvisorAssignmentBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(AdvisorAssignmentBenchmark.NODES)
+public class AdvisorAssignmentBenchmark {
+
+    static final int NODES = 8;
+    static final int CAPACITY = 3;
+    static final int HELD_PER_NODE = 2;
+
+    private static final String CLAIM = """
+        WITH candidate AS (
+            SELECT id
+            FROM advisor
+            WHERE status = 'AVAILABLE'
+            AND assigned_tickets_count < ?
+            ORDER BY assigned_tickets_count, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        )
+        UPDATE advisor a
+        SET assigned_tickets_count = a.assigned_tickets_count + 1,
+            status = CASE WHEN a.assigned_tickets_count + 1 >= ? THEN 'BUSY' ELSE a.status END,
+            updated_at = CURRENT_TIMESTAMP
+        FROM candidate c
+        WHERE a.id = c.id
+        AND a.assigned_tickets_count < ?
+        RETURNING a.id, a.assigned_tickets_count
+        """;
+
+    private static final String RELEASE = """
+        UPDATE advisor
+        SET assigned_tickets_count = assigned_tickets_count - 1,
+            status = CASE WHEN status = 'BUSY' AND assigned_tickets_count - 1 < ? THEN 'AVAILABLE' ELSE status END,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE id = ?
+        AND assigned_tickets_count > 0
+        """;
+
+    private static final String LEGACY_FIND = """
+        SELECT id, assigned_tickets_count
+        FROM advisor
+        WHERE status = 'AVAILABLE'
+        ORDER BY assigned_tickets_count, id
+        LIMIT 1
+        """;
+
+    private static final String LEGACY_READ = "SELECT assigned_tickets_count FROM advisor WHERE id = ?";
+
+    private static final String LEGACY_SAVE = """
+        UPDATE advisor
+        SET assigned_tickets_count = ?, status = ?, updated_at = CURRENT_TIMESTAMP
+        WHERE id = ?
+        """;
+
+    private static final String RESET = """
+        UPDATE advisor SET assigned_tickets_count = 0, status = 'AVAILABLE' WHERE status <> 'OFFLINE'
+        """;
+
+    // Tickets retenidos por asesor según los nodos
+    private final Map<Long, AtomicInteger> held = new ConcurrentHashMap<>();
+    private final AtomicLong assignments = new AtomicLong();
+    private final AtomicLong overCapacity = new AtomicLong();
+    private long startedAt;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        reset();
+        startedAt = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(BenchmarkParams params) throws SQLException {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        long exceeded = overCapacity.get();
+        System.out.printf("%n%d nodes: %d assignments (%.0f/s), %d over capacity%n",
+            NODES, assignments.get(), assignments.get() / seconds, exceeded);
+        reset();
+        if (exceeded > 0 && params.getBenchmark().endsWith("atomicClaim")) {
+            throw new IllegalStateException(exceeded + " assignments over advisor capacity");
+        }
+    }
+
+    @Benchmark
+    public boolean atomicClaim(Node node) throws SQLException {
+        node.releaseOldest(this::atomicRelease);
+
+        Long advisorId = null;
+        try (PreparedStatement claim = node.connection.prepareStatement(CLAIM)) {
+            claim.setInt(1, CAPACITY);
+            claim.setInt(2, CAPACITY);
+            claim.setInt(3, CAPACITY);
+            try (ResultSet rs = claim.executeQuery()) {
+                if (rs.next()) {
+                    advisorId = rs.getLong(1);
+                }
+            }
+        }
+        node.connection.commit();
+        return advisorId != null && hold(node, advisorId);
+    }
+
+    @Benchmark
+    public boolean readModifyWrite(Node node) throws SQLException {
+        node.releaseOldest(this::legacyRelease);
+
+        Long advisorId = null;
+        int count = 0;
+        try (Statement statement = node.connection.createStatement();
+             ResultSet rs = statement.executeQuery(LEGACY_FIND)) {
+            if (rs.next()) {
+                advisorId = rs.getLong(1);
+                count = rs.getInt(2);
+            }
+        }
+        if (advisorId != null) {
+            save(node.connection, advisorId, count + 1);
+        }
+        node.connection.commit();
+        return advisorId != null && hold(node, advisorId);
+    }
+
+    private boolean hold(Node node, Long advisorId) {
+        assignments.incrementAndGet();
+        if (held.computeIfAbsent(advisorId, id -> new AtomicInteger()).incrementAndGet() > CAPACITY) {
+            overCapacity.incrementAndGet();
+        }
+        node.tickets.addLast(advisorId);
+        return true;
+    }
+
+    private void atomicRelease(Connection connection, Long advisorId) throws SQLException {
+        held.get(advisorId).decrementAndGet();
+        try (PreparedStatement release = connection.prepareStatement(RELEASE)) {
+            release.setInt(1, CAPACITY);
+            release.setLong(2, advisorId);
+            release.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private void legacyRelease(Connection connection, Long advisorId) throws SQLException {
+        held.get(advisorId).decrementAndGet();
+        int count;
+        try (PreparedStatement read = connection.prepareStatement(LEGACY_READ)) {
+            read.setLong(1, advisorId);
+            try (ResultSet rs = read.executeQuery()) {
+                rs.next();
+                count = rs.getInt(1);
+            }
+        }
+        save(connection, advisorId, Math.max(0, count - 1));
+        connection.commit();
+    }
+
+    private static void save(Connection connection, Long advisorId, int count) throws SQLException {
+        try (PreparedStatement save = connection.prepareStatement(LEGACY_SAVE)) {
+            save.setInt(1, count);
+            save.setString(2, count >= CAPACITY ? "BUSY" : "AVAILABLE");
+            save.setLong(3, advisorId);
+            save.executeUpdate();
+        }
+    }
+
+    private void reset() throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(RESET);
+            connection.commit();
+        }
+        held.clear();
+        assignments.set(0);
+        overCapacity.set(0);
+    }
+
+    /**
+     * Un nodo: conexión propia y los tickets que está atendiendo
+     */
+    @State(Scope.Thread)
+    public static class Node {
+
+        private Connection connection;
+        private final Deque<Long> tickets = new ArrayDeque<>();
+
+        @Setup(Level.Trial)
+        public void connectNode() throws SQLException {
+            connection = connect();
+        }
+
+        @TearDown(Level.Trial)
+        public void closeNode() throws SQLException {
+            connection.close();
+        }
+
+        void releaseOldest(Release release) throws SQLException {
+            if (tickets.size() >= HELD_PER_NODE) {
+                release.release(connection, tickets.removeFirst());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Release {
+        void release(Connection connection, Long advisorId) throws SQLException;
+    }
+
+    private static Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("DATABASE_USERNAME", "dev"));
+        properties.setProperty("password", env("DATABASE_PASSWORD", "dev123"));
+        Connection connection = DriverManager.getConnection(
+            env("DATABASE_URL", "jdbc:postgresql://localhost:5432/ticketero"), properties);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
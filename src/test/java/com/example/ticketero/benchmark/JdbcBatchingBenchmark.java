@@ -0,0 +1,191 @@
+package com.example.ticketero.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas escritas por segundo contra PostgreSQL, antes y después de V6:
+ *
+ * - identity*: un round trip por fila, como hace Hibernate con GenerationType.IDENTITY.
+ * - pooled*: un nextval por cada 50 ids y un executeBatch, como hace Hibernate con
+ *   secuencias pooled + hibernate.jdbc.batch_size y reWriteBatchedInserts.
+ *
+ * Outbox: INSERT de mensajes. Ciclo de cola: UPDATE de posición y tiempo estimado.
+ * Requiere la base migrada (docker compose up postgres + la aplicación, o Flyway).
+ *
+ * Ejecutar: DATABASE_URL=jdbc:postgresql://localhost:5432/ticketero \
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="JdbcBatchingBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(JdbcBatchingBenchmark.ROWS)
+public class JdbcBatchingBenchmark {
+
+    static final int ROWS = 50;
+
+    private static final String INSERT_IDENTITY = """
+        INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, intentos)
+        VALUES (?, 'TOTEM_TICKET_CREADO', 'PENDIENTE', ?, 0)
+        RETURNING id
+        """;
+
+    private static final String INSERT_POOLED = """
+        INSERT INTO mensaje (id, ticket_id, plantilla, estado_envio, fecha_programada, intentos)
+        VALUES (?, ?, 'TOTEM_TICKET_CREADO', 'PENDIENTE', ?, 0)
+        """;
+
+    private static final String UPDATE_POSITION = """
+        UPDATE ticket
+        SET position_in_queue = ?, estimated_wait_minutes = ?, updated_at = ?
+        WHERE id = ?
+        """;
+
+    private Connection plain;
+    private Connection rewritten;
+    private String branchOffice;
+    private long ticketId;
+    private long[] queueTicketIds;
+    private int cycle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        plain = connect(false);
+        rewritten = connect(true);
+        branchOffice = "benchmark-" + UUID.randomUUID().toString().substring(0, 8);
+
+        queueTicketIds = new long[ROWS];
+        try (PreparedStatement insert = plain.prepareStatement("""
+                INSERT INTO ticket (codigo_referencia, numero, national_id, branch_office, queue_type,
+                                    status, position_in_queue, estimated_wait_minutes)
+                VALUES (?, ?, '11111111', ?, 'CAJA', 'EN_ESPERA', ?, ?)
+                RETURNING id
+                """)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "B" + i);
+                insert.setString(3, branchOffice);
+                insert.setInt(4, i + 1);
+                insert.setInt(5, (i + 1) * 5);
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                    queueTicketIds[i] = rs.getLong(1);
+                }
+            }
+        }
+        plain.commit();
+        ticketId = queueTicketIds[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement delete = plain.prepareStatement("DELETE FROM ticket WHERE branch_office = ?")) {
+            delete.setString(1, branchOffice);
+            delete.executeUpdate();
+        }
+        plain.commit();
+        plain.close();
+        rewritten.close();
+    }
+
+    @Benchmark
+    public void identityOutboxInserts() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = plain.prepareStatement(INSERT_IDENTITY)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, ticketId);
+                insert.setTimestamp(2, now);
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+        plain.commit();
+    }
+
+    @Benchmark
+    public void pooledOutboxInserts() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long hi;
+        try (Statement statement = rewritten.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT nextval('mensaje_seq')")) {
+            rs.next();
+            hi = rs.getLong(1);
+        }
+        try (PreparedStatement insert = rewritten.prepareStatement(INSERT_POOLED)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, hi - ROWS + 1 + i);
+                insert.setLong(2, ticketId);
+                insert.setTimestamp(3, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        rewritten.commit();
+    }
+
+    @Benchmark
+    public void identityQueueCycleUpdates() throws SQLException {
+        int shift = cycle++;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement update = plain.prepareStatement(UPDATE_POSITION)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindPosition(update, i, shift, now);
+                update.executeUpdate();
+            }
+        }
+        plain.commit();
+    }
+
+    @Benchmark
+    public void pooledQueueCycleUpdates() throws SQLException {
+        int shift = cycle++;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement update = rewritten.prepareStatement(UPDATE_POSITION)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindPosition(update, i, shift, now);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        rewritten.commit();
+    }
+
+    private void bindPosition(PreparedStatement update, int index, int shift, Timestamp now) throws SQLException {
+        int position = (index + shift) % ROWS + 1;
+        update.setInt(1, position);
+        update.setInt(2, position * 5);
+        update.setTimestamp(3, now);
+        update.setLong(4, queueTicketIds[index]);
+    }
+
+    private static Connection connect(boolean reWriteBatchedInserts) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("DATABASE_USERNAME", "dev"));
+        properties.setProperty("password", env("DATABASE_PASSWORD", "dev123"));
+        properties.setProperty("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts));
+        Connection connection = DriverManager.getConnection(
+            env("DATABASE_URL", "jdbc:postgresql://localhost:5432/ticketero"), properties);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
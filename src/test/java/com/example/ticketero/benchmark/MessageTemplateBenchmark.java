@@ -0,0 +1,106 @@
+package com.example.ticketero.benchmark;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.service.MessageTemplateRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderizado de mensajes Telegram: String.format sobre text blocks con un
+ * DateTimeFormatter nuevo por mensaje (implementación anterior de TelegramService)
+ * contra {@link MessageTemplateRenderer}.
+ *
+ * ns/op lo reporta JMH; bytes/op es gc.alloc.rate.norm del profiler gc.
+ *
+ * Ejecutar: mvn -Pbenchmark test-compile exec:exec -Djmh.args="MessageTemplateBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+    @Param({"TOTEM_TICKET_CREADO", "TOTEM_PROXIMO_TURNO", "TOTEM_ES_TU_TURNO"})
+    private MessageTemplate template;
+
+    private Ticket ticket;
+    private MessageTemplateRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ticket = Ticket.builder()
+            .numero("C042")
+            .queueType(QueueType.CAJA)
+            .branchOffice("Sucursal Centro")
+            .positionInQueue(12)
+            .estimatedWaitMinutes(60)
+            .assignedModuleNumber(3)
+            .createdAt(LocalDateTime.now())
+            .build();
+        // Solo plantillas incluidas: refresh() no se invoca
+        renderer = new MessageTemplateRenderer(null);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return switch (template) {
+            case TOTEM_TICKET_CREADO -> String.format("""
+                🎫 *Ticket Creado*
+
+                Número: *%s*
+                Cola: %s
+                Posición: %d
+                Tiempo estimado: %d minutos
+                Sucursal: %s
+
+                Fecha: %s
+                """,
+                ticket.getNumero(),
+                ticket.getQueueType().getDisplayName(),
+                ticket.getPositionInQueue(),
+                ticket.getEstimatedWaitMinutes(),
+                ticket.getBranchOffice(),
+                ticket.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
+            );
+
+            case TOTEM_PROXIMO_TURNO -> String.format("""
+                ⏰ *¡Su turno está próximo!*
+
+                Ticket: *%s*
+                Cola: %s
+
+                Por favor prepárese para ser atendido.
+                Faltan aproximadamente %d minutos.
+                """,
+                ticket.getNumero(),
+                ticket.getQueueType().getDisplayName(),
+                ticket.getEstimatedWaitMinutes()
+            );
+
+            case TOTEM_ES_TU_TURNO -> String.format("""
+                🔔 *¡Es su turno!*
+
+                Ticket: *%s*
+                Módulo: *%d*
+
+                Diríjase al módulo %d para ser atendido.
+                """,
+                ticket.getNumero(),
+                ticket.getAssignedModuleNumber(),
+                ticket.getAssignedModuleNumber()
+            );
+        };
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return renderer.render(template, ticket);
+    }
+}
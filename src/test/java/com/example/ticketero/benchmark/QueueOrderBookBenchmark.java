@@ -0,0 +1,100 @@
+package com.example.ticketero.benchmark;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.service.QueueOrderBook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara un ciclo de cola con recarga completa + recorrido (camino JPA actual)
+ * contra el mismo ciclo sobre {@link QueueOrderBook}.
+ *
+ * El camino de recarga materializa una entidad por fila activa, como hace
+ * findByBranchOfficeAndQueueTypeAndStatusInOrderByCreatedAtAsc, sin contar el costo de red ni de BD.
+ *
+ * Ejecutar: mvn -Pbenchmark test-compile exec:exec -Djmh.args="QueueOrderBookBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueOrderBookBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int queueDepth;
+
+    private List<Object[]> rows;
+    private QueueOrderBook book;
+    private long nextId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        rows = new ArrayList<>(queueDepth);
+        book = new QueueOrderBook(queueDepth);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= queueDepth; id++) {
+            rows.add(new Object[] {id, "C" + id, now.plusSeconds(id), 0});
+            book.add(id);
+        }
+        nextId = queueDepth + 1L;
+    }
+
+    @Benchmark
+    public void reloadAndScan(Blackhole blackhole) {
+        // Un ticket se completa y llega uno nuevo
+        rows.remove(0);
+        rows.add(new Object[] {nextId, "C" + nextId, LocalDateTime.now(), 0});
+        long target = nextId++ - queueDepth / 2;
+
+        // Recarga completa de la cola
+        List<Ticket> tickets = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            tickets.add(Ticket.builder()
+                .id((Long) row[0])
+                .numero((String) row[1])
+                .createdAt((LocalDateTime) row[2])
+                .positionInQueue((Integer) row[3])
+                .queueType(QueueType.CAJA)
+                .status(TicketStatus.EN_ESPERA)
+                .build());
+        }
+
+        // Recorrido: actualizar posiciones, promover cabeza y ubicar un ticket
+        int targetPosition = -1;
+        for (int i = 0; i < tickets.size(); i++) {
+            Ticket ticket = tickets.get(i);
+            int position = i + 1;
+            if (ticket.getPositionInQueue() != position) {
+                ticket.setPositionInQueue(position);
+                ticket.setEstimatedWaitMinutes(position * QueueType.CAJA.getAvgTimeMinutes());
+            }
+            if (position <= 3) {
+                ticket.setStatus(TicketStatus.PROXIMO);
+            }
+            if (ticket.getId() == target) {
+                targetPosition = position;
+            }
+        }
+        blackhole.consume(targetPosition);
+    }
+
+    @Benchmark
+    public void orderBook(Blackhole blackhole) {
+        // Un ticket se completa y llega uno nuevo
+        book.remove(book.head(1).get(0));
+        book.add(nextId);
+        long target = nextId++ - queueDepth / 2;
+
+        blackhole.consume(book.head(3));
+        blackhole.consume(book.positionOf(target));
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.ticketero.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de las consultas calientes sobre ticket y mensaje particionadas por día (V11)
+ * a medida que crece el histórico.
+ *
+ * Cada trial completa el histórico hasta historicalRows tickets COMPLETADO (con un mensaje
+ * ENVIADO cada uno) repartidos en los HISTORY_DAYS días anteriores a hoy, y carga en la
+ * partición de hoy una sucursal con HOT_TICKETS tickets, HOT_ACTIVE de ellos activos y con
+ * un mensaje vencido. El histórico se conserva entre trials y cada uno solo inserta lo que
+ * falta; como JMH recorre todos los valores de un método antes de pasar al siguiente, cada
+ * valor de historicalRows se corre en su propia invocación, de menor a mayor.
+ *
+ * - queueTickets, activeQueues, pendingMessages, ticketById: las consultas de
+ *   JpaQueueEngine, QueueManagementService y MessageScheduler con el rango de service_day
+ *   de ServiceDayWindow; PostgreSQL descarta las particiones históricas en el plan.
+ * - *Unpruned: la misma consulta sin el rango, como antes de la ventana: recorre los
+ *   índices de todas las particiones.
+ *
+ * Requiere la base migrada y desechable: el histórico no se borra al terminar (hasta 50M
+ * tickets y 50M mensajes; las particiones de esos días se pueden eliminar después).
+ *
+ * Ejecutar (una vez por valor): DATABASE_URL=jdbc:postgresql://localhost:5432/ticketero_bench \
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ServiceDayPartitionBenchmark -p historicalRows=0"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceDayPartitionBenchmark {
+
+    static final int HISTORY_DAYS = 365;
+    static final int HOT_TICKETS = 2_000;
+    static final int HOT_ACTIVE = 200;
+
+    private static final String HISTORY_BRANCH = "Bench Historico";
+    private static final String HOT_BRANCH = "Bench Hoy";
+
+    private static final String SEED_DAY = """
+        WITH seeded AS (
+            INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                                status, position_in_queue, estimated_wait_minutes, created_at, updated_at,
+                                service_day)
+            SELECT gen_random_uuid(), 'H' || g, '11111111', '+56900000000', ?,
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   'COMPLETADO', 0, 0, d + make_interval(secs => g % 36000), d + make_interval(secs => g % 36000), d
+            FROM generate_series(?, ?) g, (SELECT CAST(? AS DATE) AS d) day
+            RETURNING id, created_at, service_day
+        )
+        INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio, intentos,
+                             created_at, service_day)
+        SELECT id, 'TOTEM_TICKET_CREADO', 'ENVIADO', created_at, created_at, 1, created_at, service_day
+        FROM seeded
+        """;
+
+    private static final String SEED_HOT = """
+        WITH seeded AS (
+            INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                                status, position_in_queue, estimated_wait_minutes, created_at, updated_at,
+                                service_day)
+            SELECT gen_random_uuid(), 'B' || g, '22222222', '+56900000001', ?,
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   CASE WHEN g < ? THEN 'EN_ESPERA' ELSE 'COMPLETADO' END,
+                   g, g * 5, CURRENT_TIMESTAMP - make_interval(secs => ? - g), CURRENT_TIMESTAMP, ?
+            FROM generate_series(0, ? - 1) g
+            RETURNING id, status, created_at, service_day
+        )
+        INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, intentos, created_at, service_day)
+        SELECT id, 'TOTEM_TICKET_CREADO',
+               CASE WHEN status = 'EN_ESPERA' THEN 'PENDIENTE' ELSE 'ENVIADO' END,
+               created_at, 0, created_at, service_day
+        FROM seeded
+        """;
+
+    // JpaQueueEngine: TicketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetween...
+    private static final String QUEUE_TICKETS = """
+        SELECT id, numero, status, position_in_queue, created_at
+        FROM ticket
+        WHERE branch_office = ? AND queue_type = 'CAJA'
+        AND status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        %s
+        ORDER BY created_at
+        """;
+
+    // QueueManagementService.findActivePartitions
+    private static final String ACTIVE_QUEUES = """
+        SELECT DISTINCT branch_office, queue_type
+        FROM ticket
+        WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        %s
+        """;
+
+    // MessageScheduler: MensajeRepository.findPendingMessagesReadyToSend
+    private static final String PENDING_MESSAGES = """
+        SELECT m.id, m.plantilla, t.numero, t.telefono
+        FROM mensaje m
+        JOIN ticket t ON t.id = m.ticket_id
+        WHERE m.estado_envio = 'PENDIENTE'
+        AND m.fecha_programada <= CURRENT_TIMESTAMP
+        AND m.intentos < 3
+        %s
+        ORDER BY m.fecha_programada
+        """;
+
+    // QueueManagementService.completeTicket (AdminController)
+    private static final String TICKET_BY_ID = """
+        SELECT id, status, assigned_advisor_id
+        FROM ticket
+        WHERE id = ?
+        %s
+        """;
+
+    @Param({"0", "5000000", "50000000"})
+    public long historicalRows;
+
+    private Connection connection;
+    private PreparedStatement queueTickets;
+    private PreparedStatement queueTicketsUnpruned;
+    private PreparedStatement activeQueues;
+    private PreparedStatement activeQueuesUnpruned;
+    private PreparedStatement pendingMessages;
+    private PreparedStatement pendingMessagesUnpruned;
+    private PreparedStatement ticketById;
+    private PreparedStatement ticketByIdUnpruned;
+    private long hotTicketId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = connect();
+        LocalDate today = LocalDate.now();
+        seedHistory(today);
+        seedHotDay(today);
+
+        String window = "AND service_day BETWEEN ? AND ?";
+        String messageWindow = "AND m.service_day BETWEEN ? AND ? AND t.service_day BETWEEN ? AND ?";
+        queueTickets = prepare(QUEUE_TICKETS.formatted(window), today, 1);
+        queueTicketsUnpruned = prepare(QUEUE_TICKETS.formatted(""), today, 0);
+        queueTickets.setString(1, HOT_BRANCH);
+        queueTicketsUnpruned.setString(1, HOT_BRANCH);
+        activeQueues = prepare(ACTIVE_QUEUES.formatted(window), today, 1);
+        activeQueuesUnpruned = prepare(ACTIVE_QUEUES.formatted(""), today, 0);
+        pendingMessages = prepare(PENDING_MESSAGES.formatted(messageWindow), today, 2);
+        pendingMessagesUnpruned = prepare(PENDING_MESSAGES.formatted(""), today, 0);
+        ticketById = prepare(TICKET_BY_ID.formatted(window), today, 1);
+        ticketByIdUnpruned = prepare(TICKET_BY_ID.formatted(""), today, 0);
+        ticketById.setLong(1, hotTicketId);
+        ticketByIdUnpruned.setLong(1, hotTicketId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM ticket WHERE branch_office = ? AND service_day = ?")) {
+            delete.setString(1, HOT_BRANCH);
+            delete.setDate(2, Date.valueOf(LocalDate.now()));
+            delete.executeUpdate();
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    public void queueTickets(Blackhole blackhole) throws SQLException {
+        consume(queueTickets, blackhole);
+    }
+
+    @Benchmark
+    public void queueTicketsUnpruned(Blackhole blackhole) throws SQLException {
+        consume(queueTicketsUnpruned, blackhole);
+    }
+
+    @Benchmark
+    public void activeQueues(Blackhole blackhole) throws SQLException {
+        consume(activeQueues, blackhole);
+    }
+
+    @Benchmark
+    public void activeQueuesUnpruned(Blackhole blackhole) throws SQLException {
+        consume(activeQueuesUnpruned, blackhole);
+    }
+
+    @Benchmark
+    public void pendingMessages(Blackhole blackhole) throws SQLException {
+        consume(pendingMessages, blackhole);
+    }
+
+    @Benchmark
+    public void pendingMessagesUnpruned(Blackhole blackhole) throws SQLException {
+        consume(pendingMessagesUnpruned, blackhole);
+    }
+
+    @Benchmark
+    public void ticketById(Blackhole blackhole) throws SQLException {
+        consume(ticketById, blackhole);
+    }
+
+    @Benchmark
+    public void ticketByIdUnpruned(Blackhole blackhole) throws SQLException {
+        consume(ticketByIdUnpruned, blackhole);
+    }
+
+    private void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getObject(1));
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * Prepara la consulta; sus últimos {@code windows} pares de parámetros (desde, hasta) quedan en hoy
+     */
+    private PreparedStatement prepare(String sql, LocalDate today, int windows) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        int parameters = statement.getParameterMetaData().getParameterCount();
+        for (int i = parameters - 2 * windows + 1; i <= parameters; i++) {
+            statement.setDate(i, Date.valueOf(today));
+        }
+        return statement;
+    }
+
+    /**
+     * Completa el histórico hasta historicalRows tickets, en partes iguales por día
+     * (con 0 igual se crean las particiones de esos días). Cada día
+     * se completa desde lo que ya tiene, así una carga interrumpida se retoma sin duplicar
+     */
+    private void seedHistory(LocalDate today) throws SQLException {
+        // Las particiones existen en todos los trials: solo cambia el volumen
+        try (PreparedStatement partitions = connection.prepareStatement(
+                "SELECT create_service_day_partitions(?, ?, ?)")) {
+            for (String table : new String[] {"ticket", "mensaje"}) {
+                partitions.setString(1, table);
+                partitions.setDate(2, Date.valueOf(today.minusDays(HISTORY_DAYS)));
+                partitions.setDate(3, Date.valueOf(today));
+                partitions.executeQuery().close();
+            }
+        }
+        connection.commit();
+
+        long perDay = historicalRows / HISTORY_DAYS;
+        long started = System.nanoTime();
+        long seeded = 0;
+        try (PreparedStatement count = connection.prepareStatement(
+                "SELECT COUNT(*) FROM ticket WHERE branch_office = ? AND service_day = ?");
+             PreparedStatement seed = connection.prepareStatement(SEED_DAY)) {
+            for (int day = 1; day <= HISTORY_DAYS; day++) {
+                Date serviceDay = Date.valueOf(today.minusDays(day));
+                count.setString(1, HISTORY_BRANCH);
+                count.setDate(2, serviceDay);
+                long existing;
+                try (ResultSet rs = count.executeQuery()) {
+                    rs.next();
+                    existing = rs.getLong(1);
+                }
+                if (existing >= perDay) {
+                    continue;
+                }
+
+                seed.setString(1, HISTORY_BRANCH);
+                seed.setLong(2, existing);
+                seed.setLong(3, perDay - 1);
+                seed.setDate(4, serviceDay);
+                seed.executeUpdate();
+                connection.commit();
+                seeded += perDay - existing;
+            }
+        }
+        if (seeded == 0) {
+            return;
+        }
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM (ANALYZE) ticket");
+            statement.execute("VACUUM (ANALYZE) mensaje");
+        } finally {
+            connection.setAutoCommit(false);
+        }
+        System.out.printf("%nSeeded %d historical tickets over %d days in %.0f s%n",
+            seeded, HISTORY_DAYS, (System.nanoTime() - started) / 1e9);
+    }
+
+    /**
+     * Sucursal del día: HOT_TICKETS tickets, los primeros HOT_ACTIVE en espera y con mensaje vencido
+     */
+    private void seedHotDay(LocalDate today) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM ticket WHERE branch_office = ? AND service_day = ?");
+             PreparedStatement seed = connection.prepareStatement(SEED_HOT)) {
+            delete.setString(1, HOT_BRANCH);
+            delete.setDate(2, Date.valueOf(today));
+            delete.executeUpdate();
+
+            seed.setString(1, HOT_BRANCH);
+            seed.setInt(2, HOT_ACTIVE);
+            seed.setInt(3, HOT_TICKETS);
+            seed.setDate(4, Date.valueOf(today));
+            seed.setInt(5, HOT_TICKETS);
+            seed.executeUpdate();
+        }
+        try (PreparedStatement first = connection.prepareStatement(
+                "SELECT MIN(id) FROM ticket WHERE branch_office = ? AND service_day = ?")) {
+            first.setString(1, HOT_BRANCH);
+            first.setDate(2, Date.valueOf(today));
+            try (ResultSet rs = first.executeQuery()) {
+                rs.next();
+                hotTicketId = rs.getLong(1);
+            }
+        }
+        connection.commit();
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE ticket_p" + today.toString().replace("-", ""));
+            statement.execute("ANALYZE mensaje_p" + today.toString().replace("-", ""));
+        } finally {
+            connection.setAutoCommit(false);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("DATABASE_USERNAME", "dev"));
+        properties.setProperty("password", env("DATABASE_PASSWORD", "dev123"));
+        Connection connection = DriverManager.getConnection(
+            env("DATABASE_URL", "jdbc:postgresql://localhost:5432/ticketero"), properties);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
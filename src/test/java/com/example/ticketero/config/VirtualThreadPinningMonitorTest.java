@@ -0,0 +1,51 @@
+package com.example.ticketero.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("VirtualThreadPinningMonitor - Unit Tests")
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("hilo virtual que bloquea dentro de synchronized → debe registrar la fijación")
+    void start_hiloVirtualFijado_debeRegistrarMetrica() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(monitor, "pinningThresholdMs", 10L);
+        monitor.start();
+        Object monitorLock = new Object();
+
+        // When: dormir dentro de synchronized retiene el carrier
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitorLock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Then: los eventos JFR llegan al stream con algo de retraso
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.timer("ticketero.virtual-threads.pinned").count() == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(meterRegistry.timer("ticketero.virtual-threads.pinned").count()).isPositive();
+    }
+}
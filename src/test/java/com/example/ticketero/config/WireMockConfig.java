@@ -5,6 +5,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 
 /**
  * WireMock configuration for mocking Telegram API.
@@ -52,4 +53,38 @@ public class WireMockConfig {
                 .withStatus(500)
                 .withBody("{\"ok\":false,\"error_code\":500}")));
     }
-}
\ No newline at end of file
+
+    public static void simulateLatency(WireMockServer server, int millis) {
+        server.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(millis)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"ok\":true,\"result\":{\"message_id\":12345}}")));
+    }
+
+    /**
+     * Primer envío responde 429 con retry_after; los siguientes, 200
+     */
+    public static void simulateRateLimit(WireMockServer server, int retryAfterSeconds) {
+        server.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .inScenario("flood")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse()
+                .withStatus(429)
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {"ok":false,"error_code":429,"description":"Too Many Requests: retry after %d",
+                     "parameters":{"retry_after":%d}}
+                    """.formatted(retryAfterSeconds, retryAfterSeconds)))
+            .willSetStateTo("cooled-down"));
+
+        server.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .inScenario("flood")
+            .whenScenarioStateIs("cooled-down")
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"ok\":true,\"result\":{\"message_id\":12345}}")));
+    }
+}
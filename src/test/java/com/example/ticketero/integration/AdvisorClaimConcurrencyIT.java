@@ -0,0 +1,309 @@
+package com.example.ticketero.integration;
+
+import com.example.ticketero.service.AdvisorPool;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Asignación de asesores por SQL con varias instancias a la vez.
+ *
+ * Cada nodo es una conexión propia que toma y devuelve cupos con el SQL de
+ * AdvisorRepository.claimLeastLoaded y AdvisorRepository.release (copiado del repositorio,
+ * como en QueryPlanIT), cada operación en su transacción. Mientras corren, un monitor lee
+ * advisor sin parar: ningún asesor puede pasar de AdvisorPool.CAPACITY en ningún momento,
+ * y al terminar la carga de cada asesor debe ser la que los nodos dicen tener.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Asignación de asesores con varias instancias")
+class AdvisorClaimConcurrencyIT {
+
+    static final int NODES = 8;
+    static final int OPERATIONS_PER_NODE = 400;
+
+    private static final int CAPACITY = AdvisorPool.CAPACITY;
+
+    // AdvisorRepository.claimLeastLoaded
+    private static final String CLAIM = """
+        WITH candidate AS (
+            SELECT id
+            FROM advisor
+            WHERE status = 'AVAILABLE'
+            AND assigned_tickets_count < ?
+            ORDER BY assigned_tickets_count, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        ),
+        claimed AS (
+            UPDATE advisor a
+            SET assigned_tickets_count = a.assigned_tickets_count + 1,
+                status = CASE WHEN a.assigned_tickets_count + 1 >= ? THEN 'BUSY' ELSE a.status END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM candidate c
+            WHERE a.id = c.id
+            AND a.assigned_tickets_count < ?
+            RETURNING a.id
+        )
+        SELECT id FROM claimed
+        """;
+
+    // AdvisorRepository.release
+    private static final String RELEASE = """
+        WITH current AS (
+            SELECT id, status
+            FROM advisor
+            WHERE id = ?
+            AND assigned_tickets_count > 0
+            FOR UPDATE
+        ),
+        released AS (
+            UPDATE advisor a
+            SET assigned_tickets_count = a.assigned_tickets_count - 1,
+                status = CASE WHEN a.status = 'BUSY' AND a.assigned_tickets_count - 1 < ?
+                              THEN 'AVAILABLE' ELSE a.status END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM current c
+            WHERE a.id = c.id
+            RETURNING a.id
+        )
+        SELECT id FROM released
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("ticketero_claims")
+        .withUsername("test")
+        .withPassword("test");
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+            .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+    }
+
+    @BeforeEach
+    void resetAdvisors() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE advisor SET assigned_tickets_count = 0, status = 'AVAILABLE'");
+        }
+    }
+
+    @Test
+    @DisplayName("saturación desde varios nodos → cada cupo debe entregarse una sola vez")
+    void claim_variosNodosHastaSaturar_debeEntregarCadaCupoUnaVez() throws Exception {
+        // Given
+        int advisors = countAdvisors();
+
+        // When: cada nodo toma cupos hasta que no queda ninguno
+        List<Map<Long, Integer>> held = runNodes(node -> {
+            Map<Long, Integer> claimed = new HashMap<>();
+            for (int i = 0; i < OPERATIONS_PER_NODE; i++) {
+                Long advisorId = claim(node);
+                if (advisorId != null) {
+                    claimed.merge(advisorId, 1, Integer::sum);
+                } else if (freeSlots(node) == 0) {
+                    break;
+                }
+            }
+            return claimed;
+        });
+
+        // Then
+        assertThat(held.stream().mapToInt(claimed -> claimed.values().stream().mapToInt(Integer::intValue).sum()).sum())
+            .isEqualTo(advisors * CAPACITY);
+        assertThat(loads()).allSatisfy((advisorId, load) -> assertThat(load).isEqualTo(CAPACITY));
+        assertThat(countByStatus("BUSY")).isEqualTo(advisors);
+    }
+
+    @Test
+    @DisplayName("tomas y devoluciones concurrentes → ningún asesor debe pasar de su capacidad")
+    void claimYRelease_concurrentes_noDebenSuperarCapacidad() throws Exception {
+        // Given: un monitor lee la carga máxima mientras los nodos trabajan
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger maxObserved = new AtomicInteger();
+        ExecutorService monitor = Executors.newSingleThreadExecutor();
+        Future<?> monitoring = monitor.submit(() -> {
+            try (Connection connection = connect();
+                 PreparedStatement max = connection.prepareStatement(
+                     "SELECT MAX(assigned_tickets_count) FROM advisor")) {
+                while (!done.get()) {
+                    try (ResultSet rs = max.executeQuery()) {
+                        rs.next();
+                        maxObserved.accumulateAndGet(rs.getInt(1), Math::max);
+                    }
+                }
+            }
+            return null;
+        });
+
+        // When: cada nodo toma cupos y devuelve uno de los suyos al azar
+        List<Map<Long, Integer>> held;
+        try {
+            held = runNodes(node -> {
+                Deque<Long> mine = new ArrayDeque<>();
+                for (int i = 0; i < OPERATIONS_PER_NODE; i++) {
+                    if (!mine.isEmpty() && ThreadLocalRandom.current().nextBoolean()) {
+                        Long advisorId = mine.poll();
+                        assertThat(release(node, advisorId)).isTrue();
+                    } else {
+                        Long advisorId = claim(node);
+                        if (advisorId != null) {
+                            mine.add(advisorId);
+                        }
+                    }
+                }
+                Map<Long, Integer> claimed = new HashMap<>();
+                mine.forEach(advisorId -> claimed.merge(advisorId, 1, Integer::sum));
+                return claimed;
+            });
+        } finally {
+            done.set(true);
+            monitoring.get(30, TimeUnit.SECONDS);
+            monitor.shutdownNow();
+        }
+
+        // Then
+        assertThat(maxObserved.get()).isLessThanOrEqualTo(CAPACITY);
+        Map<Long, Integer> expected = new HashMap<>();
+        held.forEach(claimed -> claimed.forEach((advisorId, count) -> expected.merge(advisorId, count, Integer::sum)));
+        assertThat(loads()).allSatisfy((advisorId, load) -> {
+            assertThat(load).isLessThanOrEqualTo(CAPACITY);
+            assertThat(load).isEqualTo(expected.getOrDefault(advisorId, 0));
+        });
+        assertThat(countByStatus("BUSY")).isEqualTo(
+            (int) loads().values().stream().filter(load -> load >= CAPACITY).count());
+    }
+
+    private interface NodeWork {
+        Map<Long, Integer> run(Connection node) throws SQLException;
+    }
+
+    // Un hilo y una conexión por nodo, todos arrancan a la vez
+    private static List<Map<Long, Integer>> runNodes(NodeWork work) throws Exception {
+        ExecutorService nodes = Executors.newFixedThreadPool(NODES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Map<Long, Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < NODES; i++) {
+                Callable<Map<Long, Integer>> node = () -> {
+                    try (Connection connection = connect()) {
+                        connection.setAutoCommit(false);
+                        start.await();
+                        return work.run(connection);
+                    }
+                };
+                futures.add(nodes.submit(node));
+            }
+            start.countDown();
+
+            List<Map<Long, Integer>> results = new ArrayList<>();
+            for (Future<Map<Long, Integer>> future : futures) {
+                results.add(future.get(2, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            nodes.shutdownNow();
+        }
+    }
+
+    private static Long claim(Connection node) throws SQLException {
+        try (PreparedStatement claim = node.prepareStatement(CLAIM)) {
+            claim.setInt(1, CAPACITY);
+            claim.setInt(2, CAPACITY);
+            claim.setInt(3, CAPACITY);
+            try (ResultSet rs = claim.executeQuery()) {
+                Long advisorId = rs.next() ? rs.getLong(1) : null;
+                node.commit();
+                return advisorId;
+            }
+        }
+    }
+
+    private static boolean release(Connection node, long advisorId) throws SQLException {
+        try (PreparedStatement release = node.prepareStatement(RELEASE)) {
+            release.setLong(1, advisorId);
+            release.setInt(2, CAPACITY);
+            try (ResultSet rs = release.executeQuery()) {
+                boolean released = rs.next();
+                node.commit();
+                return released;
+            }
+        }
+    }
+
+    private static int freeSlots(Connection node) throws SQLException {
+        try (PreparedStatement free = node.prepareStatement(
+                "SELECT COALESCE(SUM(? - assigned_tickets_count), 0) FROM advisor WHERE status = 'AVAILABLE'")) {
+            free.setInt(1, CAPACITY);
+            try (ResultSet rs = free.executeQuery()) {
+                rs.next();
+                int slots = rs.getInt(1);
+                node.commit();
+                return slots;
+            }
+        }
+    }
+
+    private static Map<Long, Integer> loads() throws SQLException {
+        Map<Long, Integer> loads = new HashMap<>();
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, assigned_tickets_count FROM advisor")) {
+            while (rs.next()) {
+                loads.put(rs.getLong(1), rs.getInt(2));
+            }
+        }
+        return loads;
+    }
+
+    private static int countAdvisors() throws SQLException {
+        return loads().size();
+    }
+
+    private static int countByStatus(String status) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM advisor WHERE status = ?")) {
+            count.setString(1, status);
+            try (ResultSet rs = count.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
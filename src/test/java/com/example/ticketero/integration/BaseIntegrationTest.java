@@ -137,6 +137,29 @@ public abstract class BaseIntegrationTest {
         return createTicketRequest(nationalId, "+56912345678", "Sucursal Centro", queueType);
     }
 
+    /**
+     * Registra el chat del teléfono como lo haría el bot al recibir el contacto del propio usuario
+     */
+    protected void bindTelegramChat(String telefono, long chatId) {
+        RestAssured.given()
+            .contentType("application/json")
+            .header("X-Telegram-Bot-Api-Secret-Token", "test-webhook-secret")
+            .body(String.format("""
+                {
+                    "update_id": %d,
+                    "message": {
+                        "chat": {"id": %d},
+                        "from": {"id": %d},
+                        "contact": {"phone_number": "%s", "user_id": %d}
+                    }
+                }
+                """, chatId, chatId, chatId, telefono, chatId))
+        .when()
+            .post("/telegram/webhook")
+        .then()
+            .statusCode(200);
+    }
+
     protected int countTicketsInStatus(String status) {
         try {
             return jdbcTemplate.queryForObject(
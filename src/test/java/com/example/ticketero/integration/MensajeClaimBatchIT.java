@@ -0,0 +1,253 @@
+package com.example.ticketero.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reemplazo de mensajes al reclamar un batch (MensajeRepository.claimBatch, SQL copiado
+ * del repositorio como en QueryPlanIT).
+ *
+ * Un mensaje del batch se marca REEMPLAZADO solo si su ticket tiene otro más relevante que
+ * todavía se va a enviar o ya se envió: pendiente, enviado, o fallido con reintentos. Un
+ * hermano que agotó sus intentos no se enviará nunca y no debe silenciar al reclamado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Reemplazo de mensajes en claimBatch")
+class MensajeClaimBatchIT {
+
+    // MensajeRepository.claimBatch
+    private static final String CLAIM_BATCH = """
+        WITH claimable AS (
+            SELECT id, ticket_id, plantilla, service_day
+            FROM mensaje
+            WHERE estado_envio IN ('PENDIENTE', 'FALLIDO')
+            AND fecha_programada <= ?
+            AND intentos < 3
+            AND (claimed_until IS NULL OR claimed_until < ?)
+            AND service_day BETWEEN ? AND ?
+            ORDER BY fecha_programada
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        ),
+        superseded AS (
+            UPDATE mensaje m
+            SET estado_envio = 'REEMPLAZADO',
+                claimed_by = NULL,
+                claimed_until = NULL
+            FROM claimable c
+            WHERE m.id = c.id
+            AND m.service_day = c.service_day
+            AND m.service_day BETWEEN ? AND ?
+            AND EXISTS (
+                SELECT 1
+                FROM mensaje s
+                WHERE s.ticket_id = c.ticket_id
+                AND s.service_day = c.service_day
+                AND s.service_day BETWEEN ? AND ?
+                AND s.id <> c.id
+                AND (s.estado_envio IN ('PENDIENTE', 'ENVIADO')
+                     OR (s.estado_envio = 'FALLIDO' AND s.intentos < 3))
+                AND (CASE s.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, s.id)
+                  > (CASE c.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, c.id)
+            )
+            RETURNING m.id
+        ),
+        claimed AS (
+            UPDATE mensaje m
+            SET claimed_by = ?,
+                claimed_until = ?
+            FROM claimable c
+            WHERE m.id = c.id
+            AND m.service_day = c.service_day
+            AND m.service_day BETWEEN ? AND ?
+            AND c.id NOT IN (SELECT id FROM superseded)
+            RETURNING m.id
+        )
+        SELECT id, false AS superseded FROM claimed
+        UNION ALL
+        SELECT id, true AS superseded FROM superseded
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("ticketero_claim_batch")
+        .withUsername("test")
+        .withPassword("test");
+
+    private static Connection connection;
+
+    private LocalDate today;
+    private LocalDateTime now;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+            .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        connection = DriverManager.getConnection(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @BeforeEach
+    void clean() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM mensaje");
+            statement.executeUpdate("DELETE FROM ticket");
+            try (ResultSet rs = statement.executeQuery("SELECT CURRENT_DATE, LOCALTIMESTAMP")) {
+                rs.next();
+                today = rs.getObject(1, LocalDate.class);
+                now = rs.getObject(2, LocalDateTime.class);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("hermano más relevante que agotó sus intentos → no debe reemplazar")
+    void claimBatch_hermanoAgotado_noDebeReemplazar() throws SQLException {
+        // Given
+        long ticketId = insertTicket();
+        long creado = insertMensaje(ticketId, "TOTEM_TICKET_CREADO", "PENDIENTE", 0, now.minusMinutes(1));
+        insertMensaje(ticketId, "TOTEM_ES_TU_TURNO", "FALLIDO", 3, now.minusMinutes(2));
+
+        // When
+        Map<Long, Boolean> rows = claimBatch();
+
+        // Then
+        assertThat(rows).containsExactly(entry(creado, false));
+        assertThat(estado(creado)).isEqualTo("PENDIENTE");
+    }
+
+    @Test
+    @DisplayName("hermano más relevante fallido con reintentos → debe reemplazar")
+    void claimBatch_hermanoFallidoConReintentos_debeReemplazar() throws SQLException {
+        // Given: el hermano se reintenta más tarde, fuera de este batch
+        long ticketId = insertTicket();
+        long creado = insertMensaje(ticketId, "TOTEM_TICKET_CREADO", "PENDIENTE", 0, now.minusMinutes(1));
+        insertMensaje(ticketId, "TOTEM_ES_TU_TURNO", "FALLIDO", 1, now.plusMinutes(5));
+
+        // When
+        Map<Long, Boolean> rows = claimBatch();
+
+        // Then
+        assertThat(rows).containsExactly(entry(creado, true));
+        assertThat(estado(creado)).isEqualTo("REEMPLAZADO");
+    }
+
+    @Test
+    @DisplayName("hermano más relevante ya enviado → debe reemplazar")
+    void claimBatch_hermanoEnviado_debeReemplazar() throws SQLException {
+        // Given
+        long ticketId = insertTicket();
+        long proximo = insertMensaje(ticketId, "TOTEM_PROXIMO_TURNO", "FALLIDO", 1, now.minusMinutes(1));
+        insertMensaje(ticketId, "TOTEM_ES_TU_TURNO", "ENVIADO", 1, now.minusMinutes(2));
+
+        // When
+        Map<Long, Boolean> rows = claimBatch();
+
+        // Then
+        assertThat(rows).containsExactly(entry(proximo, true));
+        assertThat(estado(proximo)).isEqualTo("REEMPLAZADO");
+    }
+
+    private Map<Long, Boolean> claimBatch() throws SQLException {
+        Object[] parameters = {now, now, today, today, 50, today, today, today, today,
+            "claims-1", now.plusMinutes(1), today, today};
+        Map<Long, Boolean> rows = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_BATCH)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(rs.getLong("id"), rs.getBoolean("superseded"));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long insertTicket() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                                    status, position_in_queue, estimated_wait_minutes, created_at, updated_at,
+                                    service_day)
+                VALUES (gen_random_uuid(), 'C01', '12345678', '+56912345678', 'Sucursal Centro', 'CAJA',
+                        'EN_ESPERA', 1, 5, ?, ?, ?)
+                RETURNING id
+                """)) {
+            statement.setObject(1, now);
+            statement.setObject(2, now);
+            statement.setObject(3, today);
+            return returnedId(statement);
+        }
+    }
+
+    private long insertMensaje(long ticketId, String plantilla, String estado, int intentos,
+                               LocalDateTime fechaProgramada) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio, intentos,
+                                     created_at, service_day)
+                VALUES (?, ?, ?, ?, CASE WHEN ? = 'ENVIADO' THEN CAST(? AS TIMESTAMP) END, ?, ?, ?)
+                RETURNING id
+                """)) {
+            statement.setLong(1, ticketId);
+            statement.setString(2, plantilla);
+            statement.setString(3, estado);
+            statement.setObject(4, fechaProgramada);
+            statement.setString(5, estado);
+            statement.setObject(6, fechaProgramada);
+            statement.setInt(7, intentos);
+            statement.setObject(8, now);
+            statement.setObject(9, today);
+            return returnedId(statement);
+        }
+    }
+
+    private String estado(long mensajeId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT estado_envio FROM mensaje WHERE id = ?")) {
+            statement.setLong(1, mensajeId);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static long returnedId(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -30,6 +30,15 @@ class NotificationIT extends BaseIntegrationTest {
         }
     }
 
+    @BeforeEach
+    void bindTelegramChats() {
+        bindTelegramChat("+56912345678", 123456789L);
+        bindTelegramChat("+56911111111", 123456790L);
+        for (int i = 1; i <= 4; i++) {
+            bindTelegramChat("+5691234567" + i, 123456790L + i);
+        }
+    }
+
     @Nested
     @DisplayName("Escenarios Happy Path (P0)")
     class HappyPath {
@@ -0,0 +1,664 @@
+package com.example.ticketero.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Regresión de planes de las consultas calientes de TicketRepository, MensajeRepository y
+ * QueueActiveCounterRepository.
+ *
+ * Migra el esquema con Flyway (particiones de V11, índices de V12), carga HISTORY_DAYS días
+ * de histórico cerrado más un día en curso de TICKETS_TODAY tickets, ACTIVE_TODAY de ellos
+ * activos con mensajes por enviar, y ejecuta cada consulta con EXPLAIN (ANALYZE, BUFFERS).
+ * El día es grande a propósito: sobre una partición de pocos miles de filas recorrerla
+ * entera es la elección correcta del planificador y no una regresión. Cada plan debe:
+ * - no recorrer ticket ni mensaje con Seq Scan
+ * - usar el índice esperado
+ * - con ventana de service_day, no tocar particiones de otros días
+ * - leer menos bloques que su presupuesto (un plan que empeora lee el día completo)
+ *
+ * El SQL es el que emite Hibernate para cada método (los nativos, copiados del repositorio),
+ * con los parámetros ligados igual que Hibernate: el planificador ve los mismos valores.
+ * Sin contexto de Spring: el perfil test crea el esquema con Hibernate, sin particiones ni
+ * índices de las migraciones. Quedan fuera los conteos completos del dashboard, que leen
+ * todas las filas por diseño.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Planes de las consultas calientes")
+class QueryPlanIT {
+
+    static final int HISTORY_DAYS = 30;
+    static final int TICKETS_PER_DAY = 20_000;
+    static final int TICKETS_TODAY = 100_000;
+    static final int ACTIVE_TODAY = 300;
+
+    private static final String BRANCH = "Sucursal Centro";
+    private static final Pattern PARTITION = Pattern.compile("^(ticket|mensaje)_p(\\d{8})$");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Un ticket cerrado por día de histórico, con un mensaje ENVIADO
+    private static final String SEED_HISTORY = """
+        WITH seeded AS (
+            INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                                status, position_in_queue, estimated_wait_minutes, created_at, updated_at,
+                                service_day)
+            SELECT gen_random_uuid(), 'C' || g, '1' || lpad(CAST(g AS TEXT), 7, '0'), '+56900000000',
+                   (ARRAY['Sucursal Centro', 'Sucursal Norte', 'Sucursal Sur'])[1 + g % 3],
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   (ARRAY['COMPLETADO', 'COMPLETADO', 'CANCELADO', 'NO_ATENDIDO'])[1 + g % 4],
+                   0, 0, d + make_interval(secs => g), d + make_interval(secs => g), d
+            FROM generate_series(0, ? - 1) g, (SELECT CAST(? AS DATE) AS d) day
+            RETURNING id, created_at, service_day
+        )
+        INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio, intentos,
+                             created_at, service_day)
+        SELECT id, 'TOTEM_TICKET_CREADO', 'ENVIADO', created_at, created_at, 1, created_at, service_day
+        FROM seeded
+        """;
+
+    // El día en curso: los ACTIVE_TODAY más recientes activos, cada ticket con tres mensajes;
+    // el primero de un ticket activo está por enviar (fallido si el ticket es PROXIMO)
+    private static final String SEED_TODAY = """
+        WITH seeded AS (
+            INSERT INTO ticket (codigo_referencia, numero, national_id, telefono, branch_office, queue_type,
+                                status, position_in_queue, estimated_wait_minutes, created_at, updated_at,
+                                service_day, assigned_advisor_id)
+            SELECT gen_random_uuid(), 'C' || g, '2' || lpad(CAST(g AS TEXT), 7, '0'), '+56900000001',
+                   (ARRAY['Sucursal Centro', 'Sucursal Norte', 'Sucursal Sur'])[1 + g % 3],
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   CASE
+                       WHEN g < ? - ? THEN 'COMPLETADO'
+                       WHEN g % 10 = 0 THEN 'ATENDIENDO'
+                       WHEN g % 10 = 1 THEN 'PROXIMO'
+                       ELSE 'EN_ESPERA'
+                   END,
+                   g % 100, g % 100 * 5,
+                   CURRENT_TIMESTAMP - make_interval(secs => ? - g), CURRENT_TIMESTAMP, CURRENT_DATE,
+                   CASE WHEN g >= ? - ? AND g % 10 = 0 THEN (SELECT MIN(id) FROM advisor) END
+            FROM generate_series(0, ? - 1) g
+            RETURNING id, status, created_at, service_day
+        )
+        INSERT INTO mensaje (ticket_id, plantilla, estado_envio, fecha_programada, fecha_envio, intentos,
+                             created_at, service_day)
+        SELECT id, plantilla, estado,
+               created_at, CASE WHEN estado = 'ENVIADO' THEN created_at END,
+               CASE estado WHEN 'PENDIENTE' THEN 0 ELSE 1 END, created_at, service_day
+        FROM (
+            SELECT s.id, s.created_at, s.service_day,
+                   (ARRAY['TOTEM_TICKET_CREADO', 'TOTEM_PROXIMO_TURNO', 'TOTEM_ES_TU_TURNO'])[n] AS plantilla,
+                   CASE
+                       WHEN s.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO') AND n = 1
+                           THEN CASE WHEN s.status = 'PROXIMO' THEN 'FALLIDO' ELSE 'PENDIENTE' END
+                       ELSE 'ENVIADO'
+                   END AS estado
+            FROM seeded s, generate_series(1, 3) n
+        ) m
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withDatabaseName("ticketero_plans")
+        .withUsername("test")
+        .withPassword("test");
+
+    private static Connection connection;
+    private static LocalDate today;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+            .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        connection = DriverManager.getConnection(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT CURRENT_DATE")) {
+            rs.next();
+            today = rs.getObject(1, LocalDate.class);
+        }
+
+        try (PreparedStatement partitions = connection.prepareStatement(
+                "SELECT create_service_day_partitions(?, ?, ?)")) {
+            for (String table : new String[] {"ticket", "mensaje"}) {
+                partitions.setString(1, table);
+                partitions.setObject(2, today.minusDays(HISTORY_DAYS));
+                partitions.setObject(3, today);
+                partitions.executeQuery().close();
+            }
+        }
+        try (PreparedStatement seed = connection.prepareStatement(SEED_HISTORY)) {
+            for (int day = 1; day <= HISTORY_DAYS; day++) {
+                seed.setInt(1, TICKETS_PER_DAY);
+                seed.setObject(2, today.minusDays(day));
+                seed.executeUpdate();
+            }
+        }
+        try (PreparedStatement seed = connection.prepareStatement(SEED_TODAY)) {
+            seed.setInt(1, TICKETS_TODAY);
+            seed.setInt(2, ACTIVE_TODAY);
+            seed.setInt(3, TICKETS_TODAY);
+            seed.setInt(4, TICKETS_TODAY);
+            seed.setInt(5, ACTIVE_TODAY);
+            seed.setInt(6, TICKETS_TODAY);
+            seed.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM (ANALYZE) ticket");
+            statement.execute("VACUUM (ANALYZE) mensaje");
+        }
+
+        // Las sentencias que modifican (EXPLAIN ANALYZE las ejecuta) se revierten tras cada test
+        connection.setAutoCommit(false);
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @AfterEach
+    void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @Nested
+    @DisplayName("TicketRepository")
+    class TicketQueries {
+
+        @Test
+        @DisplayName("cola (sucursal, tipo) activa por llegada → idx_ticket_cola_activa, solo hoy")
+        void findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetween() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.branch_office = ? AND t.queue_type = ?
+                AND t.status IN (?, ?, ?)
+                AND t.service_day BETWEEN ? AND ?
+                ORDER BY t.created_at
+                """, BRANCH, "CAJA", "EN_ESPERA", "PROXIMO", "ATENDIENDO", today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 200);
+        }
+
+        @Test
+        @DisplayName("activos de todas las colas por llegada → índice parcial de activos, solo hoy")
+        void findByStatusInAndServiceDayBetween() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.status IN (?, ?, ?)
+                AND t.service_day BETWEEN ? AND ?
+                ORDER BY t.created_at
+                """, "EN_ESPERA", "PROXIMO", "ATENDIENDO", today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 100);
+        }
+
+        @Test
+        @DisplayName("PROXIMO para el reparto → índice parcial de activos, solo hoy")
+        void findProximosForDispatch() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.status IN (?)
+                AND t.service_day BETWEEN ? AND ?
+                ORDER BY t.created_at
+                """, "PROXIMO", today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 100);
+        }
+
+        @Test
+        @DisplayName("colas con activos → idx_ticket_cola_activa, solo hoy")
+        void findQueueKeysByStatusIn() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT DISTINCT t.branch_office, t.queue_type FROM ticket t
+                WHERE t.status IN (?, ?, ?)
+                AND t.service_day BETWEEN ? AND ?
+                """, "EN_ESPERA", "PROXIMO", "ATENDIENDO", today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 200);
+        }
+
+        @Test
+        @DisplayName("carga de cada asesor → índice parcial de activos, solo hoy")
+        void countByAdvisorAndStatus() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT t.assigned_advisor_id, COUNT(t.id) FROM ticket t
+                WHERE t.status = ?
+                AND t.assigned_advisor_id IS NOT NULL
+                AND t.service_day BETWEEN ? AND ?
+                GROUP BY t.assigned_advisor_id
+                """, "ATENDIENDO", today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 100);
+        }
+
+        @Test
+        @DisplayName("ticket por id en la ventana → ticket_pkey, solo hoy")
+        void findByIdAndServiceDayBetween() throws Exception {
+            // Given
+            long id = activeTicketId();
+
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.id = ?
+                AND t.service_day BETWEEN ? AND ?
+                """, id, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("ticket_pkey"), true, 20);
+        }
+
+        @Test
+        @DisplayName("tickets por ids en la ventana → ticket_pkey, solo hoy")
+        void findByIdInAndServiceDayBetween() throws Exception {
+            // Given
+            long id = activeTicketId();
+
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.id IN (?, ?, ?)
+                AND t.service_day BETWEEN ? AND ?
+                """, id, id + 1, id + 2, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("ticket_pkey"), true, 50);
+        }
+
+        @Test
+        @DisplayName("ticket por número en su sucursal y día → uk_ticket_numero_por_dia")
+        void findReadModelByNumero() throws Exception {
+            // When: C19999 es de Sucursal Norte (1 + g % 3)
+            JsonNode plan = explain("""
+                SELECT t.id, t.codigo_referencia, t.numero, t.status, a.name
+                FROM ticket t LEFT JOIN advisor a ON a.id = t.assigned_advisor_id
+                WHERE t.branch_office = ?
+                AND t.queue_type = ?
+                AND t.service_day = ?
+                AND t.numero = ?
+                """, "Sucursal Norte", "CAJA", today, "C" + (TICKETS_PER_DAY - 1));
+
+            // Then
+            assertPlan(plan, Set.of("uk_ticket_numero_por_dia"), false, 20);
+        }
+
+        @Test
+        @DisplayName("ticket por código de referencia → uk_ticket_codigo_referencia")
+        void findReadModelByCodigoReferencia() throws Exception {
+            // Given
+            Object codigo = singleValue("SELECT codigo_referencia FROM ticket WHERE id = " + activeTicketId());
+
+            // When
+            JsonNode plan = explain("""
+                SELECT t.* FROM ticket t
+                WHERE t.codigo_referencia = ?
+                """, codigo);
+
+            // Then
+            assertPlan(plan, Set.of("uk_ticket_codigo_referencia"), false, 200);
+        }
+
+        @Test
+        @DisplayName("recálculo de posiciones (motor SQL) → idx_ticket_cola_activa, solo hoy")
+        void recalculateQueuePositions() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                WITH ranked AS (
+                    SELECT id, service_day, ROW_NUMBER() OVER (ORDER BY created_at, id) AS position
+                    FROM ticket
+                    WHERE branch_office = ?
+                    AND queue_type = ?
+                    AND status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+                    AND service_day BETWEEN ? AND ?
+                )
+                UPDATE ticket t
+                SET position_in_queue = r.position,
+                    estimated_wait_minutes = r.position * ?,
+                    updated_at = CURRENT_TIMESTAMP
+                FROM ranked r
+                WHERE t.id = r.id
+                AND t.service_day = r.service_day
+                AND t.service_day BETWEEN ? AND ?
+                AND t.position_in_queue <> r.position
+                """, BRANCH, "CAJA", today, today, 5, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 1_500);
+        }
+
+        @Test
+        @DisplayName("promoción a PROXIMO (motor SQL) → idx_ticket_cola_activa, solo hoy")
+        void promoteToProximo() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                WITH promoted AS (
+                    UPDATE ticket
+                    SET status = 'PROXIMO',
+                        updated_at = CURRENT_TIMESTAMP
+                    WHERE branch_office = ?
+                    AND queue_type = ?
+                    AND status = 'EN_ESPERA'
+                    AND position_in_queue <= ?
+                    AND service_day BETWEEN ? AND ?
+                    RETURNING id
+                )
+                SELECT id FROM promoted
+                """, BRANCH, "CAJA", 3, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 200);
+        }
+    }
+
+    @Nested
+    @DisplayName("MensajeRepository")
+    class MensajeQueries {
+
+        @Test
+        @DisplayName("pendientes vencidos con su ticket → idx_mensaje_por_enviar, solo hoy")
+        void findPendingMessagesReadyToSend() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT m.*, t.* FROM mensaje m
+                JOIN ticket t ON t.id = m.ticket_id AND t.service_day = m.service_day
+                WHERE m.estado_envio = 'PENDIENTE'
+                AND m.fecha_programada <= ?
+                AND m.intentos < 3
+                AND m.service_day BETWEEN ? AND ?
+                AND t.service_day BETWEEN ? AND ?
+                ORDER BY m.fecha_programada
+                """, LocalDateTime.now(), today, today, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_mensaje_por_enviar"), true, 1_500);
+        }
+
+        @Test
+        @DisplayName("fallidos reintentables con su ticket → idx_mensaje_por_enviar, solo hoy")
+        void findFailedMessagesForRetry() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT m.*, t.* FROM mensaje m
+                JOIN ticket t ON t.id = m.ticket_id AND t.service_day = m.service_day
+                WHERE m.estado_envio = 'FALLIDO'
+                AND m.intentos < 3
+                AND m.fecha_programada <= ?
+                AND m.service_day BETWEEN ? AND ?
+                AND t.service_day BETWEEN ? AND ?
+                ORDER BY m.fecha_programada
+                """, LocalDateTime.now(), today, today, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_mensaje_por_enviar"), true, 500);
+        }
+
+        @Test
+        @DisplayName("reclamo de un batch (dispatcher) → idx_mensaje_por_enviar, solo hoy")
+        void claimBatch() throws Exception {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+
+            // When
+            JsonNode plan = explain("""
+                WITH claimable AS (
+                    SELECT id, ticket_id, plantilla, service_day
+                    FROM mensaje
+                    WHERE estado_envio IN ('PENDIENTE', 'FALLIDO')
+                    AND fecha_programada <= ?
+                    AND intentos < 3
+                    AND (claimed_until IS NULL OR claimed_until < ?)
+                    AND service_day BETWEEN ? AND ?
+                    ORDER BY fecha_programada
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ),
+                superseded AS (
+                    UPDATE mensaje m
+                    SET estado_envio = 'REEMPLAZADO',
+                        claimed_by = NULL,
+                        claimed_until = NULL
+                    FROM claimable c
+                    WHERE m.id = c.id
+                    AND m.service_day = c.service_day
+                    AND m.service_day BETWEEN ? AND ?
+                    AND EXISTS (
+                        SELECT 1
+                        FROM mensaje s
+                        WHERE s.ticket_id = c.ticket_id
+                        AND s.service_day = c.service_day
+                        AND s.service_day BETWEEN ? AND ?
+                        AND s.id <> c.id
+                        AND (s.estado_envio IN ('PENDIENTE', 'ENVIADO')
+                             OR (s.estado_envio = 'FALLIDO' AND s.intentos < 3))
+                        AND (CASE s.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, s.id)
+                          > (CASE c.plantilla WHEN 'TOTEM_ES_TU_TURNO' THEN 3 WHEN 'TOTEM_PROXIMO_TURNO' THEN 2 ELSE 1 END, c.id)
+                    )
+                    RETURNING m.id
+                ),
+                claimed AS (
+                    UPDATE mensaje m
+                    SET claimed_by = ?,
+                        claimed_until = ?
+                    FROM claimable c
+                    WHERE m.id = c.id
+                    AND m.service_day = c.service_day
+                    AND m.service_day BETWEEN ? AND ?
+                    AND c.id NOT IN (SELECT id FROM superseded)
+                    RETURNING m.id
+                )
+                SELECT id, false AS superseded FROM claimed
+                UNION ALL
+                SELECT id, true AS superseded FROM superseded
+                """, now, now, today, today, 50, today, today, today, today, "plans-1", now.plusSeconds(60), today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_mensaje_por_enviar"), true, 2_000);
+        }
+
+        @Test
+        @DisplayName("mensajes de un ticket en su día → idx_mensaje_ticket_id, solo ese día")
+        void findByTicketIdAndServiceDay() throws Exception {
+            // Given
+            long ticketId = activeTicketId();
+
+            // When
+            JsonNode plan = explain("""
+                SELECT m.* FROM mensaje m
+                WHERE m.ticket_id = ?
+                AND m.service_day = ?
+                """, ticketId, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_mensaje_ticket_id"), true, 20);
+        }
+
+        @Test
+        @DisplayName("registro del envío por (id, día) → mensaje_pkey, solo ese día")
+        void acknowledge() throws Exception {
+            // Given
+            Object id = singleValue("SELECT MIN(id) FROM mensaje WHERE estado_envio = 'PENDIENTE'");
+
+            // When
+            JsonNode plan = explain("""
+                UPDATE mensaje
+                SET estado_envio = ?,
+                    fecha_envio = ?,
+                    telegram_message_id = ?,
+                    intentos = ?,
+                    claimed_by = NULL,
+                    claimed_until = ?
+                WHERE id = ?
+                AND service_day = ?
+                AND claimed_by = ?
+                """, "ENVIADO", LocalDateTime.now(), "1", 1, null, id, today, "plans-1");
+
+            // Then
+            assertPlan(plan, Set.of("mensaje_pkey"), true, 20);
+        }
+    }
+
+    @Nested
+    @DisplayName("QueueActiveCounterRepository")
+    class QueueActiveCounterQueries {
+
+        @Test
+        @DisplayName("reconciliación de contadores → índice parcial de activos, solo hoy")
+        void reconcile() throws Exception {
+            // When
+            JsonNode plan = explain("""
+                SELECT branch_office, queue_type, COUNT(*) AS active_count
+                FROM ticket
+                WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+                AND service_day BETWEEN ? AND ?
+                GROUP BY branch_office, queue_type
+                """, today, today);
+
+            // Then
+            assertPlan(plan, Set.of("idx_ticket_cola_activa"), true, 100);
+        }
+    }
+
+    /**
+     * EXPLAIN (ANALYZE, BUFFERS) de la consulta con sus parámetros ligados: el plan de la raíz
+     */
+    private JsonNode explain(String sql, Object... parameters) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return MAPPER.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    /**
+     * Verifica el plan: sin Seq Scan sobre ticket/mensaje, con alguno de los índices esperados
+     * (por el nombre del índice padre), solo particiones de hoy si la consulta trae ventana y
+     * a lo más maxBlocks bloques compartidos leídos. Solo cuentan los nodos ejecutados: una
+     * partición descartada en ejecución aparece con 0 loops, y recorrer entera una partición
+     * vacía (los días creados por adelantado) no lee filas
+     */
+    private void assertPlan(JsonNode plan, Set<String> expectedIndexes, boolean pruned, long maxBlocks)
+            throws SQLException {
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(plan, nodes);
+        String description = plan.toPrettyString();
+
+        List<String> usedIndexes = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            if (node.path("Actual Loops").asLong() == 0) {
+                continue;
+            }
+            String relation = node.path("Relation Name").asText("");
+            boolean hotTable = relation.startsWith("ticket") || relation.startsWith("mensaje");
+            long rowsRead = node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong();
+
+            assertThat(hotTable && rowsRead > 0 && "Seq Scan".equals(node.path("Node Type").asText()))
+                .as("Seq Scan sobre %s en:%n%s", relation, description)
+                .isFalse();
+
+            Matcher partition = PARTITION.matcher(relation);
+            if (pruned && partition.matches()) {
+                assertThat(partition.group(2))
+                    .as("partición fuera de la ventana en:%n%s", description)
+                    .isEqualTo(today.toString().replace("-", ""));
+            }
+
+            if (node.has("Index Name")) {
+                usedIndexes.add(parentIndex(node.get("Index Name").asText()));
+            }
+        }
+
+        assertThat(usedIndexes)
+            .as("índices usados en:%n%s", description)
+            .containsAnyElementsOf(expectedIndexes);
+
+        long blocks = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+        assertThat(blocks)
+            .as("bloques leídos en:%n%s", description)
+            .isLessThanOrEqualTo(maxBlocks);
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+
+    /**
+     * Nombre del índice de la tabla padre del que deriva el índice de una partición
+     */
+    private static String parentIndex(String index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT COALESCE(
+                    (SELECT CAST(CAST(inhparent AS regclass) AS TEXT) FROM pg_inherits
+                     WHERE inhrelid = to_regclass(?)),
+                    ?)
+                """)) {
+            statement.setString(1, index);
+            statement.setString(2, index);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static long activeTicketId() throws SQLException {
+        return ((Number) singleValue(
+            "SELECT MIN(id) FROM ticket WHERE status = 'EN_ESPERA' AND service_day = CURRENT_DATE")).longValue();
+    }
+
+    private static Object singleValue(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getObject(1);
+        }
+    }
+}
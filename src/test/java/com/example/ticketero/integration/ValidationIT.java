@@ -182,10 +182,21 @@ class ValidationIT extends BaseIntegrationTest {
             String numeroInexistente = "X999";
 
             given()
+                .queryParam("branchOffice", "Sucursal Centro")
             .when()
                 .get("/tickets/" + numeroInexistente + "/position")
             .then()
                 .statusCode(404);
         }
+
+        @Test
+        @DisplayName("Posición por número sin sucursal → 400")
+        void posicion_sinSucursal_debe400() {
+            given()
+            .when()
+                .get("/tickets/C01/position")
+            .then()
+                .statusCode(400);
+        }
     }
 }
\ No newline at end of file
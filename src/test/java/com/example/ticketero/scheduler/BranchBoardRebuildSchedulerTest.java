@@ -0,0 +1,45 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.BranchBoardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BranchBoardRebuildScheduler - Unit Tests")
+class BranchBoardRebuildSchedulerTest {
+
+    @Mock
+    private BranchBoardService branchBoardService;
+
+    @InjectMocks
+    private BranchBoardRebuildScheduler branchBoardRebuildScheduler;
+
+    @Test
+    @DisplayName("debe reconstruir los tableros de sucursal")
+    void rebuildBoards_debeReconstruir() {
+        // When
+        branchBoardRebuildScheduler.rebuildBoards();
+
+        // Then
+        verify(branchBoardService).rebuild();
+    }
+
+    @Test
+    @DisplayName("con excepción → debe manejar error sin propagar")
+    void rebuildBoards_conExcepcion_debeManejarError() {
+        // Given
+        doThrow(new RuntimeException("DB error")).when(branchBoardService).rebuild();
+
+        // When - no debe lanzar excepción
+        branchBoardRebuildScheduler.rebuildBoards();
+
+        // Then
+        verify(branchBoardService).rebuild();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.DashboardMetricsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardReconciliationScheduler - Unit Tests")
+class DashboardReconciliationSchedulerTest {
+
+    @Mock
+    private DashboardMetricsService dashboardMetricsService;
+
+    @InjectMocks
+    private DashboardReconciliationScheduler dashboardReconciliationScheduler;
+
+    @Test
+    @DisplayName("debe reconciliar métricas del dashboard")
+    void reconcileDashboard_debeReconciliar() {
+        // When
+        dashboardReconciliationScheduler.reconcileDashboard();
+
+        // Then
+        verify(dashboardMetricsService).reconcile();
+    }
+
+    @Test
+    @DisplayName("con excepción → debe manejar error sin propagar")
+    void reconcileDashboard_conExcepcion_debeManejarError() {
+        // Given
+        doThrow(new RuntimeException("DB error")).when(dashboardMetricsService).reconcile();
+
+        // When - no debe lanzar excepción
+        dashboardReconciliationScheduler.reconcileDashboard();
+
+        // Then
+        verify(dashboardMetricsService).reconcile();
+    }
+}
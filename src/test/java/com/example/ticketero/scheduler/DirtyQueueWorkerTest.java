@@ -0,0 +1,332 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.service.QueueManagementService;
+import com.example.ticketero.service.QueuePartitionExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DirtyQueueWorker - Unit Tests")
+class DirtyQueueWorkerTest {
+
+    private static final QueueKey CAJA_CENTRO = new QueueKey("Centro", QueueType.CAJA);
+
+    @Mock
+    private QueueManagementService queueManagementService;
+
+    @Mock
+    private QueuePartitionExecutor queuePartitionExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DirtyQueueWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new DirtyQueueWorker(queueManagementService, queuePartitionExecutor, meterRegistry);
+        ReflectionTestUtils.setField(worker, "debounceMs", 10L);
+        ReflectionTestUtils.setField(worker, "safetyPollMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.stop();
+    }
+
+    @Nested
+    @DisplayName("processDirtyQueues()")
+    class ProcessDirtyQueues {
+
+        @Test
+        @DisplayName("sin marcas → no debe procesar ninguna cola")
+        void processDirtyQueues_sinMarcas_noDebeProcesar() {
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isZero();
+            verifyNoInteractions(queueManagementService, queuePartitionExecutor);
+        }
+
+        @Test
+        @DisplayName("varias sucursales del mismo tipo → debe procesar cada sucursal por separado")
+        void processDirtyQueues_mismoTipo_debeSepararPorSucursal() {
+            // Given
+            givenPartitionsComplete();
+            worker.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+            worker.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Norte").queueType(QueueType.CAJA).build(), null));
+            worker.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isEqualTo(2);
+            verify(queuePartitionExecutor).submit(CAJA_CENTRO);
+            verify(queuePartitionExecutor).submit(new QueueKey("Norte", QueueType.CAJA));
+            verify(queueManagementService).dispatchAdvisors();
+            assertThat(meterRegistry.timer("ticketero.queue.dirty.latency").count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("paso dentro de la cola (EN_ESPERA → PROXIMO) → no debe marcar la cola")
+        void onTicketStateChanged_pasoInterno_noDebeMarcar() {
+            // Given
+            worker.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().status(TicketStatus.PROXIMO).build(), TicketStatus.EN_ESPERA));
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isZero();
+        }
+
+        @Test
+        @DisplayName("cola ya procesada → no debe volver a procesarse sin nueva marca")
+        void processDirtyQueues_yaProcesada_noDebeRepetir() {
+            // Given
+            givenPartitionsComplete();
+            worker.markDirty(CAJA_CENTRO);
+            worker.processDirtyQueues();
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isZero();
+            verify(queuePartitionExecutor, times(1)).submit(any());
+        }
+
+        @Test
+        @DisplayName("cola en curso → la marca debe quedar pendiente hasta que termine")
+        void processDirtyQueues_colaEnCurso_debeConservarMarca() {
+            // Given
+            CompletableFuture<List<Long>> running = new CompletableFuture<>();
+            when(queuePartitionExecutor.submit(CAJA_CENTRO))
+                .thenReturn(Optional.of(running))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(List.of())));
+            worker.markDirty(CAJA_CENTRO);
+            worker.processDirtyQueues();
+            worker.markDirty(CAJA_CENTRO);
+
+            // When: el pool la rechaza mientras sigue en curso
+            int rejected = worker.processDirtyQueues();
+            running.complete(List.of());
+            int resubmitted = worker.processDirtyQueues();
+
+            // Then
+            assertThat(rejected).isZero();
+            assertThat(resubmitted).isEqualTo(1);
+            verify(queuePartitionExecutor, times(3)).submit(CAJA_CENTRO);
+        }
+
+        @Test
+        @DisplayName("cola lenta → el hilo no debe esperarla para entregar otras colas")
+        void processDirtyQueues_colaLenta_noDebeBloquear() {
+            // Given
+            QueueKey norte = new QueueKey("Norte", QueueType.CAJA);
+            when(queuePartitionExecutor.submit(CAJA_CENTRO)).thenReturn(Optional.of(new CompletableFuture<>()));
+            when(queuePartitionExecutor.submit(norte))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(List.of())));
+            worker.markDirty(CAJA_CENTRO);
+            worker.processDirtyQueues();
+
+            // When
+            worker.markDirty(norte);
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isEqualTo(1);
+            verify(queueManagementService).dispatchAdvisors();
+        }
+
+        @Test
+        @DisplayName("asesor vuelve a AVAILABLE → debe repartir sin reprocesar colas")
+        void processDirtyQueues_asesorDisponible_debeSoloRepartir() {
+            // Given
+            worker.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(
+                1L, 1, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isZero();
+            verify(queueManagementService).dispatchAdvisors();
+            verify(queuePartitionExecutor, never()).submit(any());
+        }
+
+        @Test
+        @DisplayName("reparto pendiente → debe esperar las colas en curso antes de repartir")
+        void processDirtyQueues_repartoPendiente_debeEsperarColasEnCurso() {
+            // Given
+            givenPartitionsComplete();
+            worker.markDirty(CAJA_CENTRO);
+            worker.requestDispatch();
+
+            // When
+            worker.processDirtyQueues();
+
+            // Then
+            InOrder inOrder = inOrder(queuePartitionExecutor, queueManagementService);
+            inOrder.verify(queuePartitionExecutor).submit(CAJA_CENTRO);
+            inOrder.verify(queuePartitionExecutor).awaitInFlight();
+            inOrder.verify(queueManagementService).dispatchAdvisors();
+        }
+
+        @Test
+        @DisplayName("asesor pasa a BUSY → no debe marcar colas")
+        void onAdvisorStatusChanged_busy_noDebeMarcar() {
+            // Given
+            worker.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(
+                1L, 1, AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isZero();
+            verifyNoInteractions(queueManagementService);
+        }
+
+        @Test
+        @DisplayName("error en una cola → debe seguir con las demás")
+        void processDirtyQueues_conError_debeContinuar() {
+            // Given
+            QueueKey personalBanker = new QueueKey("Centro", QueueType.PERSONAL_BANKER);
+            when(queuePartitionExecutor.submit(CAJA_CENTRO))
+                .thenReturn(Optional.of(CompletableFuture.failedFuture(new RuntimeException("DB error"))));
+            when(queuePartitionExecutor.submit(personalBanker))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(List.of())));
+            worker.markDirty(CAJA_CENTRO);
+            worker.markDirty(personalBanker);
+
+            // When
+            int processed = worker.processDirtyQueues();
+
+            // Then
+            assertThat(processed).isEqualTo(2);
+            verify(queuePartitionExecutor).submit(personalBanker);
+            verify(queueManagementService).dispatchAdvisors();
+        }
+
+        @Test
+        @DisplayName("colas procesadas → debe repartir asesores una vez después de procesarlas")
+        void processDirtyQueues_debeRepartirDespuesDeProcesar() {
+            // Given
+            givenPartitionsComplete();
+            worker.markDirty(CAJA_CENTRO);
+            worker.markDirty(new QueueKey("Centro", QueueType.GERENCIA));
+
+            // When
+            worker.processDirtyQueues();
+
+            // Then
+            InOrder inOrder = inOrder(queuePartitionExecutor, queueManagementService);
+            inOrder.verify(queuePartitionExecutor, times(2)).submit(any());
+            inOrder.verify(queueManagementService, times(1)).dispatchAdvisors();
+        }
+    }
+
+    @Nested
+    @DisplayName("Hilo del worker")
+    class WorkerThread {
+
+        @Test
+        @DisplayName("marca de cola → debe procesarse en milisegundos sin esperar el poll")
+        void start_conMarca_debeProcesarSinEsperarPoll() {
+            // Given
+            givenPartitionsComplete();
+            worker.start();
+
+            // When
+            worker.markDirty(new QueueKey("Centro", QueueType.GERENCIA));
+
+            // Then
+            verify(queuePartitionExecutor, timeout(1000)).submit(new QueueKey("Centro", QueueType.GERENCIA));
+            verify(queuePartitionExecutor, never()).processQueues();
+        }
+
+        @Test
+        @DisplayName("cola terminada en segundo plano → debe repartir asesores")
+        void start_colaTerminada_debeRepartir() {
+            // Given
+            CompletableFuture<List<Long>> running = new CompletableFuture<>();
+            when(queuePartitionExecutor.submit(CAJA_CENTRO)).thenReturn(Optional.of(running));
+            worker.start();
+            worker.markDirty(CAJA_CENTRO);
+            verify(queuePartitionExecutor, timeout(1000)).submit(CAJA_CENTRO);
+
+            // When
+            running.complete(List.of(1L));
+
+            // Then
+            verify(queueManagementService, timeout(1000)).dispatchAdvisors();
+        }
+
+        @Test
+        @DisplayName("ticket promovido a PROXIMO sin otros eventos → debe repartir sin esperar el poll de seguridad")
+        void start_promocionAProximo_debeRepartirSinEsperarPoll() {
+            // Given: la promoción no vuelve a marcar la cola (paso dentro de la cola)
+            when(queuePartitionExecutor.submit(CAJA_CENTRO))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(List.of(7L))));
+            worker.start();
+
+            // When
+            worker.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+
+            // Then
+            verify(queueManagementService, timeout(1000)).dispatchAdvisors();
+            verify(queuePartitionExecutor, never()).processQueues();
+        }
+
+        @Test
+        @DisplayName("sin cambios → debe ejecutar el ciclo completo de seguridad")
+        void start_sinCambios_debeEjecutarCicloDeSeguridad() {
+            // Given
+            ReflectionTestUtils.setField(worker, "safetyPollMs", 50L);
+
+            // When
+            worker.start();
+
+            // Then
+            verify(queuePartitionExecutor, timeout(1000).atLeastOnce()).processQueues();
+            verify(queuePartitionExecutor, never()).submit(any());
+        }
+    }
+
+    private void givenPartitionsComplete() {
+        when(queuePartitionExecutor.submit(any()))
+            .thenAnswer(invocation -> Optional.of(CompletableFuture.completedFuture(List.<Long>of())));
+    }
+}
@@ -3,17 +3,21 @@ package com.example.ticketero.scheduler;
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.repository.MensajeRepository;
 import com.example.ticketero.service.TelegramService;
+import com.example.ticketero.service.ServiceDayWindow;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
@@ -30,6 +34,9 @@ class MessageSchedulerTest {
     @Mock
     private TelegramService telegramService;
 
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
     @InjectMocks
     private MessageScheduler messageScheduler;
 
@@ -41,7 +48,7 @@ class MessageSchedulerTest {
         @DisplayName("sin mensajes pendientes → no debe hacer nada")
         void process_sinMensajes_noDebeHacerNada() {
             // Given
-            when(mensajeRepository.findPendingMessagesReadyToSend(any()))
+            when(mensajeRepository.findPendingMessagesReadyToSend(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
 
             // When
@@ -59,9 +66,9 @@ class MessageSchedulerTest {
                 .ticket(ticketWaiting().build())
                 .build();
             
-            when(mensajeRepository.findPendingMessagesReadyToSend(any()))
+            when(mensajeRepository.findPendingMessagesReadyToSend(any(), any(), any()))
                 .thenReturn(List.of(mensaje));
-            when(mensajeRepository.findFailedMessagesForRetry(any()))
+            when(mensajeRepository.findFailedMessagesForRetry(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             when(telegramService.sendMessage(mensaje)).thenReturn(true);
 
@@ -82,9 +89,9 @@ class MessageSchedulerTest {
                 .intentos(1)
                 .build();
             
-            when(mensajeRepository.findPendingMessagesReadyToSend(any()))
+            when(mensajeRepository.findPendingMessagesReadyToSend(any(), any(), any()))
                 .thenReturn(List.of(mensaje));
-            when(mensajeRepository.findFailedMessagesForRetry(any()))
+            when(mensajeRepository.findFailedMessagesForRetry(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             when(telegramService.sendMessage(mensaje))
                 .thenThrow(new RuntimeException("Telegram error"));
@@ -97,5 +104,37 @@ class MessageSchedulerTest {
             assertThat(mensaje.getIntentos()).isEqualTo(2);
             verify(mensajeRepository).save(mensaje);
         }
+    
+        @Test
+        @DisplayName("con hilos virtuales → debe enviar todos y guardar en el hilo del scheduler")
+        void process_conHilosVirtuales_debeEnviarEnParaleloYGuardar() {
+            // Given
+            ReflectionTestUtils.setField(messageScheduler, "virtualThreads", true);
+            Mensaje primero = mensajePendiente().id(1L).ticket(ticketWaiting().build()).build();
+            Mensaje segundo = mensajePendiente().id(2L).ticket(ticketWaiting().build()).build();
+            Thread schedulerThread = Thread.currentThread();
+            List<Thread> sendThreads = new CopyOnWriteArrayList<>();
+
+            when(mensajeRepository.findPendingMessagesReadyToSend(any(), any(), any()))
+                .thenReturn(List.of(primero, segundo));
+            when(mensajeRepository.findFailedMessagesForRetry(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+            when(telegramService.sendMessage(any())).thenAnswer(invocation -> {
+                sendThreads.add(Thread.currentThread());
+                return true;
+            });
+            when(mensajeRepository.save(any())).thenAnswer(invocation -> {
+                assertThat(Thread.currentThread()).isSameAs(schedulerThread);
+                return invocation.getArgument(0);
+            });
+
+            // When
+            messageScheduler.processPendingMessages();
+
+            // Then
+            assertThat(sendThreads).hasSize(2).allMatch(Thread::isVirtual);
+            verify(mensajeRepository).save(primero);
+            verify(mensajeRepository).save(segundo);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.service.OutboxClaimService;
+import com.example.ticketero.service.TelegramService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxDispatcher - Unit Tests")
+class OutboxDispatcherTest {
+
+    private static final String OWNER = "node-1-w1";
+
+    @Mock
+    private OutboxClaimService outboxClaimService;
+
+    @Mock
+    private TelegramService telegramService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxClaimService, telegramService, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "workers", 4);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "pollIntervalMs", 10L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffSeconds", 30L);
+    }
+
+    @Nested
+    @DisplayName("dispatchBatch()")
+    class DispatchBatch {
+
+        @Test
+        @DisplayName("sin mensajes reclamados → no debe enviar ni confirmar")
+        void dispatch_sinMensajes_noDebeEnviar() {
+            // Given
+            when(outboxClaimService.claimBatch(eq(OWNER), eq(10), any()))
+                .thenReturn(new OutboxClaimService.Claim(Collections.emptyList(), 0));
+
+            // When
+            int processed = dispatcher.dispatchBatch(OWNER);
+
+            // Then
+            assertThat(processed).isZero();
+            verify(telegramService, never()).sendMessageAsync(any());
+            verify(outboxClaimService, never()).acknowledge(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("con batch reclamado → debe enviar cada mensaje y confirmar como dueño")
+        void dispatch_conBatch_debeEnviarYConfirmar() {
+            // Given
+            List<Mensaje> batch = List.of(mensaje(1L), mensaje(2L));
+            when(outboxClaimService.claimBatch(eq(OWNER), eq(10), any()))
+                .thenReturn(new OutboxClaimService.Claim(batch, 0));
+            when(telegramService.sendMessageAsync(any())).thenAnswer(invocation -> markSent(invocation.getArgument(0)));
+
+            // When
+            int processed = dispatcher.dispatchBatch(OWNER);
+
+            // Then
+            assertThat(processed).isEqualTo(2);
+            verify(telegramService, times(2)).sendMessageAsync(any());
+            verify(outboxClaimService).acknowledge(eq(OWNER), eq(batch), any(LocalDateTime.class));
+            assertThat(meterRegistry.counter("ticketero.outbox.sent").count()).isEqualTo(2);
+            assertThat(meterRegistry.counter("ticketero.outbox.failed").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("con mensajes reemplazados → debe contar los envíos evitados")
+        void dispatch_conReemplazados_debeContarEnviosEvitados() {
+            // Given
+            List<Mensaje> batch = List.of(mensaje(1L));
+            when(outboxClaimService.claimBatch(eq(OWNER), eq(10), any()))
+                .thenReturn(new OutboxClaimService.Claim(batch, 2));
+            when(telegramService.sendMessageAsync(any())).thenAnswer(invocation -> markSent(invocation.getArgument(0)));
+
+            // When
+            int processed = dispatcher.dispatchBatch(OWNER);
+
+            // Then
+            assertThat(processed).isEqualTo(3);
+            verify(telegramService, times(1)).sendMessageAsync(any());
+            assertThat(meterRegistry.counter("ticketero.outbox.superseded").count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("solo mensajes reemplazados → no debe enviar pero sí reportar trabajo hecho")
+        void dispatch_soloReemplazados_noDebeEnviar() {
+            // Given
+            when(outboxClaimService.claimBatch(eq(OWNER), eq(10), any()))
+                .thenReturn(new OutboxClaimService.Claim(Collections.emptyList(), 4));
+
+            // When
+            int processed = dispatcher.dispatchBatch(OWNER);
+
+            // Then: el worker no duerme, puede haber más mensajes vencidos
+            assertThat(processed).isEqualTo(4);
+            verify(telegramService, never()).sendMessageAsync(any());
+            verify(outboxClaimService, never()).acknowledge(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("con excepción → debe marcar fallido, incrementar intentos y confirmar igual")
+        void dispatch_conExcepcion_debeMarcarFallido() {
+            // Given
+            Mensaje mensaje = mensaje(1L);
+            when(outboxClaimService.claimBatch(eq(OWNER), eq(10), any()))
+                .thenReturn(new OutboxClaimService.Claim(List.of(mensaje), 0));
+            when(telegramService.sendMessageAsync(mensaje))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("timeout")));
+
+            // When
+            dispatcher.dispatchBatch(OWNER);
+
+            // Then
+            assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+            assertThat(mensaje.getIntentos()).isEqualTo(1);
+            verify(outboxClaimService).acknowledge(eq(OWNER), eq(List.of(mensaje)), any(LocalDateTime.class));
+            assertThat(meterRegistry.counter("ticketero.outbox.failed").count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("workers")
+    class Workers {
+
+        @Test
+        @DisplayName("varios workers con reclamos disjuntos → cada mensaje se envía una sola vez")
+        void workers_reclamosDisjuntos_debenEnviarUnaVez() throws Exception {
+            // Given: la cola simula el SKIP LOCKED, cada reclamo toma filas que nadie más tiene
+            int total = 500;
+            ConcurrentLinkedQueue<Mensaje> pending = new ConcurrentLinkedQueue<>();
+            for (long id = 1; id <= total; id++) {
+                pending.add(mensaje(id));
+            }
+            when(outboxClaimService.claimBatch(anyString(), eq(10), any())).thenAnswer(invocation -> {
+                List<Mensaje> batch = new ArrayList<>();
+                Mensaje next;
+                while (batch.size() < 10 && (next = pending.poll()) != null) {
+                    batch.add(next);
+                }
+                return new OutboxClaimService.Claim(batch, 0);
+            });
+
+            Map<Long, AtomicInteger> sends = new ConcurrentHashMap<>();
+            when(telegramService.sendMessageAsync(any())).thenAnswer(invocation -> {
+                Mensaje mensaje = invocation.getArgument(0);
+                sends.computeIfAbsent(mensaje.getId(), id -> new AtomicInteger()).incrementAndGet();
+                return markSent(mensaje);
+            });
+
+            // When
+            dispatcher.start();
+            try {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (meterRegistry.counter("ticketero.outbox.sent").count() < total
+                        && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+            } finally {
+                dispatcher.stop();
+            }
+
+            // Then
+            assertThat(sends).hasSize(total);
+            assertThat(sends.values()).allMatch(count -> count.get() == 1);
+            verify(outboxClaimService, atLeast(total / 10)).acknowledge(anyString(), anyList(), any());
+        }
+    }
+
+    private static Mensaje mensaje(long id) {
+        return mensajePendiente()
+            .id(id)
+            .ticket(ticketWaiting().build())
+            .build();
+    }
+
+    private static CompletableFuture<Boolean> markSent(Mensaje mensaje) {
+        mensaje.setEstadoEnvio(Mensaje.EstadoEnvio.ENVIADO);
+        mensaje.setFechaEnvio(LocalDateTime.now());
+        return CompletableFuture.completedFuture(true);
+    }
+}
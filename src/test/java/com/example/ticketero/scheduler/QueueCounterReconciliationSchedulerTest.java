@@ -0,0 +1,45 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.QueueCounterService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueCounterReconciliationScheduler - Unit Tests")
+class QueueCounterReconciliationSchedulerTest {
+
+    @Mock
+    private QueueCounterService queueCounterService;
+
+    @InjectMocks
+    private QueueCounterReconciliationScheduler queueCounterReconciliationScheduler;
+
+    @Test
+    @DisplayName("debe reconciliar contadores")
+    void reconcileCounters_debeReconciliar() {
+        // When
+        queueCounterReconciliationScheduler.reconcileCounters();
+
+        // Then
+        verify(queueCounterService).reconcile();
+    }
+
+    @Test
+    @DisplayName("con excepción → debe manejar error sin propagar")
+    void reconcileCounters_conExcepcion_debeManejarError() {
+        // Given
+        doThrow(new RuntimeException("DB error")).when(queueCounterService).reconcile();
+
+        // When - no debe lanzar excepción
+        queueCounterReconciliationScheduler.reconcileCounters();
+
+        // Then
+        verify(queueCounterService).reconcile();
+    }
+}
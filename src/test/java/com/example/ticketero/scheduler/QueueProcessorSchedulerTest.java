@@ -1,6 +1,6 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.QueueManagementService;
+import com.example.ticketero.service.QueuePartitionExecutor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,7 +15,7 @@ import static org.mockito.Mockito.*;
 class QueueProcessorSchedulerTest {
 
     @Mock
-    private QueueManagementService queueManagementService;
+    private QueuePartitionExecutor queuePartitionExecutor;
 
     @InjectMocks
     private QueueProcessorScheduler queueProcessorScheduler;
@@ -27,7 +27,7 @@ class QueueProcessorSchedulerTest {
         queueProcessorScheduler.processQueues();
 
         // Then
-        verify(queueManagementService).processQueues();
+        verify(queuePartitionExecutor).processQueues();
     }
 
     @Test
@@ -35,12 +35,12 @@ class QueueProcessorSchedulerTest {
     void processQueues_conExcepcion_debeManearError() {
         // Given
         doThrow(new RuntimeException("Queue error"))
-            .when(queueManagementService).processQueues();
+            .when(queuePartitionExecutor).processQueues();
 
         // When - no debe lanzar excepción
         queueProcessorScheduler.processQueues();
 
         // Then
-        verify(queueManagementService).processQueues();
+        verify(queuePartitionExecutor).processQueues();
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.service.TicketArchiveService;
+import com.example.ticketero.service.TicketArchiveService.Batch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TicketArchiveScheduler - Unit Tests")
+class TicketArchiveSchedulerTest {
+
+    private static final Batch EMPTY = new Batch(null, 0, 0);
+
+    private TicketArchiveService ticketArchiveService;
+    private SimpleMeterRegistry meterRegistry;
+    private TicketArchiveScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ticketArchiveService = mock(TicketArchiveService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new TicketArchiveScheduler(ticketArchiveService, meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "afterHours", 24L);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "pauseMs", 0L);
+        ReflectionTestUtils.setField(scheduler, "maxBatches", 10);
+        // Sin restricción horaria
+        window(0, 0);
+    }
+
+    @Nested
+    @DisplayName("archive()")
+    class Archive {
+
+        @Test
+        @DisplayName("debe avanzar el cursor de cada batch hasta agotar tickets y luego mensajes")
+        void archive_debeRecorrerPorLlave() {
+            // Given
+            when(ticketArchiveService.archiveClosedTickets(anyLong(), any(), eq(2)))
+                .thenReturn(new Batch(7L, 2, 5), new Batch(12L, 1, 2), EMPTY);
+            when(ticketArchiveService.archiveFinishedMessages(anyLong(), any(), eq(2)))
+                .thenReturn(new Batch(40L, 0, 2), EMPTY);
+
+            // When
+            scheduler.archive();
+
+            // Then
+            var inOrder = inOrder(ticketArchiveService);
+            inOrder.verify(ticketArchiveService).archiveClosedTickets(eq(0L), any(), eq(2));
+            inOrder.verify(ticketArchiveService).archiveClosedTickets(eq(7L), any(), eq(2));
+            inOrder.verify(ticketArchiveService).archiveClosedTickets(eq(12L), any(), eq(2));
+            inOrder.verify(ticketArchiveService).archiveFinishedMessages(eq(0L), any(), eq(2));
+            inOrder.verify(ticketArchiveService).archiveFinishedMessages(eq(40L), any(), eq(2));
+            assertThat(meterRegistry.counter("ticketero.archive.tickets").count()).isEqualTo(3);
+            assertThat(meterRegistry.counter("ticketero.archive.mensajes").count()).isEqualTo(9);
+            assertThat(meterRegistry.timer("ticketero.archive.batch", "table", "ticket").count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("debe archivar lo cerrado antes de after-hours")
+        void archive_debeUsarCorteConfigurado() {
+            // Given
+            when(ticketArchiveService.archiveClosedTickets(anyLong(), any(), anyInt())).thenReturn(EMPTY);
+            when(ticketArchiveService.archiveFinishedMessages(anyLong(), any(), anyInt())).thenReturn(EMPTY);
+            LocalDateTime expected = LocalDateTime.now().minusHours(24);
+
+            // When
+            scheduler.archive();
+
+            // Then
+            verify(ticketArchiveService).archiveClosedTickets(eq(0L),
+                argThat(cutoff -> !cutoff.isBefore(expected) && cutoff.isBefore(expected.plusMinutes(1))), eq(2));
+        }
+
+        @Test
+        @DisplayName("debe detenerse en max-batches aunque queden filas")
+        void archive_debeRespetarMaxBatches() {
+            // Given
+            ReflectionTestUtils.setField(scheduler, "maxBatches", 3);
+            when(ticketArchiveService.archiveClosedTickets(anyLong(), any(), anyInt()))
+                .thenAnswer(invocation -> new Batch((long) invocation.getArgument(0) + 2, 2, 0));
+
+            // When
+            scheduler.archive();
+
+            // Then
+            verify(ticketArchiveService, times(3)).archiveClosedTickets(anyLong(), any(), anyInt());
+            verify(ticketArchiveService, never()).archiveFinishedMessages(anyLong(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("fuera de la ventana horaria → no debe archivar")
+        void archive_fueraDeVentana_noDebeArchivar() {
+            // Given
+            int hour = LocalTime.now().getHour();
+            window((hour + 1) % 24, (hour + 2) % 24);
+
+            // When
+            scheduler.archive();
+
+            // Then
+            verifyNoInteractions(ticketArchiveService);
+        }
+
+        @Test
+        @DisplayName("con excepción → debe manejar error sin propagar")
+        void archive_conExcepcion_debeManejarError() {
+            // Given
+            when(ticketArchiveService.archiveClosedTickets(anyLong(), any(), anyInt()))
+                .thenThrow(new RuntimeException("DB error"));
+
+            // When - no debe lanzar excepción
+            scheduler.archive();
+
+            // Then
+            verify(ticketArchiveService).archiveClosedTickets(anyLong(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("trigger()")
+    class Trigger {
+
+        @Test
+        @DisplayName("debe archivar en su propio hilo sin bloquear al scheduler ni iniciar una segunda ejecución")
+        void trigger_debeCorrerEnHiloPropioYSinSolaparse() throws Exception {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            String[] threadName = new String[1];
+            when(ticketArchiveService.archiveClosedTickets(anyLong(), any(), anyInt())).thenAnswer(invocation -> {
+                threadName[0] = Thread.currentThread().getName();
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return EMPTY;
+            });
+            when(ticketArchiveService.archiveFinishedMessages(anyLong(), any(), anyInt())).thenReturn(EMPTY);
+            scheduler.start();
+
+            try {
+                // When
+                scheduler.trigger();
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                scheduler.trigger();
+                release.countDown();
+
+                // Then
+                verify(ticketArchiveService, timeout(5000)).archiveFinishedMessages(anyLong(), any(), anyInt());
+                verify(ticketArchiveService, times(1)).archiveClosedTickets(anyLong(), any(), anyInt());
+                assertThat(threadName[0]).isEqualTo("ticket-archiver");
+            } finally {
+                scheduler.stop();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("insideWindow()")
+    class InsideWindow {
+
+        @Test
+        @DisplayName("ventana que cruza la medianoche → debe incluir noche y madrugada")
+        void insideWindow_cruzandoMedianoche() {
+            // Given
+            window(20, 7);
+
+            // When / Then
+            assertThat(scheduler.insideWindow(LocalTime.of(20, 0))).isTrue();
+            assertThat(scheduler.insideWindow(LocalTime.of(23, 59))).isTrue();
+            assertThat(scheduler.insideWindow(LocalTime.of(6, 59))).isTrue();
+            assertThat(scheduler.insideWindow(LocalTime.of(7, 0))).isFalse();
+            assertThat(scheduler.insideWindow(LocalTime.of(12, 0))).isFalse();
+        }
+
+        @Test
+        @DisplayName("ventana dentro del día → debe excluir la hora de término")
+        void insideWindow_dentroDelDia() {
+            // Given
+            window(1, 5);
+
+            // When / Then
+            assertThat(scheduler.insideWindow(LocalTime.of(1, 0))).isTrue();
+            assertThat(scheduler.insideWindow(LocalTime.of(4, 59))).isTrue();
+            assertThat(scheduler.insideWindow(LocalTime.of(5, 0))).isFalse();
+            assertThat(scheduler.insideWindow(LocalTime.of(0, 59))).isFalse();
+        }
+    }
+
+    private void window(int startHour, int endHour) {
+        ReflectionTestUtils.setField(scheduler, "windowStartHour", startHour);
+        ReflectionTestUtils.setField(scheduler, "windowEndHour", endHour);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AdvisorDispatchService - Unit Tests")
+class AdvisorDispatchServiceTest {
+
+    private TicketRepository ticketRepository;
+    private AdvisorService advisorService;
+    private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        advisorService = mock(AdvisorService.class);
+        notificationService = mock(NotificationService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("dispatch()")
+    class Dispatch {
+
+        @Test
+        @DisplayName("asesores saturados con wfq → GERENCIA debe recibir cupo aunque CAJA llegó antes")
+        void dispatch_wfq_gerenciaDebeRecibirCupo() {
+            // Given: 3 CAJA más antiguos que 3 GERENCIA y solo 3 cupos
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            List<Ticket> assigned = givenBacklogAndSlots(3);
+
+            // When
+            int count = service.dispatch();
+
+            // Then
+            assertThat(count).isEqualTo(3);
+            assertThat(assigned).extracting(Ticket::getQueueType).contains(QueueType.GERENCIA, QueueType.CAJA);
+        }
+
+        @Test
+        @DisplayName("asesores saturados con fifo → CAJA debe llevarse todos los cupos")
+        void dispatch_fifo_cajaDebeLlevarseTodo() {
+            // Given
+            AdvisorDispatchService service = service(new FifoQueueDispatcher());
+            List<Ticket> assigned = givenBacklogAndSlots(3);
+
+            // When
+            service.dispatch();
+
+            // Then
+            assertThat(assigned).extracting(Ticket::getQueueType).containsOnly(QueueType.CAJA);
+        }
+
+        @Test
+        @DisplayName("ticket asignado → debe guardarse, notificarse y medir su espera por tipo de cola")
+        void dispatch_asignado_debeGuardarYMedir() {
+            // Given
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            Ticket ticket = proximo(1L, QueueType.EMPRESAS, 4);
+            when(advisorService.hasCapacity()).thenReturn(true);
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                eq(List.of(TicketStatus.PROXIMO)), any(), any()))
+                .thenReturn(List.of(ticket));
+            when(advisorService.assignTicketToAdvisor(ticket)).thenAnswer(invocation -> {
+                ticket.setStatus(TicketStatus.ATENDIENDO);
+                return true;
+            });
+
+            // When
+            service.dispatch();
+
+            // Then
+            verify(ticketRepository).save(ticket);
+            verify(notificationService).scheduleEsTuTurnoNotification(ticket);
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof TicketStateChangedEvent changed
+                    && changed.previousStatus() == TicketStatus.PROXIMO
+                    && changed.status() == TicketStatus.ATENDIENDO));
+            assertThat(meterRegistry.get("ticketero.queue.wait").tag("queueType", "EMPRESAS").timer()
+                .totalTime(TimeUnit.MINUTES)).isGreaterThanOrEqualTo(3.9);
+        }
+
+        @Test
+        @DisplayName("sin cupos → la espera del primer PROXIMO debe quedar en la métrica de cabeza")
+        void dispatch_sinCupos_debeReportarEsperaDeCabeza() {
+            // Given
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            Ticket ticket = proximo(1L, QueueType.GERENCIA, 10);
+            when(advisorService.hasCapacity()).thenReturn(true);
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                eq(List.of(TicketStatus.PROXIMO)), any(), any()))
+                .thenReturn(List.of(ticket));
+            when(advisorService.assignTicketToAdvisor(ticket)).thenReturn(false);
+
+            // When
+            int count = service.dispatch();
+
+            // Then
+            assertThat(count).isZero();
+            verify(ticketRepository, never()).save(any());
+            assertThat(meterRegistry.get("ticketero.queue.head.wait").tag("queueType", "GERENCIA").gauge().value())
+                .isGreaterThanOrEqualTo(600);
+        }
+
+        @Test
+        @DisplayName("todos los asesores ocupados → no debe cargar los PROXIMO")
+        void dispatch_sinCapacidad_noDebeCargar() {
+            // Given
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            when(advisorService.hasCapacity()).thenReturn(false);
+
+            // When
+            int count = service.dispatch();
+
+            // Then
+            assertThat(count).isZero();
+            verifyNoInteractions(ticketRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tiempo de atención observado")
+    class ServiceTime {
+
+        @Test
+        @DisplayName("ticket completado → debe ajustar el costo del tipo de cola")
+        void onTicketStateChanged_completado_debeAjustarCosto() {
+            // Given
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            Ticket ticket = proximo(1L, QueueType.GERENCIA, 1);
+            when(advisorService.hasCapacity()).thenReturn(true);
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                eq(List.of(TicketStatus.PROXIMO)), any(), any()))
+                .thenReturn(List.of(ticket));
+            when(advisorService.assignTicketToAdvisor(ticket)).thenReturn(true);
+            service.dispatch();
+
+            // When: se completa casi de inmediato
+            ticket.setStatus(TicketStatus.COMPLETADO);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(service.serviceMinutes(QueueType.GERENCIA)).isLessThan(QueueType.GERENCIA.getAvgTimeMinutes());
+            assertThat(service.serviceMinutes(QueueType.CAJA)).isEqualTo(QueueType.CAJA.getAvgTimeMinutes());
+            assertThat(meterRegistry.get("ticketero.queue.service.time").tag("queueType", "GERENCIA").timer().count())
+                .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("ticket no asignado por este nodo → no debe registrar tiempo de atención")
+        void onTicketStateChanged_sinInicio_noDebeRegistrar() {
+            // Given
+            AdvisorDispatchService service = service(new WeightedFairQueueDispatcher());
+            Ticket ticket = ticketCompleted().id(99L).queueType(QueueType.CAJA).build();
+
+            // When
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(meterRegistry.find("ticketero.queue.service.time").timer()).isNull();
+            assertThat(service.serviceMinutes(QueueType.CAJA)).isEqualTo(QueueType.CAJA.getAvgTimeMinutes());
+        }
+    }
+
+    @Nested
+    @DisplayName("fairness()")
+    class Fairness {
+
+        @Test
+        @DisplayName("esperas inversamente proporcionales al peso → índice 1")
+        void fairness_esperasProporcionales_debeSerUno() {
+            // Given: CAJA (peso 1) espera 8 min, PERSONAL_BANKER (peso 2) espera 4 min
+            AdvisorDispatchService service = service(new FifoQueueDispatcher());
+            when(advisorService.hasCapacity()).thenReturn(true);
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(any(), any(), any())).thenReturn(List.of(
+                proximo(1L, QueueType.CAJA, 8), proximo(2L, QueueType.PERSONAL_BANKER, 4)));
+            when(advisorService.assignTicketToAdvisor(any())).thenReturn(true);
+
+            // When
+            service.dispatch();
+
+            // Then
+            assertThat(service.fairness()).isCloseTo(1.0, within(0.01));
+        }
+
+        @Test
+        @DisplayName("una cola espera mucho más de lo que le corresponde → índice bajo")
+        void fairness_colaPostergada_debeBajar() {
+            // Given: GERENCIA (peso 4) espera 60 min, CAJA (peso 1) 1 min
+            AdvisorDispatchService service = service(new FifoQueueDispatcher());
+            when(advisorService.hasCapacity()).thenReturn(true);
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(any(), any(), any())).thenReturn(List.of(
+                proximo(1L, QueueType.CAJA, 1), proximo(2L, QueueType.GERENCIA, 60)));
+            when(advisorService.assignTicketToAdvisor(any())).thenReturn(true);
+
+            // When
+            service.dispatch();
+
+            // Then
+            assertThat(service.fairness()).isLessThan(0.6);
+        }
+    }
+
+    private AdvisorDispatchService service(QueueDispatcher dispatcher) {
+        AdvisorDispatchService service = new AdvisorDispatchService(ticketRepository, advisorService,
+            notificationService, dispatcher, eventPublisher, meterRegistry, new ServiceDayWindow(1));
+        service.init();
+        return service;
+    }
+
+    /**
+     * 3 tickets CAJA más antiguos que 3 GERENCIA; el asesor acepta {@code slots} asignaciones
+     * @return tickets asignados, en orden
+     */
+    private List<Ticket> givenBacklogAndSlots(int slots) {
+        List<Ticket> backlog = List.of(
+            proximo(1L, QueueType.CAJA, 9), proximo(2L, QueueType.CAJA, 8), proximo(3L, QueueType.CAJA, 7),
+            proximo(4L, QueueType.GERENCIA, 6), proximo(5L, QueueType.GERENCIA, 5), proximo(6L, QueueType.GERENCIA, 4));
+        List<Ticket> assigned = new ArrayList<>();
+        when(advisorService.hasCapacity()).thenReturn(true);
+        when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                eq(List.of(TicketStatus.PROXIMO)), any(), any())).thenReturn(backlog);
+        when(advisorService.assignTicketToAdvisor(any())).thenAnswer(invocation -> {
+            if (assigned.size() == slots) {
+                return false;
+            }
+            assigned.add(invocation.getArgument(0));
+            return true;
+        });
+        return assigned;
+    }
+
+    private static Ticket proximo(Long id, QueueType queueType, int minutesAgo) {
+        return ticketWaiting()
+            .id(id)
+            .numero(String.valueOf(queueType.getPrefix()) + id)
+            .queueType(queueType)
+            .status(TicketStatus.PROXIMO)
+            .createdAt(LocalDateTime.now().minusMinutes(minutesAgo))
+            .build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdvisorPool - Unit Tests")
+class AdvisorPoolTest {
+
+    @Mock
+    private AdvisorRepository advisorRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdvisorPool pool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new AdvisorPool(advisorRepository, ticketRepository, meterRegistry, new ServiceDayWindow(1));
+        ReflectionTestUtils.setField(pool, "assignment", "pool");
+        pool.init();
+    }
+
+    @Nested
+    @DisplayName("rebuild()")
+    class Rebuild {
+
+        @Test
+        @DisplayName("debe calcular la carga desde los tickets ATENDIENDO y omitir OFFLINE")
+        void rebuild_debeCargarDesdeTickets() {
+            // Given
+            givenAdvisors(
+                advisorAvailable().id(1L).assignedTicketsCount(0).build(),
+                advisorAvailable().id(2L).assignedTicketsCount(0).build(),
+                advisorAvailable().id(3L).status(AdvisorStatus.OFFLINE).build());
+            when(ticketRepository.countByAdvisorAndStatus(eq(TicketStatus.ATENDIENDO), any(), any()))
+                .thenReturn(List.of(advisorLoad(1L, 3)));
+
+            // When
+            pool.rebuild();
+
+            // Then: el asesor 1 está lleno; solo quedan los 3 cupos del asesor 2
+            assertThat(meterRegistry.get("ticketero.advisor.pool.free").gauge().value()).isEqualTo(3);
+            assertThat(pool.acquire()).get().extracting(AdvisorPool.AdvisorSlot::advisorId).isEqualTo(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("acquire() / release()")
+    class AcquireRelease {
+
+        @Test
+        @DisplayName("debe elegir al de menor carga y desempatar por id")
+        void acquire_debeElegirMenorCarga() {
+            // Given
+            givenPool(2);
+
+            // When
+            List<Long> advisors = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                advisors.add(pool.acquire().orElseThrow().advisorId());
+            }
+
+            // Then
+            assertThat(advisors).containsExactly(1L, 2L, 1L, 2L);
+        }
+
+        @Test
+        @DisplayName("todos ocupados → debe rechazar sin recorrer y contar la saturación")
+        void acquire_saturado_debeRechazar() {
+            // Given
+            givenPool(1);
+            for (int i = 0; i < AdvisorPool.CAPACITY; i++) {
+                pool.acquire();
+            }
+
+            // When
+            Optional<AdvisorPool.AdvisorSlot> result = pool.acquire();
+
+            // Then
+            assertThat(result).isEmpty();
+            assertThat(pool.hasCapacity()).isFalse();
+            assertThat(meterRegistry.counter("ticketero.advisor.pool.saturated").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("release → debe devolver el cupo al pool")
+        void release_debeDevolverCupo() {
+            // Given
+            givenPool(1);
+            for (int i = 0; i < AdvisorPool.CAPACITY; i++) {
+                pool.acquire();
+            }
+
+            // When
+            Optional<AdvisorPool.AdvisorSlot> released = pool.release(1L);
+
+            // Then
+            assertThat(released).get().extracting(AdvisorPool.AdvisorSlot::load).isEqualTo(AdvisorPool.CAPACITY - 1);
+            assertThat(pool.hasCapacity()).isTrue();
+            assertThat(pool.release(99L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("acquire concurrente → nunca debe superar la capacidad de un asesor")
+        void acquire_concurrente_noDebeSuperarCapacidad() throws Exception {
+            // Given
+            givenPool(5);
+            ConcurrentMap<Long, AtomicInteger> taken = new ConcurrentHashMap<>();
+            AtomicInteger rejected = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            // When: 8 hilos compiten por 15 cupos
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10; i++) {
+                        pool.acquire().ifPresentOrElse(
+                            slot -> taken.computeIfAbsent(slot.advisorId(), id -> new AtomicInteger()).incrementAndGet(),
+                            rejected::incrementAndGet);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            // Then
+            assertThat(taken).hasSize(5);
+            assertThat(taken.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(AdvisorPool.CAPACITY));
+            assertThat(rejected.get()).isEqualTo(80 - 5 * AdvisorPool.CAPACITY);
+        }
+    }
+
+    @Nested
+    @DisplayName("flush()")
+    class Flush {
+
+        @Test
+        @DisplayName("debe escribir solo los asesores modificados, una vez")
+        void flush_debeEscribirModificados() {
+            // Given
+            givenPool(2);
+            for (int i = 0; i < AdvisorPool.CAPACITY; i++) {
+                pool.acquire();
+                pool.acquire();
+            }
+            pool.release(2L);
+            when(advisorRepository.updateLoad(anyLong(), anyInt(), any())).thenReturn(1);
+
+            // When
+            int written = pool.flush();
+            int again = pool.flush();
+
+            // Then
+            assertThat(written).isEqualTo(2);
+            assertThat(again).isZero();
+            verify(advisorRepository).updateLoad(1L, AdvisorPool.CAPACITY, AdvisorStatus.BUSY);
+            verify(advisorRepository).updateLoad(2L, AdvisorPool.CAPACITY - 1, AdvisorStatus.AVAILABLE);
+        }
+    }
+
+    private void givenPool(int advisors) {
+        List<Advisor> list = new ArrayList<>();
+        for (long id = 1; id <= advisors; id++) {
+            list.add(advisorAvailable().id(id).moduleNumber((int) id).assignedTicketsCount(0).build());
+        }
+        givenAdvisors(list.toArray(Advisor[]::new));
+        when(ticketRepository.countByAdvisorAndStatus(eq(TicketStatus.ATENDIENDO), any(), any())).thenReturn(List.of());
+        pool.rebuild();
+    }
+
+    private void givenAdvisors(Advisor... advisors) {
+        when(advisorRepository.findAll()).thenReturn(List.of(advisors));
+    }
+
+    private static TicketRepository.AdvisorLoad advisorLoad(Long advisorId, long total) {
+        return new TicketRepository.AdvisorLoad() {
+            @Override
+            public Long getAdvisorId() {
+                return advisorId;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
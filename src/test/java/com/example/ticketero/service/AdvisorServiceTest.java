@@ -4,6 +4,7 @@ import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.repository.AdvisorRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +30,12 @@ class AdvisorServiceTest {
     @Mock
     private AdvisorRepository advisorRepository;
 
+    @Mock
+    private AdvisorPool advisorPool;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdvisorService advisorService;
 
@@ -36,49 +44,42 @@ class AdvisorServiceTest {
     class AssignTicketToAdvisor {
 
         @Test
-        @DisplayName("con advisor disponible → debe asignar ticket correctamente")
+        @DisplayName("con advisor disponible → debe asignar ticket con un solo UPDATE")
         void assignTicket_conAdvisorDisponible_debeAsignar() {
             // Given
-            Advisor advisor = advisorAvailable()
-                .assignedTicketsCount(1)
-                .moduleNumber(3)
-                .build();
             Ticket ticket = ticketWaiting().build();
-            
-            when(advisorRepository.findAvailableAdvisorWithLeastLoad())
-                .thenReturn(Optional.of(advisor));
+            Advisor reference = Advisor.builder().id(7L).build();
+            when(advisorRepository.claimLeastLoaded(AdvisorPool.CAPACITY))
+                .thenReturn(Optional.of(assignment(7L, 3, 2, AdvisorStatus.AVAILABLE, AdvisorStatus.AVAILABLE)));
+            when(advisorRepository.getReferenceById(7L)).thenReturn(reference);
 
             // When
             boolean result = advisorService.assignTicketToAdvisor(ticket);
 
             // Then
             assertThat(result).isTrue();
-            assertThat(ticket.getAssignedAdvisor()).isEqualTo(advisor);
+            assertThat(ticket.getAssignedAdvisor()).isSameAs(reference);
             assertThat(ticket.getAssignedModuleNumber()).isEqualTo(3);
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(2);
-            
-            verify(advisorRepository).save(advisor);
+            verify(advisorRepository, never()).findAvailableAdvisorWithLeastLoad();
+            verify(advisorRepository, never()).save(any());
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
 
         @Test
-        @DisplayName("advisor alcanza límite → debe cambiar a BUSY")
-        void assignTicket_advisorAlcanzaLimite_debeCambiarABusy() {
+        @DisplayName("advisor alcanza límite → debe publicar AVAILABLE → BUSY")
+        void assignTicket_advisorAlcanzaLimite_debePublicarBusy() {
             // Given
-            Advisor advisor = advisorAvailable()
-                .assignedTicketsCount(2)
-                .build();
             Ticket ticket = ticketWaiting().build();
-            
-            when(advisorRepository.findAvailableAdvisorWithLeastLoad())
-                .thenReturn(Optional.of(advisor));
+            when(advisorRepository.claimLeastLoaded(AdvisorPool.CAPACITY))
+                .thenReturn(Optional.of(assignment(7L, 3, AdvisorPool.CAPACITY, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE)));
 
             // When
             advisorService.assignTicketToAdvisor(ticket);
 
             // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(3);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
+            verify(eventPublisher).publishEvent(new AdvisorStatusChangedEvent(
+                7L, 3, AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
         }
 
         @Test
@@ -86,7 +87,7 @@ class AdvisorServiceTest {
         void assignTicket_sinAdvisors_debeRetornarFalse() {
             // Given
             Ticket ticket = ticketWaiting().build();
-            when(advisorRepository.findAvailableAdvisorWithLeastLoad())
+            when(advisorRepository.claimLeastLoaded(AdvisorPool.CAPACITY))
                 .thenReturn(Optional.empty());
 
             // When
@@ -95,7 +96,87 @@ class AdvisorServiceTest {
             // Then
             assertThat(result).isFalse();
             assertThat(ticket.getAssignedAdvisor()).isNull();
+            verify(advisorRepository, never()).getReferenceById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("con pool de asesores")
+    class WithPool {
+
+        @Test
+        @DisplayName("cupo disponible → debe asignar sin leer ni guardar advisor")
+        void assignTicket_conCupo_debeAsignarSinConsultar() {
+            // Given
+            Ticket ticket = ticketWaiting().status(TicketStatus.PROXIMO).build();
+            Advisor reference = Advisor.builder().id(7L).build();
+            when(advisorPool.isEnabled()).thenReturn(true);
+            when(advisorPool.acquire()).thenReturn(Optional.of(new AdvisorPool.AdvisorSlot(7L, 4, "Ana", 1)));
+            when(advisorRepository.getReferenceById(7L)).thenReturn(reference);
+
+            // When
+            boolean result = advisorService.assignTicketToAdvisor(ticket);
+
+            // Then
+            assertThat(result).isTrue();
+            assertThat(ticket.getAssignedAdvisor()).isSameAs(reference);
+            assertThat(ticket.getAssignedModuleNumber()).isEqualTo(4);
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
+            verify(advisorRepository, never()).findAvailableAdvisorWithLeastLoad();
+            verify(advisorRepository, never()).save(any());
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("último cupo del asesor → debe publicar AVAILABLE → BUSY")
+        void assignTicket_ultimoCupo_debePublicarBusy() {
+            // Given
+            Ticket ticket = ticketWaiting().status(TicketStatus.PROXIMO).build();
+            when(advisorPool.isEnabled()).thenReturn(true);
+            when(advisorPool.acquire()).thenReturn(Optional.of(
+                new AdvisorPool.AdvisorSlot(7L, 4, "Ana", AdvisorPool.CAPACITY)));
+
+            // When
+            advisorService.assignTicketToAdvisor(ticket);
+
+            // Then
+            verify(eventPublisher).publishEvent(new AdvisorStatusChangedEvent(
+                7L, 4, AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
+        }
+
+        @Test
+        @DisplayName("sin cupos → debe retornar false sin consultar")
+        void assignTicket_sinCupos_debeRetornarFalse() {
+            // Given
+            Ticket ticket = ticketWaiting().status(TicketStatus.PROXIMO).build();
+            when(advisorPool.isEnabled()).thenReturn(true);
+            when(advisorPool.acquire()).thenReturn(Optional.empty());
+
+            // When
+            boolean result = advisorService.assignTicketToAdvisor(ticket);
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verifyNoInteractions(advisorRepository);
+        }
+
+        @Test
+        @DisplayName("completar con asesor lleno → debe liberar el cupo y publicar BUSY → AVAILABLE")
+        void completeAssignment_debeLiberarCupo() {
+            // Given
+            Ticket ticket = ticketInProgress().assignedAdvisor(Advisor.builder().id(7L).build()).build();
+            when(advisorPool.isEnabled()).thenReturn(true);
+            when(advisorPool.release(7L)).thenReturn(Optional.of(
+                new AdvisorPool.AdvisorSlot(7L, 4, "Ana", AdvisorPool.CAPACITY - 1)));
+
+            // When
+            advisorService.completeTicketAssignment(ticket);
+
+            // Then
             verify(advisorRepository, never()).save(any());
+            verify(eventPublisher).publishEvent(new AdvisorStatusChangedEvent(
+                7L, 4, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
         }
     }
 
@@ -107,20 +188,38 @@ class AdvisorServiceTest {
         @DisplayName("debe decrementar contador y liberar advisor")
         void completeAssignment_debeDecrementarYLiberar() {
             // Given
-            Advisor advisor = advisorBusy()
-                .assignedTicketsCount(3)
+            Ticket ticket = ticketInProgress()
+                .assignedAdvisor(advisorBusy().id(7L).build())
                 .build();
+            when(advisorRepository.release(7L, AdvisorPool.CAPACITY))
+                .thenReturn(Optional.of(assignment(7L, 3, 2, AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY)));
+
+            // When
+            advisorService.completeTicketAssignment(ticket);
+
+            // Then
+            verify(advisorRepository, never()).save(any());
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof AdvisorStatusChangedEvent changed
+                    && changed.previousStatus() == AdvisorStatus.BUSY
+                    && changed.status() == AdvisorStatus.AVAILABLE));
+        }
+
+        @Test
+        @DisplayName("advisor sigue disponible → no debe publicar cambio de estado")
+        void completeAssignment_sinCambioDeEstado_noDebePublicar() {
+            // Given
             Ticket ticket = ticketInProgress()
-                .assignedAdvisor(advisor)
+                .assignedAdvisor(advisorAvailable().id(7L).build())
                 .build();
+            when(advisorRepository.release(7L, AdvisorPool.CAPACITY))
+                .thenReturn(Optional.of(assignment(7L, 3, 1, AdvisorStatus.AVAILABLE, AdvisorStatus.AVAILABLE)));
 
             // When
             advisorService.completeTicketAssignment(ticket);
 
             // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(2);
-            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.AVAILABLE);
-            verify(advisorRepository).save(advisor);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
 
         @Test
@@ -139,21 +238,19 @@ class AdvisorServiceTest {
         }
 
         @Test
-        @DisplayName("contador no debe ser negativo")
-        void completeAssignment_contadorNoDebeSerNegativo() {
-            // Given
-            Advisor advisor = advisorAvailable()
-                .assignedTicketsCount(0)
-                .build();
+        @DisplayName("contador ya en cero → no debe publicar nada")
+        void completeAssignment_contadorEnCero_noDebePublicar() {
+            // Given: el UPDATE no toca asesores sin tickets asignados
             Ticket ticket = ticketInProgress()
-                .assignedAdvisor(advisor)
+                .assignedAdvisor(advisorAvailable().id(7L).assignedTicketsCount(0).build())
                 .build();
+            when(advisorRepository.release(7L, AdvisorPool.CAPACITY)).thenReturn(Optional.empty());
 
             // When
             advisorService.completeTicketAssignment(ticket);
 
             // Then
-            assertThat(advisor.getAssignedTicketsCount()).isEqualTo(0);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
@@ -252,4 +349,39 @@ class AdvisorServiceTest {
             assertThat(busyCount).isEqualTo(3L);
         }
     }
-}
\ No newline at end of file
+
+    private static AdvisorRepository.AdvisorAssignment assignment(Long id, Integer moduleNumber, int count,
+                                                                  AdvisorStatus status, AdvisorStatus previousStatus) {
+        return new AdvisorRepository.AdvisorAssignment() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getModuleNumber() {
+                return moduleNumber;
+            }
+
+            @Override
+            public String getName() {
+                return "Ana";
+            }
+
+            @Override
+            public int getAssignedTicketsCount() {
+                return count;
+            }
+
+            @Override
+            public AdvisorStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public AdvisorStatus getPreviousStatus() {
+                return previousStatus;
+            }
+        };
+    }
+}
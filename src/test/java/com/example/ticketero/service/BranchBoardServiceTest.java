@@ -0,0 +1,279 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.BranchBoardUpdate;
+import com.example.ticketero.model.dto.DashboardResponse;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BranchBoardService - Unit Tests")
+class BranchBoardServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BranchBoardService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BranchBoardService(
+            ticketRepository, dashboardMetricsService, messagingTemplate, objectMapper, new SimpleMeterRegistry(),
+            new ServiceDayWindow(1));
+        ReflectionTestUtils.setField(service, "coalesceMs", 5L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Nested
+    @DisplayName("publishChanges()")
+    class PublishChanges {
+
+        @Test
+        @DisplayName("ráfaga de cambios en una sucursal → debe publicar un solo delta")
+        void publishChanges_rafaga_debePublicarUnDelta() throws Exception {
+            // Given
+            for (long id = 1; id <= 3; id++) {
+                service.onTicketStateChanged(TicketStateChangedEvent.of(
+                    ticketWaiting().id(id).branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+            }
+
+            // When
+            service.publishChanges();
+
+            // Then
+            JsonNode delta = sentPayload("/topic/branches/Centro");
+            assertThat(delta.get("sequence").asLong()).isEqualTo(1);
+            assertThat(delta.get("snapshot").asBoolean()).isFalse();
+            assertThat(delta.get("queueDepths").get("CAJA").asInt()).isEqualTo(3);
+            assertThat(delta.get("queueDepths").has("EMPRESAS")).isFalse();
+        }
+
+        @Test
+        @DisplayName("ticket asignado y completado → debe informar el módulo y luego liberarlo")
+        void publishChanges_atencion_debeInformarNowServing() throws Exception {
+            // Given
+            Ticket ticket = ticketWaiting().branchOffice("Centro").numero("C07").build();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+            service.publishChanges();
+            ticket.setStatus(TicketStatus.ATENDIENDO);
+            ticket.setAssignedModuleNumber(3);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.PROXIMO));
+
+            // When
+            service.publishChanges();
+
+            // Then
+            JsonNode delta = sentPayloads("/topic/branches/Centro").get(1);
+            assertThat(delta.get("sequence").asLong()).isEqualTo(2);
+            assertThat(delta.get("queueDepths").get("CAJA").asInt()).isZero();
+            assertThat(delta.get("nowServing").get("C07").asInt()).isEqualTo(3);
+
+            // When: completado
+            ticket.setStatus(TicketStatus.COMPLETADO);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+            service.publishChanges();
+
+            // Then
+            JsonNode released = sentPayloads("/topic/branches/Centro").get(2);
+            assertThat(released.get("nowServing").get("C07").isNull()).isTrue();
+            assertThat(released.get("queueDepths").size()).isZero();
+        }
+
+        @Test
+        @DisplayName("cambio de asesor → debe publicarse en el tópico de asesores")
+        void publishChanges_asesor_debePublicarEnTopicoAsesores() throws Exception {
+            // Given
+            service.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(
+                1L, 4, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+
+            // When
+            service.publishChanges();
+
+            // Then
+            JsonNode changes = sentPayload("/topic/advisors");
+            assertThat(changes).hasSize(1);
+            assertThat(changes.get(0).get("moduleNumber").asInt()).isEqualTo(4);
+            assertThat(changes.get(0).get("status").asText()).isEqualTo("AVAILABLE");
+        }
+
+        @Test
+        @DisplayName("dashboard sin cambios → no debe volver a publicarse")
+        void publishChanges_dashboardIgual_noDebeRepetir() {
+            // Given
+            DashboardResponse dashboard = DashboardResponse.empty();
+            when(dashboardMetricsService.snapshot()).thenReturn(dashboard);
+
+            // When
+            int first = service.publishChanges();
+            int second = service.publishChanges();
+
+            // Then
+            assertThat(first).isEqualTo(1);
+            assertThat(second).isZero();
+            verify(messagingTemplate, times(1)).send(eq("/topic/dashboard"), any(Message.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("snapshot()")
+    class Snapshot {
+
+        @Test
+        @DisplayName("después de rebuild → debe contener el tablero completo sin publicar deltas")
+        void rebuild_debeCargarSinPublicar() {
+            // Given
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                    eq(TicketStatus.getActiveStatuses()), any(), any())).thenReturn(List.of(
+                ticketWaiting().id(1L).branchOffice("Norte").queueType(QueueType.EMPRESAS).build(),
+                ticketInProgress().id(2L).branchOffice("Norte").numero("C02").assignedModuleNumber(2).build()
+            ));
+
+            // When
+            service.rebuild();
+            BranchBoardUpdate snapshot = service.snapshot("Norte");
+
+            // Then
+            assertThat(snapshot.snapshot()).isTrue();
+            assertThat(snapshot.sequence()).isZero();
+            assertThat(snapshot.queueDepths()).containsEntry(QueueType.EMPRESAS, 1).containsEntry(QueueType.CAJA, 0);
+            assertThat(snapshot.nowServing()).containsExactly(entry("C02", 2));
+            assertThat(service.publishChanges()).isZero();
+        }
+
+        @Test
+        @DisplayName("cambio confirmado durante la consulta del rebuild → debe conservarse")
+        void rebuild_cambioDuranteConsulta_debeConservarse() {
+            // Given: el ticket se crea mientras corre la consulta y la BD no lo ve
+            Ticket late = ticketWaiting().id(3L).branchOffice("Norte").queueType(QueueType.CAJA).build();
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                    eq(TicketStatus.getActiveStatuses()), any(), any())).thenAnswer(invocation -> {
+                service.onTicketStateChanged(TicketStateChangedEvent.of(late, null));
+                return List.of(ticketWaiting().id(1L).branchOffice("Norte").queueType(QueueType.CAJA).build());
+            });
+
+            // When
+            service.rebuild();
+
+            // Then
+            assertThat(service.snapshot("Norte").queueDepths()).containsEntry(QueueType.CAJA, 2);
+        }
+
+        @Test
+        @DisplayName("rebuild después del arranque → debe publicar el tablero completo con la secuencia siguiente")
+        void rebuild_posterior_debePublicarCompleto() throws Exception {
+            // Given: tablero cargado y con un delta publicado
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                    eq(TicketStatus.getActiveStatuses()), any(), any())).thenReturn(List.of(
+                ticketWaiting().id(1L).branchOffice("Norte").queueType(QueueType.CAJA).build()));
+            service.rebuild();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketInProgress().id(2L).branchOffice("Sur").numero("C02").assignedModuleNumber(2).build(),
+                TicketStatus.PROXIMO));
+            service.publishChanges();
+
+            // When: al cambiar de día la BD ya no tiene activos en Sur y Norte tiene dos
+            when(ticketRepository.findByStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                    eq(TicketStatus.getActiveStatuses()), any(), any())).thenReturn(List.of(
+                ticketWaiting().id(1L).branchOffice("Norte").queueType(QueueType.CAJA).build(),
+                ticketWaiting().id(4L).branchOffice("Norte").queueType(QueueType.CAJA).build()));
+            service.rebuild();
+            service.publishChanges();
+
+            // Then
+            JsonNode norte = sentPayload("/topic/branches/Norte");
+            assertThat(norte.get("snapshot").asBoolean()).isTrue();
+            assertThat(norte.get("sequence").asLong()).isEqualTo(1);
+            assertThat(norte.get("queueDepths").get("CAJA").asInt()).isEqualTo(2);
+
+            JsonNode sur = sentPayloads("/topic/branches/Sur").get(1);
+            assertThat(sur.get("snapshot").asBoolean()).isTrue();
+            assertThat(sur.get("sequence").asLong()).isEqualTo(2);
+            assertThat(sur.get("nowServing").size()).isZero();
+        }
+
+        @Test
+        @DisplayName("sucursal desconocida → debe retornar un tablero vacío")
+        void snapshot_sucursalDesconocida_debeRetornarVacio() {
+            // When
+            BranchBoardUpdate snapshot = service.snapshot("Sur");
+
+            // Then
+            assertThat(snapshot.queueDepths().values()).containsOnly(0);
+            assertThat(snapshot.nowServing()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Hilo de publicación")
+    class PublisherThread {
+
+        @Test
+        @DisplayName("cambio confirmado → debe publicarse sin esperar un poll")
+        void start_conCambio_debePublicar() {
+            // Given
+            service.start();
+
+            // When
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").build(), null));
+
+            // Then
+            verify(messagingTemplate, timeout(1000)).send(eq("/topic/branches/Centro"), any(Message.class));
+        }
+    }
+
+    private JsonNode sentPayload(String destination) throws Exception {
+        List<JsonNode> payloads = sentPayloads(destination);
+        assertThat(payloads).hasSize(1);
+        return payloads.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<JsonNode> sentPayloads(String destination) throws Exception {
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, atLeastOnce()).send(eq(destination), captor.capture());
+        List<JsonNode> payloads = new ArrayList<>();
+        for (Message<byte[]> message : captor.getAllValues()) {
+            payloads.add(objectMapper.readTree(message.getPayload()));
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.DashboardResponse;
+import com.example.ticketero.model.dto.QueueStatusResponse;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.TicketHistoryRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardMetricsService - Unit Tests")
+class DashboardMetricsServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketHistoryRepository ticketHistoryRepository;
+
+    @Mock
+    private AdvisorRepository advisorRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new DashboardMetricsService(ticketRepository, ticketHistoryRepository, advisorRepository, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Eventos de cambio de estado")
+    class Events {
+
+        @Test
+        @DisplayName("ticket creado → debe contar en la cola y en tickets del día")
+        void onTicketStateChanged_creado_debeContar() {
+            // Given
+            Ticket ticket = ticketWaiting().queueType(QueueType.CAJA).build();
+
+            // When
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+
+            // Then
+            DashboardResponse dashboard = service.snapshot();
+            assertThat(dashboard.totalTicketsToday()).isEqualTo(1);
+            assertThat(dashboard.ticketsInQueue()).isEqualTo(1);
+            assertThat(queueStatus(dashboard, QueueType.CAJA).ticketsInQueue()).isEqualTo(1);
+            assertThat(queueStatus(dashboard, QueueType.CAJA).nextTicketNumber()).isEqualTo(2);
+            verifyNoInteractions(ticketRepository, advisorRepository);
+        }
+
+        @Test
+        @DisplayName("pasos dentro de la cola → no deben cambiar los activos")
+        void onTicketStateChanged_pasoInterno_debeMantenerActivos() {
+            // Given
+            Ticket ticket = ticketWaiting().queueType(QueueType.EMPRESAS).build();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+
+            // When
+            ticket.setStatus(TicketStatus.PROXIMO);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+            ticket.setStatus(TicketStatus.ATENDIENDO);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.PROXIMO));
+
+            // Then
+            assertThat(service.snapshot().ticketsInQueue()).isEqualTo(1);
+            assertThat(service.snapshot().totalTicketsToday()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("ticket completado → debe pasar de activos a completados")
+        void onTicketStateChanged_completado_debeMoverAContados() {
+            // Given
+            Ticket ticket = ticketWaiting().queueType(QueueType.CAJA).build();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+
+            // When
+            ticket.setStatus(TicketStatus.COMPLETADO);
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+
+            // Then
+            DashboardResponse dashboard = service.snapshot();
+            assertThat(dashboard.ticketsInQueue()).isZero();
+            assertThat(dashboard.ticketsCompleted()).isEqualTo(1);
+            assertThat(dashboard.averageWaitTime()).isZero();
+        }
+
+        @Test
+        @DisplayName("asesor liberado → debe mover de ocupados a disponibles")
+        void onAdvisorStatusChanged_debeActualizarAsesores() {
+            // Given
+            service.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(1L, 1, null, AdvisorStatus.BUSY));
+
+            // When
+            service.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(
+                1L, 1, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+
+            // Then
+            assertThat(service.snapshot().availableAdvisors()).isEqualTo(1);
+            assertThat(service.snapshot().busyAdvisors()).isZero();
+        }
+
+        @Test
+        @DisplayName("tiempo promedio → debe ponderar por el tiempo de cada cola")
+        void snapshot_tiempoPromedio_debePonderarPorCola() {
+            // Given: CAJA 5 min, GERENCIA 30 min
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().queueType(QueueType.CAJA).build(), null));
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().queueType(QueueType.GERENCIA).build(), null));
+
+            // When
+            double averageWaitTime = service.snapshot().averageWaitTime();
+
+            // Then
+            assertThat(averageWaitTime).isEqualTo(17.5);
+        }
+
+        @Test
+        @DisplayName("snapshot → debe ser una foto inmutable")
+        void snapshot_debeSerInmutable() {
+            // Given
+            DashboardResponse before = service.snapshot();
+
+            // When
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticketWaiting().build(), null));
+
+            // Then
+            assertThat(before.ticketsInQueue()).isZero();
+            assertThat(service.snapshot()).isNotSameAs(before);
+            assertThatThrownBy(() -> service.snapshot().queueStatus().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile()")
+    class Reconcile {
+
+        @Test
+        @DisplayName("primera carga → debe tomar los conteos de la BD sin reportar desvío")
+        void reconcile_primeraCarga_debeCargarSinDesvio() {
+            // Given
+            when(ticketRepository.countGroupedByQueueAndStatus()).thenReturn(List.of(
+                ticketCount("Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, 4),
+                ticketCount("Norte", QueueType.CAJA, TicketStatus.PROXIMO, 2),
+                ticketCount("Centro", QueueType.CAJA, TicketStatus.COMPLETADO, 10)
+            ));
+            when(advisorRepository.countGroupedByStatus()).thenReturn(List.of(
+                advisorCount(AdvisorStatus.AVAILABLE, 3),
+                advisorCount(AdvisorStatus.BUSY, 2)
+            ));
+            when(ticketRepository.countByServiceDay(any())).thenReturn(16L);
+
+            // When
+            int drifted = service.reconcile();
+
+            // Then
+            assertThat(drifted).isZero();
+            DashboardResponse dashboard = service.snapshot();
+            assertThat(dashboard.ticketsInQueue()).isEqualTo(6);
+            assertThat(dashboard.ticketsCompleted()).isEqualTo(10);
+            assertThat(dashboard.totalTicketsToday()).isEqualTo(16);
+            assertThat(dashboard.availableAdvisors()).isEqualTo(3);
+            assertThat(dashboard.busyAdvisors()).isEqualTo(2);
+            assertThat(queueStatus(dashboard, QueueType.CAJA).ticketsInQueue()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("contadores desviados → debe corregirlos y reportar el desvío")
+        void reconcile_conDesvio_debeCorregir() {
+            // Given
+            when(ticketRepository.countGroupedByQueueAndStatus()).thenReturn(List.of());
+            when(advisorRepository.countGroupedByStatus()).thenReturn(List.of());
+            when(ticketRepository.countByServiceDay(any())).thenReturn(0L);
+            service.reconcile();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+
+            // When: la BD no tiene ese ticket (por ejemplo, transacción de otra instancia revertida)
+            int drifted = service.reconcile();
+
+            // Then
+            assertThat(drifted).isEqualTo(2);
+            assertThat(service.snapshot().ticketsInQueue()).isZero();
+            assertThat(meterRegistry.counter("ticketero.dashboard.drift").count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("tickets archivados → deben seguir contando sin reportar desvío")
+        void reconcile_ticketsArchivados_noDebeReportarDesvio() {
+            // Given: 10 completados, de los que el archivador luego mueve 7 a ticket_history
+            when(ticketRepository.countGroupedByQueueAndStatus())
+                .thenReturn(List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.COMPLETADO, 10)))
+                .thenReturn(List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.COMPLETADO, 3)));
+            when(ticketHistoryRepository.countGroupedByQueueAndStatus())
+                .thenReturn(List.of())
+                .thenReturn(List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.COMPLETADO, 7)));
+            service.reconcile();
+
+            // When
+            int drifted = service.reconcile();
+
+            // Then
+            assertThat(drifted).isZero();
+            assertThat(service.snapshot().ticketsCompleted()).isEqualTo(10);
+        }
+    }
+
+    @Nested
+    @DisplayName("eventos durante reconcile()")
+    class EventosDuranteReconcile {
+
+        @Test
+        @DisplayName("evento confirmado después de la foto de la BD → debe conservarse tras el reemplazo")
+        void reconcile_eventoConcurrente_debeReaplicarse() {
+            // Given: el ticket se crea mientras corre la consulta y la BD no lo ve
+            Ticket ticket = ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build();
+            when(ticketRepository.countGroupedByQueueAndStatus()).thenAnswer(invocation -> {
+                service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+                return List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, 4));
+            });
+            when(ticketRepository.countByServiceDay(any())).thenReturn(4L);
+            service.reconcile();
+
+            // When: la siguiente reconciliación ya lo ve en la BD
+            reset(ticketRepository);
+            when(ticketRepository.countGroupedByQueueAndStatus())
+                .thenReturn(List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, 5)));
+            when(ticketRepository.countByServiceDay(any())).thenReturn(5L);
+            int drifted = service.reconcile();
+
+            // Then
+            assertThat(drifted).isZero();
+            assertThat(service.snapshot().ticketsInQueue()).isEqualTo(5);
+            assertThat(service.snapshot().totalTicketsToday()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("evento después de reconcile() → no debe anotarse para la siguiente")
+        void reconcile_eventoPosterior_noDebeReaplicarse() {
+            // Given
+            when(ticketRepository.countGroupedByQueueAndStatus()).thenReturn(List.of());
+            when(ticketRepository.countByServiceDay(any())).thenReturn(0L);
+            service.reconcile();
+            service.onTicketStateChanged(TicketStateChangedEvent.of(
+                ticketWaiting().branchOffice("Centro").queueType(QueueType.CAJA).build(), null));
+
+            // When: la BD ya lo incluye
+            when(ticketRepository.countGroupedByQueueAndStatus())
+                .thenReturn(List.of(ticketCount("Centro", QueueType.CAJA, TicketStatus.EN_ESPERA, 1)));
+            when(ticketRepository.countByServiceDay(any())).thenReturn(1L);
+            int drifted = service.reconcile();
+
+            // Then
+            assertThat(drifted).isZero();
+            assertThat(service.snapshot().ticketsInQueue()).isEqualTo(1);
+        }
+    }
+
+    private static QueueStatusResponse queueStatus(DashboardResponse dashboard, QueueType queueType) {
+        return dashboard.queueStatus().stream()
+            .filter(status -> status.queueType() == queueType)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static TicketRepository.StatusCount ticketCount(String branchOffice, QueueType queueType,
+                                                           TicketStatus status, long total) {
+        return new TicketRepository.StatusCount() {
+            @Override
+            public String getBranchOffice() {
+                return branchOffice;
+            }
+
+            @Override
+            public QueueType getQueueType() {
+                return queueType;
+            }
+
+            @Override
+            public TicketStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static AdvisorRepository.StatusCount advisorCount(AdvisorStatus status, long total) {
+        return new AdvisorRepository.StatusCount() {
+            @Override
+            public AdvisorStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
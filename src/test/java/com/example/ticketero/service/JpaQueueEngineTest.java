@@ -0,0 +1,183 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JpaQueueEngine - Unit Tests")
+class JpaQueueEngineTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
+    @InjectMocks
+    private JpaQueueEngine jpaQueueEngine;
+
+    private static final QueueKey CAJA_CENTRO = new QueueKey("Sucursal Centro", QueueType.CAJA);
+
+    @Nested
+    @DisplayName("processQueue()")
+    class ProcessQueue {
+
+        @Test
+        @DisplayName("con cola vacía → no debe hacer nada")
+        void processQueue_colaVacia_noDebeHacerNada() {
+            // Given
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                "Sucursal Centro", QueueType.CAJA, TicketStatus.getActiveStatuses(), LocalDate.now(), LocalDate.now()))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            verify(ticketRepository, never()).save(any());
+            verify(notificationService, never()).scheduleProximoTurnoNotification(any());
+        }
+
+        @Test
+        @DisplayName("con ticket en posición 1 → debe cambiar a PROXIMO")
+        void processQueue_ticketPosicion1_debeCambiarAProximo() {
+            // Given
+            Ticket ticket = ticketWaiting()
+                .positionInQueue(1)
+                .status(TicketStatus.EN_ESPERA)
+                .build();
+            
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ticket));
+
+            // When
+            jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verify(ticketRepository, atLeastOnce()).save(ticket);
+            verify(notificationService).scheduleProximoTurnoNotification(ticket);
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof TicketStateChangedEvent changed
+                    && changed.previousStatus() == TicketStatus.EN_ESPERA
+                    && changed.status() == TicketStatus.PROXIMO));
+        }
+
+        @Test
+        @DisplayName("con ticket PROXIMO → no debe asignar (lo reparte AdvisorDispatchService)")
+        void processQueue_ticketProximo_noDebeAsignar() {
+            // Given
+            Ticket ticket = ticketWaiting()
+                .status(TicketStatus.PROXIMO)
+                .positionInQueue(1)
+                .build();
+            
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ticket));
+
+            // When
+            jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verify(notificationService, never()).scheduleEsTuTurnoNotification(any());
+        }
+
+        @Test
+        @DisplayName("debe actualizar posiciones en cola correctamente")
+        void processQueue_debeActualizarPosiciones() {
+            // Given
+            Ticket ticket1 = ticketWaiting().id(1L).positionInQueue(5).build();
+            Ticket ticket2 = ticketWaiting().id(2L).positionInQueue(5).build();
+            
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ticket1, ticket2));
+
+            // When
+            jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(ticket1.getPositionInQueue()).isEqualTo(1);
+            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
+            assertThat(ticket1.getEstimatedWaitMinutes()).isEqualTo(5); // 1 * 5min
+            assertThat(ticket2.getEstimatedWaitMinutes()).isEqualTo(10); // 2 * 5min
+        }
+
+        @Test
+        @DisplayName("con múltiples tickets → solo los primeros 3 cambian a PROXIMO")
+        void processQueue_multiplesTickets_soloLosPrimerosCambianAProximo() {
+            // Given
+            Ticket ticket1 = ticketWaiting().id(1L).status(TicketStatus.EN_ESPERA).build();
+            Ticket ticket2 = ticketWaiting().id(2L).status(TicketStatus.EN_ESPERA).build();
+            Ticket ticket3 = ticketWaiting().id(3L).status(TicketStatus.EN_ESPERA).build();
+            Ticket ticket4 = ticketWaiting().id(4L).status(TicketStatus.EN_ESPERA).build();
+            
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ticket1, ticket2, ticket3, ticket4));
+
+            // When
+            List<Long> promoted = jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(promoted).containsExactly(1L, 2L, 3L);
+            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(ticket2.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(ticket3.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(ticket4.getStatus()).isEqualTo(TicketStatus.EN_ESPERA); // Position 4, stays EN_ESPERA
+            
+            verify(notificationService, times(3)).scheduleProximoTurnoNotification(any());
+        }
+
+        @Test
+        @DisplayName("con ticket ATENDIENDO → no debe procesar")
+        void processQueue_ticketAtendiendo_noDebeProcesar() {
+            // Given
+            Ticket ticket = ticketInProgress()
+                .status(TicketStatus.ATENDIENDO)
+                .build();
+            
+            when(ticketRepository.findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ticket));
+
+            // When
+            jpaQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            verify(ticketRepository, never()).save(any());
+            verify(notificationService, never()).scheduleProximoTurnoNotification(any());
+        }
+    }
+}
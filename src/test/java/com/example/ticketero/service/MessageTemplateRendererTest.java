@@ -0,0 +1,226 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.PlantillaMensaje;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.repository.PlantillaMensajeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageTemplateRenderer - Unit Tests")
+class MessageTemplateRendererTest {
+
+    @Mock
+    private PlantillaMensajeRepository plantillaMensajeRepository;
+
+    @InjectMocks
+    private MessageTemplateRenderer renderer;
+
+    private final Ticket ticket = ticketWaiting()
+        .numero("C001")
+        .positionInQueue(3)
+        .estimatedWaitMinutes(15)
+        .assignedModuleNumber(4)
+        .createdAt(LocalDateTime.of(2024, 3, 1, 9, 5))
+        .build();
+
+    @Nested
+    @DisplayName("render() con plantillas incluidas")
+    class RenderBuiltin {
+
+        @Test
+        @DisplayName("TICKET_CREADO → debe producir el mismo texto que el formato anterior")
+        void render_ticketCreado_debeCoincidirConFormatoAnterior() {
+            // When
+            String text = renderer.render(MessageTemplate.TOTEM_TICKET_CREADO, ticket);
+
+            // Then
+            assertThat(text).isEqualTo("""
+                🎫 *Ticket Creado*
+
+                Número: *C001*
+                Cola: Caja
+                Posición: 3
+                Tiempo estimado: 15 minutos
+                Sucursal: Sucursal Centro
+
+                Fecha: 01/03/2024 09:05
+                """);
+        }
+
+        @Test
+        @DisplayName("PROXIMO_TURNO → debe producir el mismo texto que el formato anterior")
+        void render_proximoTurno_debeCoincidirConFormatoAnterior() {
+            // When
+            String text = renderer.render(MessageTemplate.TOTEM_PROXIMO_TURNO, ticket);
+
+            // Then
+            assertThat(text).isEqualTo("""
+                ⏰ *¡Su turno está próximo!*
+
+                Ticket: *C001*
+                Cola: Caja
+
+                Por favor prepárese para ser atendido.
+                Faltan aproximadamente 15 minutos.
+                """);
+        }
+
+        @Test
+        @DisplayName("ES_TU_TURNO → debe repetir el módulo donde aparece el marcador")
+        void render_esTuTurno_debeRepetirModulo() {
+            // When
+            String text = renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket);
+
+            // Then
+            assertThat(text).isEqualTo("""
+                🔔 *¡Es su turno!*
+
+                Ticket: *C001*
+                Módulo: *4*
+
+                Diríjase al módulo 4 para ser atendido.
+                """);
+        }
+
+        @Test
+        @DisplayName("renders consecutivos → no deben arrastrar texto del anterior")
+        void render_consecutivo_noDebeArrastrarTexto() {
+            // When
+            renderer.render(MessageTemplate.TOTEM_TICKET_CREADO, ticket);
+            String text = renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket);
+
+            // Then
+            assertThat(text).startsWith("🔔").doesNotContain("Ticket Creado");
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @Test
+        @DisplayName("versión activa más alta en BD → debe reemplazar a la incluida")
+        void refresh_conVersionNueva_debeUsarla() {
+            // Given
+            when(plantillaMensajeRepository.findByActivaTrue()).thenReturn(List.of(
+                plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 2, "Turno {numero} en módulo {modulo}"),
+                plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 3, "Ticket {numero}: módulo {modulo}")
+            ));
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.version(MessageTemplate.TOTEM_ES_TU_TURNO)).isEqualTo(3);
+            assertThat(renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket)).isEqualTo("Ticket C001: módulo 4");
+            assertThat(renderer.version(MessageTemplate.TOTEM_TICKET_CREADO)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("versión con marcador desconocido → debe mantener la anterior")
+        void refresh_conMarcadorDesconocido_debeMantenerAnterior() {
+            // Given
+            when(plantillaMensajeRepository.findByActivaTrue()).thenReturn(List.of(
+                plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO, 2, "Faltan {minutos} minutos")
+            ));
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.version(MessageTemplate.TOTEM_PROXIMO_TURNO)).isEqualTo(1);
+            assertThat(renderer.render(MessageTemplate.TOTEM_PROXIMO_TURNO, ticket)).contains("Faltan aproximadamente 15");
+        }
+
+        @Test
+        @DisplayName("versión desactivada → debe volver a la incluida")
+        void refresh_versionDesactivada_debeVolverAIncluida() {
+            // Given
+            when(plantillaMensajeRepository.findByActivaTrue())
+                .thenReturn(List.of(plantilla(MessageTemplate.TOTEM_TICKET_CREADO, 2, "Ticket {numero}")))
+                .thenReturn(Collections.emptyList());
+            renderer.refresh();
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.version(MessageTemplate.TOTEM_TICKET_CREADO)).isEqualTo(1);
+            assertThat(renderer.render(MessageTemplate.TOTEM_TICKET_CREADO, ticket)).contains("Ticket Creado");
+        }
+
+        @Test
+        @DisplayName("versión 1 propia en BD → debe reemplazar a la incluida")
+        void refresh_versionUnoPropia_debeReemplazarIncluida() {
+            // Given
+            when(plantillaMensajeRepository.findByActivaTrue()).thenReturn(List.of(
+                plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 1, "Pase al módulo {modulo}")
+            ));
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.version(MessageTemplate.TOTEM_ES_TU_TURNO)).isEqualTo(1);
+            assertThat(renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket)).isEqualTo("Pase al módulo 4");
+        }
+
+        @Test
+        @DisplayName("versión 1 propia desactivada → debe volver a la incluida")
+        void refresh_versionUnoPropiaDesactivada_debeVolverAIncluida() {
+            // Given
+            when(plantillaMensajeRepository.findByActivaTrue())
+                .thenReturn(List.of(plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 1, "Pase al módulo {modulo}")))
+                .thenReturn(Collections.emptyList());
+            renderer.refresh();
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket)).contains("Es su turno");
+        }
+
+        @Test
+        @DisplayName("versión en uso desactivada → debe volver a la activa más alta restante")
+        void refresh_versionEnUsoDesactivada_debeVolverALaAnterior() {
+            // Given
+            PlantillaMensaje v2 = plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 2, "v2 {modulo}");
+            PlantillaMensaje v3 = plantilla(MessageTemplate.TOTEM_ES_TU_TURNO, 3, "v3 {modulo}");
+            when(plantillaMensajeRepository.findByActivaTrue())
+                .thenReturn(List.of(v2, v3))
+                .thenReturn(List.of(v2));
+            renderer.refresh();
+
+            // When
+            renderer.refresh();
+
+            // Then
+            assertThat(renderer.version(MessageTemplate.TOTEM_ES_TU_TURNO)).isEqualTo(2);
+            assertThat(renderer.render(MessageTemplate.TOTEM_ES_TU_TURNO, ticket)).isEqualTo("v2 4");
+        }
+    }
+
+    private static PlantillaMensaje plantilla(MessageTemplate template, int version, String cuerpo) {
+        return PlantillaMensaje.builder()
+            .id(new PlantillaMensaje.Key(template, version))
+            .cuerpo(cuerpo)
+            .activa(true)
+            .build();
+    }
+}
@@ -13,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
@@ -160,7 +161,7 @@ class NotificationServiceTest {
                 .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
                 .build();
             
-            when(mensajeRepository.findByTicketId(1L))
+            when(mensajeRepository.findByTicketIdAndServiceDay(1L, LocalDate.now()))
                 .thenReturn(List.of(mensajePendiente));
 
             // When
@@ -176,7 +177,7 @@ class NotificationServiceTest {
         void cancel_sinMensajesPendientes_noDebeHacerNada() {
             // Given
             Ticket ticket = ticketWaiting().id(1L).build();
-            when(mensajeRepository.findByTicketId(1L))
+            when(mensajeRepository.findByTicketIdAndServiceDay(1L, LocalDate.now()))
                 .thenReturn(List.of());
 
             // When
@@ -196,7 +197,7 @@ class NotificationServiceTest {
                 .estadoEnvio(Mensaje.EstadoEnvio.ENVIADO)
                 .build();
             
-            when(mensajeRepository.findByTicketId(1L))
+            when(mensajeRepository.findByTicketIdAndServiceDay(1L, LocalDate.now()))
                 .thenReturn(List.of(mensajeEnviado));
 
             // When
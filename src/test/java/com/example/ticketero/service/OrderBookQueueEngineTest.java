@@ -0,0 +1,113 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderBookQueueEngine - Unit Tests")
+class OrderBookQueueEngineTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QueueOrderBookRegistry queueOrderBookRegistry;
+
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
+    @InjectMocks
+    private OrderBookQueueEngine orderBookQueueEngine;
+
+    private static final QueueKey CAJA_CENTRO = new QueueKey("Sucursal Centro", QueueType.CAJA);
+
+    @Nested
+    @DisplayName("processQueue()")
+    class ProcessQueue {
+
+        @Test
+        @DisplayName("debe procesar solo la cabeza sin recargar la cola completa")
+        void processQueue_conLibro_debeProcesarSoloLaCabeza() {
+            // Given
+            Ticket ticket1 = ticketWaiting().id(1L).positionInQueue(7).build();
+            Ticket ticket2 = ticketWaiting().id(2L).positionInQueue(8).build();
+            QueueOrderBook book = new QueueOrderBook();
+            book.add(1L);
+            book.add(2L);
+
+            when(queueOrderBookRegistry.bookOf(CAJA_CENTRO)).thenReturn(Optional.of(book));
+            when(ticketRepository.findByIdInAndServiceDayBetween(eq(List.of(1L, 2L)), any(), any())).thenReturn(List.of(ticket2, ticket1));
+
+            // When
+            orderBookQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(ticket1.getPositionInQueue()).isEqualTo(1);
+            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
+            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(ticket2.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verify(ticketRepository, never()).findByBranchOfficeAndQueueTypeAndStatusInAndServiceDayBetweenOrderByCreatedAtAsc(
+                any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("con más de 3 tickets → debe cargar solo los primeros 3")
+        void processQueue_conLibro_debeCargarSoloLosPrimeros3() {
+            // Given
+            QueueOrderBook book = new QueueOrderBook();
+            for (long id = 1; id <= 10; id++) {
+                book.add(id);
+            }
+
+            when(queueOrderBookRegistry.bookOf(CAJA_CENTRO)).thenReturn(Optional.of(book));
+            when(ticketRepository.findByIdInAndServiceDayBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+
+            // When
+            orderBookQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            verify(ticketRepository).findByIdInAndServiceDayBetween(eq(List.of(1L, 2L, 3L)), any(), any());
+        }
+
+        @Test
+        @DisplayName("cola sin libro → no debe consultar la base")
+        void processQueue_sinLibro_noDebeConsultar() {
+            // Given
+            when(queueOrderBookRegistry.bookOf(CAJA_CENTRO)).thenReturn(Optional.empty());
+
+            // When
+            List<Long> promoted = orderBookQueueEngine.processQueue(CAJA_CENTRO);
+
+            // Then
+            assertThat(promoted).isEmpty();
+            verifyNoInteractions(ticketRepository);
+        }
+    }
+}
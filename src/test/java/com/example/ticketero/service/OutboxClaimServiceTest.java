@@ -0,0 +1,150 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.repository.MensajeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxClaimService - Unit Tests")
+class OutboxClaimServiceTest {
+
+    private static final String OWNER = "node-1-w1";
+
+    @Mock
+    private MensajeRepository mensajeRepository;
+
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
+    @InjectMocks
+    private OutboxClaimService outboxClaimService;
+
+    @Nested
+    @DisplayName("claimBatch()")
+    class ClaimBatch {
+
+        @Test
+        @DisplayName("sin filas reclamadas → no debe cargar mensajes")
+        void claimBatch_sinFilas_noDebeCargar() {
+            // Given
+            when(mensajeRepository.claimBatch(eq(OWNER), any(), any(), eq(50), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            OutboxClaimService.Claim claim = outboxClaimService.claimBatch(OWNER, 50, LocalDateTime.now().plusMinutes(1));
+
+            // Then
+            assertThat(claim.isEmpty()).isTrue();
+            verify(mensajeRepository, never()).findWithTicketByIdIn(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("con filas reclamadas → debe cargarlas con su ticket")
+        void claimBatch_conFilas_debeCargarConTicket() {
+            // Given
+            Mensaje mensaje = mensajePendiente().ticket(ticketWaiting().build()).build();
+            when(mensajeRepository.claimBatch(eq(OWNER), any(), any(), eq(50), any(), any())).thenReturn(List.of(row(1L, false)));
+            when(mensajeRepository.findWithTicketByIdIn(eq(List.of(1L)), any(), any())).thenReturn(List.of(mensaje));
+
+            // When
+            OutboxClaimService.Claim claim = outboxClaimService.claimBatch(OWNER, 50, LocalDateTime.now().plusMinutes(1));
+
+            // Then
+            assertThat(claim.mensajes()).containsExactly(mensaje);
+            assertThat(claim.superseded()).isZero();
+        }
+
+        @Test
+        @DisplayName("con filas reemplazadas → debe cargar solo las reclamadas y contar las reemplazadas")
+        void claimBatch_conReemplazados_debeCargarSoloReclamados() {
+            // Given
+            Mensaje mensaje = mensajePendiente().id(3L).ticket(ticketWaiting().build()).build();
+            when(mensajeRepository.claimBatch(eq(OWNER), any(), any(), eq(50), any(), any()))
+                .thenReturn(List.of(row(3L, false), row(1L, true), row(2L, true)));
+            when(mensajeRepository.findWithTicketByIdIn(eq(List.of(3L)), any(), any())).thenReturn(List.of(mensaje));
+
+            // When
+            OutboxClaimService.Claim claim = outboxClaimService.claimBatch(OWNER, 50, LocalDateTime.now().plusMinutes(1));
+
+            // Then
+            assertThat(claim.mensajes()).containsExactly(mensaje);
+            assertThat(claim.superseded()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("solo filas reemplazadas → no debe cargar mensajes")
+        void claimBatch_soloReemplazados_noDebeCargar() {
+            // Given
+            when(mensajeRepository.claimBatch(eq(OWNER), any(), any(), eq(50), any(), any()))
+                .thenReturn(List.of(row(1L, true)));
+
+            // When
+            OutboxClaimService.Claim claim = outboxClaimService.claimBatch(OWNER, 50, LocalDateTime.now().plusMinutes(1));
+
+            // Then
+            assertThat(claim.isEmpty()).isFalse();
+            assertThat(claim.mensajes()).isEmpty();
+            verify(mensajeRepository, never()).findWithTicketByIdIn(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("acknowledge()")
+    class Acknowledge {
+
+        @Test
+        @DisplayName("enviado → debe liberar sin postergar; no enviado → debe postergar hasta el reintento")
+        void acknowledge_debePostergarSoloNoEnviados() {
+            // Given
+            LocalDateTime retryAfter = LocalDateTime.now().plusSeconds(30);
+            Mensaje enviado = mensajePendiente().id(1L)
+                .estadoEnvio(Mensaje.EstadoEnvio.ENVIADO)
+                .fechaEnvio(LocalDateTime.now())
+                .build();
+            Mensaje fallido = mensajePendiente().id(2L)
+                .estadoEnvio(Mensaje.EstadoEnvio.FALLIDO)
+                .intentos(1)
+                .build();
+            when(mensajeRepository.acknowledge(anyLong(), any(), eq(OWNER), anyString(), any(), any(), anyInt(), any()))
+                .thenReturn(1);
+
+            // When
+            int acknowledged = outboxClaimService.acknowledge(OWNER, List.of(enviado, fallido), retryAfter);
+
+            // Then
+            assertThat(acknowledged).isEqualTo(2);
+            verify(mensajeRepository).acknowledge(eq(1L), any(), eq(OWNER), eq("ENVIADO"), any(), any(), eq(0), isNull());
+            verify(mensajeRepository).acknowledge(eq(2L), any(), eq(OWNER), eq("FALLIDO"), isNull(), any(), eq(1), eq(retryAfter));
+        }
+    }
+
+    private static MensajeRepository.ClaimedRow row(long id, boolean superseded) {
+        return new MensajeRepository.ClaimedRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public boolean isSuperseded() {
+                return superseded;
+            }
+        };
+    }
+}
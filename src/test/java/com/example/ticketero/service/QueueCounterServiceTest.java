@@ -0,0 +1,149 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.QueueActiveCounterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueCounterService - Unit Tests")
+class QueueCounterServiceTest {
+
+    @Mock
+    private QueueActiveCounterRepository queueActiveCounterRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
+    @InjectMocks
+    private QueueCounterService queueCounterService;
+
+    @Nested
+    @DisplayName("nextPosition()")
+    class NextPosition {
+
+        @Test
+        @DisplayName("debe retornar la posición del contador incrementado")
+        void nextPosition_debeRetornarPosicionDelContador() {
+            // Given
+            when(queueActiveCounterRepository.incrementAndGetPosition("Sucursal Centro", "CAJA"))
+                .thenReturn(4);
+
+            // When
+            int position = queueCounterService.nextPosition("Sucursal Centro", QueueType.CAJA);
+
+            // Then
+            assertThat(position).isEqualTo(4);
+        }
+    }
+
+    @Nested
+    @DisplayName("onTicketStateChanged()")
+    class OnTicketStateChanged {
+
+        @Test
+        @DisplayName("ticket activo que se completa → debe descontar")
+        void onTicketStateChanged_ticketCompletado_debeDescontar() {
+            // Given
+            Ticket ticket = ticketWaiting().status(TicketStatus.COMPLETADO).build();
+
+            // When
+            queueCounterService.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+
+            // Then
+            verify(queueActiveCounterRepository).decrement(ticket.getBranchOffice(), "CAJA");
+        }
+
+        @Test
+        @DisplayName("ticket recién creado → no debe descontar")
+        void onTicketStateChanged_ticketCreado_noDebeDescontar() {
+            // Given
+            Ticket ticket = ticketWaiting().build();
+
+            // When
+            queueCounterService.onTicketStateChanged(TicketStateChangedEvent.of(ticket, null));
+
+            // Then
+            verifyNoInteractions(queueActiveCounterRepository);
+        }
+
+        @Test
+        @DisplayName("transición entre estados activos → no debe descontar")
+        void onTicketStateChanged_transicionActiva_noDebeDescontar() {
+            // Given
+            Ticket ticket = ticketWaiting().status(TicketStatus.PROXIMO).build();
+
+            // When
+            queueCounterService.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+
+            // Then
+            verify(queueActiveCounterRepository, never()).decrement(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile()")
+    class Reconcile {
+
+        @Test
+        @DisplayName("con contadores desviados → debe registrar la corrección")
+        void reconcile_conDesvio_debeRegistrarMetrica() {
+            // Given
+            when(queueActiveCounterRepository.reconcile(any(), any())).thenReturn(2);
+
+            // When
+            int corrected = queueCounterService.reconcile();
+
+            // Then
+            assertThat(corrected).isEqualTo(2);
+            assertThat(meterRegistry.counter("ticketero.queue.counter.drift").count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("debe bloquear los contadores antes de contar")
+        void reconcile_debeBloquearAntesDeContar() {
+            // Given
+            when(queueActiveCounterRepository.reconcile(any(), any())).thenReturn(0);
+
+            // When
+            queueCounterService.reconcile();
+
+            // Then
+            var inOrder = inOrder(queueActiveCounterRepository);
+            inOrder.verify(queueActiveCounterRepository).lockAll();
+            inOrder.verify(queueActiveCounterRepository).reconcile(any(), any());
+        }
+
+        @Test
+        @DisplayName("sin desvío → no debe registrar corrección")
+        void reconcile_sinDesvio_noDebeRegistrarMetrica() {
+            // Given
+            when(queueActiveCounterRepository.reconcile(any(), any())).thenReturn(0);
+
+            // When
+            queueCounterService.reconcile();
+
+            // Then
+            assertThat(meterRegistry.find("ticketero.queue.counter.drift").counter()).isNull();
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.model.QueueKey;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
 import com.example.ticketero.repository.TicketRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
-import java.util.Collections;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,154 +40,41 @@ class QueueManagementServiceTest {
     private AdvisorService advisorService;
 
     @Mock
-    private NotificationService notificationService;
-
-    @InjectMocks
-    private QueueManagementService queueManagementService;
-
-    @Nested
-    @DisplayName("processQueueByType()")
-    class ProcessQueueByType {
-
-        @Test
-        @DisplayName("con cola vacía → no debe hacer nada")
-        void processQueue_colaVacia_noDebeHacerNada() {
-            // Given
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(
-                QueueType.CAJA, TicketStatus.getActiveStatuses()))
-                .thenReturn(Collections.emptyList());
-
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
-
-            // Then
-            verify(ticketRepository, never()).save(any());
-            verify(notificationService, never()).scheduleProximoTurnoNotification(any());
-        }
-
-        @Test
-        @DisplayName("con ticket en posición 1 → debe cambiar a PROXIMO")
-        void processQueue_ticketPosicion1_debeCambiarAProximo() {
-            // Given
-            Ticket ticket = ticketWaiting()
-                .positionInQueue(1)
-                .status(TicketStatus.EN_ESPERA)
-                .build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket));
-
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
-
-            // Then
-            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            verify(ticketRepository, atLeastOnce()).save(ticket);
-            verify(notificationService).scheduleProximoTurnoNotification(ticket);
-        }
-
-        @Test
-        @DisplayName("con ticket PROXIMO y advisor disponible → debe asignar")
-        void processQueue_ticketProximoConAdvisor_debeAsignar() {
-            // Given
-            Ticket ticket = ticketWaiting()
-                .status(TicketStatus.PROXIMO)
-                .build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket));
-            when(advisorService.assignTicketToAdvisor(ticket)).thenReturn(true);
-
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
-
-            // Then
-            verify(advisorService).assignTicketToAdvisor(ticket);
-            verify(ticketRepository).save(ticket);
-            verify(notificationService).scheduleEsTuTurnoNotification(ticket);
-        }
-
-        @Test
-        @DisplayName("con ticket PROXIMO sin advisor → no debe asignar")
-        void processQueue_ticketProximoSinAdvisor_noDebeAsignar() {
-            // Given
-            Ticket ticket = ticketWaiting()
-                .status(TicketStatus.PROXIMO)
-                .build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket));
-            when(advisorService.assignTicketToAdvisor(ticket)).thenReturn(false);
-
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
-
-            // Then
-            verify(advisorService).assignTicketToAdvisor(ticket);
-            verify(notificationService, never()).scheduleEsTuTurnoNotification(ticket);
-        }
+    private AdvisorDispatchService advisorDispatchService;
 
-        @Test
-        @DisplayName("debe actualizar posiciones en cola correctamente")
-        void processQueue_debeActualizarPosiciones() {
-            // Given
-            Ticket ticket1 = ticketWaiting().id(1L).positionInQueue(5).build();
-            Ticket ticket2 = ticketWaiting().id(2L).positionInQueue(5).build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket1, ticket2));
+    @Mock
+    private NotificationService notificationService;
 
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
+    @Mock
+    private QueueEngine queueEngine;
 
-            // Then
-            assertThat(ticket1.getPositionInQueue()).isEqualTo(1);
-            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
-            assertThat(ticket1.getEstimatedWaitMinutes()).isEqualTo(5); // 1 * 5min
-            assertThat(ticket2.getEstimatedWaitMinutes()).isEqualTo(10); // 2 * 5min
-        }
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
-        @Test
-        @DisplayName("con múltiples tickets → solo los primeros 3 cambian a PROXIMO")
-        void processQueue_multiplesTickets_soloLosPrimerosCambianAProximo() {
-            // Given
-            Ticket ticket1 = ticketWaiting().id(1L).status(TicketStatus.EN_ESPERA).build();
-            Ticket ticket2 = ticketWaiting().id(2L).status(TicketStatus.EN_ESPERA).build();
-            Ticket ticket3 = ticketWaiting().id(3L).status(TicketStatus.EN_ESPERA).build();
-            Ticket ticket4 = ticketWaiting().id(4L).status(TicketStatus.EN_ESPERA).build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket1, ticket2, ticket3, ticket4));
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
 
-            // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
+    @InjectMocks
+    private QueueManagementService queueManagementService;
 
-            // Then
-            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            assertThat(ticket2.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            assertThat(ticket3.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            assertThat(ticket4.getStatus()).isEqualTo(TicketStatus.EN_ESPERA); // Position 4, stays EN_ESPERA
-            
-            verify(notificationService, times(3)).scheduleProximoTurnoNotification(any());
-        }
+    @Nested
+    @DisplayName("processPartition()")
+    class ProcessPartition {
 
         @Test
-        @DisplayName("con ticket ATENDIENDO → no debe procesar")
-        void processQueue_ticketAtendiendo_noDebeProcesar() {
+        @DisplayName("debe delegar en el motor de colas configurado")
+        void processPartition_debeDelegarEnMotor() {
             // Given
-            Ticket ticket = ticketInProgress()
-                .status(TicketStatus.ATENDIENDO)
-                .build();
-            
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(List.of(ticket));
+            QueueKey queueKey = new QueueKey("Sucursal Centro", QueueType.CAJA);
+            when(queueEngine.processQueue(queueKey)).thenReturn(List.of(1L, 2L));
 
             // When
-            queueManagementService.processQueueByType(QueueType.CAJA);
+            List<Long> promoted = queueManagementService.processPartition(queueKey);
 
             // Then
-            verify(advisorService, never()).assignTicketToAdvisor(any());
-            verify(notificationService, never()).scheduleProximoTurnoNotification(any());
+            assertThat(promoted).containsExactly(1L, 2L);
+            verify(queueEngine).processQueue(queueKey);
+            verify(eventPublisher).publishEvent(new QueueProcessedEvent("Sucursal Centro", QueueType.CAJA));
         }
     }
 
@@ -198,7 +91,8 @@ class QueueManagementServiceTest {
                 .assignedAdvisor(advisor)
                 .build();
             
-            when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+            when(ticketRepository.findByIdAndServiceDayBetween(1L, LocalDate.now(), LocalDate.now()))
+                .thenReturn(Optional.of(ticket));
 
             // When
             queueManagementService.completeTicket(1L);
@@ -213,6 +107,25 @@ class QueueManagementServiceTest {
             verify(notificationService).cancelPendingNotifications(ticket);
         }
 
+        @Test
+        @DisplayName("debe publicar evento de cambio de estado")
+        void completeTicket_debePublicarEvento() {
+            // Given
+            Ticket ticket = ticketInProgress().build();
+            when(ticketRepository.findByIdAndServiceDayBetween(1L, LocalDate.now(), LocalDate.now()))
+                .thenReturn(Optional.of(ticket));
+
+            // When
+            queueManagementService.completeTicket(1L);
+
+            // Then
+            ArgumentCaptor<TicketStateChangedEvent> captor =
+                ArgumentCaptor.forClass(TicketStateChangedEvent.class);
+            verify(eventPublisher).publishEvent(captor.capture());
+            assertThat(captor.getValue().previousStatus()).isEqualTo(TicketStatus.ATENDIENDO);
+            assertThat(captor.getValue().status()).isEqualTo(TicketStatus.COMPLETADO);
+        }
+
         @Test
         @DisplayName("con ticket sin advisor → debe completar sin liberar advisor")
         void completeTicket_sinAdvisor_debeCompletar() {
@@ -221,7 +134,8 @@ class QueueManagementServiceTest {
                 .assignedAdvisor(null)
                 .build();
             
-            when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+            when(ticketRepository.findByIdAndServiceDayBetween(1L, LocalDate.now(), LocalDate.now()))
+                .thenReturn(Optional.of(ticket));
 
             // When
             queueManagementService.completeTicket(1L);
@@ -246,25 +160,44 @@ class QueueManagementServiceTest {
             verify(ticketRepository, never()).save(any());
             verify(notificationService, never()).cancelPendingNotifications(any());
         }
+
+        @Test
+        @DisplayName("ticket de un día anterior → debe buscarse fuera de la ventana y completarse")
+        void completeTicket_diaAnterior_debeBuscarSinVentana() {
+            // Given
+            Ticket ticket = ticketWaiting()
+                .serviceDay(LocalDate.now().minusDays(3))
+                .build();
+            when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+
+            // When
+            queueManagementService.completeTicket(1L);
+
+            // Then
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.COMPLETADO);
+            verify(ticketRepository).findByIdAndServiceDayBetween(1L, LocalDate.now(), LocalDate.now());
+            verify(ticketRepository).save(ticket);
+        }
     }
 
     @Nested
-    @DisplayName("processQueues()")
-    class ProcessQueues {
+    @DisplayName("findActivePartitions()")
+    class FindActivePartitions {
 
         @Test
-        @DisplayName("debe procesar todas las colas")
-        void processQueues_debeProcesarTodasLasColas() {
+        @DisplayName("debe retornar las colas con tickets activos")
+        void findActivePartitions_debeConsultarEstadosActivos() {
             // Given
-            when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any()))
-                .thenReturn(Collections.emptyList());
+            List<QueueKey> partitions = List.of(
+                new QueueKey("Sucursal Centro", QueueType.CAJA), new QueueKey("Sucursal Norte", QueueType.CAJA));
+            when(ticketRepository.findQueueKeysByStatusIn(
+                TicketStatus.getActiveStatuses(), LocalDate.now(), LocalDate.now())).thenReturn(partitions);
 
             // When
-            queueManagementService.processQueues();
+            List<QueueKey> result = queueManagementService.findActivePartitions();
 
             // Then
-            verify(ticketRepository, times(QueueType.values().length))
-                .findByQueueTypeAndStatusInOrderByCreatedAtAsc(any(), any());
+            assertThat(result).isEqualTo(partitions);
         }
     }
-}
\ No newline at end of file
+}
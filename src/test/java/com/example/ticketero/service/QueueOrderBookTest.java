@@ -0,0 +1,130 @@
+package com.example.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("QueueOrderBook - Unit Tests")
+class QueueOrderBookTest {
+
+    @Nested
+    @DisplayName("positionOf()")
+    class PositionOf {
+
+        @Test
+        @DisplayName("debe respetar el orden de llegada")
+        void positionOf_debeRespetarOrdenDeLlegada() {
+            // Given
+            QueueOrderBook book = new QueueOrderBook();
+            book.add(10L);
+            book.add(20L);
+            book.add(30L);
+
+            // Then
+            assertThat(book.positionOf(10L)).hasValue(1);
+            assertThat(book.positionOf(20L)).hasValue(2);
+            assertThat(book.positionOf(30L)).hasValue(3);
+        }
+
+        @Test
+        @DisplayName("al quitar un ticket → los siguientes avanzan una posición")
+        void positionOf_alQuitar_losSiguientesAvanzan() {
+            // Given
+            QueueOrderBook book = new QueueOrderBook();
+            book.add(10L);
+            book.add(20L);
+            book.add(30L);
+
+            // When
+            boolean removed = book.remove(10L);
+
+            // Then
+            assertThat(removed).isTrue();
+            assertThat(book.positionOf(10L)).isEmpty();
+            assertThat(book.positionOf(20L)).hasValue(1);
+            assertThat(book.positionOf(30L)).hasValue(2);
+            assertThat(book.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("ticket duplicado → no debe cambiar su posición")
+        void add_duplicado_noDebeCambiarPosicion() {
+            // Given
+            QueueOrderBook book = new QueueOrderBook();
+            book.add(10L);
+            book.add(20L);
+
+            // When
+            book.add(10L);
+
+            // Then
+            assertThat(book.positionOf(10L)).hasValue(1);
+            assertThat(book.size()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("head()")
+    class Head {
+
+        @Test
+        @DisplayName("debe retornar los primeros N en orden")
+        void head_debeRetornarPrimerosEnOrden() {
+            // Given
+            QueueOrderBook book = new QueueOrderBook();
+            for (long id = 1; id <= 5; id++) {
+                book.add(id);
+            }
+            book.remove(2L);
+
+            // Then
+            assertThat(book.head(3)).containsExactly(1L, 3L, 4L);
+            assertThat(book.head(10)).containsExactly(1L, 3L, 4L, 5L);
+        }
+
+        @Test
+        @DisplayName("libro vacío → debe retornar lista vacía")
+        void head_libroVacio_debeRetornarListaVacia() {
+            assertThat(new QueueOrderBook().head(3)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("compactación")
+    class Compaction {
+
+        @Test
+        @DisplayName("con altas y bajas aleatorias → debe coincidir con una lista ordenada")
+        void operacionesAleatorias_debenCoincidirConLista() {
+            // Given
+            Random random = new Random(42);
+            QueueOrderBook book = new QueueOrderBook();
+            List<Long> expected = new ArrayList<>();
+            long nextId = 1;
+
+            // When
+            for (int i = 0; i < 20_000; i++) {
+                if (expected.isEmpty() || random.nextInt(3) > 0) {
+                    book.add(nextId);
+                    expected.add(nextId++);
+                } else {
+                    Long removed = expected.remove(random.nextInt(expected.size()));
+                    book.remove(removed);
+                }
+            }
+
+            // Then
+            assertThat(book.size()).isEqualTo(expected.size());
+            assertThat(book.head(expected.size())).containsExactlyElementsOf(expected);
+            for (int i = 0; i < expected.size(); i += 97) {
+                assertThat(book.positionOf(expected.get(i))).hasValue(i + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.enums.QueueType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("QueuePartitionExecutor - Unit Tests")
+class QueuePartitionExecutorTest {
+
+    private static final QueueKey CAJA_CENTRO = new QueueKey("Centro", QueueType.CAJA);
+    private static final QueueKey CAJA_NORTE = new QueueKey("Norte", QueueType.CAJA);
+    private static final QueueKey GERENCIA_CENTRO = new QueueKey("Centro", QueueType.GERENCIA);
+
+    private QueueManagementService queueManagementService;
+    private SimpleMeterRegistry meterRegistry;
+    private QueuePartitionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        queueManagementService = mock(QueueManagementService.class);
+        QueueEngine queueEngine = mock(QueueEngine.class);
+        when(queueEngine.name()).thenReturn("jpa");
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new QueuePartitionExecutor(queueManagementService, queueEngine, meterRegistry);
+        ReflectionTestUtils.setField(executor, "parallelism", 2);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    @Nested
+    @DisplayName("submit()")
+    class Submit {
+
+        @Test
+        @DisplayName("sucursal lenta → las demás deben terminar sin esperarla")
+        void submit_sucursalLenta_noDebeRetenerALasDemas() throws Exception {
+            // Given: Centro queda bloqueada hasta el final del test
+            CountDownLatch release = new CountDownLatch(1);
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenAnswer(invocation -> {
+                release.await();
+                return List.of();
+            });
+            when(queueManagementService.processPartition(CAJA_NORTE)).thenReturn(List.of(7L));
+
+            // When
+            CompletableFuture<List<Long>> slow = executor.submit(CAJA_CENTRO).orElseThrow();
+            CompletableFuture<List<Long>> fast = executor.submit(CAJA_NORTE).orElseThrow();
+
+            // Then
+            assertThat(fast.get(1, TimeUnit.SECONDS)).containsExactly(7L);
+            assertThat(slow).isNotDone();
+            release.countDown();
+            slow.get(1, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("partición en curso → no debe encolarse de nuevo hasta terminar")
+        void submit_enCurso_debeRechazar() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenAnswer(invocation -> {
+                release.await();
+                return List.of();
+            });
+            CompletableFuture<List<Long>> running = executor.submit(CAJA_CENTRO).orElseThrow();
+
+            // When
+            Optional<CompletableFuture<List<Long>>> duplicate = executor.submit(CAJA_CENTRO);
+            release.countDown();
+            running.get(1, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(duplicate).isEmpty();
+            assertThat(executor.submit(CAJA_CENTRO)).isPresent();
+        }
+    }
+
+    @Nested
+    @DisplayName("awaitInFlight()")
+    class AwaitInFlight {
+
+        @Test
+        @DisplayName("partición en curso → debe retornar solo cuando termine")
+        void awaitInFlight_enCurso_debeEsperar() throws Exception {
+            // Given
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenAnswer(invocation -> {
+                started.countDown();
+                release.await();
+                return List.of();
+            });
+            CompletableFuture<List<Long>> slow = executor.submit(CAJA_CENTRO).orElseThrow();
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            CompletableFuture<Void> waiting = CompletableFuture.runAsync(executor::awaitInFlight);
+
+            // Then
+            Thread.sleep(50);
+            assertThat(waiting).isNotDone();
+            release.countDown();
+            waiting.get(1, TimeUnit.SECONDS);
+            assertThat(slow).isDone();
+        }
+
+        @Test
+        @DisplayName("partición con error → no debe propagarlo")
+        void awaitInFlight_conError_noDebePropagar() {
+            // Given
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenThrow(new RuntimeException("DB error"));
+            executor.submit(CAJA_CENTRO);
+
+            // When / Then
+            assertThatCode(executor::awaitInFlight).doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    @DisplayName("processQueues()")
+    class ProcessQueues {
+
+        @Test
+        @DisplayName("debe procesar cada cola activa y repartir asesores al final")
+        void processQueues_debeProcesarTodasYRepartir() {
+            // Given
+            when(queueManagementService.findActivePartitions())
+                .thenReturn(List.of(CAJA_CENTRO, CAJA_NORTE, GERENCIA_CENTRO));
+            when(queueManagementService.processPartition(any())).thenReturn(List.of());
+
+            // When
+            int processed = executor.processQueues();
+
+            // Then
+            assertThat(processed).isEqualTo(3);
+            InOrder inOrder = inOrder(queueManagementService);
+            inOrder.verify(queueManagementService, times(3)).processPartition(any());
+            inOrder.verify(queueManagementService).dispatchAdvisors();
+            assertThat(meterRegistry.get("ticketero.queue.cycle").tag("engine", "jpa").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("ticketero.queue.partition").timer().count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("error en una cola → debe seguir con las demás y repartir")
+        void processQueues_conError_debeContinuar() {
+            // Given
+            when(queueManagementService.findActivePartitions()).thenReturn(List.of(CAJA_CENTRO, CAJA_NORTE));
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenThrow(new RuntimeException("DB error"));
+            when(queueManagementService.processPartition(CAJA_NORTE)).thenReturn(List.of());
+
+            // When
+            int processed = executor.processQueues();
+
+            // Then
+            assertThat(processed).isEqualTo(1);
+            verify(queueManagementService).processPartition(CAJA_NORTE);
+            verify(queueManagementService).dispatchAdvisors();
+        }
+
+        @Test
+        @DisplayName("partición en curso de antes del ciclo → debe repartir después de que termine")
+        void processQueues_particionPrevia_debeRepartirAlTerminar() throws Exception {
+            // Given: Centro la entregó otro llamador y sigue en curso
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(1);
+            when(queueManagementService.processPartition(CAJA_CENTRO)).thenAnswer(invocation -> {
+                started.countDown();
+                release.await();
+                finished.countDown();
+                return List.of();
+            });
+            when(queueManagementService.findActivePartitions()).thenReturn(List.of(CAJA_CENTRO));
+            executor.submit(CAJA_CENTRO);
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+            doAnswer(invocation -> {
+                assertThat(finished.getCount()).isZero();
+                return null;
+            }).when(queueManagementService).dispatchAdvisors();
+
+            // When
+            CompletableFuture<Integer> cycle = CompletableFuture.supplyAsync(executor::processQueues);
+            Thread.sleep(50);
+            verify(queueManagementService, never()).dispatchAdvisors();
+            release.countDown();
+
+            // Then
+            assertThat(cycle.get(1, TimeUnit.SECONDS)).isZero();
+            verify(queueManagementService).dispatchAdvisors();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SqlQueueEngine - Unit Tests")
+class SqlQueueEngineTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ServiceDayWindow serviceDayWindow = new ServiceDayWindow(1);
+
+    @InjectMocks
+    private SqlQueueEngine sqlQueueEngine;
+
+    @Nested
+    @DisplayName("processQueue()")
+    class ProcessQueue {
+
+        @Test
+        @DisplayName("debe recalcular posiciones y promover en sentencias por conjunto")
+        void processQueue_debeUsarSentenciasPorConjunto() {
+            // Given
+            Ticket promotedTicket = ticketWaiting().id(7L).status(TicketStatus.PROXIMO).build();
+
+            when(ticketRepository.promoteToProximo(eq("Sucursal Centro"), eq("CAJA"), eq(3), any(), any())).thenReturn(List.of(7L));
+            when(ticketRepository.findByIdInAndServiceDayBetween(eq(List.of(7L)), any(), any())).thenReturn(List.of(promotedTicket));
+
+            // When
+            List<Long> promoted = sqlQueueEngine.processQueue(new QueueKey("Sucursal Centro", QueueType.CAJA));
+
+            // Then
+            assertThat(promoted).containsExactly(7L);
+            verify(ticketRepository).recalculateQueuePositions(
+                "Sucursal Centro", "CAJA", QueueType.CAJA.getAvgTimeMinutes(), LocalDate.now(), LocalDate.now());
+            verify(notificationService).scheduleProximoTurnoNotification(promotedTicket);
+            verify(ticketRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("sin tickets para promover → no debe asignar ni notificar")
+        void processQueue_sinPromovidos_noDebeNotificar() {
+            // Given
+            when(ticketRepository.promoteToProximo(any(), any(), anyInt(), any(), any())).thenReturn(Collections.emptyList());
+
+            // When
+            List<Long> promoted = sqlQueueEngine.processQueue(new QueueKey("Sucursal Centro", QueueType.CAJA));
+
+            // Then
+            assertThat(promoted).isEmpty();
+            verify(ticketRepository, never()).findAllById(any());
+            verify(ticketRepository, never()).findByQueueTypeAndStatusOrderByCreatedAtAsc(any(), any());
+            verify(notificationService, never()).scheduleEsTuTurnoNotification(any());
+        }
+    }
+}
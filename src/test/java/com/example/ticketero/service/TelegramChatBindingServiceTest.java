@@ -0,0 +1,205 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.dto.TelegramUpdate;
+import com.example.ticketero.model.entity.TelegramChatBinding;
+import com.example.ticketero.repository.TelegramChatBindingRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramChatBindingService - Unit Tests")
+class TelegramChatBindingServiceTest {
+
+    @Mock
+    private TelegramChatBindingRepository telegramChatBindingRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TelegramChatBindingService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TelegramChatBindingService(telegramChatBindingRepository, ticketRepository, meterRegistry);
+        ReflectionTestUtils.setField(service, "maxSize", 1000L);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(service, "negativeTtlSeconds", 60L);
+        service.init();
+    }
+
+    @Nested
+    @DisplayName("resolveChatId()")
+    class ResolveChatId {
+
+        @Test
+        @DisplayName("teléfono registrado → debe consultar la BD una sola vez")
+        void resolveChatId_registrado_debeCachear() {
+            // Given
+            when(telegramChatBindingRepository.findChatIdByTelefono("56912345678"))
+                .thenReturn(Optional.of("987"));
+
+            // When
+            Optional<String> first = service.resolveChatId("+56912345678");
+            Optional<String> second = service.resolveChatId("+56 9 1234 5678");
+
+            // Then
+            assertThat(first).contains("987");
+            assertThat(second).contains("987");
+            verify(telegramChatBindingRepository, times(1)).findChatIdByTelefono(anyString());
+            assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("teléfono sin registro → debe cachear la ausencia")
+        void resolveChatId_sinRegistro_debeCachearNegativo() {
+            // Given
+            when(telegramChatBindingRepository.findChatIdByTelefono("56900000000"))
+                .thenReturn(Optional.empty());
+
+            // When
+            service.resolveChatId("+56900000000");
+            Optional<String> result = service.resolveChatId("+56900000000");
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(telegramChatBindingRepository, times(1)).findChatIdByTelefono(anyString());
+        }
+
+        @Test
+        @DisplayName("teléfono nulo → debe retornar vacío sin consultar")
+        void resolveChatId_nulo_debeRetornarVacio() {
+            // When
+            Optional<String> result = service.resolveChatId(null);
+
+            // Then
+            assertThat(result).isEmpty();
+            verifyNoInteractions(telegramChatBindingRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("bindFromUpdate()")
+    class BindFromUpdate {
+
+        @Test
+        @DisplayName("/start con código de referencia → debe registrar el teléfono del ticket")
+        void bindFromUpdate_start_debeRegistrar() {
+            // Given
+            UUID reference = UUID.randomUUID();
+            when(ticketRepository.findByCodigoReferencia(reference))
+                .thenReturn(Optional.of(ticketWaiting().codigoReferencia(reference).telefono("+56912345678").build()));
+            when(telegramChatBindingRepository.findChatIdByTelefono("56912345678"))
+                .thenReturn(Optional.empty());
+            when(telegramChatBindingRepository.findById("56912345678")).thenReturn(Optional.empty());
+            service.resolveChatId("+56912345678");
+
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, "/start " + reference, null));
+
+            // Then
+            assertThat(bound).isTrue();
+            ArgumentCaptor<TelegramChatBinding> captor = ArgumentCaptor.forClass(TelegramChatBinding.class);
+            verify(telegramChatBindingRepository).save(captor.capture());
+            assertThat(captor.getValue().getTelefono()).isEqualTo("56912345678");
+            assertThat(captor.getValue().getChatId()).isEqualTo("555");
+            assertThat(service.resolveChatId("+56912345678")).contains("555");
+            verify(telegramChatBindingRepository, times(1)).findChatIdByTelefono(anyString());
+        }
+
+        @Test
+        @DisplayName("contacto propio → debe registrar el teléfono del contacto")
+        void bindFromUpdate_contactoPropio_debeRegistrar() {
+            // Given
+            when(telegramChatBindingRepository.findById("56911111111")).thenReturn(Optional.empty());
+            TelegramUpdate.Contact contact = new TelegramUpdate.Contact("+56911111111", 777L);
+
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, null, contact));
+
+            // Then
+            assertThat(bound).isTrue();
+            verify(telegramChatBindingRepository).save(argThat(b -> b.getTelefono().equals("56911111111")));
+        }
+
+        @Test
+        @DisplayName("contacto de otro usuario → no debe registrar")
+        void bindFromUpdate_contactoAjeno_noDebeRegistrar() {
+            // Given
+            TelegramUpdate.Contact contact = new TelegramUpdate.Contact("+56911111111", 999L);
+
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, null, contact));
+
+            // Then
+            assertThat(bound).isFalse();
+            verify(telegramChatBindingRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("/start con teléfono → no debe registrar")
+        void bindFromUpdate_startConTelefono_noDebeRegistrar() {
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, "/start 56912345678", null));
+
+            // Then
+            assertThat(bound).isFalse();
+            verifyNoInteractions(ticketRepository);
+            verify(telegramChatBindingRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("/start con referencia inexistente → no debe registrar")
+        void bindFromUpdate_referenciaInexistente_noDebeRegistrar() {
+            // Given
+            UUID reference = UUID.randomUUID();
+            when(ticketRepository.findByCodigoReferencia(reference)).thenReturn(Optional.empty());
+
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, "/start " + reference, null));
+
+            // Then
+            assertThat(bound).isFalse();
+            verify(telegramChatBindingRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("/start sin parámetro → no debe registrar")
+        void bindFromUpdate_startSinTelefono_noDebeRegistrar() {
+            // When
+            boolean bound = service.bindFromUpdate(update(555L, 777L, "/start", null));
+
+            // Then
+            assertThat(bound).isFalse();
+            verifyNoInteractions(telegramChatBindingRepository);
+        }
+    }
+
+    private static TelegramUpdate update(Long chatId, Long userId, String text, TelegramUpdate.Contact contact) {
+        return new TelegramUpdate(1L, new TelegramUpdate.Message(
+            new TelegramUpdate.Chat(chatId),
+            new TelegramUpdate.User(userId),
+            text,
+            contact
+        ));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.WireMockConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TelegramClient - WireMock Tests")
+class TelegramClientTest {
+
+    private WireMockServer server;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        WireMockConfig.resetMocks(server);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Nested
+    @DisplayName("sendMessage()")
+    class SendMessage {
+
+        @Test
+        @DisplayName("respuesta 200 → debe retornar el message_id")
+        void sendMessage_ok_debeRetornarMessageId() {
+            // Given
+            TelegramClient client = client(8, 1000, 1000);
+
+            // When
+            TelegramClient.SendResult result = client.sendMessage("123", "*Hola*").join();
+
+            // Then
+            assertThat(result.sent()).isTrue();
+            assertThat(result.messageId()).isEqualTo("12345");
+            server.verify(postRequestedFor(urlEqualTo("/bottest-token/sendMessage"))
+                .withRequestBody(matchingJsonPath("$.chat_id", equalTo("123")))
+                .withRequestBody(matchingJsonPath("$.parse_mode", equalTo("Markdown"))));
+        }
+
+        @Test
+        @DisplayName("respuesta 500 → debe retornar error sin lanzar")
+        void sendMessage_error_debeRetornarFallido() {
+            // Given
+            WireMockConfig.simulateTelegramFailure(server);
+            TelegramClient client = client(8, 1000, 1000);
+
+            // When
+            TelegramClient.SendResult result = client.sendMessage("123", "texto").join();
+
+            // Then
+            assertThat(result.sent()).isFalse();
+            assertThat(result.error()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("respuesta 429 → debe esperar retry_after y reintentar")
+        void sendMessage_429_debeRespetarRetryAfter() {
+            // Given
+            WireMockConfig.simulateRateLimit(server, 1);
+            TelegramClient client = client(8, 1000, 1000);
+
+            // When
+            long startedAt = System.nanoTime();
+            TelegramClient.SendResult result = client.sendMessage("123", "texto").join();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            // Then
+            assertThat(result.sent()).isTrue();
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(1000);
+            server.verify(2, postRequestedFor(urlPathMatching("/bot.*/sendMessage")));
+            assertThat(meterRegistry.counter("ticketero.telegram.rate-limited").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("timeout de lectura → debe retornar error")
+        void sendMessage_timeout_debeRetornarFallido() {
+            // Given
+            WireMockConfig.simulateLatency(server, 1000);
+            TelegramClient client = client(8, 1000, 1000);
+            ReflectionTestUtils.setField(client, "readTimeoutMs", 200L);
+            client.init();
+
+            // When
+            TelegramClient.SendResult result = client.sendMessage("123", "texto").join();
+
+            // Then
+            assertThat(result.sent()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrencia y rate limit")
+    class Concurrency {
+
+        @Test
+        @DisplayName("con latencia de 200 ms → los envíos a distintos chats deben solaparse")
+        void sendMessage_conLatencia_debeSolaparEnvios() {
+            // Given
+            WireMockConfig.simulateLatency(server, 200);
+            TelegramClient client = client(32, 1000, 1000);
+
+            // When
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<TelegramClient.SendResult>> sends = IntStream.range(0, 20)
+                .mapToObj(i -> client.sendMessage("chat-" + i, "texto"))
+                .toList();
+            sends.forEach(CompletableFuture::join);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            // Then: 20 envíos secuenciales tardarían 4 s
+            assertThat(sends).allMatch(send -> send.join().sent());
+            assertThat(elapsedMillis).isLessThan(2000);
+        }
+
+        @Test
+        @DisplayName("max-in-flight → no debe haber más envíos simultáneos que el límite")
+        void sendMessage_maxInFlight_debeAcotarConcurrencia() {
+            // Given
+            WireMockConfig.simulateLatency(server, 200);
+            TelegramClient client = client(2, 1000, 1000);
+
+            // When
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<TelegramClient.SendResult>> sends = IntStream.range(0, 6)
+                .mapToObj(i -> client.sendMessage("chat-" + i, "texto"))
+                .toList();
+            sends.forEach(CompletableFuture::join);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            // Then: 6 envíos de a 2 → al menos 3 rondas de 200 ms
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(600);
+        }
+
+        @Test
+        @DisplayName("mismo chat → debe espaciar los envíos según el límite por chat")
+        void sendMessage_mismoChat_debeEspaciarEnvios() {
+            // Given: 10 mensajes/s por chat
+            TelegramClient client = client(32, 1000, 10);
+
+            // When
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<TelegramClient.SendResult>> sends = IntStream.range(0, 5)
+                .mapToObj(i -> client.sendMessage("123", "texto " + i))
+                .toList();
+            sends.forEach(CompletableFuture::join);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            // Then: el quinto sale 400 ms después del primero
+            assertThat(sends).allMatch(send -> send.join().sent());
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(400);
+        }
+    }
+
+    private TelegramClient client(int maxInFlight, double globalPerSecond, double perChatPerSecond) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+        TelegramClient client = new TelegramClient(httpClient, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(client, "botToken", "test-token");
+        ReflectionTestUtils.setField(client, "apiUrl", server.baseUrl() + "/bot");
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(client, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(client, "maxRetries", 3);
+        ReflectionTestUtils.setField(client, "globalPerSecond", globalPerSecond);
+        ReflectionTestUtils.setField(client, "globalBurst", (int) globalPerSecond);
+        ReflectionTestUtils.setField(client, "perChatPerSecond", perChatPerSecond);
+        client.init();
+        return client;
+    }
+}
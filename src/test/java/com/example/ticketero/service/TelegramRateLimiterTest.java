@@ -0,0 +1,105 @@
+package com.example.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TelegramRateLimiter - Unit Tests")
+class TelegramRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    @DisplayName("límite global → debe permitir la ráfaga y luego espaciar a la tasa configurada")
+    void reserveGlobal_debePermitirRafagaYLuegoEspaciar() {
+        // Given: 30/s con ráfaga de 30
+        TelegramRateLimiter limiter = new TelegramRateLimiter(30, 30, 1, clock::get);
+
+        // When
+        long lastBurstWait = 0;
+        for (int i = 0; i < 30; i++) {
+            lastBurstWait = limiter.reserveGlobal();
+        }
+        long afterBurstWait = limiter.reserveGlobal();
+
+        // Then
+        assertThat(lastBurstWait).isZero();
+        assertThat(afterBurstWait).isEqualTo(SECOND / 30);
+    }
+
+    @Test
+    @DisplayName("límite por chat → debe espaciar un mensaje por segundo por chat")
+    void reserveChat_mismoChat_debeEspaciarUnoPorSegundo() {
+        // Given
+        TelegramRateLimiter limiter = new TelegramRateLimiter(30, 30, 1, clock::get);
+
+        // When / Then
+        assertThat(limiter.reserveChat("123")).isZero();
+        assertThat(limiter.reserveChat("123")).isEqualTo(SECOND);
+        assertThat(limiter.reserveChat("123")).isEqualTo(2 * SECOND);
+        assertThat(limiter.reserveChat("456")).isZero();
+    }
+
+    @Test
+    @DisplayName("envío retrasado por su chat → debe ocupar la tasa global del momento en que sale")
+    void reserveGlobal_envioRetrasado_debeContarAlSalir() {
+        // Given: 2/s globales sin ráfaga, 1/s por chat
+        TelegramRateLimiter limiter = new TelegramRateLimiter(2, 1, 1, clock::get);
+        limiter.reserveChat("123");
+        limiter.reserveGlobal();
+        long delayed = limiter.reserveChat("123");
+
+        // When: mientras 123 espera su turno, 456 sale sin esperar; al llegar el turno
+        // de 123, otro envío acaba de tomar el token global
+        long other = limiter.reserveChat("456") + limiter.reserveGlobal();
+        clock.addAndGet(delayed);
+        limiter.reserveGlobal();
+        long delayedGlobal = limiter.reserveGlobal();
+
+        // Then
+        assertThat(delayed).isEqualTo(SECOND);
+        assertThat(other).isEqualTo(SECOND / 2);
+        assertThat(delayedGlobal).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    @DisplayName("penalize() de un chat que venía enviando seguido → solo ese chat debe esperar")
+    void penalize_chatActivo_soloDebeFrenarAlChat() {
+        // Given
+        TelegramRateLimiter limiter = new TelegramRateLimiter(30, 30, 1, clock::get);
+        limiter.reserveChat("123");
+        limiter.reserveChat("123");
+
+        // When
+        limiter.penalize("123", 5);
+
+        // Then
+        assertThat(limiter.reserveChat("123")).isEqualTo(5 * SECOND);
+        assertThat(limiter.reserveChat("456")).isZero();
+        assertThat(limiter.reserveGlobal()).isZero();
+    }
+
+    @Test
+    @DisplayName("penalize() de un chat sin envíos recientes → el límite es del bot y todos deben esperar")
+    void penalize_chatSinEnviosRecientes_debeFrenarElGlobal() {
+        // Given
+        TelegramRateLimiter limiter = new TelegramRateLimiter(30, 30, 1, clock::get);
+        limiter.reserveChat("123");
+
+        // When
+        limiter.penalize("123", 5);
+
+        // Then
+        assertThat(limiter.reserveChat("123")).isEqualTo(5 * SECOND);
+        assertThat(limiter.reserveChat("456")).isZero();
+        assertThat(limiter.reserveGlobal()).isEqualTo(5 * SECOND);
+        clock.addAndGet(5 * SECOND);
+        assertThat(limiter.reserveGlobal()).isEqualTo(SECOND / 30);
+    }
+}
@@ -3,18 +3,23 @@ package com.example.ticketero.service;
 import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.repository.PlantillaMensajeRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,7 +27,14 @@ import static org.mockito.Mockito.*;
 class TelegramServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private TelegramClient telegramClient;
+
+    @Mock
+    private TelegramChatBindingService telegramChatBindingService;
+
+    @Spy
+    private MessageTemplateRenderer messageTemplateRenderer =
+        new MessageTemplateRenderer(mock(PlantillaMensajeRepository.class));
 
     @InjectMocks
     private TelegramService telegramService;
@@ -48,6 +60,10 @@ class TelegramServiceTest {
                 .plantilla(MessageTemplate.TOTEM_ES_TU_TURNO)
                 .build();
 
+            when(telegramChatBindingService.resolveChatId("+56912345678")).thenReturn(Optional.of("56912345678"));
+            when(telegramClient.sendMessage(eq("56912345678"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new TelegramClient.SendResult(true, "12345", null)));
+
             // When
             boolean result = telegramService.sendMessage(mensaje);
 
@@ -55,7 +71,7 @@ class TelegramServiceTest {
             assertThat(result).isTrue();
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.ENVIADO);
             assertThat(mensaje.getFechaEnvio()).isNotNull();
-            assertThat(mensaje.getTelegramMessageId()).isNotNull();
+            assertThat(mensaje.getTelegramMessageId()).isEqualTo("12345");
         }
 
         @Test
@@ -75,7 +91,7 @@ class TelegramServiceTest {
 
             // Then
             assertThat(result).isFalse();
-            verify(restTemplate, never()).postForObject(anyString(), any(), any());
+            verify(telegramClient, never()).sendMessage(anyString(), anyString());
         }
 
         @Test
@@ -91,6 +107,7 @@ class TelegramServiceTest {
             Mensaje mensaje = Mensaje.builder()
                 .ticket(ticket)
                 .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+                .intentos(0)
                 .build();
 
             // When
@@ -98,6 +115,32 @@ class TelegramServiceTest {
 
             // Then
             assertThat(result).isFalse();
+            assertThat(mensaje.getIntentos()).isEqualTo(1);
+            verify(telegramClient, never()).sendMessage(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("teléfono sin chat registrado → debe contar el intento como fallido")
+        void sendMessage_sinChatRegistrado_debeContarIntento() {
+            // Given
+            ReflectionTestUtils.setField(telegramService, "botToken", "test-token");
+
+            Mensaje mensaje = Mensaje.builder()
+                .ticket(ticketWaiting().telefono("+56900000000").build())
+                .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+                .intentos(0)
+                .build();
+
+            when(telegramChatBindingService.resolveChatId("+56900000000")).thenReturn(Optional.empty());
+
+            // When
+            boolean result = telegramService.sendMessage(mensaje);
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+            assertThat(mensaje.getIntentos()).isEqualTo(1);
+            verify(telegramClient, never()).sendMessage(anyString(), anyString());
         }
 
         @Test
@@ -118,13 +161,44 @@ class TelegramServiceTest {
                 .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
                 .build();
 
+            when(telegramChatBindingService.resolveChatId("+56912345678")).thenReturn(Optional.of("56912345678"));
+            when(telegramClient.sendMessage(anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new TelegramClient.SendResult(true, "1", null)));
+
             // When
             boolean result = telegramService.sendMessage(mensaje);
 
             // Then
             assertThat(result).isTrue();
-            // El mensaje se construye internamente, verificamos que se procesó
+            verify(telegramClient).sendMessage(eq("56912345678"), argThat(text ->
+                text.contains("Ticket Creado") && text.contains("C001") && text.contains("Posición: 3")));
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.ENVIADO);
         }
+
+        @Test
+        @DisplayName("con error de Telegram → debe marcar fallido e incrementar intentos")
+        void sendMessage_conErrorTelegram_debeMarcarFallido() {
+            // Given
+            ReflectionTestUtils.setField(telegramService, "botToken", "test-token");
+
+            Mensaje mensaje = Mensaje.builder()
+                .ticket(ticketWaiting().telefono("+56912345678").build())
+                .plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO)
+                .intentos(0)
+                .build();
+
+            when(telegramChatBindingService.resolveChatId("+56912345678")).thenReturn(Optional.of("56912345678"));
+            when(telegramClient.sendMessage(anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(
+                    new TelegramClient.SendResult(false, null, "Bad Request: chat not found")));
+
+            // When
+            boolean result = telegramService.sendMessage(mensaje);
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(mensaje.getEstadoEnvio()).isEqualTo(Mensaje.EstadoEnvio.FALLIDO);
+            assertThat(mensaje.getIntentos()).isEqualTo(1);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.exception.IngestionOverloadedException;
+import com.example.ticketero.model.dto.TicketCreateRequest;
+import com.example.ticketero.model.dto.TicketResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketIngestionPipeline - Unit Tests")
+class TicketIngestionPipelineTest {
+
+    @Mock
+    private TicketService ticketService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TicketIngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Nested
+    @DisplayName("modo direct")
+    class ModoDirect {
+
+        @Test
+        @DisplayName("debe crear el ticket en su propia transacción")
+        void create_modoDirect_debeDelegarEnTicketService() {
+            // Given
+            pipeline = pipeline("direct", 64, 5);
+            TicketCreateRequest request = validTicketRequest();
+            TicketResponse response = new TicketResponse(ticketWaiting().build());
+            when(ticketService.create(request)).thenReturn(response);
+
+            // When
+            TicketResponse result = pipeline.create(request);
+
+            // Then
+            assertThat(result).isSameAs(response);
+            verify(ticketService, never()).createBatch(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("modo group-commit")
+    class ModoGroupCommit {
+
+        @Test
+        @DisplayName("debe confirmar varias solicitudes en un solo batch")
+        void submit_variasSolicitudes_debeAgruparEnUnBatch() throws Exception {
+            // Given: ventana amplia para que todas entren al mismo batch
+            pipeline = pipeline("group-commit", 64, 200);
+            when(ticketService.createBatch(anyList())).thenAnswer(invocation -> {
+                List<TicketCreateRequest> requests = invocation.getArgument(0);
+                return requests.stream()
+                    .map(request -> new TicketResponse(ticketWaiting().nationalId(request.nationalId()).build()))
+                    .toList();
+            });
+
+            // When
+            List<CompletableFuture<TicketResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(pipeline.submit(new TicketCreateRequest(
+                    "1000000" + i, "+56912345678", "Sucursal Centro", validTicketRequest().queueType())));
+            }
+
+            // Then
+            for (int i = 0; i < 5; i++) {
+                assertThat(futures.get(i).get(5, TimeUnit.SECONDS).nationalId()).isEqualTo("1000000" + i);
+            }
+            verify(ticketService, times(1)).createBatch(argThat(requests -> requests.size() == 5));
+            assertThat(meterRegistry.summary("ticketero.ingestion.batch.size").totalAmount()).isEqualTo(5.0);
+            assertThat(meterRegistry.timer("ticketero.ingestion.queue.delay").count()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("debe respetar el tamaño máximo de batch")
+        void submit_masQueBatchSize_debeDividirEnVariosBatches() throws Exception {
+            // Given
+            pipeline = pipeline("group-commit", 2, 200);
+            when(ticketService.createBatch(anyList())).thenAnswer(invocation -> {
+                List<TicketCreateRequest> requests = invocation.getArgument(0);
+                return requests.stream().map(request -> new TicketResponse(ticketWaiting().build())).toList();
+            });
+
+            // When
+            List<CompletableFuture<TicketResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(pipeline.submit(validTicketRequest()));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            verify(ticketService, atLeast(3)).createBatch(argThat(requests -> requests.size() <= 2));
+        }
+
+        @Test
+        @DisplayName("con batch fallido → debe reintentar cada solicitud por separado")
+        void writeBatch_batchFallido_debeReintentarIndividualmente() throws Exception {
+            // Given
+            pipeline = pipeline("group-commit", 64, 200);
+            TicketCreateRequest valida = validTicketRequest();
+            TicketCreateRequest invalida = ticketRequestSinTelefono();
+            TicketResponse response = new TicketResponse(ticketWaiting().build());
+
+            when(ticketService.createBatch(anyList())).thenThrow(new IllegalStateException("constraint"));
+            when(ticketService.create(valida)).thenReturn(response);
+            when(ticketService.create(invalida)).thenThrow(new IllegalArgumentException("inválida"));
+
+            // When
+            CompletableFuture<TicketResponse> ok = pipeline.submit(valida);
+            CompletableFuture<TicketResponse> failed = pipeline.submit(invalida);
+
+            // Then
+            assertThat(ok.get(5, TimeUnit.SECONDS)).isSameAs(response);
+            assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("con buffer lleno → debe rechazar la solicitud")
+        void submit_bufferLleno_debeRechazar() {
+            // Given: escritor detenido para que el buffer no se vacíe
+            pipeline = pipeline("group-commit", 64, 5);
+            ReflectionTestUtils.setField(pipeline, "running", false);
+
+            // When / Then
+            assertThatThrownBy(() -> pipeline.submit(validTicketRequest()))
+                .isInstanceOf(IngestionOverloadedException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("espera acotada y fin del escritor")
+    class FinDelEscritor {
+
+        @Test
+        @DisplayName("solicitud aún en el buffer al vencer la espera → debe abandonarse y no persistirse")
+        void create_timeoutSinReclamar_debeAbandonarSinPersistir() throws Exception {
+            // Given: el escritor queda ocupado con un primer batch que no confirma
+            pipeline = pipeline("group-commit", 1, 5);
+            ReflectionTestUtils.setField(pipeline, "requestTimeoutMs", 50L);
+            CountDownLatch writing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            TicketCreateRequest primera = validTicketRequest();
+            TicketCreateRequest abandonada = new TicketCreateRequest(
+                "99999999", "+56912345678", "Sucursal Centro", primera.queueType());
+            when(ticketService.createBatch(anyList())).thenAnswer(invocation -> {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(new TicketResponse(ticketWaiting().build()));
+            });
+            CompletableFuture<TicketResponse> first = pipeline.submit(primera);
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            assertThatThrownBy(() -> pipeline.create(abandonada))
+                .isInstanceOf(IngestionOverloadedException.class)
+                .hasMessageContaining("timed out");
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            pipeline.stop();
+
+            // Then
+            verify(ticketService, never()).createBatch(argThat(requests -> requests.contains(abandonada)));
+            verify(ticketService, never()).create(abandonada);
+        }
+
+        @Test
+        @DisplayName("solicitud ya reclamada por el escritor al vencer la espera → debe esperar su resultado")
+        void create_timeoutYaReclamada_debeEsperarResultado() {
+            // Given: el batch confirma después del timeout del llamador
+            pipeline = pipeline("group-commit", 1, 5);
+            ReflectionTestUtils.setField(pipeline, "requestTimeoutMs", 50L);
+            TicketResponse response = new TicketResponse(ticketWaiting().build());
+            when(ticketService.createBatch(anyList())).thenAnswer(invocation -> {
+                Thread.sleep(300);
+                return List.of(response);
+            });
+
+            // When
+            TicketResponse result = pipeline.create(validTicketRequest());
+
+            // Then
+            assertThat(result).isSameAs(response);
+        }
+
+        @Test
+        @DisplayName("escritor que muere por un Error → debe fallar lo pendiente y rechazar nuevas solicitudes")
+        void drainLoop_errorDelEscritor_debeFallarPendientesYRechazar() {
+            // Given
+            pipeline = pipeline("group-commit", 64, 5);
+            when(ticketService.createBatch(anyList())).thenThrow(new StackOverflowError());
+
+            // When
+            CompletableFuture<TicketResponse> pending = pipeline.submit(validTicketRequest());
+
+            // Then
+            assertThatThrownBy(() -> pending.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IngestionOverloadedException.class);
+            assertThatThrownBy(() -> pipeline.submit(validTicketRequest()))
+                .isInstanceOf(IngestionOverloadedException.class);
+        }
+    }
+
+    private TicketIngestionPipeline pipeline(String mode, int batchSize, long maxDelayMs) {
+        TicketIngestionPipeline created = new TicketIngestionPipeline(ticketService, meterRegistry);
+        ReflectionTestUtils.setField(created, "mode", mode);
+        ReflectionTestUtils.setField(created, "batchSize", batchSize);
+        ReflectionTestUtils.setField(created, "maxDelayMs", maxDelayMs);
+        ReflectionTestUtils.setField(created, "bufferCapacity", 16);
+        ReflectionTestUtils.setField(created, "requestTimeoutMs", 5000L);
+        created.start();
+        return created;
+    }
+}
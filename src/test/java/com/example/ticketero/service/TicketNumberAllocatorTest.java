@@ -0,0 +1,152 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketNumberBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TicketNumberAllocator - Unit Tests")
+class TicketNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 50;
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    // Simula la fila ticket_number_block compartida por todas las instancias
+    private final Map<String, AtomicInteger> blockTable = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        blockTable.clear();
+    }
+
+    @Nested
+    @DisplayName("nextNumber()")
+    class NextNumber {
+
+        @Test
+        @DisplayName("debe entregar números consecutivos desde 1 con una sola reserva por bloque")
+        void nextNumber_debeEntregarConsecutivosPorBloque() {
+            // Given
+            TicketNumberBlockRepository repository = sharedRepository(0);
+            TicketNumberAllocator allocator = allocator(repository);
+
+            // When
+            List<Integer> numbers = new ArrayList<>();
+            for (int i = 0; i < BLOCK_SIZE + 1; i++) {
+                numbers.add(allocator.nextNumber("Sucursal Centro", QueueType.CAJA, TODAY));
+            }
+
+            // Then
+            assertThat(numbers.get(0)).isEqualTo(1);
+            assertThat(numbers).doesNotHaveDuplicates().isSorted();
+            assertThat(numbers.get(BLOCK_SIZE)).isEqualTo(BLOCK_SIZE + 1);
+            verify(repository, times(2)).reserveBlock("Sucursal Centro", "CAJA", TODAY, BLOCK_SIZE);
+        }
+
+        @Test
+        @DisplayName("cada sucursal, cola y día debe tener su propia secuencia")
+        void nextNumber_debeSepararPorSucursalColaYDia() {
+            // Given
+            TicketNumberAllocator allocator = allocator(sharedRepository(0));
+
+            // When / Then
+            assertThat(allocator.nextNumber("Sucursal Centro", QueueType.CAJA, TODAY)).isEqualTo(1);
+            assertThat(allocator.nextNumber("Sucursal Norte", QueueType.CAJA, TODAY)).isEqualTo(1);
+            assertThat(allocator.nextNumber("Sucursal Centro", QueueType.EMPRESAS, TODAY)).isEqualTo(1);
+            assertThat(allocator.nextNumber("Sucursal Centro", QueueType.CAJA, TODAY)).isEqualTo(2);
+            assertThat(allocator.nextNumber("Sucursal Centro", QueueType.CAJA, TODAY.plusDays(1))).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("varias instancias con muchos hilos → no debe repetir números")
+        void nextNumber_variasInstanciasConcurrentes_noDebeRepetir() throws Exception {
+            // Given: 4 instancias de la aplicación compartiendo la misma tabla de bloques,
+            // con ~1 ms de latencia por reserva
+            List<TicketNumberAllocator> instances = List.of(
+                allocator(sharedRepository(1)), allocator(sharedRepository(1)),
+                allocator(sharedRepository(1)), allocator(sharedRepository(1))
+            );
+            List<String> branches = List.of("Sucursal Centro", "Sucursal Norte");
+            int threads = 16;
+            int perThread = 5_000;
+
+            Map<String, Set<Integer>> issued = new ConcurrentHashMap<>();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < threads; t++) {
+                TicketNumberAllocator allocator = instances.get(t % instances.size());
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        String branch = branches.get((offset + i) % branches.size());
+                        QueueType queueType = QueueType.values()[(offset + i) % QueueType.values().length];
+                        int number = allocator.nextNumber(branch, queueType, TODAY);
+                        issued.computeIfAbsent(branch + "|" + queueType, k -> ConcurrentHashMap.newKeySet())
+                            .add(number);
+                    }
+                    return null;
+                }));
+            }
+
+            // When
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+            executor.shutdown();
+
+            // Then: ningún número se entregó dos veces para la misma sucursal y cola
+            int total = issued.values().stream().mapToInt(Set::size).sum();
+            assertThat(total).isEqualTo(threads * perThread);
+            assertThat(total / seconds).isGreaterThan(5_000);
+        }
+    }
+
+    private TicketNumberBlockRepository sharedRepository(long latencyMillis) {
+        TicketNumberBlockRepository repository = mock(TicketNumberBlockRepository.class);
+        when(repository.reserveBlock(anyString(), anyString(), any(LocalDate.class), anyInt()))
+            .thenAnswer(invocation -> {
+                if (latencyMillis > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+                }
+                String key = invocation.getArgument(0) + "|" + invocation.getArgument(1)
+                    + "|" + invocation.getArgument(2);
+                int blockSize = invocation.getArgument(3);
+                // INSERT ... ON CONFLICT DO UPDATE SET next_value = next_value + :blockSize RETURNING next_value
+                return blockTable.computeIfAbsent(key, k -> new AtomicInteger(1)).addAndGet(blockSize);
+            });
+        return repository;
+    }
+
+    private TicketNumberAllocator allocator(TicketNumberBlockRepository repository) {
+        TicketNumberAllocator allocator = new TicketNumberAllocator(repository);
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        return allocator;
+    }
+}
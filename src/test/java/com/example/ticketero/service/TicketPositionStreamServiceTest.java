@@ -0,0 +1,267 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.QueueKey;
+import com.example.ticketero.model.TicketReadModel;
+import com.example.ticketero.model.dto.QueuePositionResponse;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketPositionStreamService - Unit Tests")
+class TicketPositionStreamServiceTest {
+
+    private static final String BRANCH = "Sucursal Centro";
+    private static final LocalDate SERVICE_DAY = LocalDate.of(2024, 1, 15);
+    private static final QueueKey CAJA = new QueueKey(BRANCH, QueueType.CAJA);
+
+    @Mock
+    private TicketReadCache ticketReadCache;
+
+    @Mock
+    private TicketService ticketService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketPositionStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TicketPositionStreamService(ticketReadCache, ticketService, meterRegistry);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "minPositionDelta", 2);
+        ReflectionTestUtils.setField(service, "minWaitDeltaMinutes", 10);
+        ReflectionTestUtils.setField(service, "sendThreads", 1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Nested
+    @DisplayName("subscribe()")
+    class Subscribe {
+
+        @Test
+        @DisplayName("ticket activo → debe registrar la suscripción y enviar la posición actual")
+        void subscribe_ticketActivo_debeRegistrar() {
+            // Given
+            TicketReadModel ticket = readModel(ticketWaiting().positionInQueue(4).estimatedWaitMinutes(20).build());
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "C001")).thenReturn(Optional.of(ticket));
+            when(ticketService.buildPositionResponse(ticket)).thenReturn(waiting(4, 20));
+
+            // When
+            Optional<SseEmitter> emitter = service.subscribe(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(emitter).isPresent();
+            assertThat(service.subscriberCount()).isEqualTo(1);
+            assertThat(pushed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("ticket inexistente → debe retornar vacío")
+        void subscribe_ticketInexistente_debeRetornarVacio() {
+            // Given
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "X99")).thenReturn(Optional.empty());
+
+            // When
+            Optional<SseEmitter> emitter = service.subscribe(BRANCH, SERVICE_DAY, "X99");
+
+            // Then
+            assertThat(emitter).isEmpty();
+            assertThat(service.subscriberCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("ticket ya completado → debe enviar el estado final sin registrar")
+        void subscribe_ticketCompletado_noDebeRegistrar() {
+            // Given
+            TicketReadModel ticket = readModel(ticketCompleted().build());
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "C001")).thenReturn(Optional.of(ticket));
+            when(ticketService.buildPositionResponse(ticket)).thenReturn(
+                QueuePositionResponse.closed("C001", QueueType.CAJA, TicketStatus.COMPLETADO));
+
+            // When
+            Optional<SseEmitter> emitter = service.subscribe(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(emitter).isPresent();
+            assertThat(service.subscriberCount()).isZero();
+            assertThat(pushed()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Feed de cambios")
+    class ChangeFeed {
+
+        @Test
+        @DisplayName("ciclo de cola → debe consultar una sola vez para todos los suscriptores de la cola")
+        void onQueueProcessed_debeConsultarUnaVezPorCola() {
+            // Given: dos pantallas siguen el ticket 1 y una el ticket 2
+            service.open(1L, CAJA, waiting(5, 25));
+            service.open(1L, CAJA, waiting(5, 25));
+            service.open(2L, CAJA, waiting(8, 40));
+            when(ticketService.getPositions(argThat(ids -> ids.size() == 2))).thenReturn(Map.of(
+                1L, waiting(3, 15),
+                2L, waiting(8, 40)
+            ));
+
+            // When
+            service.refresh(CAJA);
+
+            // Then: ticket 1 avanzó 2 posiciones (2 envíos), ticket 2 no cambió
+            verify(ticketService, times(1)).getPositions(anyCollection());
+            assertThat(pushed()).isEqualTo(3 + 2);
+            assertThat(suppressed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("ciclo de un tipo sin suscriptores → no debe consultar")
+        void onQueueProcessed_sinSuscriptores_noDebeConsultar() {
+            // Given
+            service.open(1L, CAJA, waiting(5, 25));
+
+            // When
+            service.onQueueProcessed(new QueueProcessedEvent("Sucursal Centro", QueueType.GERENCIA));
+
+            // Then
+            verifyNoInteractions(ticketService);
+        }
+
+        @Test
+        @DisplayName("ciclo del mismo tipo en otra sucursal → no debe consultar")
+        void onQueueProcessed_otraSucursal_noDebeConsultar() {
+            // Given
+            service.open(1L, CAJA, waiting(5, 25));
+
+            // When
+            service.onQueueProcessed(new QueueProcessedEvent("Sucursal Norte", QueueType.CAJA));
+
+            // Then
+            verifyNoInteractions(ticketService);
+        }
+
+        @Test
+        @DisplayName("ciclo de cola → debe releer solo los tickets de esa sucursal")
+        void refresh_debeConsultarSoloLaSucursal() {
+            // Given
+            service.open(1L, CAJA, waiting(5, 25));
+            service.open(2L, new QueueKey("Sucursal Norte", QueueType.CAJA), waiting(8, 40));
+            when(ticketService.getPositions(anyCollection())).thenReturn(Map.of(1L, waiting(3, 15)));
+
+            // When
+            service.refresh(CAJA);
+
+            // Then
+            verify(ticketService).getPositions(argThat(ids -> ids.size() == 1 && ids.contains(1L)));
+        }
+
+        @Test
+        @DisplayName("ciclo de cola → debe refrescar en el hilo de envío")
+        void onQueueProcessed_debeRefrescarAsincrono() {
+            // Given
+            service.open(1L, CAJA, waiting(5, 25));
+            when(ticketService.getPositions(anyCollection())).thenReturn(Map.of(1L, waiting(1, 5)));
+
+            // When
+            service.onQueueProcessed(new QueueProcessedEvent("Sucursal Centro", QueueType.CAJA));
+
+            // Then
+            verify(ticketService, timeout(1000)).getPositions(anyCollection());
+        }
+
+        @Test
+        @DisplayName("ticket completado → debe enviar el estado final y cerrar el stream")
+        void onTicketStateChanged_completado_debeCerrar() {
+            // Given
+            service.open(1L, CAJA, waiting(1, 5));
+            Ticket ticket = ticketCompleted().build();
+
+            // When
+            service.onTicketStateChanged(TicketStateChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+
+            // Then
+            await(() -> assertThat(service.subscriberCount()).isZero());
+            assertThat(pushed()).isEqualTo(2);
+            verifyNoInteractions(ticketReadCache, ticketService);
+        }
+    }
+
+    @Nested
+    @DisplayName("isSignificantChange()")
+    class SignificantChange {
+
+        @Test
+        @DisplayName("cambio de estado → siempre debe enviarse")
+        void isSignificantChange_estado_debeEnviar() {
+            assertThat(service.isSignificantChange(
+                waiting(1, 5), QueuePositionResponse.next("C001", QueueType.CAJA))).isTrue();
+        }
+
+        @Test
+        @DisplayName("avance bajo los umbrales → no debe enviarse")
+        void isSignificantChange_bajoUmbral_noDebeEnviar() {
+            assertThat(service.isSignificantChange(waiting(6, 30), waiting(5, 25))).isFalse();
+        }
+
+        @Test
+        @DisplayName("avance sobre el umbral de posición o de tiempo → debe enviarse")
+        void isSignificantChange_sobreUmbral_debeEnviar() {
+            assertThat(service.isSignificantChange(waiting(6, 30), waiting(4, 29))).isTrue();
+            assertThat(service.isSignificantChange(waiting(6, 30), waiting(6, 20))).isTrue();
+        }
+    }
+
+    private static QueuePositionResponse waiting(int position, int waitMinutes) {
+        return QueuePositionResponse.waiting("C001", QueueType.CAJA, position, waitMinutes);
+    }
+
+    private double pushed() {
+        return meterRegistry.counter("ticketero.position.stream.pushed").count();
+    }
+
+    private double suppressed() {
+        return meterRegistry.counter("ticketero.position.stream.suppressed").count();
+    }
+
+    private static void await(Runnable assertion) {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
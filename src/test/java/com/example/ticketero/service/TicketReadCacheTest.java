@@ -0,0 +1,378 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.TicketReadModel;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.QueueProcessedEvent;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
+import com.example.ticketero.repository.TicketHistoryRepository;
+import com.example.ticketero.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TicketReadCache - Unit Tests")
+class TicketReadCacheTest {
+
+    private static final String BRANCH = "Sucursal Centro";
+    private static final LocalDate SERVICE_DAY = LocalDate.of(2024, 1, 15);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+
+    private TicketRepository ticketRepository;
+    private TicketHistoryRepository ticketHistoryRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TicketReadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // stubOnly: el test de consistencia llama al repositorio miles de veces desde varios hilos
+        ticketRepository = mock(TicketRepository.class, withSettings().stubOnly());
+        ticketHistoryRepository = mock(TicketHistoryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TicketReadCache(ticketRepository, ticketHistoryRepository, meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    @Nested
+    @DisplayName("read-through")
+    class ReadThrough {
+
+        @Test
+        @DisplayName("segunda lectura sin cambios → debe servirse desde la caché")
+        void findByNumero_sinCambios_debeConsultarUnaVez() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            TicketReadModel ticket = readModel(ticketWaiting().numero("C001").build());
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenAnswer(invocation -> {
+                queries.incrementAndGet();
+                return Optional.of(ticket);
+            });
+
+            // When
+            Optional<TicketReadModel> first = cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+            Optional<TicketReadModel> second = cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(first).contains(ticket);
+            assertThat(second).contains(ticket);
+            assertThat(queries).hasValue(1);
+            assertThat(gets(TicketReadCache.BY_NUMERO, "hit")).isEqualTo(1);
+            assertThat(gets(TicketReadCache.BY_NUMERO, "miss")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("mismo número en otra sucursal u otro día → debe ser otro ticket")
+        void findByNumero_otraSucursalODia_noDebeCompartirEntrada() {
+            // Given
+            TicketReadModel centro = readModel(ticketWaiting().id(1L).numero("C05").build());
+            TicketReadModel norte = readModel(ticketWaiting().id(2L).numero("C05").branchOffice("Sucursal Norte").build());
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C05")).thenReturn(Optional.of(centro));
+            when(ticketRepository.findReadModelByNumero("Sucursal Norte", SERVICE_DAY, QueueType.CAJA, "C05")).thenReturn(Optional.of(norte));
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY.plusDays(1), QueueType.CAJA, "C05")).thenReturn(Optional.empty());
+
+            // When
+            cache.findByNumero(BRANCH, SERVICE_DAY, "C05");
+
+            // Then
+            assertThat(cache.findByNumero("Sucursal Norte", SERVICE_DAY, "C05")).contains(norte);
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY.plusDays(1), "C05")).isEmpty();
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY, "C05")).contains(centro);
+        }
+
+        @Test
+        @DisplayName("ticket inexistente → no debe quedar en caché")
+        void findByReference_inexistente_noDebeCachear() {
+            // Given
+            UUID codigo = UUID.randomUUID();
+            AtomicInteger queries = new AtomicInteger();
+            when(ticketRepository.findReadModelByCodigoReferencia(codigo)).thenAnswer(invocation -> {
+                queries.incrementAndGet();
+                return Optional.empty();
+            });
+
+            // When
+            cache.findByReference(codigo);
+            Optional<TicketReadModel> second = cache.findByReference(codigo);
+
+            // Then
+            assertThat(second).isEmpty();
+            assertThat(queries).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("número sin prefijo de cola conocido → debe retornar vacío sin consultar")
+        void findByNumero_prefijoDesconocido_noDebeConsultar() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            when(ticketRepository.findReadModelByNumero(any(), any(), any(), any())).thenAnswer(invocation -> {
+                queries.incrementAndGet();
+                return Optional.empty();
+            });
+
+            // When
+            Optional<TicketReadModel> result = cache.findByNumero(BRANCH, SERVICE_DAY, "X99");
+
+            // Then
+            assertThat(result).isEmpty();
+            assertThat(queries).hasValue(0);
+            verifyNoInteractions(ticketHistoryRepository);
+        }
+
+        @Test
+        @DisplayName("cambio confirmado en el mismo tipo de cola → debe releer")
+        void findByNumero_cambioMismoTipo_debeReleer() {
+            // Given
+            Ticket ticket = ticketWaiting().numero("C001").queueType(QueueType.CAJA).positionInQueue(5).build();
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001"))
+                .thenReturn(Optional.of(readModel(ticket)));
+            cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // When: otro ticket de CAJA se completa y las posiciones avanzan
+            ticket.setPositionInQueue(4);
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001"))
+                .thenReturn(Optional.of(readModel(ticket)));
+            Ticket other = ticketCompleted().id(2L).queueType(QueueType.CAJA).build();
+            cache.onTicketStateChanged(TicketStateChangedEvent.of(other, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY, "C001")).get()
+                .extracting(TicketReadModel::positionInQueue).isEqualTo(4);
+            assertThat(meterRegistry.counter("ticketero.ticket.cache.stale").count()).isEqualTo(1);
+            assertThat(gets(TicketReadCache.BY_NUMERO, "hit")).isZero();
+        }
+
+        @Test
+        @DisplayName("ciclo de otro tipo de cola → no debe invalidar")
+        void findByReference_cicloOtroTipo_noDebeInvalidar() {
+            // Given
+            UUID codigo = UUID.randomUUID();
+            AtomicInteger queries = new AtomicInteger();
+            TicketReadModel ticket = readModel(ticketWaiting().codigoReferencia(codigo).queueType(QueueType.CAJA).build());
+            when(ticketRepository.findReadModelByCodigoReferencia(codigo)).thenAnswer(invocation -> {
+                queries.incrementAndGet();
+                return Optional.of(ticket);
+            });
+            cache.findByReference(codigo);
+
+            // When
+            cache.onQueueProcessed(new QueueProcessedEvent("Sucursal Centro", QueueType.GERENCIA));
+
+            // Then
+            assertThat(cache.findByReference(codigo)).contains(ticket);
+            assertThat(queries).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("cambio del mismo tipo en otra sucursal → no debe invalidar")
+        void findByNumero_cambioOtraSucursal_noDebeInvalidar() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            TicketReadModel ticket = readModel(ticketWaiting().numero("C001").queueType(QueueType.CAJA).build());
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenAnswer(invocation -> {
+                queries.incrementAndGet();
+                return Optional.of(ticket);
+            });
+            cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // When: la CAJA de otra sucursal avanza
+            Ticket other = ticketCompleted().id(2L).queueType(QueueType.CAJA).branchOffice("Sucursal Norte").build();
+            cache.onTicketStateChanged(TicketStateChangedEvent.of(other, TicketStatus.ATENDIENDO));
+            cache.onQueueProcessed(new QueueProcessedEvent("Sucursal Norte", QueueType.CAJA));
+
+            // Then
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY, "C001")).contains(ticket);
+            assertThat(queries).hasValue(1);
+            assertThat(meterRegistry.counter("ticketero.ticket.cache.stale").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("cambio confirmado durante la carga → no debe servir la lectura anterior")
+        void findByNumero_cambioDuranteCarga_debeReleer() {
+            // Given: el ciclo de la cola se confirma mientras la primera consulta está en curso
+            Ticket ticket = ticketWaiting().numero("C001").queueType(QueueType.CAJA).positionInQueue(5).build();
+            TicketReadModel before = readModel(ticket);
+            ticket.setPositionInQueue(4);
+            TicketReadModel after = readModel(ticket);
+            AtomicInteger queries = new AtomicInteger();
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenAnswer(invocation -> {
+                if (queries.incrementAndGet() == 1) {
+                    cache.onQueueProcessed(new QueueProcessedEvent("Sucursal Centro", QueueType.CAJA));
+                    return Optional.of(before);
+                }
+                return Optional.of(after);
+            });
+
+            // When
+            Optional<TicketReadModel> result = cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(result).contains(after);
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY, "C001")).contains(after);
+            assertThat(queries).hasValue(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Consistencia")
+    class Consistency {
+
+        @Test
+        @DisplayName("lecturas concurrentes → nunca deben ver una posición anterior al último commit")
+        void findByNumero_concurrente_nuncaDebeServirPosicionVencida() throws Exception {
+            // Given: "base de datos" con la posición del ticket; cada commit la hace avanzar
+            int commits = 2_000;
+            AtomicReference<TicketReadModel> row = new AtomicReference<>(waitingAt(commits + 1));
+            AtomicInteger lastCommitted = new AtomicInteger(commits + 1);
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenAnswer(invocation -> {
+                // La consulta ve una foto tomada al inicio y tarda en volver
+                TicketReadModel snapshot = row.get();
+                Thread.yield();
+                return Optional.of(snapshot);
+            });
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+            CountDownLatch started = new CountDownLatch(4);
+            ExecutorService readers = Executors.newFixedThreadPool(4);
+
+            for (int i = 0; i < 4; i++) {
+                readers.submit(() -> {
+                    started.countDown();
+                    while (writing.get()) {
+                        // Commit ya retornado antes de empezar esta lectura
+                        int committed = lastCommitted.get();
+                        int served = cache.findByNumero(BRANCH, SERVICE_DAY, "C001").orElseThrow().positionInQueue();
+                        if (served > committed) {
+                            violations.add("served " + served + " after commit of " + committed);
+                        }
+                    }
+                });
+            }
+            started.await();
+
+            // When: cada commit actualiza la fila y luego corre el listener after-commit
+            for (int position = commits; position >= 1; position--) {
+                row.set(waitingAt(position));
+                cache.onQueueProcessed(new QueueProcessedEvent("Sucursal Centro", QueueType.CAJA));
+                lastCommitted.set(position);
+                if (position % 50 == 0) {
+                    Thread.sleep(1);
+                }
+            }
+            writing.set(false);
+            readers.shutdown();
+
+            // Then
+            assertThat(readers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(violations).isEmpty();
+            assertThat(cache.findByNumero(BRANCH, SERVICE_DAY, "C001").orElseThrow().positionInQueue()).isEqualTo(1);
+        }
+
+        private TicketReadModel waitingAt(int position) {
+            return readModel(ticketWaiting().numero("C001").queueType(QueueType.CAJA)
+                .positionInQueue(position).estimatedWaitMinutes(position * 5).build());
+        }
+    }
+
+    @Nested
+    @DisplayName("ticket archivado")
+    class Archived {
+
+        @Test
+        @DisplayName("número que ya no está en ticket → debe buscarse en ticket_history")
+        void findByNumero_archivado_debeLeerHistorico() {
+            // Given
+            TicketReadModel archived = readModel(ticketCompleted().numero("C001").build());
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenReturn(Optional.empty());
+            when(ticketHistoryRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, "C001")).thenReturn(Optional.of(archived));
+
+            // When
+            Optional<TicketReadModel> result = cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(result).contains(archived);
+        }
+
+        @Test
+        @DisplayName("referencia que ya no está en ticket → debe buscarse en ticket_history")
+        void findByReference_archivado_debeLeerHistorico() {
+            // Given
+            UUID reference = UUID.randomUUID();
+            TicketReadModel archived = readModel(ticketCompleted().codigoReferencia(reference).build());
+            when(ticketRepository.findReadModelByCodigoReferencia(reference)).thenReturn(Optional.empty());
+            when(ticketHistoryRepository.findReadModelByCodigoReferencia(reference)).thenReturn(Optional.of(archived));
+
+            // When
+            Optional<TicketReadModel> result = cache.findByReference(reference);
+
+            // Then
+            assertThat(result).contains(archived);
+        }
+
+        @Test
+        @DisplayName("ticket en la tabla caliente → no debe consultar ticket_history")
+        void findByNumero_enTicket_noDebeConsultarHistorico() {
+            // Given
+            TicketReadModel ticket = readModel(ticketWaiting().numero("C001").build());
+            when(ticketRepository.findReadModelByNumero(BRANCH, SERVICE_DAY, QueueType.CAJA, "C001")).thenReturn(Optional.of(ticket));
+
+            // When
+            Optional<TicketReadModel> result = cache.findByNumero(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(result).contains(ticket);
+            verifyNoInteractions(ticketHistoryRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("eTag()")
+    class ETag {
+
+        @Test
+        @DisplayName("debe ser débil y derivarse de id, versión y posición")
+        void eTag_debeDerivarseDeVersionYPosicion() {
+            // Given
+            Ticket ticket = ticketWaiting().id(42L).updatedAt(UPDATED_AT).build();
+
+            // When
+            String eTag = readModel(ticket).eTag(3);
+
+            // Then
+            assertThat(eTag).startsWith("W/\"42-").endsWith("-3\"");
+            assertThat(readModel(ticket).eTag(2)).isNotEqualTo(eTag);
+            ticket.setUpdatedAt(UPDATED_AT.plusNanos(1_000));
+            assertThat(readModel(ticket).eTag(3)).isNotEqualTo(eTag);
+        }
+    }
+
+    private double gets(String cacheName, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", result)
+            .functionCounter().count();
+    }
+}
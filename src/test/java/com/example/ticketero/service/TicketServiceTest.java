@@ -1,23 +1,31 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.model.QueueKey;
 import com.example.ticketero.model.dto.QueuePositionResponse;
 import com.example.ticketero.model.dto.TicketCreateRequest;
 import com.example.ticketero.model.dto.TicketResponse;
+import com.example.ticketero.model.dto.VersionedResponse;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.model.event.TicketStateChangedEvent;
 import com.example.ticketero.repository.TicketRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
@@ -35,6 +43,21 @@ class TicketServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private QueueOrderBookRegistry queueOrderBookRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TicketNumberAllocator ticketNumberAllocator;
+
+    @Mock
+    private QueueCounterService queueCounterService;
+
+    @Mock
+    private TicketReadCache ticketReadCache;
+
     @InjectMocks
     private TicketService ticketService;
 
@@ -57,9 +80,8 @@ class TicketServiceTest {
                 .estimatedWaitMinutes(5)
                 .build();
 
-            when(ticketRepository.countTicketsAheadInQueue(
-                eq(QueueType.CAJA), eq(TicketStatus.getActiveStatuses()), any()))
-                .thenReturn(0L);
+            when(queueCounterService.nextPosition(request.branchOffice(), QueueType.CAJA))
+                .thenReturn(1);
             when(ticketRepository.save(any(Ticket.class))).thenReturn(ticketGuardado);
 
             // When
@@ -74,6 +96,7 @@ class TicketServiceTest {
 
             verify(ticketRepository).save(any(Ticket.class));
             verify(notificationService).scheduleTicketCreatedNotification(any(Ticket.class));
+            verify(eventPublisher).publishEvent(any(TicketStateChangedEvent.class));
         }
 
         @Test
@@ -81,8 +104,10 @@ class TicketServiceTest {
         void create_debeGenerarNumeroConPrefijoCorrecto() {
             // Given
             TicketCreateRequest request = validTicketRequest();
-            when(ticketRepository.countTicketsAheadInQueue(any(), any(), any()))
-                .thenReturn(0L);
+            when(ticketNumberAllocator.nextNumber(eq(request.branchOffice()), eq(QueueType.CAJA), any()))
+                .thenReturn(7);
+            when(queueCounterService.nextPosition(any(), any()))
+                .thenReturn(1);
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -93,7 +118,8 @@ class TicketServiceTest {
             verify(ticketRepository).save(captor.capture());
 
             Ticket ticket = captor.getValue();
-            assertThat(ticket.getNumero()).startsWith("C");
+            assertThat(ticket.getNumero()).isEqualTo("C07");
+            assertThat(ticket.getServiceDay()).isEqualTo(LocalDate.now());
             assertThat(ticket.getQueueType()).isEqualTo(QueueType.CAJA);
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
         }
@@ -105,8 +131,8 @@ class TicketServiceTest {
             TicketCreateRequest request = new TicketCreateRequest(
                 "12345678", "+56912345678", "Sucursal Centro", QueueType.PERSONAL_BANKER
             );
-            when(ticketRepository.countTicketsAheadInQueue(any(), any(), any()))
-                .thenReturn(0L);
+            when(queueCounterService.nextPosition(any(), any()))
+                .thenReturn(1);
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -123,8 +149,8 @@ class TicketServiceTest {
         void create_sinTelefono_debeCrearTicket() {
             // Given
             TicketCreateRequest request = ticketRequestSinTelefono();
-            when(ticketRepository.countTicketsAheadInQueue(any(), any(), any()))
-                .thenReturn(0L);
+            when(queueCounterService.nextPosition(any(), any()))
+                .thenReturn(1);
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -140,8 +166,8 @@ class TicketServiceTest {
         void create_conTicketsEnCola_debeCalcularPosicion() {
             // Given
             TicketCreateRequest request = validTicketRequest();
-            when(ticketRepository.countTicketsAheadInQueue(any(), any(), any()))
-                .thenReturn(5L); // 5 tickets ahead
+            when(queueCounterService.nextPosition(any(), any()))
+                .thenReturn(6); // 5 tickets adelante
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -161,8 +187,8 @@ class TicketServiceTest {
         void create_debeGenerarUuidUnico() {
             // Given
             TicketCreateRequest request = validTicketRequest();
-            when(ticketRepository.countTicketsAheadInQueue(any(), any(), any()))
-                .thenReturn(0L);
+            when(queueCounterService.nextPosition(any(), any()))
+                .thenReturn(1);
             when(ticketRepository.save(any())).thenAnswer(invocation -> {
                 Ticket ticket = invocation.getArgument(0);
                 // Simulate @PrePersist behavior
@@ -184,6 +210,43 @@ class TicketServiceTest {
         }
     }
 
+    // ============================================================
+    // CREAR TICKETS EN BATCH
+    // ============================================================
+
+    @Nested
+    @DisplayName("createBatch()")
+    class CrearTicketsEnBatch {
+
+        @Test
+        @DisplayName("debe reservar números y posiciones antes de guardar todo junto")
+        void createBatch_debeGuardarTodosJuntos() {
+            // Given
+            TicketCreateRequest caja = validTicketRequest();
+            TicketCreateRequest personal = new TicketCreateRequest(
+                "87654321", "+56987654321", "Sucursal Centro", QueueType.PERSONAL_BANKER
+            );
+            when(ticketNumberAllocator.nextNumber(any(), eq(QueueType.CAJA), any())).thenReturn(3);
+            when(ticketNumberAllocator.nextNumber(any(), eq(QueueType.PERSONAL_BANKER), any())).thenReturn(4);
+            when(queueCounterService.nextPosition(any(), any())).thenReturn(1, 2);
+            when(ticketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            List<TicketResponse> responses = ticketService.createBatch(List.of(caja, personal));
+
+            // Then
+            assertThat(responses).extracting(TicketResponse::numero).containsExactly("C03", "P04");
+            assertThat(responses).extracting(TicketResponse::positionInQueue).containsExactly(1, 2);
+
+            InOrder inOrder = inOrder(queueCounterService, ticketRepository, notificationService);
+            inOrder.verify(queueCounterService, times(2)).nextPosition(any(), any());
+            inOrder.verify(ticketRepository).saveAll(anyList());
+            inOrder.verify(notificationService, times(2)).scheduleTicketCreatedNotification(any());
+            verify(ticketRepository, never()).save(any());
+            verify(eventPublisher, times(2)).publishEvent(any(TicketStateChangedEvent.class));
+        }
+    }
+
     // ============================================================
     // OBTENER TICKET
     // ============================================================
@@ -202,7 +265,7 @@ class TicketServiceTest {
                 .numero("C001")
                 .build();
 
-            when(ticketRepository.findByCodigoReferencia(codigo)).thenReturn(Optional.of(ticket));
+            when(ticketReadCache.findByReference(codigo)).thenReturn(Optional.of(readModel(ticket)));
 
             // When
             Optional<TicketResponse> response = ticketService.findByReference(codigo);
@@ -218,7 +281,7 @@ class TicketServiceTest {
         void findByReference_conUuidInexistente_debeRetornarEmpty() {
             // Given
             UUID codigo = UUID.randomUUID();
-            when(ticketRepository.findByCodigoReferencia(codigo)).thenReturn(Optional.empty());
+            when(ticketReadCache.findByReference(codigo)).thenReturn(Optional.empty());
 
             // When
             Optional<TicketResponse> response = ticketService.findByReference(codigo);
@@ -226,6 +289,23 @@ class TicketServiceTest {
             // Then
             assertThat(response).isEmpty();
         }
+
+        @Test
+        @DisplayName("lectura versionada → debe retornar el ETag de versión y posición")
+        void findVersionedByReference_debeRetornarETag() {
+            // Given
+            UUID codigo = UUID.randomUUID();
+            Ticket ticket = ticketWaiting().codigoReferencia(codigo).build();
+            when(ticketReadCache.findByReference(codigo)).thenReturn(Optional.of(readModel(ticket)));
+
+            // When
+            Optional<VersionedResponse<TicketResponse>> response = ticketService.findVersionedByReference(codigo);
+
+            // Then
+            assertThat(response).isPresent();
+            assertThat(response.get().eTag()).isEqualTo("W/\"1-0-1\"");
+            assertThat(response.get().body().codigoReferencia()).isEqualTo(codigo);
+        }
     }
 
     // ============================================================
@@ -236,6 +316,9 @@ class TicketServiceTest {
     @DisplayName("getPosition()")
     class GetPosition {
 
+        private static final String BRANCH = "Sucursal Centro";
+        private static final LocalDate SERVICE_DAY = LocalDate.of(2024, 1, 15);
+
         @Test
         @DisplayName("ticket EN_ESPERA → debe retornar posición waiting")
         void getPosition_ticketEnEspera_debeRetornarWaiting() {
@@ -247,10 +330,10 @@ class TicketServiceTest {
                 .estimatedWaitMinutes(15)
                 .build();
 
-            when(ticketRepository.findByNumero("C001")).thenReturn(Optional.of(ticket));
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "C001")).thenReturn(Optional.of(readModel(ticket)));
 
             // When
-            Optional<QueuePositionResponse> response = ticketService.getPosition("C001");
+            Optional<QueuePositionResponse> response = ticketService.getPosition(BRANCH, SERVICE_DAY, "C001");
 
             // Then
             assertThat(response).isPresent();
@@ -258,6 +341,30 @@ class TicketServiceTest {
             assertThat(response.get().queueType()).isEqualTo(QueueType.CAJA);
         }
 
+        @Test
+        @DisplayName("ticket EN_ESPERA con libro de orden → debe usar posición vigente")
+        void getPosition_ticketEnEsperaConLibro_debeUsarPosicionVigente() {
+            // Given
+            Ticket ticket = ticketWaiting()
+                .numero("C001")
+                .status(TicketStatus.EN_ESPERA)
+                .positionInQueue(9)
+                .estimatedWaitMinutes(45)
+                .build();
+
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "C001")).thenReturn(Optional.of(readModel(ticket)));
+            when(queueOrderBookRegistry.positionOf(new QueueKey("Sucursal Centro", QueueType.CAJA), 1L))
+                .thenReturn(OptionalInt.of(4));
+
+            // When
+            Optional<QueuePositionResponse> response = ticketService.getPosition(BRANCH, SERVICE_DAY, "C001");
+
+            // Then
+            assertThat(response).isPresent();
+            assertThat(response.get().positionInQueue()).isEqualTo(4);
+            assertThat(response.get().estimatedWaitMinutes()).isEqualTo(20); // 4 * 5min
+        }
+
         @Test
         @DisplayName("ticket ATENDIENDO → debe retornar attending")
         void getPosition_ticketAtendiendo_debeRetornarAttending() {
@@ -268,24 +375,47 @@ class TicketServiceTest {
                 .assignedModuleNumber(5)
                 .build();
 
-            when(ticketRepository.findByNumero("C002")).thenReturn(Optional.of(ticket));
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "C002")).thenReturn(Optional.of(readModel(ticket)));
 
             // When
-            Optional<QueuePositionResponse> response = ticketService.getPosition("C002");
+            Optional<QueuePositionResponse> response = ticketService.getPosition(BRANCH, SERVICE_DAY, "C002");
 
             // Then
             assertThat(response).isPresent();
             assertThat(response.get().numero()).isEqualTo("C002");
         }
 
+        @Test
+        @DisplayName("por código de referencia → debe retornar la posición con su ETag")
+        void getVersionedPositionByReference_debeRetornarPosicion() {
+            // Given
+            UUID reference = UUID.randomUUID();
+            Ticket ticket = ticketWaiting()
+                .codigoReferencia(reference)
+                .numero("C001")
+                .positionInQueue(3)
+                .estimatedWaitMinutes(15)
+                .build();
+
+            when(ticketReadCache.findByReference(reference)).thenReturn(Optional.of(readModel(ticket)));
+
+            // When
+            Optional<VersionedResponse<QueuePositionResponse>> response = ticketService.getVersionedPositionByReference(reference);
+
+            // Then
+            assertThat(response).isPresent();
+            assertThat(response.get().body().positionInQueue()).isEqualTo(3);
+            assertThat(response.get().eTag()).isEqualTo(readModel(ticket).eTag(3));
+        }
+
         @Test
         @DisplayName("número inexistente → debe retornar Optional.empty()")
         void getPosition_numeroInexistente_debeRetornarEmpty() {
             // Given
-            when(ticketRepository.findByNumero("X999")).thenReturn(Optional.empty());
+            when(ticketReadCache.findByNumero(BRANCH, SERVICE_DAY, "X999")).thenReturn(Optional.empty());
 
             // When
-            Optional<QueuePositionResponse> response = ticketService.getPosition("X999");
+            Optional<QueuePositionResponse> response = ticketService.getPosition(BRANCH, SERVICE_DAY, "X999");
 
             // Then
             assertThat(response).isEmpty();
@@ -0,0 +1,99 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.QueueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("WeightedFairQueueDispatcher - Unit Tests")
+class WeightedFairQueueDispatcherTest {
+
+    private final WeightedFairQueueDispatcher dispatcher = new WeightedFairQueueDispatcher();
+
+    @Nested
+    @DisplayName("select()")
+    class Select {
+
+        @Test
+        @DisplayName("todas las colas esperando → el tiempo de asesor debe repartirse según la prioridad")
+        void select_saturado_debeRepartirSegunPeso() {
+            // Given
+            Set<QueueType> backlogged = EnumSet.allOf(QueueType.class);
+            Map<QueueType, Double> minutes = new EnumMap<>(QueueType.class);
+
+            // When: 10.000 cupos, cada ticket cuesta su tiempo promedio
+            for (int slot = 0; slot < 10_000; slot++) {
+                QueueType queueType = serve(backlogged);
+                minutes.merge(queueType, (double) queueType.getAvgTimeMinutes(), Double::sum);
+            }
+
+            // Then: minutos de asesor / peso iguales entre colas (±1%)
+            double cajaShare = minutes.get(QueueType.CAJA) / QueueType.CAJA.getPriority();
+            for (QueueType queueType : QueueType.values()) {
+                assertThat(minutes.get(queueType) / queueType.getPriority())
+                    .isCloseTo(cajaShare, withinPercentage(1));
+            }
+        }
+
+        @Test
+        @DisplayName("asesores saturados → GERENCIA no debe esperar detrás de toda la cola de CAJA")
+        void select_saturado_gerenciaNoDebeQuedarSinCupo() {
+            // Given
+            Set<QueueType> backlogged = EnumSet.of(QueueType.CAJA, QueueType.GERENCIA);
+            Map<QueueType, Integer> slots = new EnumMap<>(QueueType.class);
+
+            // When
+            for (int slot = 0; slot < 5; slot++) {
+                slots.merge(serve(backlogged), 1, Integer::sum);
+            }
+
+            // Then
+            assertThat(slots.get(QueueType.GERENCIA)).isPositive();
+            assertThat(slots.get(QueueType.CAJA)).isPositive();
+        }
+
+        @Test
+        @DisplayName("empate de inicio virtual → debe ganar la prioridad más alta")
+        void select_empate_debeGanarMayorPrioridad() {
+            // When
+            QueueType selected = dispatcher.select(EnumSet.of(QueueType.CAJA, QueueType.EMPRESAS));
+
+            // Then
+            assertThat(selected).isEqualTo(QueueType.EMPRESAS);
+        }
+
+        @Test
+        @DisplayName("cola que estuvo vacía → no debe acumular crédito")
+        void select_colaInactiva_noDebeAcumularCredito() {
+            // Given: CAJA atendida sola durante mucho tiempo
+            for (int slot = 0; slot < 100; slot++) {
+                serve(EnumSet.of(QueueType.CAJA));
+            }
+
+            // When: GERENCIA vuelve a tener tickets
+            Set<QueueType> backlogged = EnumSet.of(QueueType.CAJA, QueueType.GERENCIA);
+            int gerencia = 0;
+            for (int slot = 0; slot < 10; slot++) {
+                if (serve(backlogged) == QueueType.GERENCIA) {
+                    gerencia++;
+                }
+            }
+
+            // Then: comparte los cupos en lugar de llevarse los 10
+            assertThat(gerencia).isBetween(1, 6);
+        }
+    }
+
+    private QueueType serve(Set<QueueType> backlogged) {
+        QueueType queueType = dispatcher.select(backlogged);
+        dispatcher.charge(queueType, queueType.getAvgTimeMinutes());
+        return queueType;
+    }
+}
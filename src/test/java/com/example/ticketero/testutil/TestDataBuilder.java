@@ -1,9 +1,11 @@
 package com.example.ticketero.testutil;
 
+import com.example.ticketero.model.TicketReadModel;
 import com.example.ticketero.model.dto.TicketCreateRequest;
 import com.example.ticketero.model.entity.*;
 import com.example.ticketero.model.enums.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -28,6 +30,7 @@ public class TestDataBuilder {
             .status(TicketStatus.EN_ESPERA)
             .positionInQueue(1)
             .estimatedWaitMinutes(5)
+            .serviceDay(LocalDate.now())
             .createdAt(LocalDateTime.now());
     }
     
@@ -43,6 +46,28 @@ public class TestDataBuilder {
             .createdAt(LocalDateTime.now().minusMinutes(5));
     }
 
+    /**
+     * Modelo de lectura con los datos del ticket, como lo devuelve la proyección del repositorio
+     */
+    public static TicketReadModel readModel(Ticket ticket) {
+        return new TicketReadModel(
+            ticket.getId(),
+            ticket.getCodigoReferencia(),
+            ticket.getNumero(),
+            ticket.getNationalId(),
+            ticket.getTelefono(),
+            ticket.getBranchOffice(),
+            ticket.getQueueType(),
+            ticket.getStatus(),
+            ticket.getPositionInQueue(),
+            ticket.getEstimatedWaitMinutes(),
+            ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getName() : null,
+            ticket.getAssignedModuleNumber(),
+            ticket.getCreatedAt(),
+            ticket.getUpdatedAt()
+        );
+    }
+
     // ============================================================
     // ADVISORS
     // ============================================================
@@ -122,6 +147,7 @@ public class TestDataBuilder {
             .fechaProgramada(LocalDateTime.now().plusMinutes(1))
             .estadoEnvio(Mensaje.EstadoEnvio.PENDIENTE)
             .intentos(0)
+            .serviceDay(LocalDate.now())
             .createdAt(LocalDateTime.now());
     }
 }
\ No newline at end of file